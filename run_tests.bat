@@ -15,7 +15,7 @@ for /f %%i in ('java -cp bin tests/ModifierChecker') do set isStatic=%%i
 
 @rem Compile functional tests (these won't compile without code)
 @echo "Compiling functional tests..."
-@for %%i in (MazeTest, RouteFinderTest, TileTest) do (
+@for %%i in (MazeTest, RouteFinderTest, TileTest, MazeLoaderTest, MazeFormatTest, SharedTilesTest, MazeValidationTest, MazeEditingTest, MazeFingerprintTest, PrimitiveCoordinateTest, ConnectivityTest, MultipleEndpointsTest, JunctionGraphTest, DeadEndFillingTest, DistanceFieldTest, AStarSearchTest, JumpPointSearchTest, BidirectionalSearchTest, ParallelBreadthFirstSearchTest, WeightedTerrainTest, RoutingStrategyTest) do (
     javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/%%i.java
 	)
 
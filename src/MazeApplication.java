@@ -78,23 +78,39 @@ public class MazeApplication extends Application{
 				FileChooser loadMapFileChooser = new FileChooser();
 				loadMapFileChooser.setTitle("Open Maze Txt File");
 
-				loadMapFileChooser.getExtensionFilters().addAll(new ExtensionFilter("Text Files", "*.txt"));
+				loadMapFileChooser.getExtensionFilters().addAll(
+					new ExtensionFilter("Text Files", "*.txt"),
+					new ExtensionFilter("Binary Maze Files", "*.mzb"),
+					new ExtensionFilter("Compressed Maze Files", "*.mzc")
+				);
 				File newSelectedFile = loadMapFileChooser.showOpenDialog(stage);
 			 	if (newSelectedFile != null) {
 		 			
-					maze = Maze.fromTxt(newSelectedFile.getAbsolutePath());
+					if (newSelectedFile.getName().endsWith(".mzb")){
+						maze = Maze.fromMzb(newSelectedFile.getAbsolutePath());
+					}
+					else if (newSelectedFile.getName().endsWith(".mzc")){
+						maze = Maze.fromMzc(newSelectedFile.getAbsolutePath());
+					}
+					else{
+						maze = Maze.fromTxt(newSelectedFile.getAbsolutePath());
+					}
 
 					if (maze == null){
 						throw new InvalidMazeException("Could not load maze!");
 					}
 
+					// the cells are drawn by index, so no Tile is needed per cell
+					maze.setSharedTiles(true);
 					routeFinder = new RouteFinder(maze);
+					// every step is a lookup in the distances to the exit
+					routeFinder.setGuided(true);
 					
 					mazePane.getChildren().clear();
 					updateMazeRepresentation(routeFinder, maze, mazePane);
 					
-					windowDimensions[0] = SQUARE_SIZE*maze.getTiles().size() + 250;
-					windowDimensions[1] = SQUARE_SIZE*maze.getTiles().get(0).size();
+					windowDimensions[0] = SQUARE_SIZE*maze.getHeight() + 250;
+					windowDimensions[1] = SQUARE_SIZE*maze.getWidth();
 					
 					stage.setWidth(windowDimensions[1]);
 					stage.setHeight(windowDimensions[0]);
@@ -153,8 +169,8 @@ public class MazeApplication extends Application{
 			            mazePane.getChildren().clear();
 						updateMazeRepresentation(routeFinder, maze, mazePane);
 
-			            windowDimensions[0] = SQUARE_SIZE*maze.getTiles().size() + 250;
-						windowDimensions[1] = SQUARE_SIZE*maze.getTiles().get(0).size();
+			            windowDimensions[0] = SQUARE_SIZE*maze.getHeight() + 250;
+						windowDimensions[1] = SQUARE_SIZE*maze.getWidth();
 
 						stage.setWidth(windowDimensions[1]);
 						stage.setHeight(windowDimensions[0]);
@@ -217,7 +233,7 @@ public class MazeApplication extends Application{
 							String successText = new String();
 
 							// displaying text differently regarding the size of the maze
-							if (maze.getTiles().get(0).size() < 8){
+							if (maze.getWidth() < 8){
 								successText = "Congratulations for\ncompleting this\n Maze! Now you can\nselect another\nchallenging maze to\nsolve!";
 								stage.setHeight(windowDimensions[0] + 140);
 								stage.setMinHeight(windowDimensions[0] + 140);
@@ -311,35 +327,46 @@ public class MazeApplication extends Application{
 	}
 
 	private void updateMazeRepresentation(RouteFinder routeFinder, Maze maze, GridPane mazePane){
-		List<Tile> currentRoute = routeFinder.getRoute();
-		List<Tile> removedTiles = routeFinder.getRemovedTiles();
-
-		int length = maze.getTiles().get(0).size();
-		int width = maze.getTiles().size();
+		int length = maze.getWidth();
+		int width = maze.getHeight();
 
 		for (int i = 0; i < width; i++) {
 			for (int j = 0; j < length; j++) {
-				boolean isInRoute = currentRoute.contains(maze.getTiles().get(i).get(j));
-				boolean isRemoved = removedTiles.contains(maze.getTiles().get(i).get(j));
+				int index = i * length + j;
+				Type type = maze.getTileType(index);
+				boolean isInRoute = routeFinder.isOnRoute(index);
+				boolean isRemoved = routeFinder.isRemoved(index);
 
-				if (maze.getTiles().get(i).get(j).getType() == Type.WALL){
+				if (type == Type.WALL){
 					Square wall = new Square(SQUARE_SIZE, Color.BLUE);
 					mazePane.add(wall.getSquare(), j, i);
 				}
-				else if (maze.getTiles().get(i).get(j).getType() == Type.EXIT && !isInRoute){
+				else if (type == Type.EXIT && !isInRoute){
 					Square corridor = new Square(SQUARE_SIZE, Color.GRAY);
 					mazePane.add(corridor.getSquare(), j, i);
 
 					TextLabel exit = new TextLabel(Color.BLACK, 20, "X", TextAlignment.CENTER);
 					mazePane.add(exit.getTextLabel(), j, i);
 				}
-				else if (maze.getTiles().get(i).get(j).getType() == Type.ENTRANCE && !isInRoute){
+				else if (type == Type.ENTRANCE && !isInRoute){
 					Square corridor = new Square(SQUARE_SIZE, Color.GRAY);
 					mazePane.add(corridor.getSquare(), j, i);
 
 					TextLabel entrance = new TextLabel(Color.RED, 20, "e", TextAlignment.CENTER);
 					mazePane.add(entrance.getTextLabel(), j, i);
 				}
+				else if (type == Type.STAIRS){
+					Square stairs = new Square(SQUARE_SIZE, Color.LIGHTGRAY);
+					mazePane.add(stairs.getSquare(), j, i);
+				}
+				else if (type == Type.MUD){
+					Square mud = new Square(SQUARE_SIZE, Color.SADDLEBROWN);
+					mazePane.add(mud.getSquare(), j, i);
+				}
+				else if (type == Type.WATER){
+					Square water = new Square(SQUARE_SIZE, Color.DEEPSKYBLUE);
+					mazePane.add(water.getSquare(), j, i);
+				}
 				else{
 					Square corridor = new Square(SQUARE_SIZE, Color.GRAY);
 					mazePane.add(corridor.getSquare(), j, i);
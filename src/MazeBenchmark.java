@@ -0,0 +1,223 @@
+import maze.Maze;
+import maze.routing.MultiSourceSearch;
+import maze.routing.NoRouteFoundException;
+import maze.routing.ParallelBreadthFirstSearch;
+import maze.routing.RoutingStrategy;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+* MazeBenchmark is the class which times every RoutingStrategy of the 
+* maze.routing package, and the searches which solve a maze in one call,
+* on the labyrinths of resources/mazes, on generated labyrinths and on open
+* room maps with and without weighted terrain, and prints the time and the
+* length of every route. The parallel breadth-first search is run with pools
+* of 1, 2, 4 and so on up to the number of processors, and its throughput in
+* visited cells per second is printed for every pool.
+*/
+public class MazeBenchmark {
+	private static final int ROUNDS = 3;
+	// the smallest side of a labyrinth with more than one room, so that its
+	// entrance and exit are apart, and of a room map whose walls are apart
+	private static final int MIN_SIDE = 5;
+
+	/**
+	* main is the method which runs the benchmark.
+	* @param args optionally the side of the generated mazes, 1001 by default
+	* and at least 5, and the directory of the maze text files, resources/mazes
+	* by default.
+	*/
+	public static void main(String args[]) {
+		int side = args.length > 0 ? Integer.parseInt(args[0]) : 1001;
+		String directory = args.length > 1 ? args[1] : Paths.get("resources", "mazes").toString();
+		if (side < MIN_SIDE) {
+			System.err.println("usage: java MazeBenchmark [side of at least " + MIN_SIDE + "] [maze directory]");
+			System.exit(1);
+		}
+
+		run("maze1.txt", Maze.fromTxt(Paths.get(directory, "maze1.txt").toString()));
+		run("maze2.txt", Maze.fromTxt(Paths.get(directory, "maze2.txt").toString()));
+		run("labyrinth " + side, Maze.fromBytes(labyrinth(side, new Random(21))));
+		run("room " + side, Maze.fromBytes(room(side)));
+		run("terrain " + side, Maze.fromBytes(terrain(side, new Random(24))));
+	}
+
+	private static void run(String name, Maze maze) {
+		if (maze == null) {
+			System.out.println(name + ": could not be loaded");
+			return;
+		}
+
+		System.out.println(name + " (" + maze.getWidth() + "x" + maze.getHeight() + ")");
+		for (int round = 0; round < ROUNDS; round++) {
+			boolean last = round == ROUNDS - 1;
+
+			time("  multi-source", last, () -> 
+				MultiSourceSearch.findShortestRoute(maze).size() + " tiles");
+			for (String strategy : RoutingStrategy.getNames()) {
+				time("  " + strategy, last, () -> {
+					RoutingStrategy search = RoutingStrategy.forName(strategy, maze);
+					try {
+						return search.solve().size() + " tiles, " + search.getVisitedCount() + " visited";
+					}
+					finally {
+						// the maze is solved again in every round and would keep every search
+						search.close();
+					}
+				});
+			}
+
+			for (int threads : threadCounts()) {
+				ForkJoinPool pool = new ForkJoinPool(threads);
+				time("  parallel, " + threads + " threads", last, () -> {
+					ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(maze, pool);
+					long start = System.nanoTime();
+					int tiles = search.solve().size();
+					double seconds = (System.nanoTime() - start) / 1e9;
+					return tiles + " tiles, " + Math.round(search.getVisitedCount() / seconds / 1e6) + "M cells/s";
+				});
+				pool.shutdown();
+			}
+		}
+	}
+
+	// powers of two below the number of processors, and that number itself
+	private static int[] threadCounts() {
+		int processors = Runtime.getRuntime().availableProcessors();
+		int[] threads = new int[32];
+		int count = 0;
+
+		for (int t = 1; t < processors; t *= 2) {
+			threads[count++] = t;
+		}
+		threads[count++] = processors;
+		return Arrays.copyOf(threads, count);
+	}
+
+	private interface Solver {
+		String solve();
+	}
+
+	// only the last round is printed, the earlier ones warm up the compiler
+	private static void time(String name, boolean print, Solver solver) {
+		long start = System.nanoTime();
+		String result;
+		try {
+			result = solver.solve();
+		}
+		catch (NoRouteFoundException e) {
+			result = "no route";
+		}
+		long micros = (System.nanoTime() - start) / 1000;
+
+		if (print) {
+			System.out.printf("%-22s %10d us   %s%n", name, micros, result);
+		}
+	}
+
+	// a perfect labyrinth of corridors one cell wide, carved by a depth-first
+	// walk over a grid of rooms, with the entrance and exit in opposite corners
+	private static byte[] labyrinth(int side, Random random) {
+		int rooms = (side - 1) / 2;
+		side = rooms * 2 + 1;
+		byte[] text = grid(side, '#');
+		int[] stack = new int[rooms * rooms];
+		boolean[] carved = new boolean[rooms * rooms];
+		int[][] moves = {{0, -1}, {0, 1}, {1, 0}, {-1, 0}};
+		int size = 0;
+
+		stack[size++] = 0;
+		carved[0] = true;
+		text[cell(side, 1, 1)] = '.';
+
+		while (size > 0) {
+			int room = stack[size - 1];
+			int x = room % rooms;
+			int y = room / rooms;
+			int[] options = new int[4];
+			int count = 0;
+
+			for (int m = 0; m < moves.length; m++) {
+				int nx = x + moves[m][0];
+				int ny = y + moves[m][1];
+				if (nx >= 0 && ny >= 0 && nx < rooms && ny < rooms && !carved[ny * rooms + nx]) {
+					options[count++] = m;
+				}
+			}
+
+			if (count == 0) {
+				size--;
+				continue;
+			}
+
+			int[] move = moves[options[random.nextInt(count)]];
+			int next = (y + move[1]) * rooms + x + move[0];
+			carved[next] = true;
+			text[cell(side, 2 * x + 1 + move[0], 2 * y + 1 + move[1])] = '.';
+			text[cell(side, 2 * (x + move[0]) + 1, 2 * (y + move[1]) + 1)] = '.';
+			stack[size++] = next;
+		}
+
+		text[cell(side, 1, 1)] = 'e';
+		text[cell(side, side - 2, side - 2)] = 'x';
+		return text;
+	}
+
+	// an open floor split by walls with a gap at alternating ends
+	private static byte[] room(int side) {
+		byte[] text = grid(side, '.');
+
+		for (int y = side / 4; y < side; y += side / 4) {
+			boolean gapOnTheRight = (y / (side / 4)) % 2 == 1;
+			for (int x = 0; x < side; x++) {
+				if (gapOnTheRight ? x < side - side / 10 : x >= side / 10) {
+					text[cell(side, x, y)] = '#';
+				}
+			}
+		}
+
+		text[cell(side, 0, 0)] = 'e';
+		text[cell(side, side - 1, side - 1)] = 'x';
+		return text;
+	}
+
+	// the room with patches of stairs, mud and water scattered over its floor
+	private static byte[] terrain(int side, Random random) {
+		byte[] text = room(side);
+		byte[] symbols = {'s', 'm', 'w'};
+
+		for (int patch = 0; patch < side * side / 100; patch++) {
+			byte symbol = symbols[random.nextInt(symbols.length)];
+			int x0 = random.nextInt(side);
+			int y0 = random.nextInt(side);
+			int radius = 1 + random.nextInt(Math.max(side / 50, 1));
+
+			for (int y = Math.max(y0 - radius, 0); y <= Math.min(y0 + radius, side - 1); y++) {
+				for (int x = Math.max(x0 - radius, 0); x <= Math.min(x0 + radius, side - 1); x++) {
+					if (text[cell(side, x, y)] == '.') {
+						text[cell(side, x, y)] = symbol;
+					}
+				}
+			}
+		}
+		return text;
+	}
+
+	private static byte[] grid(int side, char symbol) {
+		byte[] text = new byte[side * (side + 1)];
+		for (int y = 0; y < side; y++) {
+			for (int x = 0; x < side; x++) {
+				text[cell(side, x, y)] = (byte)symbol;
+			}
+			text[y * (side + 1) + side] = '\n';
+		}
+		return text;
+	}
+
+	private static int cell(int side, int x, int y) {
+		return y * (side + 1) + x;
+	}
+}
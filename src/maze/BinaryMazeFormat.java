@@ -0,0 +1,283 @@
+package maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+* BinaryMazeFormat is the class which reads and writes the compact binary maze
+* format (.mzb). A file starts with a header of HEADER_SIZE bytes:
+* <pre>
+* int   magic number "MZBF"
+* short version of the format
+* short bits per cell
+* int   width
+* int   height
+* int   index of the entrance cell
+* int   index of the exit cell
+* long  CRC32 checksum of the cells
+* </pre>
+* which is followed by the type codes of all cells in row-major order, packed
+* into bytes starting from the lowest bits. Version 1 packs two bits per cell,
+* enough for the four plain types, and is still written for mazes without
+* weighted terrain. Version 2 packs four bits per cell for every type.
+*/
+class BinaryMazeFormat {
+	static final int MAGIC = 0x4D5A4246;
+	static final short VERSION = 1;
+	static final short WEIGHTED_VERSION = 2;
+	static final int HEADER_SIZE = 32;
+
+	private static final int BITS_PER_CELL = 2;
+	private static final int CELLS_PER_BYTE = 8 / BITS_PER_CELL;
+	private static final int CELL_BITS = (1 << BITS_PER_CELL) - 1;
+	private static final int WEIGHTED_BITS_PER_CELL = 4;
+	private static final int TYPE_BITS = 0x0F;
+	private static final int TYPE_COUNT = Tile.Type.values().length;
+
+	private static final byte ENTRANCE = (byte)Tile.Type.ENTRANCE.ordinal();
+	private static final byte EXIT = (byte)Tile.Type.EXIT.ordinal();
+
+	// the type codes packed into every possible byte, and how many entrances
+	// and exits it holds, so a byte is unpacked and checked with lookups only
+	private static final byte[] UNPACKED = new byte[256 * CELLS_PER_BYTE];
+	private static final byte[] ENTRANCES = new byte[256];
+	private static final byte[] EXITS = new byte[256];
+
+	static {
+		for (int packed = 0; packed < 256; packed++){
+			for (int i = 0; i < CELLS_PER_BYTE; i++){
+				byte code = (byte)((packed >> (i * BITS_PER_CELL)) & CELL_BITS);
+				UNPACKED[packed * CELLS_PER_BYTE + i] = code;
+				ENTRANCES[packed] += code == ENTRANCE ? 1 : 0;
+				EXITS[packed] += code == EXIT ? 1 : 0;
+			}
+		}
+	}
+
+	private int width;
+	private int height;
+	private int entranceIndex;
+	private int exitIndex;
+	private byte[] cells;
+
+	private BinaryMazeFormat(){
+	}
+
+	/**
+	* write is the method which writes a maze to the channel. Only the type bits
+	* of the cells are written, two per cell unless the maze holds a type which
+	* needs the four bits of version 2.
+	*
+	* @param channel to write the file to.
+	* @param width the number of columns.
+	* @param height the number of rows.
+	* @param cells the cells in row-major order.
+	* @param entranceIndex index of the entrance cell.
+	* @param exitIndex index of the exit cell.
+	*/
+	static void write(FileChannel channel, int width, int height, byte[] cells, int entranceIndex, int exitIndex) throws IOException{
+		boolean weighted = false;
+		for (int i = 0; i < cells.length && !weighted; i++){
+			weighted = (cells[i] & TYPE_BITS) > CELL_BITS;
+		}
+
+		int bits = weighted ? WEIGHTED_BITS_PER_CELL : BITS_PER_CELL;
+		int cellsPerByte = 8 / bits;
+		byte[] payload = new byte[payloadSize(cells.length, bits)];
+
+		for (int i = 0; i < cells.length; i++){
+			payload[i / cellsPerByte] |= (cells[i] & TYPE_BITS) << ((i % cellsPerByte) * bits);
+		}
+
+		CRC32 checksum = new CRC32();
+		checksum.update(payload);
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC);
+		header.putShort(weighted ? WEIGHTED_VERSION : VERSION);
+		header.putShort((short)bits);
+		header.putInt(width);
+		header.putInt(height);
+		header.putInt(entranceIndex);
+		header.putInt(exitIndex);
+		header.putLong(checksum.getValue());
+		header.flip();
+
+		writeFully(channel, header);
+		writeFully(channel, ByteBuffer.wrap(payload));
+	}
+
+	/**
+	* read is the method which reads and checks a whole file, the cells are read
+	* with a single bulk read and then unpacked.
+	*
+	* @param channel to read the file from.
+	* @return the decoded file.
+	*
+	* @throws InvalidMazeException if the file is not a valid maze file.
+	* @throws MultipleEntranceException if the cells hold more than one entrance.
+	* @throws MultipleExitException if the cells hold more than one exit.
+	*/
+	static BinaryMazeFormat read(FileChannel channel) throws IOException{
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		readFully(channel, header, 0);
+		header.flip();
+
+		if (header.getInt() != MAGIC){
+			throw new InvalidMazeException("That is not a binary maze file!");
+		}
+		short version = header.getShort();
+		short bits = header.getShort();
+		if (!(version == VERSION && bits == BITS_PER_CELL) 
+			&& !(version == WEIGHTED_VERSION && bits == WEIGHTED_BITS_PER_CELL)){
+			throw new InvalidMazeException("That binary maze version is not supported!");
+		}
+
+		BinaryMazeFormat file = new BinaryMazeFormat();
+		file.width = header.getInt();
+		file.height = header.getInt();
+		file.entranceIndex = header.getInt();
+		file.exitIndex = header.getInt();
+		long expectedChecksum = header.getLong();
+
+		long size = (long)file.width * file.height;
+		if (file.width <= 0 || file.height <= 0 || size > GridScanner.MAX_CELLS){
+			throw new InvalidMazeException("That binary maze has invalid dimensions!");
+		}
+		if (channel.size() != HEADER_SIZE + payloadSize((int)size, bits)){
+			throw new InvalidMazeException("That binary maze file is truncated!");
+		}
+
+		byte[] payload = new byte[payloadSize((int)size, bits)];
+		readFully(channel, ByteBuffer.wrap(payload), HEADER_SIZE);
+
+		CRC32 checksum = new CRC32();
+		checksum.update(payload);
+		if (checksum.getValue() != expectedChecksum){
+			throw new InvalidMazeException("That binary maze file is corrupted!");
+		}
+
+		if (bits == BITS_PER_CELL){
+			file.unpack(payload, (int)size);
+		}
+		else{
+			file.unpackWeighted(payload, (int)size);
+		}
+		file.checkEndpoints();
+		return file;
+	}
+
+	private void unpack(byte[] payload, int size){
+		this.cells = new byte[size];
+		long entrances = 0;
+		long exits = 0;
+		int full = size / CELLS_PER_BYTE;
+
+		for (int i = 0; i < full; i++){
+			int packed = payload[i] & 0xFF;
+			int from = packed * CELLS_PER_BYTE;
+			int to = i * CELLS_PER_BYTE;
+
+			this.cells[to] = UNPACKED[from];
+			this.cells[to + 1] = UNPACKED[from + 1];
+			this.cells[to + 2] = UNPACKED[from + 2];
+			this.cells[to + 3] = UNPACKED[from + 3];
+			entrances += ENTRANCES[packed];
+			exits += EXITS[packed];
+		}
+
+		for (int i = full * CELLS_PER_BYTE; i < size; i++){
+			byte code = UNPACKED[(payload[full] & 0xFF) * CELLS_PER_BYTE + i - full * CELLS_PER_BYTE];
+			this.cells[i] = code;
+			entrances += code == ENTRANCE ? 1 : 0;
+			exits += code == EXIT ? 1 : 0;
+		}
+
+		this.checkCounts(entrances, exits);
+	}
+
+	// unpacks four bits per cell, where codes past the last type are invalid
+	private void unpackWeighted(byte[] payload, int size){
+		this.cells = new byte[size];
+		long entrances = 0;
+		long exits = 0;
+
+		for (int i = 0; i < size; i++){
+			byte code = (byte)((payload[i >> 1] >> ((i & 1) * WEIGHTED_BITS_PER_CELL)) & TYPE_BITS);
+
+			if (code >= TYPE_COUNT){
+				throw new InvalidMazeException("That binary maze file holds an invalid cell!");
+			}
+			this.cells[i] = code;
+			entrances += code == ENTRANCE ? 1 : 0;
+			exits += code == EXIT ? 1 : 0;
+		}
+
+		this.checkCounts(entrances, exits);
+	}
+
+	private void checkCounts(long entrances, long exits){
+		if (entrances > 1){
+			throw new MultipleEntranceException();
+		}
+		if (exits > 1){
+			throw new MultipleExitException();
+		}
+	}
+
+	private void checkEndpoints(){
+		if (!this.isAt(this.entranceIndex, ENTRANCE)){
+			throw new NoEntranceException();
+		}
+		if (!this.isAt(this.exitIndex, EXIT)){
+			throw new NoExitException();
+		}
+	}
+
+	private boolean isAt(int index, byte code){
+		return index >= 0 && index < this.cells.length && this.cells[index] == code;
+	}
+
+	private static int payloadSize(int cells, int bits){
+		int cellsPerByte = 8 / bits;
+		return (cells + cellsPerByte - 1) / cellsPerByte;
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException{
+		while (buffer.hasRemaining()){
+			channel.write(buffer);
+		}
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException{
+		while (buffer.hasRemaining()){
+			int read = channel.read(buffer, position);
+			if (read < 0){
+				throw new InvalidMazeException("That binary maze file is truncated!");
+			}
+			position += read;
+		}
+	}
+
+	int getWidth(){
+		return this.width;
+	}
+
+	int getHeight(){
+		return this.height;
+	}
+
+	int getEntranceIndex(){
+		return this.entranceIndex;
+	}
+
+	int getExitIndex(){
+		return this.exitIndex;
+	}
+
+	byte[] getCells(){
+		return this.cells;
+	}
+}
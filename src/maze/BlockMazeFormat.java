@@ -0,0 +1,368 @@
+package maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+* BlockMazeFormat is the class which reads and writes the block-compressed maze
+* format (.mzc). The grid is cut into square blocks of BLOCK_SIZE cells a side
+* (the blocks at the right and bottom edge can be smaller), every block is
+* deflated on its own and an index of the block positions lets a reader decode
+* only the blocks it needs. A file starts with a header of HEADER_SIZE bytes:
+* <pre>
+* int   magic number "MZBC"
+* short version of the format
+* short size of a block side
+* int   width
+* int   height
+* int   index of the entrance cell
+* int   index of the exit cell
+* </pre>
+* which is followed by the index, one long file position per block in row-major
+* block order plus the end of the last block, and then by the blocks. Every
+* block holds the type codes of its cells in row-major order and is checked by
+* the checksum of its zlib stream.
+*/
+class BlockMazeFormat {
+	static final int MAGIC = 0x4D5A4243;
+	static final short VERSION = 1;
+	static final int HEADER_SIZE = 24;
+	static final int BLOCK_SIZE = 64;
+	private static final int MAX_BLOCK_SIZE = 1 << 12;
+
+	private static final int TYPE_BITS = 0x0F;
+	private static final int TYPE_COUNT = Tile.Type.values().length;
+	private static final byte ENTRANCE = (byte)Tile.Type.ENTRANCE.ordinal();
+	private static final byte EXIT = (byte)Tile.Type.EXIT.ordinal();
+
+	private FileChannel channel;
+	private int blockSize;
+	private int width;
+	private int height;
+	private int entranceIndex;
+	private int exitIndex;
+	private int blocksAcross;
+	private int blocksDown;
+	private long[] blockPositions;
+
+	private byte[] compressed;
+	private byte[] block;
+
+	private BlockMazeFormat(FileChannel channel){
+		this.channel = channel;
+	}
+
+	/**
+	* write is the method which writes a maze to the channel. Only the type bits
+	* of the cells are written.
+	*
+	* @param channel to write the file to.
+	* @param width the number of columns.
+	* @param height the number of rows.
+	* @param cells the cells in row-major order.
+	* @param entranceIndex index of the entrance cell.
+	* @param exitIndex index of the exit cell.
+	*/
+	static void write(FileChannel channel, int width, int height, byte[] cells, int entranceIndex, int exitIndex) throws IOException{
+		int blocksAcross = (width + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		int blocksDown = (height + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		long[] blockPositions = new long[blocksAcross * blocksDown + 1];
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC);
+		header.putShort(VERSION);
+		header.putShort((short)BLOCK_SIZE);
+		header.putInt(width);
+		header.putInt(height);
+		header.putInt(entranceIndex);
+		header.putInt(exitIndex);
+		header.flip();
+		writeFully(channel, header, 0);
+
+		long position = HEADER_SIZE + (long)blockPositions.length * Long.BYTES;
+		byte[] block = new byte[BLOCK_SIZE * BLOCK_SIZE];
+		byte[] compressed = new byte[block.length];
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+		try{
+			for (int blockRow = 0; blockRow < blocksDown; blockRow++){
+				for (int blockColumn = 0; blockColumn < blocksAcross; blockColumn++){
+					int length = copyBlock(cells, width, height, blockRow, blockColumn, block);
+
+					deflater.reset();
+					deflater.setInput(block, 0, length);
+					deflater.finish();
+
+					blockPositions[blockRow * blocksAcross + blockColumn] = position;
+					while (!deflater.finished()){
+						int compressedLength = deflater.deflate(compressed);
+						position += writeFully(channel, ByteBuffer.wrap(compressed, 0, compressedLength), position);
+					}
+				}
+			}
+		}
+		finally{
+			deflater.end();
+		}
+		blockPositions[blockPositions.length - 1] = position;
+
+		ByteBuffer index = ByteBuffer.allocate(blockPositions.length * Long.BYTES);
+		index.asLongBuffer().put(blockPositions);
+		writeFully(channel, index, HEADER_SIZE);
+	}
+
+	// copies the type codes of one block out of the grid and returns their number
+	private static int copyBlock(byte[] cells, int width, int height, int blockRow, int blockColumn, byte[] block){
+		int firstRow = blockRow * BLOCK_SIZE;
+		int firstColumn = blockColumn * BLOCK_SIZE;
+		int rows = Math.min(BLOCK_SIZE, height - firstRow);
+		int columns = Math.min(BLOCK_SIZE, width - firstColumn);
+
+		for (int row = 0; row < rows; row++){
+			int from = (firstRow + row) * width + firstColumn;
+			int to = row * columns;
+
+			for (int column = 0; column < columns; column++){
+				block[to + column] = (byte)(cells[from + column] & TYPE_BITS);
+			}
+		}
+		return rows * columns;
+	}
+
+	/**
+	* open is the method which reads and checks the header and the block index
+	* of a file, the blocks are only read when they are decoded.
+	*
+	* @param channel to read the file from, it has to stay open while the file is used.
+	* @return the opened file.
+	*
+	* @throws InvalidMazeException if the file is not a valid maze file.
+	*/
+	static BlockMazeFormat open(FileChannel channel) throws IOException{
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		readFully(channel, header, 0);
+		header.flip();
+
+		if (header.getInt() != MAGIC){
+			throw new InvalidMazeException("That is not a compressed maze file!");
+		}
+		if (header.getShort() != VERSION){
+			throw new InvalidMazeException("That compressed maze version is not supported!");
+		}
+
+		BlockMazeFormat file = new BlockMazeFormat(channel);
+		file.blockSize = header.getShort();
+		file.width = header.getInt();
+		file.height = header.getInt();
+		file.entranceIndex = header.getInt();
+		file.exitIndex = header.getInt();
+
+		if (file.blockSize <= 0 || file.width <= 0 || file.height <= 0
+			|| (long)file.width * file.height > GridScanner.MAX_CELLS){
+
+			throw new InvalidMazeException("That compressed maze has invalid dimensions!");
+		}
+
+		file.blocksAcross = (file.width + file.blockSize - 1) / file.blockSize;
+		file.blocksDown = (file.height + file.blockSize - 1) / file.blockSize;
+		long blocks = (long)file.blocksAcross * file.blocksDown;
+
+		if (file.blockSize > MAX_BLOCK_SIZE || (blocks + 1) * Long.BYTES > Integer.MAX_VALUE){
+			throw new InvalidMazeException("That compressed maze has invalid dimensions!");
+		}
+		if (HEADER_SIZE + (blocks + 1) * Long.BYTES > channel.size()){
+			throw new InvalidMazeException("That compressed maze file is truncated!");
+		}
+
+		ByteBuffer index = ByteBuffer.allocate((int)(blocks + 1) * Long.BYTES);
+		readFully(channel, index, HEADER_SIZE);
+		index.flip();
+		file.blockPositions = new long[(int)blocks + 1];
+		index.asLongBuffer().get(file.blockPositions);
+
+		long previous = HEADER_SIZE + index.capacity();
+		for (long position : file.blockPositions){
+			if (position < previous || position > channel.size()
+				|| position - previous > Integer.MAX_VALUE){
+
+				throw new InvalidMazeException("That compressed maze file is corrupted!");
+			}
+			previous = position;
+		}
+
+		file.block = new byte[file.blockSize * file.blockSize];
+		return file;
+	}
+
+	/**
+	* readAll is the method which decodes every block of the file into one grid
+	* and checks that it holds exactly the entrance and exit of the header.
+	*
+	* @return the type codes of all cells in row-major order.
+	*
+	* @throws InvalidMazeException if a block is corrupted.
+	* @throws MultipleEntranceException if the cells hold more than one entrance.
+	* @throws MultipleExitException if the cells hold more than one exit.
+	* @throws NoEntranceException if the stored entrance is not an entrance Tile.
+	* @throws NoExitException if the stored exit is not an exit Tile.
+	*/
+	byte[] readAll() throws IOException{
+		byte[] cells = this.readRegion(0, 0, this.height, this.width);
+		int entrances = 0;
+		int exits = 0;
+
+		for (byte code : cells){
+			if (code == ENTRANCE){
+				entrances++;
+			}
+			else if (code == EXIT){
+				exits++;
+			}
+		}
+
+		if (entrances > 1){
+			throw new MultipleEntranceException();
+		}
+		if (exits > 1){
+			throw new MultipleExitException();
+		}
+		if (this.entranceIndex < 0 || this.entranceIndex >= cells.length || cells[this.entranceIndex] != ENTRANCE){
+			throw new NoEntranceException();
+		}
+		if (this.exitIndex < 0 || this.exitIndex >= cells.length || cells[this.exitIndex] != EXIT){
+			throw new NoExitException();
+		}
+		return cells;
+	}
+
+	/**
+	* readRegion is the method which decodes a rectangle of the grid, reading
+	* only the blocks which overlap it.
+	*
+	* @param firstRow the top row of the region, rows count from the top of the file.
+	* @param firstColumn the left column of the region.
+	* @param rows the number of rows of the region.
+	* @param columns the number of columns of the region.
+	* @return the type codes of the region in row-major order.
+	*
+	* @throws IndexOutOfBoundsException if the region is not inside the maze.
+	* @throws InvalidMazeException if a block is corrupted.
+	*/
+	byte[] readRegion(int firstRow, int firstColumn, int rows, int columns) throws IOException{
+		if (firstRow < 0 || firstColumn < 0 || rows < 0 || columns < 0
+			|| (long)firstRow + rows > this.height || (long)firstColumn + columns > this.width){
+
+			throw new IndexOutOfBoundsException();
+		}
+
+		byte[] region = new byte[rows * columns];
+		if (region.length == 0){
+			return region;
+		}
+
+		int lastRow = firstRow + rows - 1;
+		int lastColumn = firstColumn + columns - 1;
+
+		Inflater inflater = new Inflater();
+
+		try{
+			for (int blockRow = firstRow / this.blockSize; blockRow <= lastRow / this.blockSize; blockRow++){
+				for (int blockColumn = firstColumn / this.blockSize; blockColumn <= lastColumn / this.blockSize; blockColumn++){
+					int blockTop = blockRow * this.blockSize;
+					int blockLeft = blockColumn * this.blockSize;
+					int blockColumns = Math.min(this.blockSize, this.width - blockLeft);
+
+					this.decodeBlock(inflater, blockRow * this.blocksAcross + blockColumn,
+						Math.min(this.blockSize, this.height - blockTop) * blockColumns);
+
+					int top = Math.max(firstRow, blockTop);
+					int bottom = Math.min(lastRow, blockTop + this.blockSize - 1);
+					int left = Math.max(firstColumn, blockLeft);
+					int right = Math.min(lastColumn, blockLeft + blockColumns - 1);
+
+					for (int row = top; row <= bottom; row++){
+						System.arraycopy(this.block, (row - blockTop) * blockColumns + left - blockLeft,
+							region, (row - firstRow) * columns + left - firstColumn, right - left + 1);
+					}
+				}
+			}
+		}
+		finally{
+			inflater.end();
+		}
+		return region;
+	}
+
+	private void decodeBlock(Inflater inflater, int block, int length) throws IOException{
+		int compressedLength = (int)(this.blockPositions[block + 1] - this.blockPositions[block]);
+
+		if (this.compressed == null || this.compressed.length < compressedLength){
+			this.compressed = new byte[compressedLength];
+		}
+		readFully(this.channel, ByteBuffer.wrap(this.compressed, 0, compressedLength), this.blockPositions[block]);
+
+		inflater.reset();
+		inflater.setInput(this.compressed, 0, compressedLength);
+
+		try{
+			int inflated = 0;
+			while (inflated < length && !inflater.finished()){
+				int read = inflater.inflate(this.block, inflated, length - inflated);
+				if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())){
+					break;
+				}
+				inflated += read;
+			}
+			if (inflated != length || !inflater.finished()){
+				throw new InvalidMazeException("That compressed maze file is corrupted!");
+			}
+		}
+		catch (DataFormatException e){
+			throw new InvalidMazeException("That compressed maze file is corrupted!");
+		}
+
+		for (int i = 0; i < length; i++){
+			if (this.block[i] < 0 || this.block[i] >= TYPE_COUNT){
+				throw new InvalidMazeException("That compressed maze file is corrupted!");
+			}
+		}
+	}
+
+	private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException{
+		int written = 0;
+		while (buffer.hasRemaining()){
+			written += channel.write(buffer, position + written);
+		}
+		return written;
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException{
+		while (buffer.hasRemaining()){
+			int read = channel.read(buffer, position);
+			if (read < 0){
+				throw new InvalidMazeException("That compressed maze file is truncated!");
+			}
+			position += read;
+		}
+	}
+
+	int getWidth(){
+		return this.width;
+	}
+
+	int getHeight(){
+		return this.height;
+	}
+
+	int getEntranceIndex(){
+		return this.entranceIndex;
+	}
+
+	int getExitIndex(){
+		return this.exitIndex;
+	}
+}
@@ -0,0 +1,165 @@
+package maze;
+
+/**
+* ConnectivityIndex is the class which labels every navigable cell of a maze
+* with the component it belongs to, so that two cells can be checked for a
+* path between them without searching the maze. It is a union-find over the
+* cell indices built in a single pass, which joins every cell with its
+* navigable neighbours to the north and to the west.
+* The index follows the edits of the maze: an opened cell is joined with its
+* neighbours at once, while a closed cell may split a component, so the index
+* is built again the next time it is used.
+*/
+class ConnectivityIndex implements MazeChangeListener{
+	private Maze maze;
+
+	// parent of every cell in the union-find, -1 for the cells which are not
+	// navigable. A root is always the smallest index of its component
+	private int[] parents;
+	private int components;
+	private boolean stale;
+
+	private static final int NORTH_MASK = Maze.Direction.NORTH.getMask();
+	private static final int WEST_MASK = Maze.Direction.WEST.getMask();
+
+	ConnectivityIndex(Maze maze){
+		this.maze = maze;
+		this.stale = true;
+	}
+
+	/**
+	* areConnected is the method which shows if there is a path between two cells.
+	*
+	* @param first index of a cell in row-major order.
+	* @param second index of a cell in row-major order.
+	* @return <code>true</code> if both cells are navigable and in the same component.
+	*/
+	boolean areConnected(int first, int second){
+		this.update();
+
+		if (this.parents[first] == -1 || this.parents[second] == -1){
+			return false;
+		}
+		return this.find(first) == this.find(second);
+	}
+
+	/**
+	* getComponent is the method which returns the label of the component of a cell.
+	*
+	* @param index of a cell in row-major order.
+	* @return the smallest cell index of the component, -1 if the cell is not navigable.
+	*/
+	int getComponent(int index){
+		this.update();
+
+		if (this.parents[index] == -1){
+			return -1;
+		}
+		return this.find(index);
+	}
+
+	/**
+	* getComponentCount is the method which returns the number of separate
+	* groups of navigable cells.
+	*
+	* @return number of components.
+	*/
+	int getComponentCount(){
+		this.update();
+		return this.components;
+	}
+
+	@Override
+	public void tileChanged(Maze maze, int index, Tile.Type previousType, Tile.Type type){
+		if (this.stale || Tile.isNavigable(previousType) == Tile.isNavigable(type)){
+			return;
+		}
+
+		if (!Tile.isNavigable(type)){
+			// the component of the cell may have been split
+			this.stale = true;
+			return;
+		}
+
+		this.parents[index] = index;
+		this.components++;
+
+		int[] neighbours = new int[4];
+		int count = this.maze.getNeighbours(index, neighbours);
+		for (int i = 0; i < count; i++){
+			this.union(index, neighbours[i]);
+		}
+	}
+
+	private void update(){
+		if (this.stale){
+			this.build();
+			this.stale = false;
+		}
+	}
+
+	private void build(){
+		int width = this.maze.getWidth();
+		int size = width * this.maze.getHeight();
+
+		if (this.parents == null || this.parents.length != size){
+			this.parents = new int[size];
+		}
+		this.components = 0;
+
+		int[] parents = this.parents;
+		for (int index = 0; index < size; index++){
+			int mask = this.maze.getNeighbourMask(index);
+
+			if (mask == 0 && !this.maze.isNavigable(index)){
+				parents[index] = -1;
+				continue;
+			}
+
+			parents[index] = index;
+			this.components++;
+
+			if ((mask & NORTH_MASK) != 0){
+				this.union(index, index - width);
+			}
+			if ((mask & WEST_MASK) != 0){
+				this.union(index, index - 1);
+			}
+		}
+
+		// every parent is a smaller index, so in this order the parent of a
+		// cell already points at its root
+		for (int index = 0; index < size; index++){
+			if (parents[index] >= 0){
+				parents[index] = parents[parents[index]];
+			}
+		}
+	}
+
+	private int find(int index){
+		int[] parents = this.parents;
+
+		while (parents[index] != index){
+			parents[index] = parents[parents[index]];
+			index = parents[index];
+		}
+		return index;
+	}
+
+	private void union(int first, int second){
+		int firstRoot = this.find(first);
+		int secondRoot = this.find(second);
+
+		if (firstRoot == secondRoot){
+			return;
+		}
+
+		if (firstRoot < secondRoot){
+			this.parents[secondRoot] = firstRoot;
+		}
+		else{
+			this.parents[firstRoot] = secondRoot;
+		}
+		this.components--;
+	}
+}
@@ -0,0 +1,177 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+* DistanceField is the class which keeps the number of steps from every cell
+* of a maze to the nearest exit, found by one breadth-first search started
+* at all exits. With the field the remaining distance of any cell and the 
+* next cell towards an exit are looked up in constant time.
+* An edit which opens a cell can only shorten distances, so they are relaxed
+* outward from that cell at once. An edit which closes a cell, or removes an
+* exit, may lengthen the distance of any cell, so the field is searched again
+* the next time it is used.
+*/
+class DistanceField implements MazeChangeListener{
+	private Maze maze;
+
+	// steps to the nearest exit, -1 for cells from which no exit can be reached
+	private int[] distances;
+	private boolean stale;
+
+	private static final Maze.Direction[] DIRECTIONS = Maze.Direction.values();
+
+	DistanceField(Maze maze){
+		this.maze = maze;
+		this.stale = true;
+	}
+
+	/**
+	* getDistance is the method which returns the steps from a cell to the 
+	* nearest exit.
+	*
+	* @param index of a cell in row-major order.
+	* @return number of steps, -1 if no exit can be reached from the cell.
+	*/
+	int getDistance(int index){
+		this.update();
+		return this.distances[index];
+	}
+
+	/**
+	* getNextStep is the method which returns the neighbour of a cell which is
+	* one step closer to the nearest exit.
+	*
+	* @param index of a cell in row-major order.
+	* @return index of the next cell, -1 if the cell is an exit or no exit 
+	* can be reached from it.
+	*/
+	int getNextStep(int index){
+		this.update();
+
+		int distance = this.distances[index];
+		if (distance <= 0){
+			return -1;
+		}
+
+		// the first neighbour in the order north, south, east, west wins ties
+		for (Maze.Direction direction : DIRECTIONS){
+			int next = this.maze.getNeighbour(index, direction);
+
+			if (next != -1 && this.distances[next] == distance - 1){
+				return next;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public void tileChanged(Maze maze, int index, Tile.Type previousType, Tile.Type type){
+		if (this.stale){
+			return;
+		}
+
+		if (previousType == Tile.Type.EXIT || !Tile.isNavigable(type)){
+			if (Tile.isNavigable(previousType)){
+				this.stale = true;
+			}
+			return;
+		}
+
+		if (type == Tile.Type.EXIT){
+			this.distances[index] = 0;
+		}
+		else if (!Tile.isNavigable(previousType)){
+			// the opened cell is one step further than its nearest neighbour
+			int[] neighbours = new int[4];
+			int count = this.maze.getNeighbours(index, neighbours);
+			int distance = -1;
+
+			for (int i = 0; i < count; i++){
+				int next = this.distances[neighbours[i]];
+				if (next != -1 && (distance == -1 || next + 1 < distance)){
+					distance = next + 1;
+				}
+			}
+			if (distance == -1){
+				return;
+			}
+			this.distances[index] = distance;
+		}
+		else{
+			// terrain does not change the number of steps
+			return;
+		}
+
+		int[] queue = new int[64];
+		queue[0] = index;
+		this.relax(queue, 1);
+	}
+
+	private void update(){
+		if (this.stale){
+			this.build();
+			this.stale = false;
+		}
+	}
+
+	private void build(){
+		int size = this.maze.getWidth() * this.maze.getHeight();
+
+		if (this.distances == null || this.distances.length != size){
+			this.distances = new int[size];
+		}
+		Arrays.fill(this.distances, -1);
+
+		// the queue is a ring buffer, which holds about one level of the
+		// search and not the whole maze
+		int[] queue = new int[64];
+		int queued = 0;
+
+		for (int exit : this.maze.getExitIndices()){
+			this.distances[exit] = 0;
+			if (queued == queue.length){
+				queue = grow(queue, 0);
+			}
+			queue[queued++] = exit;
+		}
+		this.relax(queue, queued);
+	}
+
+	// searches breadth-first from the queued cells, whose distances are set,
+	// and shortens the distance of every cell which is reached by fewer steps
+	private void relax(int[] queue, int queued){
+		int head = 0;
+		int[] neighbours = new int[4];
+		while (queued > 0){
+			int index = queue[head];
+			head = (head + 1) & (queue.length - 1);
+			queued--;
+
+			int distance = this.distances[index] + 1;
+			int count = this.maze.getNeighbours(index, neighbours);
+
+			for (int i = 0; i < count; i++){
+				int next = neighbours[i];
+
+				if (this.distances[next] == -1 || this.distances[next] > distance){
+					this.distances[next] = distance;
+					if (queued == queue.length){
+						queue = grow(queue, head);
+						head = 0;
+					}
+					queue[(head + queued++) & (queue.length - 1)] = next;
+				}
+			}
+		}
+	}
+
+	// doubles a full ring buffer and moves its elements to the start
+	private static int[] grow(int[] queue, int head){
+		int[] grown = new int[queue.length * 2];
+
+		System.arraycopy(queue, head, grown, 0, queue.length - head);
+		System.arraycopy(queue, 0, grown, queue.length - head, head);
+		return grown;
+	}
+}
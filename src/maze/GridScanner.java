@@ -0,0 +1,414 @@
+package maze;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+* GridScanner is the class which validates the characters of a maze text file
+* and decodes them straight into the packed cells used by Maze. It is fed raw
+* bytes, so no String has to be built for the lines of the file.
+* Lines can end with "\n", "\r\n" or "\r", the same as for BufferedReader.
+* Like fromTxt a line is rejected by its length before its characters, so an
+* invalid character or a second entrance or exit is only thrown once the end
+* of its line has shown that the line is not ragged.
+*/
+class GridScanner {
+	// the largest array the virtual machine can reliably allocate
+	static final int MAX_CELLS = Integer.MAX_VALUE - 8;
+
+	private static final byte INVALID = -1;
+	private static final byte[] CODES = new byte[256];
+
+	static {
+		Arrays.fill(CODES, INVALID);
+		CODES['.'] = (byte)Tile.Type.CORRIDOR.ordinal();
+		CODES['e'] = (byte)Tile.Type.ENTRANCE.ordinal();
+		CODES['x'] = (byte)Tile.Type.EXIT.ordinal();
+		CODES['#'] = (byte)Tile.Type.WALL.ordinal();
+		CODES['s'] = (byte)Tile.Type.STAIRS.ordinal();
+		CODES['m'] = (byte)Tile.Type.MUD.ordinal();
+		CODES['w'] = (byte)Tile.Type.WATER.ordinal();
+	}
+
+	private static final byte ENTRANCE = CODES['e'];
+	private static final byte EXIT = CODES['x'];
+
+	private byte[] cells;
+	private int size;
+	private boolean sharedCells;
+	private int width;
+	private int column;
+	private int rows;
+	private int entranceIndex;
+	private int exitIndex;
+	private boolean afterCarriageReturn;
+
+	// the first error found in the characters of the current line, and where
+	private InvalidMazeException lineError;
+	private int lineErrorIndex;
+	private int errorIndex;
+
+	// with many endpoints every entrance and exit is recorded in file order
+	private boolean manyEndpoints;
+	private int[] entrances;
+	private int entranceCount;
+	private int[] exits;
+	private int exitCount;
+
+	/**
+	* The constructor which takes the expected number of cells, the array
+	* grows if the maze turns out to be bigger.
+	*
+	* @param capacity expected number of cells of the maze.
+	*/
+	GridScanner(int capacity){
+		this.cells = new byte[Math.max(capacity, 16)];
+		this.width = -1;
+		this.entranceIndex = -1;
+		this.exitIndex = -1;
+	}
+
+	/**
+	* The constructor which takes the expected number of cells and allows a
+	* maze with more than one entrance and exit.
+	*
+	* @param capacity expected number of cells of the maze.
+	* @param manyEndpoints <code>true</code> to record every entrance and exit
+	* instead of rejecting a second one.
+	*/
+	GridScanner(int capacity, boolean manyEndpoints){
+		this(capacity);
+		if (manyEndpoints){
+			this.manyEndpoints = true;
+			this.entrances = new int[4];
+			this.exits = new int[4];
+		}
+	}
+
+	/**
+	* The constructor which is used to decode one part of a maze file whose
+	* row width is already known straight into a part of a shared array.
+	* Cell indices, like the one of the entrance, are indices of that array.
+	*
+	* @param cells the array of the whole maze.
+	* @param offset index of the first cell of this part.
+	* @param width the number of cells in every row.
+	*/
+	GridScanner(byte[] cells, int offset, int width){
+		this.cells = cells;
+		this.size = offset;
+		this.sharedCells = true;
+		this.width = width;
+		this.entranceIndex = -1;
+		this.exitIndex = -1;
+	}
+
+	/**
+	* estimateCells is the method which guesses the number of cells of a maze
+	* from the length of its first line and the size of the whole file, which
+	* is exact for a valid file so the cells never have to be copied.
+	*
+	* @param buffer the start of the file.
+	* @param fileSize the size of the whole file in bytes.
+	* @return expected number of cells.
+	*/
+	static int estimateCells(ByteBuffer buffer, long fileSize){
+		int limit = buffer.limit();
+
+		for (int i = 0; i < limit; i++){
+			byte symbol = buffer.get(i);
+
+			if (symbol == '\n' || symbol == '\r'){
+				int lineLength = i;
+				int stride = i + 1;
+
+				if (symbol == '\r' && i + 1 < limit && buffer.get(i + 1) == '\n'){
+					stride++;
+				}
+
+				long rows = (fileSize + stride - 1) / stride;
+				return (int)Math.min(rows * lineLength, MAX_CELLS);
+			}
+		}
+		return (int)Math.min(fileSize, MAX_CELLS);
+	}
+
+	/**
+	* scan is the method which decodes the bytes between from (inclusive) and
+	* to (exclusive) of the buffer, using absolute reads.
+	*
+	* @throws RaggedMazeException if a line has a different length than the first one.
+	* @throws InvalidMazeException if an invalid character appears.
+	* @throws MultipleEntranceException if a second entrance appears.
+	* @throws MultipleExitException if a second exit appears.
+	*/
+	void scan(ByteBuffer buffer, int from, int to){
+		for (int i = from; i < to; i++){
+			this.accept(buffer.get(i));
+		}
+	}
+
+	/**
+	* scan is the method which decodes the bytes between from (inclusive) and
+	* to (exclusive) of the array.
+	*
+	* @throws RaggedMazeException if a line has a different length than the first one.
+	* @throws InvalidMazeException if an invalid character appears.
+	* @throws MultipleEntranceException if a second entrance appears.
+	* @throws MultipleExitException if a second exit appears.
+	*/
+	void scan(byte[] bytes, int from, int to){
+		for (int i = from; i < to; i++){
+			this.accept(bytes[i]);
+		}
+	}
+
+	/**
+	* scan is the method which decodes the characters between from (inclusive)
+	* and to (exclusive) of the array. Characters outside of the range of a
+	* byte are never valid maze characters.
+	*
+	* @throws RaggedMazeException if a line has a different length than the first one.
+	* @throws InvalidMazeException if an invalid character appears.
+	* @throws MultipleEntranceException if a second entrance appears.
+	* @throws MultipleExitException if a second exit appears.
+	*/
+	void scan(char[] chars, int from, int to){
+		for (int i = from; i < to; i++){
+			char symbol = chars[i];
+
+			// zero is not a maze character either, but unlike the low byte of
+			// the character it is never taken for a line break
+			this.accept(symbol > 0xFF ? 0 : (byte)symbol);
+		}
+	}
+
+	/**
+	* finish is the method which has to be called after the last byte, it ends
+	* a last line without a line break and checks that the maze is complete.
+	*
+	* @throws RaggedMazeException if the last line is ragged.
+	* @throws InvalidMazeException if the maze is empty.
+	* @throws NoEntranceException if an entrance Tile was not provided.
+	* @throws NoExitException if an exit Tile was not provided.
+	*/
+	void finish(){
+		this.endInput();
+
+		if (this.size == 0){
+			throw new InvalidMazeException();
+		}
+
+		if (this.entranceIndex == -1){
+			throw new NoEntranceException();
+		}
+
+		if (this.exitIndex == -1){
+			throw new NoExitException();
+		}
+	}
+
+	/**
+	* endInput is the method which ends a last line without a line break, 
+	* without checking that the maze is complete.
+	*
+	* @throws RaggedMazeException if the last line is ragged.
+	*/
+	void endInput(){
+		if (this.column > 0){
+			this.endLine();
+		}
+	}
+
+	private void accept(byte symbol){
+		if (symbol == '\n'){
+			if (this.afterCarriageReturn){
+				this.afterCarriageReturn = false;
+			}
+			else{
+				this.endLine();
+			}
+			return;
+		}
+
+		this.afterCarriageReturn = false;
+
+		if (symbol == '\r'){
+			this.endLine();
+			this.afterCarriageReturn = true;
+			return;
+		}
+
+		if (this.width != -1 && this.column >= this.width){
+			throw this.ragged();
+		}
+
+		byte code = CODES[symbol & 0xFF];
+
+		if (code == INVALID){
+			this.lineError(new InvalidMazeException());
+		}
+		else if (code == ENTRANCE){
+			if (this.manyEndpoints){
+				this.addEntrance();
+			}
+			else if (this.entranceIndex != -1){
+				this.lineError(new MultipleEntranceException());
+			}
+			else{
+				this.entranceIndex = this.size;
+			}
+		}
+		else if (code == EXIT){
+			if (this.manyEndpoints){
+				this.addExit();
+			}
+			else if (this.exitIndex != -1){
+				this.lineError(new MultipleExitException());
+			}
+			else{
+				this.exitIndex = this.size;
+			}
+		}
+
+		if (this.size == this.cells.length){
+			this.grow();
+		}
+
+		this.cells[this.size++] = code;
+		this.column++;
+	}
+
+	private void addEntrance(){
+		if (this.entranceIndex == -1){
+			this.entranceIndex = this.size;
+		}
+		if (this.entranceCount == this.entrances.length){
+			this.entrances = Arrays.copyOf(this.entrances, this.entranceCount * 2);
+		}
+		this.entrances[this.entranceCount++] = this.size;
+	}
+
+	private void addExit(){
+		if (this.exitIndex == -1){
+			this.exitIndex = this.size;
+		}
+		if (this.exitCount == this.exits.length){
+			this.exits = Arrays.copyOf(this.exits, this.exitCount * 2);
+		}
+		this.exits[this.exitCount++] = this.size;
+	}
+
+	private void endLine(){
+		if (this.width == -1){
+			this.width = this.column;
+		}
+		else if (this.column != this.width){
+			throw this.ragged();
+		}
+
+		if (this.lineError != null){
+			this.errorIndex = this.lineErrorIndex;
+			throw this.lineError;
+		}
+
+		this.rows++;
+		this.column = 0;
+	}
+
+	// keeps the first error of the line until its length has been checked
+	private void lineError(InvalidMazeException error){
+		if (this.lineError == null){
+			this.lineError = error;
+			this.lineErrorIndex = this.size;
+		}
+	}
+
+	// a ragged line is found before any of its characters is looked at
+	private RaggedMazeException ragged(){
+		this.errorIndex = this.size - this.column;
+		return new RaggedMazeException();
+	}
+
+	private void grow(){
+		if (this.sharedCells || this.size == MAX_CELLS){
+			this.errorIndex = this.size;
+			throw new InvalidMazeException("That maze is too large!");
+		}
+		this.cells = Arrays.copyOf(this.cells, (int)Math.min((long)this.cells.length * 2, MAX_CELLS));
+	}
+
+	/**
+	* getSize is the method which returns the index after the last decoded cell.
+	*
+	* @return the number of cells, or for a part of a shared array the index
+	* where the next cell would be written.
+	*/
+	int getSize(){
+		return this.size;
+	}
+
+	/**
+	* getCells is the method which returns the decoded cells, trimmed to the
+	* size of the maze.
+	*
+	* @return the type codes of the cells in row-major order.
+	*/
+	byte[] getCells(){
+		if (this.cells.length != this.size){
+			this.cells = Arrays.copyOf(this.cells, this.size);
+		}
+		return this.cells;
+	}
+
+	/**
+	* getErrorIndex is the method which returns where the thrown error was
+	* found, the first cell of the line for a ragged line, so that errors of
+	* parts of a file can be ordered as a sequential scan would find them.
+	*
+	* @return the index of the cell of the error.
+	*/
+	int getErrorIndex(){
+		return this.errorIndex;
+	}
+
+	int getWidth(){
+		return this.width;
+	}
+
+	int getHeight(){
+		return this.rows;
+	}
+
+	int getEntranceIndex(){
+		return this.entranceIndex;
+	}
+
+	int getExitIndex(){
+		return this.exitIndex;
+	}
+
+	boolean hasManyEndpoints(){
+		return this.manyEndpoints;
+	}
+
+	/**
+	* getEntrances is the method which returns every entrance of a scanner
+	* which allows many endpoints.
+	*
+	* @return the indices of the entrances in increasing order.
+	*/
+	int[] getEntrances(){
+		return Arrays.copyOf(this.entrances, this.entranceCount);
+	}
+
+	/**
+	* getExits is the method which returns every exit of a scanner which
+	* allows many endpoints.
+	*
+	* @return the indices of the exits in increasing order.
+	*/
+	int[] getExits(){
+		return Arrays.copyOf(this.exits, this.exitCount);
+	}
+}
@@ -4,9 +4,25 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.lang.NullPointerException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.lang.IndexOutOfBoundsException;
 import maze.InvalidMazeException;
 
@@ -66,21 +82,127 @@ public class Maze implements Serializable{
 	}
 
 	/**
-	* Direction is the inner enum which represents all directions (North, South, East, West)
+	* Direction is the inner enum which represents all directions (North, South, East, West).
+	* Every direction knows its offset on the Coordinate axes, where y grows to the north.
 	*/
 	public enum Direction{
-		NORTH, 
-		SOUTH, 
-		EAST, 
-		WEST;
+		NORTH(0, 1), 
+		SOUTH(0, -1), 
+		EAST(1, 0), 
+		WEST(-1, 0);
+
+		private final int dx;
+		private final int dy;
+
+		private Direction(int dx, int dy){
+			this.dx = dx;
+			this.dy = dy;
+		}
+
+		/**
+		* getDx is the method which returns the change of the x coordinate
+		* when moving in this direction.
+		* @return -1, 0 or 1
+		*/
+		public int getDx(){
+			return dx;
+		}
+
+		/**
+		* getDy is the method which returns the change of the y coordinate
+		* when moving in this direction.
+		* @return -1, 0 or 1
+		*/
+		public int getDy(){
+			return dy;
+		}
+
+		/**
+		* getMask is the method which returns the bit used for this direction
+		* in the neighbour masks of Maze.
+		* @return a single bit value
+		*/
+		public int getMask(){
+			return 1 << ordinal();
+		}
 	}
 
 	private Tile entrance;
 	private Tile exit;
 	private List<List<Tile>> tiles;
 
+	// the grid itself is stored packed, one byte per cell in row-major order
+	// (row 0 is the first line of the text file), Tile objects are only
+	// created when somebody asks for them and are then kept for identity.
+	// The low four bits of a cell hold its type, the high four bits the mask
+	// of its navigable neighbours (bit of Direction.getMask() shifted by 4)
+	private int width;
+	private int height;
+	private byte[] cells;
+
+	// the created Tiles in chunks of TILE_CHUNK_MASK + 1 cells, a chunk is only
+	// allocated when a Tile in it is created, so the memory follows the part
+	// of the maze which was asked for as Tiles and not its size
+	private Tile[][] materialisedTiles;
+
+	// set instead of cells when the grid is kept on disk
+	private PagedGrid pages;
+
+	// with shared tiles every cell of a type is the same Tile instance, so no
+	// Tile is kept per cell and cells are identified by their index only
+	private boolean sharedTiles;
+	private int entranceIndex = -1;
+	private int exitIndex = -1;
+
+	// with many endpoints a maze may have several entrances and exits, their
+	// indices are kept in increasing order and the first ones are the
+	// entrance and the exit returned by getEntrance and getExit
+	private boolean manyEndpoints;
+	private int[] entranceIndices;
+	private int[] exitIndices;
+
+	// told about every edit of a cell, they are not saved with the maze
+	private transient List<MazeChangeListener> changeListeners;
+
+	// labels the components of the navigable cells, built when first needed
+	private transient ConnectivityIndex connectivity;
+
+	// steps from every cell to the nearest exit, searched when first needed
+	private transient DistanceField distanceField;
+
+	// the fingerprint is a sum of one hash for every block of eight cells, so
+	// an edit only replaces the hash of its block. The sums are computed the
+	// first time the fingerprint is needed and are not saved with the maze
+	private transient boolean fingerprinted;
+	private transient long fingerprintHigh;
+	private transient long fingerprintLow;
+
+	private static final Tile.Type[] TYPES = Tile.Type.values();
+	private static final long MAPPING_WINDOW = 1L << 30;
+	private static final int STREAM_CHUNK = 1 << 16;
+	private static final int TYPE_BITS = 0x0F;
+	private static final int TILE_CHUNK_BITS = 12;
+	private static final int TILE_CHUNK_MASK = (1 << TILE_CHUNK_BITS) - 1;
+	private static final boolean[] NAVIGABLE = new boolean[TYPE_BITS + 1];
+	private static final int[] NAVIGABLE_BIT = new int[TYPE_BITS + 1];
+	private static final int NEIGHBOUR_SHIFT = 4;
+	private static final int FINGERPRINT_BLOCK_SHIFT = 3;
+	private static final long FINGERPRINT_TYPE_BITS = 0x0F0F0F0F0F0F0F0FL;
+
+	private static final int NORTH_MASK = Direction.NORTH.getMask();
+	private static final int SOUTH_MASK = Direction.SOUTH.getMask();
+	private static final int EAST_MASK = Direction.EAST.getMask();
+	private static final int WEST_MASK = Direction.WEST.getMask();
+
+	static {
+		for (Tile.Type type : TYPES){
+			NAVIGABLE[type.ordinal()] = Tile.isNavigable(type);
+			NAVIGABLE_BIT[type.ordinal()] = NAVIGABLE[type.ordinal()] ? 1 : 0;
+		}
+	}
+
 	private Maze(){
-		tiles = new ArrayList<List<Tile>>();
+		tiles = new TileRows();
 	}
 
 	/**
@@ -98,8 +220,6 @@ public class Maze implements Serializable{
 	* @throws NoExitException if an exit Tile was not provided.
 	*/
 	public static Maze fromTxt(String filePath){
-		Maze maze = new Maze();
-
 	 	try (
             BufferedReader bufferedReader = new BufferedReader(
                 new FileReader(filePath)
@@ -107,47 +227,69 @@ public class Maze implements Serializable{
         ) {
 		 	String line = bufferedReader.readLine();
 
+		 	if (line == null){
+		 		throw new InvalidMazeException();
+		 	}
+
 		 	// required to check if the maze is not ragged
 		 	int length = line.length();
 
+		 	byte[] cells = new byte[Math.max(length, 1) * 16];
+		 	int size = 0;
+		 	int rows = 0;
+		 	int entranceIndex = -1;
+		 	int exitIndex = -1;
+
 		 	while (line != null){
-		 		maze.tiles.add(new ArrayList<Tile>());
+		 		if (length != line.length()){ 
+    				throw new RaggedMazeException();
+    			}
 
-        		for (int i = 0; i < line.length(); i++) { 
-        			if (length != line.length()){ 
-        				throw new RaggedMazeException();
-        			}
+    			if (size + length > cells.length){
+    				cells = Arrays.copyOf(cells, Math.max(cells.length * 2, size + length));
+    			}
+
+        		for (int i = 0; i < length; i++) { 
+        			char symbol = line.charAt(i);
 
-        			if ((line.charAt(i) != 'e' &&
-        				line.charAt(i) != 'x' &&
-        				line.charAt(i) != '.' &&
-        				line.charAt(i) != '#')){
+        			Tile.Type type = Tile.typeOf(symbol);
 
+        			if (type == null){
         				throw new InvalidMazeException();
         			}
 
-        			char symbol = line.charAt(i);
-        			
-        			maze.tiles.get(maze.tiles.size()-1).add(Tile.fromChar(symbol));
-        			
         			if (symbol == 'e'){
-    					maze.setEntrance(maze.tiles.get(maze.tiles.size()-1).get(i));
+        				if (entranceIndex != -1){
+        					throw new MultipleEntranceException();
+        				}
+        				entranceIndex = size;
         			}
         			else if (symbol == 'x'){
-    					maze.setExit(maze.tiles.get(maze.tiles.size()-1).get(i));
+        				if (exitIndex != -1){
+        					throw new MultipleExitException();
+        				}
+        				exitIndex = size;
         			}
+
+        			cells[size++] = typeCode(type);
         		}
+        		rows++;
     			line = bufferedReader.readLine();
 		 	}
 
-		 	if (maze.getEntrance() == null){
+		 	if (size == 0){
+		 		throw new InvalidMazeException();
+		 	}
+
+		 	if (entranceIndex == -1){
 		 		throw new NoEntranceException();
 		 	}
 
-		 	if (maze.getExit() == null){
+		 	if (exitIndex == -1){
 		 		throw new NoExitException();
 		 	}
 
+		 	return build(length, rows, Arrays.copyOf(cells, size), entranceIndex, exitIndex);
 	 	} 
 	 	catch (FileNotFoundException e) {
         	return null;
@@ -155,172 +297,2136 @@ public class Maze implements Serializable{
         catch (IOException e) {
         	return null;
         }
-
-        if (maze.tiles.size() == 0){
-        	throw new InvalidMazeException();
-        }
-
-		return maze;
 	}
 
 	/**
-	* getAdjacentTile is the method which is used to find an adjacent Tile instance
-	* of the given Tile object in the provided direction.
+	* The method fromMappedTxt is a static method which creates a maze from a 
+	* text file like fromTxt, but maps the file into memory and decodes its bytes
+	* in a single pass straight into the packed grid, so it is suitable for 
+	* very large maze files.
 	*
-	* @param tile The instance is given to find a particular neighbouring Tile of it. 
-	* @param direction Provides the direction to search for an adjacent Tile instance.
-	* @return Tile instance which is adjecent to the given one in that direction
-	* , if there is no such tile, null is returned.
+	* @param filePath Provides the path to the txt file to be read from.
+	* @return the Maze instance after building a maze from a text file if 
+	* none exceptions were thrown, null if the file could not be read.
+	*
+	* @throws RaggedMazeException if the number of different rows/columns differ.
+	* @throws InvalidMazeException if the maze is empty or an invalid character 
+	* appeared in the maze text file.
+	* @throws MultipleEntranceException if more than one entrance was provided.
+	* @throws MultipleExitException if more than one exit was provided.
+	* @throws NoEntranceException if an entrance Tile was not provided.
+	* @throws NoExitException if an exit Tile was not provided.
 	*/
-	public Tile getAdjacentTile(Tile tile, Direction direction){
-		Coordinate tileLocation = this.getTileLocation(tile);
+	public static Maze fromMappedTxt(String filePath){
+		try (
+			FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)
+		) {
+			return scanMapped(channel, false);
+		}
+		catch (IOException e) {
+			return null;
+		}
+	}
 
-		if (direction == Direction.NORTH){
-			return getTileAtLocation(new Coordinate(tileLocation.getX(), tileLocation.getY() + 1));
+	/**
+	* The method fromTxt is a static method which creates a maze from a text
+	* file which may have many entrances and exits, when they are allowed.
+	* The file is read like by fromMappedTxt.
+	*
+	* @param filePath Provides the path to the txt file to be read from.
+	* @param manyEndpoints <code>true</code> to allow more than one entrance
+	* and exit, <code>false</code> to load the file like fromTxt.
+	* @return the Maze instance after building a maze from a text file if 
+	* none exceptions were thrown, null if the file could not be read.
+	*
+	* @throws RaggedMazeException if the number of different rows/columns differ.
+	* @throws InvalidMazeException if the maze is empty or an invalid character 
+	* appeared in the maze text file.
+	* @throws MultipleEntranceException if more than one entrance was provided
+	* and they are not allowed.
+	* @throws MultipleExitException if more than one exit was provided and 
+	* they are not allowed.
+	* @throws NoEntranceException if an entrance Tile was not provided.
+	* @throws NoExitException if an exit Tile was not provided.
+	*/
+	public static Maze fromTxt(String filePath, boolean manyEndpoints){
+		if (!manyEndpoints){
+			return fromTxt(filePath);
 		}
-		else if (direction == Direction.SOUTH){
-			return getTileAtLocation(new Coordinate(tileLocation.getX(), tileLocation.getY() - 1));
+
+		try (
+			FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)
+		) {
+			return scanMapped(channel, true);
 		}
-		else if (direction == Direction.EAST){
-			return getTileAtLocation(new Coordinate(tileLocation.getX() + 1, tileLocation.getY()));
+		catch (IOException e) {
+			return null;
 		}
-		else if (direction == Direction.WEST){
-			return getTileAtLocation(new Coordinate(tileLocation.getX() - 1, tileLocation.getY()));
+	}
+
+	/**
+	* The method fromTxtParallel is a static method which creates a maze from a 
+	* text file like fromMappedTxt, using all threads of the common ForkJoinPool.
+	*
+	* @param filePath Provides the path to the txt file to be read from.
+	* @return the Maze instance after building a maze from a text file if 
+	* none exceptions were thrown, null if the file could not be read.
+	*
+	* @throws RaggedMazeException if the number of different rows/columns differ.
+	* @throws InvalidMazeException if the maze is empty or an invalid character 
+	* appeared in the maze text file.
+	* @throws MultipleEntranceException if more than one entrance was provided.
+	* @throws MultipleExitException if more than one exit was provided.
+	* @throws NoEntranceException if an entrance Tile was not provided.
+	* @throws NoExitException if an exit Tile was not provided.
+	*/
+	public static Maze fromTxtParallel(String filePath){
+		return fromTxtParallel(filePath, ForkJoinPool.commonPool());
+	}
+
+	/**
+	* The method fromTxtParallel is a static method which creates a maze from a 
+	* text file by splitting it into parts of whole lines, which are validated 
+	* and decoded on the given pool. Errors are reported the same way as by 
+	* fromMappedTxt, including a second entrance or exit in a different part 
+	* and ragged rows at the border of two parts. Small files are scanned 
+	* sequentially.
+	*
+	* @param filePath Provides the path to the txt file to be read from.
+	* @param pool the ForkJoinPool used to parse the parts of the file.
+	* @return the Maze instance after building a maze from a text file if 
+	* none exceptions were thrown, null if the file could not be read.
+	*
+	* @throws RaggedMazeException if the number of different rows/columns differ.
+	* @throws InvalidMazeException if the maze is empty or an invalid character 
+	* appeared in the maze text file.
+	* @throws MultipleEntranceException if more than one entrance was provided.
+	* @throws MultipleExitException if more than one exit was provided.
+	* @throws NoEntranceException if an entrance Tile was not provided.
+	* @throws NoExitException if an exit Tile was not provided.
+	*/
+	public static Maze fromTxtParallel(String filePath, ForkJoinPool pool){
+		try (
+			FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)
+		) {
+			ParallelGridParser parser = new ParallelGridParser(channel, pool);
+
+			if (!parser.parse()){
+				return scanMapped(channel, false);
+			}
+
+			Maze maze = new Maze();
+			maze.width = parser.getWidth();
+			maze.height = parser.getHeight();
+			maze.cells = parser.getCells();
+			pool.invoke(maze.new NeighbourMaskTask(0, maze.height));
+
+			maze.setEntrance(maze.materialise(parser.getEntranceIndex()));
+			maze.setExit(maze.materialise(parser.getExitIndex()));
+
+			return maze;
 		}
-		else{
+		catch (IOException e) {
 			return null;
 		}
 	}
 
 	/**
-	* getEntrance is the method used to return the entrance Tile instance.
-	* @return the Tile instance which is described by the tile representation 
-	* "e" (entrance)
+	* The method fromBytes is a static method which creates a maze from the text
+	* of a maze file held in memory, decoding the bytes straight into the packed
+	* grid without copying them or building a String per line.
+	*
+	* @param bytes the text of the maze, in ASCII.
+	* @return the Maze instance after building a maze from the text if none
+	* exceptions were thrown.
+	*
+	* @throws RaggedMazeException if the number of different rows/columns differ.
+	* @throws InvalidMazeException if the maze is empty or an invalid character
+	* appeared in the text.
+	* @throws MultipleEntranceException if more than one entrance was provided.
+	* @throws MultipleExitException if more than one exit was provided.
+	* @throws NoEntranceException if an entrance Tile was not provided.
+	* @throws NoExitException if an exit Tile was not provided.
 	*/
-	public Tile getEntrance(){
-		return this.entrance;
+	public static Maze fromBytes(byte[] bytes){
+		return fromBytes(bytes, 0, bytes.length);
 	}
 
 	/**
-	* getExit is the method used to return the exit Tile instance.
-	* @return the Tile instance which is described by the tile representation 
-	* "x" (exit)
+	* The method fromBytes is a static method which creates a maze from a part
+	* of an array holding the text of a maze file, like fromBytes.
+	*
+	* @param bytes the array holding the text of the maze, in ASCII.
+	* @param offset index of the first byte of the text.
+	* @param length number of bytes of the text.
+	* @return the Maze instance after building a maze from the text if none
+	* exceptions were thrown.
+	*
+	* @throws IndexOutOfBoundsException if the part is not inside of the array.
+	* @throws RaggedMazeException if the number of different rows/columns differ.
+	* @throws InvalidMazeException if the maze is empty or an invalid character
+	* appeared in the text.
+	* @throws MultipleEntranceException if more than one entrance was provided.
+	* @throws MultipleExitException if more than one exit was provided.
+	* @throws NoEntranceException if an entrance Tile was not provided.
+	* @throws NoExitException if an exit Tile was not provided.
 	*/
-	public Tile getExit(){
-		return this.exit;
+	public static Maze fromBytes(byte[] bytes, int offset, int length){
+		return scanBytes(bytes, offset, length, false);
 	}
 
 	/**
-	* getTileAtLocation is the method used to find a specific Tile instance
-	* at provided Coordinates from the Coordinate instance.
+	* The method fromBytes is a static method which creates a maze from the text
+	* of a maze file held in memory, which may have many entrances and exits 
+	* when they are allowed.
 	*
-	* @param c Provides the instance of Coordinate class. 
-	* @return Tile instance at specific coordinates is those are valid, otherwise - null. 
+	* @param bytes the text of the maze, in ASCII.
+	* @param manyEndpoints <code>true</code> to allow more than one entrance
+	* and exit.
+	* @return the Maze instance after building a maze from the text if none
+	* exceptions were thrown.
+	*
+	* @throws RaggedMazeException if the number of different rows/columns differ.
+	* @throws InvalidMazeException if the maze is empty or an invalid character
+	* appeared in the text.
+	* @throws MultipleEntranceException if more than one entrance was provided
+	* and they are not allowed.
+	* @throws MultipleExitException if more than one exit was provided and
+	* they are not allowed.
+	* @throws NoEntranceException if an entrance Tile was not provided.
+	* @throws NoExitException if an exit Tile was not provided.
 	*/
-	public Tile getTileAtLocation(Coordinate c){
-		try{
-			int x = this.getTiles().size() - c.getY() - 1;
-			int y = c.getX();
+	public static Maze fromBytes(byte[] bytes, boolean manyEndpoints){
+		return scanBytes(bytes, 0, bytes.length, manyEndpoints);
+	}
+
+	/**
+	* The method fromBuffer is a static method which creates a maze from the
+	* text of a maze file between the position and the limit of a buffer, which
+	* can be a heap, direct or mapped buffer. The bytes are read in place and
+	* the position of the buffer is not changed.
+	*
+	* @param buffer the buffer holding the text of the maze, in ASCII.
+	* @return the Maze instance after building a maze from the text if none
+	* exceptions were thrown.
+	*
+	* @throws RaggedMazeException if the number of different rows/columns differ.
+	* @throws InvalidMazeException if the maze is empty or an invalid character
+	* appeared in the text.
+	* @throws MultipleEntranceException if more than one entrance was provided.
+	* @throws MultipleExitException if more than one exit was provided.
+	* @throws NoEntranceException if an entrance Tile was not provided.
+	* @throws NoExitException if an exit Tile was not provided.
+	*/
+	public static Maze fromBuffer(ByteBuffer buffer){
+		if (buffer.hasArray()){
+			return fromBytes(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+		}
+
+		ByteBuffer text = buffer.slice();
+		GridScanner scanner = new GridScanner(GridScanner.estimateCells(text, text.limit()));
+		scanner.scan(text, 0, text.limit());
+		return build(scanner);
+	}
+
+	/**
+	* The method fromStream is a static method which creates a maze from the
+	* text of a maze file read from a stream, which is decoded chunk by chunk
+	* straight into the packed grid. The stream is read to its end, but it is
+	* not closed.
+	*
+	* @param stream the stream providing the text of the maze, in ASCII.
+	* @return the Maze instance after building a maze from the text if none
+	* exceptions were thrown, null if the stream could not be read.
+	*
+	* @throws RaggedMazeException if the number of different rows/columns differ.
+	* @throws InvalidMazeException if the maze is empty or an invalid character
+	* appeared in the text.
+	* @throws MultipleEntranceException if more than one entrance was provided.
+	* @throws MultipleExitException if more than one exit was provided.
+	* @throws NoEntranceException if an entrance Tile was not provided.
+	* @throws NoExitException if an exit Tile was not provided.
+	*/
+	public static Maze fromStream(InputStream stream){
+		byte[] chunk = new byte[STREAM_CHUNK];
+		GridScanner scanner = new GridScanner(STREAM_CHUNK);
 
-			if (x < 0 || y < 0 || x >= this.getTiles().size() || y >= this.getTiles().get(0).size()){
-				return null;
+		try {
+			int read;
+			while ((read = stream.read(chunk)) != -1){
+				scanner.scan(chunk, 0, read);
 			}
+		}
+		catch (IOException e) {
+			return null;
+		}
+		return build(scanner);
+	}
+
+	/**
+	* The method fromReader is a static method which creates a maze from the
+	* text of a maze file read from a Reader, like fromStream. The reader is
+	* read to its end, but it is not closed.
+	*
+	* @param reader the reader providing the text of the maze.
+	* @return the Maze instance after building a maze from the text if none
+	* exceptions were thrown, null if the reader could not be read.
+	*
+	* @throws RaggedMazeException if the number of different rows/columns differ.
+	* @throws InvalidMazeException if the maze is empty or an invalid character
+	* appeared in the text.
+	* @throws MultipleEntranceException if more than one entrance was provided.
+	* @throws MultipleExitException if more than one exit was provided.
+	* @throws NoEntranceException if an entrance Tile was not provided.
+	* @throws NoExitException if an exit Tile was not provided.
+	*/
+	public static Maze fromReader(Reader reader){
+		char[] chunk = new char[STREAM_CHUNK];
+		GridScanner scanner = new GridScanner(STREAM_CHUNK);
 
-			return this.getTiles().get(x).get(y);
+		try {
+			int read;
+			while ((read = reader.read(chunk)) != -1){
+				scanner.scan(chunk, 0, read);
+			}
 		}
-		catch (IndexOutOfBoundsException e){
+		catch (IOException e) {
 			return null;
 		}
-		catch (Exception e){
+		return build(scanner);
+	}
+
+	/**
+	* The method fromMzb is a static method which creates a maze from a binary
+	* maze file written by saveMzb. The packed cells are read with a single bulk
+	* read, checked against the checksum of the file and unpacked into the grid,
+	* so no characters have to be parsed.
+	*
+	* @param filePath Provides the path to the mzb file to be read from.
+	* @return the Maze instance after building a maze from a binary file if
+	* none exceptions were thrown, null if the file could not be read.
+	*
+	* @throws InvalidMazeException if the file is not a supported binary maze
+	* file, is truncated or corrupted.
+	* @throws MultipleEntranceException if more than one entrance is stored.
+	* @throws MultipleExitException if more than one exit is stored.
+	* @throws NoEntranceException if the stored entrance is not an entrance Tile.
+	* @throws NoExitException if the stored exit is not an exit Tile.
+	*/
+	public static Maze fromMzb(String filePath){
+		try (
+			FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)
+		) {
+			BinaryMazeFormat file = BinaryMazeFormat.read(channel);
+
+			return build(file.getWidth(), file.getHeight(), file.getCells(),
+				file.getEntranceIndex(), file.getExitIndex());
+		}
+		catch (IOException e) {
 			return null;
 		}
 	}
 
 	/**
-	* getTileLocation is the method to get a Coordinate instance of a specific 
-	* provided tile instance.
+	* saveMzb is the method which writes the maze to a binary maze file, which
+	* can be loaded back with fromMzb.
 	*
-	* @param tile Tile instance is provided.
-	* @return Coordinate instance if the given Tile instance was in the List,
-	* if it was not - null is returned.
+	* @param filePath Provides the path to the mzb file to be written to.
+	*
+	* @throws InvalidMazeException if any error occurred while writing the file,
+	* or the maze has more than one entrance or exit.
 	*/
-	public Coordinate getTileLocation(Tile tile){
-		for (int i = 0; i < this.getTiles().size(); i++ ) {
-	 		for (int j = 0; j < this.getTiles().get(0).size() ; j++ ) {
-	 			if (tile == this.getTiles().get(i).get(j)){
-	 				return new Coordinate(j, this.getTiles().size() - i - 1);
-	 			}
-	 		}
-	 	}
-		return null;
+	public void saveMzb(String filePath){
+		this.checkSingleEndpoints();
+
+		try (
+			FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)
+		) {
+			BinaryMazeFormat.write(channel, this.width, this.height, this.cellArray(),
+				this.indexOf(this.entrance), this.indexOf(this.exit));
+		}
+		catch (IOException e) {
+			throw new InvalidMazeException("Could not write to that file!");
+		}
 	}
 
 	/**
-	* getTiles is the method used to return the tiles of the current Maze instance. 
-	* 
-	* @return a two dimensional List of Tile instances. 
+	* convertTxtToMzb is the method which converts a maze text file to a binary
+	* maze file, so that it can be loaded faster later on.
+	*
+	* @param txtPath Provides the path to the txt file to be read from.
+	* @param mzbPath Provides the path to the mzb file to be written to.
+	*
+	* @throws InvalidMazeException if the text file could not be found, is not
+	* a valid maze or the binary file could not be written.
 	*/
-	public List<List<Tile>> getTiles(){
-		return tiles;
+	public static void convertTxtToMzb(String txtPath, String mzbPath){
+		Maze maze = fromMappedTxt(txtPath);
+
+		if (maze == null){
+			throw new InvalidMazeException("That file was not found!");
+		}
+		maze.saveMzb(mzbPath);
 	}
 
-	private void setEntrance(Tile tile){
-		if (this.entrance == null){
-			for (int i = 0; i < this.getTiles().size(); i++) {
-				if (this.getTiles().get(i).contains(tile))
-				{
-					this.entrance = tile;
-					return;
-				}
-			}
+	/**
+	* The method fromMzc is a static method which creates a maze from a
+	* block-compressed maze file written by saveMzc, decoding all of its blocks.
+	*
+	* @param filePath Provides the path to the mzc file to be read from.
+	* @return the Maze instance after building a maze from a compressed file if
+	* none exceptions were thrown, null if the file could not be read.
+	*
+	* @throws InvalidMazeException if the file is not a supported compressed maze
+	* file, is truncated or corrupted.
+	* @throws MultipleEntranceException if more than one entrance is stored.
+	* @throws MultipleExitException if more than one exit is stored.
+	* @throws NoEntranceException if the stored entrance is not an entrance Tile.
+	* @throws NoExitException if the stored exit is not an exit Tile.
+	*/
+	public static Maze fromMzc(String filePath){
+		try (
+			FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)
+		) {
+			BlockMazeFormat file = BlockMazeFormat.open(channel);
+
+			return build(file.getWidth(), file.getHeight(), file.readAll(),
+				file.getEntranceIndex(), file.getExitIndex());
 		}
-		else{
-			throw new MultipleEntranceException();
+		catch (IOException e) {
+			return null;
 		}
 	}
 
-	private void setExit(Tile tile){
-		if (this.exit == null){
-			for (int i = 0; i < this.getTiles().size(); i++) {
-				if (this.getTiles().get(i).contains(tile))
-				{
-					this.exit = tile;
-					return;
+	/**
+	* The method fromMzcRegion is a static method which reads a rectangle of
+	* a block-compressed maze file, decoding only the blocks which overlap it,
+	* so a small part of a very large maze can be looked at without loading it.
+	* The rectangle uses the same coordinates as Coordinate, so (x, y) is its
+	* bottom left corner and y grows upwards.
+	*
+	* @param filePath Provides the path to the mzc file to be read from.
+	* @param x the column of the left side of the region.
+	* @param y the row of the bottom side of the region, counted from the bottom.
+	* @param width the number of columns of the region.
+	* @param height the number of rows of the region.
+	* @return the Tiles of the region ordered like getTiles, starting with the
+	* top row, null if the file could not be read.
+	*
+	* @throws InvalidMazeException if the file is not a supported compressed maze
+	* file or a block of the region is corrupted.
+	* @throws IndexOutOfBoundsException if the region is not inside the maze.
+	*/
+	public static List<List<Tile>> fromMzcRegion(String filePath, int x, int y, int width, int height){
+		try (
+			FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)
+		) {
+			BlockMazeFormat file = BlockMazeFormat.open(channel);
+			byte[] region = file.readRegion(file.getHeight() - y - height, x, height, width);
+			List<List<Tile>> rows = new ArrayList<List<Tile>>(height);
+
+			for (int row = 0; row < height; row++){
+				List<Tile> tiles = new ArrayList<Tile>(width);
+
+				for (int column = 0; column < width; column++){
+					tiles.add(Tile.fromType(TYPES[region[row * width + column]]));
 				}
+				rows.add(tiles);
 			}
+			return rows;
 		}
-		else{
-			throw new MultipleExitException();
+		catch (IOException e) {
+			return null;
 		}
 	}
 
 	/**
-	* toString is the overriden method which is used to provide a String representation
-	* of a created Maze object.
+	* saveMzc is the method which writes the maze to a block-compressed maze
+	* file, which can be loaded back with fromMzc or read in parts with
+	* fromMzcRegion.
 	*
-	* @return String representation of a Maze instance. 
+	* @param filePath Provides the path to the mzc file to be written to.
+	*
+	* @throws InvalidMazeException if any error occurred while writing the file,
+	* or the maze has more than one entrance or exit.
 	*/
-	@Override
-	public String toString(){
-	 	String board = new String();
-	 	List<List<Tile>> tiles = this.getTiles();
+	public void saveMzc(String filePath){
+		this.checkSingleEndpoints();
 
-	 	for (int i = 0; i < tiles.size(); i++) {
-	 		board += (tiles.size()- 1 - i) + "     ";;
-	 		for (int j = 0; j < tiles.get(0).size() ; j++) {
-    			board += tiles.get(i).get(j).toString() + "  ";
-	 		}
-	 		board += "\n";
-	 	}
-	 	board += "\n\n      ";
-	 	for (int j = 0; j < tiles.get(0).size() ; j++ ) {
-    			String emptySpace = "  ";
-    			if (j > 9){
-    				emptySpace = " ";
-    			}
-    			board += j + emptySpace;
-	 		}
+		try (
+			FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)
+		) {
+			BlockMazeFormat.write(channel, this.width, this.height, this.cellArray(),
+				this.indexOf(this.entrance), this.indexOf(this.exit));
+		}
+		catch (IOException e) {
+			throw new InvalidMazeException("Could not write to that file!");
+		}
+	}
 
-		return board;
+	/**
+	* The method fromTxtPaged is a static method which creates a maze which is
+	* kept on disk instead of on the heap, for mazes which do not fit into
+	* memory. The text file is converted into a page file of square pages, and
+	* only the given number of pages are held in memory at a time. Cells are 
+	* read transparently when they are accessed, changed pages are written back
+	* to the page file.
+	*
+	* @param filePath Provides the path to the txt file to be read from.
+	* @param pageFilePath Provides the path of the page file to be created.
+	* @param cachedPages the number of pages which are held in memory.
+	* @return the Maze instance after building a maze from a text file if 
+	* none exceptions were thrown, null if a file could not be read or written.
+	*
+	* @throws RaggedMazeException if the number of different rows/columns differ.
+	* @throws InvalidMazeException if the maze is empty or an invalid character 
+	* appeared in the maze text file.
+	* @throws MultipleEntranceException if more than one entrance was provided.
+	* @throws MultipleExitException if more than one exit was provided.
+	* @throws NoEntranceException if an entrance Tile was not provided.
+	* @throws NoExitException if an exit Tile was not provided.
+	*/
+	public static Maze fromTxtPaged(String filePath, String pageFilePath, int cachedPages){
+		try {
+			return buildPaged(PagedGrid.create(filePath, pageFilePath, cachedPages));
+		}
+		catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	* The method fromPageFile is a static method which opens a page file written
+	* by fromTxtPaged again, without reading the text file.
+	*
+	* @param pageFilePath Provides the path of the page file.
+	* @param cachedPages the number of pages which are held in memory.
+	* @return the Maze instance kept in the page file, null if the file could 
+	* not be read.
+	*
+	* @throws InvalidMazeException if the file is not a valid page file.
+	*/
+	public static Maze fromPageFile(String pageFilePath, int cachedPages){
+		try {
+			return buildPaged(PagedGrid.open(pageFilePath, cachedPages));
+		}
+		catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static Maze buildPaged(PagedGrid pages){
+		Maze maze = new Maze();
+
+		maze.width = pages.getWidth();
+		maze.height = pages.getHeight();
+		maze.pages = pages;
+		// no Tile is kept per cell, so the memory stays bounded by the page cache
+		maze.sharedTiles = true;
+
+		maze.entranceIndex = pages.getEntranceIndex();
+		maze.entrance = maze.materialise(maze.entranceIndex);
+		maze.exitIndex = pages.getExitIndex();
+		maze.exit = maze.materialise(maze.exitIndex);
+
+		if (maze.entrance == null || maze.entrance.getType() != Tile.Type.ENTRANCE){
+			throw new NoEntranceException();
+		}
+		if (maze.exit == null || maze.exit.getType() != Tile.Type.EXIT){
+			throw new NoExitException();
+		}
+		return maze;
+	}
+
+	/**
+	* getPagedGrid is the method which returns the on-disk storage of a maze
+	* created by fromTxtPaged or fromPageFile, which tells how well its page 
+	* cache works.
+	*
+	* @return the PagedGrid of the maze, null if the maze is kept in memory.
+	*/
+	public PagedGrid getPagedGrid(){
+		return this.pages;
+	}
+
+	/**
+	* The method validate is a static method which checks a maze text file 
+	* without building the maze, stopping at the first error.
+	*
+	* @param filePath Provides the path to the txt file to be checked.
+	* @return the report of the file, whose first error is the exception 
+	* fromTxt would throw, null if the file could not be read.
+	*/
+	public static MazeValidationReport validate(String filePath){
+		return validate(filePath, false);
+	}
+
+	/**
+	* The method validate is a static method which checks a maze text file 
+	* without building the maze. The file is streamed and no Tiles or cells
+	* are created, so it is much cheaper than loading the maze.
+	*
+	* @param filePath Provides the path to the txt file to be checked.
+	* @param allErrors <code>true</code> to report every error of the file,
+	* otherwise checking stops at the first one.
+	* @return the report of the file, null if the file could not be read.
+	*/
+	public static MazeValidationReport validate(String filePath, boolean allErrors){
+		try {
+			return MazeValidator.validate(filePath, allErrors, new byte[MazeValidator.BUFFER_SIZE]);
+		}
+		catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	* The method validateDirectory is a static method which checks all maze
+	* text files (ending with .txt) of a directory, stopping at the first error
+	* of every file. Files which cannot be read are left out.
+	*
+	* @param directoryPath Provides the path to the directory.
+	* @param allErrors <code>true</code> to report every error of a file.
+	* @return the reports of the files ordered by their names, null if the
+	* directory could not be read.
+	*/
+	public static List<MazeValidationReport> validateDirectory(String directoryPath, boolean allErrors){
+		List<Path> files = new ArrayList<Path>();
+
+		try (
+			DirectoryStream<Path> directory = Files.newDirectoryStream(Paths.get(directoryPath), "*.txt")
+		) {
+			for (Path file : directory){
+				if (Files.isRegularFile(file)){
+					files.add(file);
+				}
+			}
+		}
+		catch (IOException e) {
+			return null;
+		}
+
+		Collections.sort(files);
+		List<MazeValidationReport> reports = new ArrayList<MazeValidationReport>(files.size());
+		byte[] buffer = new byte[MazeValidator.BUFFER_SIZE];
+
+		for (Path file : files){
+			try {
+				reports.add(MazeValidator.validate(file.toString(), allErrors, buffer));
+			}
+			catch (IOException e) {
+				// the file could not be read, it is left out
+			}
+		}
+		return reports;
+	}
+
+	private static Maze scanBytes(byte[] bytes, int offset, int length, boolean manyEndpoints){
+		if (offset < 0 || length < 0 || offset > bytes.length - length){
+			throw new IndexOutOfBoundsException("Part " + offset + "+" + length + " is outside of the array");
+		}
+
+		ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length).slice();
+		GridScanner scanner = new GridScanner(GridScanner.estimateCells(buffer, length), manyEndpoints);
+		scanner.scan(bytes, offset, offset + length);
+		return build(scanner);
+	}
+
+	private static Maze scanMapped(FileChannel channel, boolean manyEndpoints) throws IOException{
+		long fileSize = channel.size();
+		GridScanner scanner = null;
+
+		// a single mapping cannot be larger than 2GB, so larger files
+		// are mapped and scanned one window after another
+		for (long position = 0; position < fileSize; position += MAPPING_WINDOW){
+			int length = (int)Math.min(MAPPING_WINDOW, fileSize - position);
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+			if (scanner == null){
+				scanner = new GridScanner(GridScanner.estimateCells(buffer, fileSize), manyEndpoints);
+			}
+			scanner.scan(buffer, 0, length);
+		}
+
+		if (scanner == null){
+			scanner = new GridScanner(0);
+		}
+		return build(scanner);
+	}
+
+	// finishes the scanner and creates the maze from the cells it decoded
+	private static Maze build(GridScanner scanner){
+		scanner.finish();
+
+		Maze maze = build(scanner.getWidth(), scanner.getHeight(), scanner.getCells(), 
+			scanner.getEntranceIndex(), scanner.getExitIndex());
+
+		if (scanner.hasManyEndpoints()){
+			maze.manyEndpoints = true;
+			maze.entranceIndices = scanner.getEntrances();
+			maze.exitIndices = scanner.getExits();
+		}
+		return maze;
+	}
+
+	// creates the maze from decoded cells, which hold only type codes so far
+	private static Maze build(int width, int height, byte[] cells, int entranceIndex, int exitIndex){
+		Maze maze = new Maze();
+
+		maze.width = width;
+		maze.height = height;
+		maze.cells = cells;
+		maze.computeNeighbourMasks();
+
+		maze.setEntrance(maze.materialise(entranceIndex));
+		maze.setExit(maze.materialise(exitIndex));
+
+		return maze;
+	}
+
+	/**
+	* getAdjacentTile is the method which is used to find an adjacent Tile instance
+	* of the given Tile object in the provided direction.
+	*
+	* @param tile The instance is given to find a particular neighbouring Tile of it. 
+	* @param direction Provides the direction to search for an adjacent Tile instance.
+	* @return Tile instance which is adjecent to the given one in that direction
+	* , if there is no such tile, null is returned.
+	*/
+	public Tile getAdjacentTile(Tile tile, Direction direction){
+		int index = this.indexOf(tile);
+
+		if (index == -1 || direction == null){
+			return null;
+		}
+
+		int adjacent = this.getAdjacentTile(index, direction);
+
+		if (adjacent == -1){
+			return null;
+		}
+		return this.materialise(adjacent);
+	}
+
+	/**
+	* getAdjacentTile is the method which finds the cell next to the given one
+	* in the provided direction, whatever its type, without creating any objects.
+	*
+	* @param index of the cell in row-major order.
+	* @param direction Provides the direction to search for an adjacent cell.
+	* @return index of the adjacent cell, or -1 if it is outside of the maze.
+	*/
+	public int getAdjacentTile(int index, Direction direction){
+		int row = index / this.width - direction.getDy();
+		int column = index % this.width + direction.getDx();
+
+		if (row < 0 || column < 0 || row >= this.height || column >= this.width){
+			return -1;
+		}
+		return row * this.width + column;
+	}
+
+	/**
+	* getNeighbourMask is the method which returns the precomputed mask of the
+	* navigable neighbours of a cell.
+	*
+	* @param index of the cell in row-major order.
+	* @return bitwise or of Direction.getMask() for every direction in which 
+	* a navigable Tile lies next to the cell.
+	*/
+	public int getNeighbourMask(int index){
+		return (this.cell(index) >> NEIGHBOUR_SHIFT) & TYPE_BITS;
+	}
+
+	/**
+	* getNeighbours is the method which writes the indices of the navigable
+	* neighbours of a cell into the given array, in the order north, south, 
+	* east, west. It does not allocate, so it can be used in solver loops.
+	*
+	* @param index of the cell in row-major order.
+	* @param neighbours array of at least four elements to be filled.
+	* @return the number of neighbours written to the array.
+	*/
+	public int getNeighbours(int index, int[] neighbours){
+		int mask = this.getNeighbourMask(index);
+		int count = 0;
+
+		if ((mask & NORTH_MASK) != 0){
+			neighbours[count++] = index - this.width;
+		}
+		if ((mask & SOUTH_MASK) != 0){
+			neighbours[count++] = index + this.width;
+		}
+		if ((mask & EAST_MASK) != 0){
+			neighbours[count++] = index + 1;
+		}
+		if ((mask & WEST_MASK) != 0){
+			neighbours[count++] = index - 1;
+		}
+		return count;
+	}
+
+	/**
+	* getNeighbourOffsets is the method which returns the table of how far the
+	* index of the neighbour in every direction is from the index of a cell,
+	* so that a solver steps to a neighbour by one addition. The offsets only
+	* lead to a cell of the maze in the directions of the neighbour mask.
+	*
+	* @return a new array of the index offsets, indexed by the ordinal of the
+	* Direction.
+	*/
+	public int[] getNeighbourOffsets(){
+		Direction[] directions = Direction.values();
+		int[] offsets = new int[directions.length];
+
+		for (Direction direction : directions){
+			offsets[direction.ordinal()] = direction.getDx() - direction.getDy() * this.width;
+		}
+		return offsets;
+	}
+
+	/**
+	* getNeighbour is the method which returns the navigable neighbour of a cell
+	* in the given direction.
+	*
+	* @param index of the cell in row-major order.
+	* @param direction Provides the direction to look in.
+	* @return index of the neighbouring cell, or -1 if it is not navigable or 
+	* outside of the maze.
+	*/
+	public int getNeighbour(int index, Direction direction){
+		if ((this.getNeighbourMask(index) & direction.getMask()) == 0){
+			return -1;
+		}
+		return index - direction.getDy() * this.width + direction.getDx();
+	}
+
+	/**
+	* getIndex is the method which converts the x and y coordinates of a cell
+	* into its index, the same way as a Coordinate of the cell would be used.
+	*
+	* @param x coordinate of the cell, growing to the east.
+	* @param y coordinate of the cell, growing to the north.
+	* @return index of the cell in row-major order, -1 if it is outside of the maze.
+	*/
+	public int getIndex(int x, int y){
+		int row = this.height - y - 1;
+
+		if (row < 0 || x < 0 || row >= this.height || x >= this.width){
+			return -1;
+		}
+		return row * this.width + x;
+	}
+
+	/**
+	* getIndex is the method which converts a Coordinate into the index of its cell.
+	*
+	* @param c the Coordinate of the cell.
+	* @return index of the cell in row-major order, -1 if it is outside of the maze.
+	*/
+	public int getIndex(Coordinate c){
+		return this.getIndex(c.getX(), c.getY());
+	}
+
+	/**
+	* getX is the method which returns the x coordinate of a cell.
+	*
+	* @param index of the cell in row-major order.
+	* @return the x coordinate of the cell.
+	*/
+	public int getX(int index){
+		return index % this.width;
+	}
+
+	/**
+	* getY is the method which returns the y coordinate of a cell.
+	*
+	* @param index of the cell in row-major order.
+	* @return the y coordinate of the cell.
+	*/
+	public int getY(int index){
+		return this.height - index / this.width - 1;
+	}
+
+	/**
+	* getCoordinate is the method which creates the Coordinate of a cell.
+	*
+	* @param index of the cell in row-major order.
+	* @return the Coordinate of the cell.
+	*/
+	public Coordinate getCoordinate(int index){
+		return new Coordinate(this.getX(index), this.getY(index));
+	}
+
+	/**
+	* packCoordinate is the method which stores the x and y coordinates in a
+	* single long, which can be kept and compared without creating a Coordinate
+	* and does not depend on the size of a maze.
+	*
+	* @param x coordinate, in the upper 32 bits.
+	* @param y coordinate, in the lower 32 bits.
+	* @return the packed coordinates.
+	*/
+	public static long packCoordinate(int x, int y){
+		return ((long)x << 32) | (y & 0xFFFFFFFFL);
+	}
+
+	/**
+	* unpackX is the method which returns the x coordinate of packed coordinates.
+	*
+	* @param packed coordinates made by packCoordinate.
+	* @return the x coordinate.
+	*/
+	public static int unpackX(long packed){
+		return (int)(packed >> 32);
+	}
+
+	/**
+	* unpackY is the method which returns the y coordinate of packed coordinates.
+	*
+	* @param packed coordinates made by packCoordinate.
+	* @return the y coordinate.
+	*/
+	public static int unpackY(long packed){
+		return (int)packed;
+	}
+
+	/**
+	* getPackedCoordinate is the method which returns the packed coordinates of a cell.
+	*
+	* @param index of the cell in row-major order.
+	* @return the coordinates of the cell packed by packCoordinate.
+	*/
+	public long getPackedCoordinate(int index){
+		return packCoordinate(this.getX(index), this.getY(index));
+	}
+
+	/**
+	* getIndexOfPacked is the method which converts packed coordinates into
+	* the index of their cell.
+	*
+	* @param packed coordinates made by packCoordinate.
+	* @return index of the cell in row-major order, -1 if it is outside of the maze.
+	*/
+	public int getIndexOfPacked(long packed){
+		return this.getIndex(unpackX(packed), unpackY(packed));
+	}
+
+	/**
+	* getTileAtLocation is the method which returns the Tile at the given x and
+	* y coordinates without creating a Coordinate.
+	*
+	* @param x coordinate of the cell, growing to the east.
+	* @param y coordinate of the cell, growing to the north.
+	* @return Tile instance at that location, null if it is outside of the maze.
+	*/
+	public Tile getTileAtLocation(int x, int y){
+		int index = this.getIndex(x, y);
+
+		if (index == -1){
+			return null;
+		}
+		return this.materialise(index);
+	}
+
+	/**
+	* getTileIndex is the method which returns the index of a Tile of this maze
+	* in the packed grid, which is used by the index based methods.
+	*
+	* @param tile Tile instance is provided.
+	* @return index of the cell in row-major order, -1 if the tile is not in the maze.
+	*/
+	public int getTileIndex(Tile tile){
+		return this.indexOf(tile);
+	}
+
+	/**
+	* getTileAtLocation is the method used to get the Tile instance of a cell
+	* given by its index in the packed grid.
+	*
+	* @param index of the cell in row-major order.
+	* @return Tile instance of that cell, null if the index is outside of the maze.
+	*/
+	public Tile getTileAtLocation(int index){
+		if (index < 0 || index >= this.width * this.height){
+			return null;
+		}
+		return this.materialise(index);
+	}
+
+	/**
+	* getEntrance is the method used to return the entrance Tile instance.
+	* @return the Tile instance which is described by the tile representation 
+	* "e" (entrance)
+	*/
+	public Tile getEntrance(){
+		return this.entrance;
+	}
+
+	/**
+	* getExit is the method used to return the exit Tile instance.
+	* @return the Tile instance which is described by the tile representation 
+	* "x" (exit)
+	*/
+	public Tile getExit(){
+		return this.exit;
+	}
+
+	/**
+	* getTileAtLocation is the method used to find a specific Tile instance
+	* at provided Coordinates from the Coordinate instance.
+	*
+	* @param c Provides the instance of Coordinate class. 
+	* @return Tile instance at specific coordinates is those are valid, otherwise - null. 
+	*/
+	public Tile getTileAtLocation(Coordinate c){
+		if (c == null){
+			return null;
+		}
+
+		int index = this.getIndex(c);
+
+		if (index == -1){
+			return null;
+		}
+		return this.materialise(index);
+	}
+
+	/**
+	* getTileLocation is the method to get a Coordinate instance of a specific 
+	* provided tile instance.
+	*
+	* @param tile Tile instance is provided.
+	* @return Coordinate instance if the given Tile instance was in the List,
+	* if it was not - null is returned.
+	*/
+	public Coordinate getTileLocation(Tile tile){
+		int index = this.indexOf(tile);
+
+		if (index == -1){
+			return null;
+		}
+		return this.getCoordinate(index);
+	}
+
+	/**
+	* getTiles is the method used to return the tiles of the current Maze instance. 
+	* The returned List is a view over the packed grid, so Tile instances are 
+	* only created for the cells which are actually accessed through it.
+	* 
+	* @return a two dimensional List of Tile instances. 
+	*/
+	public List<List<Tile>> getTiles(){
+		return tiles;
+	}
+
+	/**
+	* setSharedTiles is the method which switches the maze between a Tile 
+	* instance of its own for every cell and one shared Tile instance for all 
+	* cells of a type. Shared tiles keep no object per cell on the heap, but 
+	* tiles of the same type can no longer be told apart, so the index based 
+	* methods have to be used to identify cells, like getTileIndex which only
+	* finds the entrance and the exit. Tiles returned before the switch no
+	* longer belong to the maze. A maze kept on disk always shares its tiles,
+	* as a Tile for every touched cell would not be bounded by the page cache.
+	*
+	* @param sharedTiles <code>true</code> to share one Tile instance per type.
+	*/
+	public void setSharedTiles(boolean sharedTiles){
+		if (this.sharedTiles == sharedTiles || this.pages != null){
+			return;
+		}
+
+		this.materialisedTiles = null;
+		this.sharedTiles = sharedTiles;
+
+		if (this.entranceIndex != -1){
+			this.entrance = this.materialise(this.entranceIndex);
+		}
+		if (this.exitIndex != -1){
+			this.exit = this.materialise(this.exitIndex);
+		}
+	}
+
+	/**
+	* isSharedTiles is the method which shows if the maze shares one Tile 
+	* instance between all cells of a type.
+	*
+	* @return <code>true</code> if the tiles are shared.
+	*/
+	public boolean isSharedTiles(){
+		return this.sharedTiles;
+	}
+
+	/**
+	* setTile is the method which changes the type of a single cell of the maze.
+	* Only the neighbour masks of the cell and of the cells around it are
+	* repaired and the change listeners are told about the edit, so an edit
+	* costs the same on any size of maze. Setting an entrance or an exit moves
+	* it, the cell which held it before becomes a corridor, unless the maze
+	* has many endpoints, where it is added to the others.
+	*
+	* @param c the Coordinate of the cell.
+	* @param type the new type of the cell.
+	* @return the type the cell had before.
+	*
+	* @throws IndexOutOfBoundsException if the cell is outside of the maze.
+	* @throws NoEntranceException if the entrance would be overwritten.
+	* @throws NoExitException if the exit would be overwritten.
+	*/
+	public Tile.Type setTile(Coordinate c, Tile.Type type){
+		int index = this.getIndex(c);
+
+		if (index == -1){
+			throw new IndexOutOfBoundsException("Coordinate " + c + " is outside of the maze");
+		}
+		return this.setTile(index, type);
+	}
+
+	/**
+	* setTile is the method which changes the type of a single cell of the maze
+	* given by its index, like setTile with a Coordinate.
+	*
+	* @param index of the cell in row-major order.
+	* @param type the new type of the cell.
+	* @return the type the cell had before.
+	*
+	* @throws IndexOutOfBoundsException if the cell is outside of the maze.
+	* @throws NoEntranceException if the entrance would be overwritten.
+	* @throws NoExitException if the exit would be overwritten.
+	*/
+	public Tile.Type setTile(int index, Tile.Type type){
+		this.checkIndex(index);
+
+		Tile.Type previousType = this.typeAt(index);
+
+		if (previousType == type){
+			return previousType;
+		}
+
+		if (this.manyEndpoints){
+			this.setEndpointTile(index, previousType, type);
+			return previousType;
+		}
+
+		if (index == this.entranceIndex){
+			throw new NoEntranceException("The entrance cannot be overwritten, it can only be moved!");
+		}
+		if (index == this.exitIndex){
+			throw new NoExitException("The exit cannot be overwritten, it can only be moved!");
+		}
+
+		if (type == Tile.Type.ENTRANCE){
+			int previousEntrance = this.entranceIndex;
+
+			this.changeType(previousEntrance, Tile.Type.CORRIDOR);
+			this.changeType(index, type);
+			this.entranceIndex = index;
+			this.entrance = this.materialise(index);
+			if (this.pages != null){
+				this.pages.setEntranceIndex(index);
+			}
+
+			this.fireTileChanged(previousEntrance, Tile.Type.ENTRANCE, Tile.Type.CORRIDOR);
+		}
+		else if (type == Tile.Type.EXIT){
+			int previousExit = this.exitIndex;
+
+			this.changeType(previousExit, Tile.Type.CORRIDOR);
+			this.changeType(index, type);
+			this.exitIndex = index;
+			this.exit = this.materialise(index);
+			if (this.pages != null){
+				this.pages.setExitIndex(index);
+			}
+
+			this.fireTileChanged(previousExit, Tile.Type.EXIT, Tile.Type.CORRIDOR);
+		}
+		else{
+			this.changeType(index, type);
+		}
+
+		this.fireTileChanged(index, previousType, type);
+		return previousType;
+	}
+
+	/**
+	* toggleWall is the method which turns a wall into a corridor and any 
+	* other cell into a wall.
+	*
+	* @param c the Coordinate of the cell.
+	* @return the new type of the cell.
+	*
+	* @throws IndexOutOfBoundsException if the cell is outside of the maze.
+	* @throws NoEntranceException if the cell is the entrance.
+	* @throws NoExitException if the cell is the exit.
+	*/
+	public Tile.Type toggleWall(Coordinate c){
+		int index = this.getIndex(c);
+		Tile.Type type = Tile.Type.WALL;
+
+		if (index != -1 && this.typeAt(index) == Tile.Type.WALL){
+			type = Tile.Type.CORRIDOR;
+		}
+
+		this.setTile(c, type);
+		return type;
+	}
+
+	/**
+	* withoutDeadEnds is the method which returns a copy of the maze where 
+	* every cell which cannot be part of a route is filled with a wall. Dead
+	* ends, corridors or terrain with at most one navigable neighbour, are filled one
+	* after another until none remain, each filled cell putting its last
+	* neighbour in the queue if that one became a dead end, so the pass is
+	* linear in the number of cells. The entrances and exits are never filled.
+	* The cells keep their indices, so a route found in the copy, for example
+	* by a RouteFinder which then never has to back out of a dead end, is a
+	* route of this maze as well.
+	*
+	* @return a new Maze instance without dead ends.
+	*/
+	public Maze withoutDeadEnds(){
+		byte[] cells = this.pages != null ? this.pages.readAll() : this.cells.clone();
+		Maze pruned = build(this.width, this.height, cells, this.entranceIndex, this.exitIndex);
+
+		if (this.manyEndpoints){
+			pruned.manyEndpoints = true;
+			pruned.entranceIndices = this.entranceIndices.clone();
+			pruned.exitIndices = this.exitIndices.clone();
+		}
+
+		pruned.fillDeadEnds();
+		return pruned;
+	}
+
+	/**
+	* setManyEndpoints is the method which allows or forbids more than one
+	* entrance and exit. While they are allowed, setTile adds entrances and 
+	* exits instead of moving them, and only the last entrance or exit cannot
+	* be overwritten.
+	*
+	* @param manyEndpoints <code>true</code> to allow many entrances and exits.
+	*
+	* @throws InvalidMazeException if the maze is kept on disk, which can only
+	* have one entrance and exit.
+	* @throws MultipleEntranceException if they are forbidden while the maze
+	* has more than one entrance.
+	* @throws MultipleExitException if they are forbidden while the maze has 
+	* more than one exit.
+	*/
+	public void setManyEndpoints(boolean manyEndpoints){
+		if (this.manyEndpoints == manyEndpoints){
+			return;
+		}
+
+		if (manyEndpoints){
+			if (this.pages != null){
+				throw new InvalidMazeException("A maze kept on disk can only have one entrance and one exit!");
+			}
+			this.entranceIndices = new int[] {this.entranceIndex};
+			this.exitIndices = new int[] {this.exitIndex};
+		}
+		else{
+			if (this.entranceIndices.length > 1){
+				throw new MultipleEntranceException();
+			}
+			if (this.exitIndices.length > 1){
+				throw new MultipleExitException();
+			}
+			this.entranceIndices = null;
+			this.exitIndices = null;
+		}
+		this.manyEndpoints = manyEndpoints;
+	}
+
+	/**
+	* hasManyEndpoints is the method which shows if the maze may have more
+	* than one entrance and exit.
+	*
+	* @return <code>true</code> if many entrances and exits are allowed.
+	*/
+	public boolean hasManyEndpoints(){
+		return this.manyEndpoints;
+	}
+
+	/**
+	* getEntranceIndices is the method which returns the cells of all entrances.
+	*
+	* @return a new array of the indices of the entrances in increasing order.
+	*/
+	public int[] getEntranceIndices(){
+		if (this.manyEndpoints){
+			return this.entranceIndices.clone();
+		}
+		return new int[] {this.entranceIndex};
+	}
+
+	/**
+	* getExitIndices is the method which returns the cells of all exits.
+	*
+	* @return a new array of the indices of the exits in increasing order.
+	*/
+	public int[] getExitIndices(){
+		if (this.manyEndpoints){
+			return this.exitIndices.clone();
+		}
+		return new int[] {this.exitIndex};
+	}
+
+	/**
+	* addChangeListener is the method which registers a listener which is told
+	* about every change of a cell of the maze.
+	*
+	* @param listener the listener to add.
+	*/
+	public void addChangeListener(MazeChangeListener listener){
+		if (this.changeListeners == null){
+			// listeners are added and removed rarely but told about every edit,
+			// and a listener may remove itself while it is told
+			this.changeListeners = new CopyOnWriteArrayList<MazeChangeListener>();
+		}
+		this.changeListeners.add(listener);
+	}
+
+	/**
+	* removeChangeListener is the method which stops telling a listener about
+	* the changes of the maze.
+	*
+	* @param listener the listener to remove.
+	*/
+	public void removeChangeListener(MazeChangeListener listener){
+		if (this.changeListeners != null){
+			this.changeListeners.remove(listener);
+		}
+	}
+
+	/**
+	* getWidth is the method used to return the number of columns of the maze.
+	*
+	* @return the width of the maze.
+	*/
+	public int getWidth(){
+		return this.width;
+	}
+
+	/**
+	* getHeight is the method used to return the number of rows of the maze.
+	*
+	* @return the height of the maze.
+	*/
+	public int getHeight(){
+		return this.height;
+	}
+
+	private void setEntrance(Tile tile){
+		if (this.entrance == null){
+			if (this.getTileLocation(tile) != null){
+				this.entranceIndex = this.indexOf(tile);
+				this.entrance = tile;
+			}
+		}
+		else{
+			throw new MultipleEntranceException();
+		}
+	}
+
+	private void setExit(Tile tile){
+		if (this.exit == null){
+			if (this.getTileLocation(tile) != null){
+				this.exitIndex = this.indexOf(tile);
+				this.exit = tile;
+			}
+		}
+		else{
+			throw new MultipleExitException();
+		}
+	}
+
+	/**
+	* isNavigable is the method which shows if a cell can be visited.
+	*
+	* @param index of the cell in row-major order.
+	* @return <code>true</code> if the cell is a corridor, the entrance or the exit.
+	*/
+	public boolean isNavigable(int index){
+		return this.isNavigableAt(index);
+	}
+
+	/**
+	* getTileType is the method which returns the type of a cell without
+	* creating a Tile instance for it, so it can be used in solver loops.
+	*
+	* @param index of the cell in row-major order.
+	* @return the type of the cell.
+	*/
+	public Tile.Type getTileType(int index){
+		return this.typeAt(index);
+	}
+
+	/**
+	* getTileCost is the method which returns the cost of stepping onto a cell,
+	* which is 1 for corridors and the endpoints and more for weighted terrain.
+	*
+	* @param index of the cell in row-major order.
+	* @return the cost of the type of the cell, 0 for a wall.
+	*/
+	public int getTileCost(int index){
+		return this.typeAt(index).getCost();
+	}
+
+	/**
+	* isExitReachable is the method which shows if there is any route from an
+	* entrance to an exit. The components of the maze are labelled by a single
+	* pass the first time they are needed, afterwards the answer takes constant
+	* time for a maze with one entrance and one exit. The labels use four bytes
+	* per cell.
+	*
+	* @return <code>true</code> if the maze can be solved.
+	*/
+	public boolean isExitReachable(){
+		return this.getReachingEntrance() != -1;
+	}
+
+	/**
+	* getReachingEntrance is the method which returns an entrance from which an
+	* exit can be reached, the first one in the order of getEntranceIndices.
+	* With many endpoints the components of the exits are sorted, so that every
+	* entrance is looked up in logarithmic time.
+	*
+	* @return index of the entrance, -1 if no exit can be reached from any entrance.
+	*/
+	public int getReachingEntrance(){
+		if (!this.manyEndpoints){
+			return this.connectivity().areConnected(this.entranceIndex, this.exitIndex) ? this.entranceIndex : -1;
+		}
+
+		ConnectivityIndex connectivity = this.connectivity();
+		int[] exitComponents = new int[this.exitIndices.length];
+		for (int i = 0; i < exitComponents.length; i++){
+			exitComponents[i] = connectivity.getComponent(this.exitIndices[i]);
+		}
+		Arrays.sort(exitComponents);
+
+		for (int entrance : this.entranceIndices){
+			int component = connectivity.getComponent(entrance);
+			if (component != -1 && Arrays.binarySearch(exitComponents, component) >= 0){
+				return entrance;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	* areConnected is the method which shows if there is a path between two cells.
+	*
+	* @param first index of a cell in row-major order.
+	* @param second index of a cell in row-major order.
+	* @return <code>true</code> if both cells are navigable and connected.
+	*
+	* @throws IndexOutOfBoundsException if a cell is outside of the maze.
+	*/
+	public boolean areConnected(int first, int second){
+		this.checkIndex(first);
+		this.checkIndex(second);
+		return this.connectivity().areConnected(first, second);
+	}
+
+	/**
+	* areConnected is the method which shows if there is a path between the
+	* cells at two Coordinates.
+	*
+	* @param first the Coordinate of a cell.
+	* @param second the Coordinate of a cell.
+	* @return <code>true</code> if both cells are navigable and connected, 
+	* <code>false</code> if any of them is outside of the maze.
+	*/
+	public boolean areConnected(Coordinate first, Coordinate second){
+		int firstIndex = this.getIndex(first);
+		int secondIndex = this.getIndex(second);
+
+		if (firstIndex == -1 || secondIndex == -1){
+			return false;
+		}
+		return this.connectivity().areConnected(firstIndex, secondIndex);
+	}
+
+	/**
+	* getComponent is the method which returns the label of the group of
+	* connected navigable cells a cell belongs to.
+	*
+	* @param index of a cell in row-major order.
+	* @return the smallest cell index of the component, -1 if the cell is not navigable.
+	*
+	* @throws IndexOutOfBoundsException if the cell is outside of the maze.
+	*/
+	public int getComponent(int index){
+		this.checkIndex(index);
+		return this.connectivity().getComponent(index);
+	}
+
+	/**
+	* getComponentCount is the method which returns the number of separate
+	* groups of connected navigable cells.
+	*
+	* @return number of components.
+	*/
+	public int getComponentCount(){
+		return this.connectivity().getComponentCount();
+	}
+
+	/**
+	* getExitDistance is the method which returns the number of steps of the
+	* shortest route from a cell to the nearest exit. All distances are found
+	* by a single search from the exits the first time one is needed, and
+	* again after an edit which closes a cell or removes an exit, while an
+	* opened cell only relaxes the distances around it. Afterwards the answer
+	* takes constant time. The distances use four bytes per cell.
+	*
+	* @param index of the cell in row-major order.
+	* @return number of steps, -1 if no exit can be reached from the cell.
+	*
+	* @throws IndexOutOfBoundsException if the cell is outside of the maze.
+	*/
+	public int getExitDistance(int index){
+		this.checkIndex(index);
+		return this.distanceField().getDistance(index);
+	}
+
+	/**
+	* getNextStepToExit is the method which returns the neighbour of a cell
+	* which lies on a shortest route to the nearest exit, in constant time
+	* like getExitDistance.
+	*
+	* @param index of the cell in row-major order.
+	* @return index of the next cell, -1 if the cell is an exit or no exit
+	* can be reached from it.
+	*
+	* @throws IndexOutOfBoundsException if the cell is outside of the maze.
+	*/
+	public int getNextStepToExit(int index){
+		this.checkIndex(index);
+		return this.distanceField().getNextStep(index);
+	}
+
+	/**
+	* getFingerprint is the method which returns a 128-bit hash of the size of
+	* the maze and the types of all of its cells. The same maze loaded from any
+	* kind of file has the same fingerprint. It is computed by one pass over
+	* the packed cells the first time it is asked for and is then kept up to
+	* date by every edit in constant time. The returned fingerprint does not
+	* change with the maze, which makes it a key for caching results of the
+	* content the maze had when it was taken.
+	*
+	* @return the fingerprint of the current content of the maze.
+	*/
+	public MazeFingerprint getFingerprint(){
+		if (!this.fingerprinted){
+			this.computeFingerprint();
+		}
+
+		long size = ((long)this.width << 32) | (this.height & 0xFFFFFFFFL);
+		return new MazeFingerprint(mixHigh(this.fingerprintHigh ^ mixLow(size)), 
+			mixLow(this.fingerprintLow + mixHigh(size)));
+	}
+
+	/**
+	* equals is the overriden method which compares the content of two mazes,
+	* that is their size and the type of every cell. The fingerprints are 
+	* compared first, so different mazes are told apart without reading
+	* their cells.
+	*
+	* @param other the object to compare with.
+	* @return <code>true</code> if the other object is a maze with the same cells.
+	*/
+	@Override
+	public boolean equals(Object other){
+		if (this == other){
+			return true;
+		}
+		if (!(other instanceof Maze)){
+			return false;
+		}
+
+		Maze maze = (Maze)other;
+
+		if (this.width != maze.width || this.height != maze.height
+			|| !this.getFingerprint().equals(maze.getFingerprint())){
+
+			return false;
+		}
+
+		int size = this.width * this.height;
+		for (int index = 0; index < size; index++){
+			if (((this.cell(index) ^ maze.cell(index)) & TYPE_BITS) != 0){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	* hashCode is the overriden method which returns a hash of the content of
+	* the maze, it changes when the maze is edited. A maze used as the key of
+	* a HashMap or a member of a HashSet must therefore not be edited, or it
+	* can no longer be found; the fingerprint taken by getFingerprint is the 
+	* key to use for a maze which may still change.
+	*
+	* @return hash code taken from the fingerprint.
+	*/
+	@Override
+	public int hashCode(){
+		return this.getFingerprint().hashCode();
+	}
+
+	/**
+	* toString is the overriden method which is used to provide a String representation
+	* of a created Maze object.
+	*
+	* @return String representation of a Maze instance. 
+	*/
+	@Override
+	public String toString(){
+	 	StringBuilder board = new StringBuilder();
+
+	 	for (int i = 0; i < this.height; i++) {
+	 		board.append(this.height - 1 - i).append("     ");
+	 		for (int j = 0; j < this.width; j++) {
+    			board.append(Tile.symbol(this.typeAt(i * this.width + j))).append("  ");
+	 		}
+	 		board.append("\n");
+	 	}
+	 	board.append("\n\n      ");
+	 	for (int j = 0; j < this.width; j++ ) {
+    			String emptySpace = "  ";
+    			if (j > 9){
+    				emptySpace = " ";
+    			}
+    			board.append(j).append(emptySpace);
+	 		}
+
+		return board.toString();
+	}
+
+	private static byte typeCode(Tile.Type type){
+		return (byte)type.ordinal();
+	}
+
+	private byte cell(int index){
+		if (this.pages != null){
+			return this.pages.get(index);
+		}
+		return this.cells[index];
+	}
+
+	private void setCell(int index, byte cell){
+		if (this.pages != null){
+			this.pages.set(index, cell);
+		}
+		else{
+			this.cells[index] = cell;
+		}
+	}
+
+	// returns the cells as one array, reading all pages of a paged maze
+	private byte[] cellArray(){
+		if (this.pages != null){
+			return this.pages.readAll();
+		}
+		return this.cells;
+	}
+
+	private Tile.Type typeAt(int index){
+		return TYPES[this.cell(index) & TYPE_BITS];
+	}
+
+	private boolean isNavigableAt(int index){
+		return NAVIGABLE[this.cell(index) & TYPE_BITS];
+	}
+
+	// writes the type of a cell and repairs the neighbour masks of the cell
+	// and of the cells around it
+	private void setType(int index, Tile.Type type){
+		int block = index >>> FINGERPRINT_BLOCK_SHIFT;
+
+		if (this.fingerprinted){
+			this.addFingerprintBlock(block, -1);
+		}
+		this.setCell(index, (byte)((this.cell(index) & ~TYPE_BITS) | typeCode(type)));
+		if (this.fingerprinted){
+			this.addFingerprintBlock(block, 1);
+		}
+
+		int row = index / this.width;
+		int column = index % this.width;
+
+		this.updateNeighbourMask(index);
+		if (row > 0){
+			this.updateNeighbourMask(index - this.width);
+		}
+		if (row < this.height - 1){
+			this.updateNeighbourMask(index + this.width);
+		}
+		if (column < this.width - 1){
+			this.updateNeighbourMask(index + 1);
+		}
+		if (column > 0){
+			this.updateNeighbourMask(index - 1);
+		}
+	}
+
+	// changes the type of a cell whose Tile, if it was created, no longer fits it
+	private void changeType(int index, Tile.Type type){
+		this.setType(index, type);
+		if (!this.sharedTiles){
+			this.cacheTile(index, null);
+		}
+	}
+
+	private void fireTileChanged(int index, Tile.Type previousType, Tile.Type type){
+		if (this.changeListeners == null){
+			return;
+		}
+		// the iteration goes over the listeners at the start of the edit
+		for (MazeChangeListener listener : this.changeListeners){
+			listener.tileChanged(this, index, previousType, type);
+		}
+	}
+
+	// changes a cell of a maze with many endpoints, adding or removing the
+	// cell from the entrances and exits
+	private void setEndpointTile(int index, Tile.Type previousType, Tile.Type type){
+		if (previousType == Tile.Type.ENTRANCE && this.entranceIndices.length == 1){
+			throw new NoEntranceException("The last entrance cannot be overwritten!");
+		}
+		if (previousType == Tile.Type.EXIT && this.exitIndices.length == 1){
+			throw new NoExitException("The last exit cannot be overwritten!");
+		}
+
+		this.changeType(index, type);
+
+		if (previousType == Tile.Type.ENTRANCE){
+			this.entranceIndices = withoutIndex(this.entranceIndices, index);
+		}
+		else if (previousType == Tile.Type.EXIT){
+			this.exitIndices = withoutIndex(this.exitIndices, index);
+		}
+
+		if (type == Tile.Type.ENTRANCE){
+			this.entranceIndices = withIndex(this.entranceIndices, index);
+		}
+		else if (type == Tile.Type.EXIT){
+			this.exitIndices = withIndex(this.exitIndices, index);
+		}
+
+		this.entranceIndex = this.entranceIndices[0];
+		this.entrance = this.materialise(this.entranceIndex);
+		this.exitIndex = this.exitIndices[0];
+		this.exit = this.materialise(this.exitIndex);
+
+		this.fireTileChanged(index, previousType, type);
+	}
+
+	// fills the dead ends of the maze, using a stack of cells as the queue
+	// because the order in which they are filled does not matter
+	private void fillDeadEnds(){
+		int size = this.width * this.height;
+		int[] pending = new int[64];
+		int pendingSize = 0;
+
+		for (int index = 0; index < size; index++){
+			if (this.isDeadEnd(index)){
+				if (pendingSize == pending.length){
+					pending = Arrays.copyOf(pending, pendingSize * 2);
+				}
+				pending[pendingSize++] = index;
+			}
+		}
+
+		int[] neighbours = new int[4];
+		while (pendingSize > 0){
+			int index = pending[--pendingSize];
+
+			if (this.typeAt(index) == Tile.Type.WALL){
+				continue;
+			}
+
+			int count = this.getNeighbours(index, neighbours);
+			this.setType(index, Tile.Type.WALL);
+
+			if (count == 1 && this.isDeadEnd(neighbours[0])){
+				if (pendingSize == pending.length){
+					pending = Arrays.copyOf(pending, pendingSize * 2);
+				}
+				pending[pendingSize++] = neighbours[0];
+			}
+		}
+	}
+
+	private boolean isDeadEnd(int index){
+		Tile.Type type = this.typeAt(index);
+		return type != Tile.Type.WALL && type != Tile.Type.ENTRANCE && type != Tile.Type.EXIT 
+			&& Integer.bitCount(this.getNeighbourMask(index)) <= 1;
+	}
+
+	private static int[] withIndex(int[] indices, int index){
+		int position = -Arrays.binarySearch(indices, index) - 1;
+		int[] result = new int[indices.length + 1];
+
+		System.arraycopy(indices, 0, result, 0, position);
+		result[position] = index;
+		System.arraycopy(indices, position, result, position + 1, indices.length - position);
+		return result;
+	}
+
+	private static int[] withoutIndex(int[] indices, int index){
+		int position = Arrays.binarySearch(indices, index);
+		int[] result = new int[indices.length - 1];
+
+		System.arraycopy(indices, 0, result, 0, position);
+		System.arraycopy(indices, position + 1, result, position, result.length - position);
+		return result;
+	}
+
+	private void checkSingleEndpoints(){
+		if (this.manyEndpoints && (this.entranceIndices.length > 1 || this.exitIndices.length > 1)){
+			throw new InvalidMazeException("A maze with many entrances or exits can only be kept as text!");
+		}
+	}
+
+	private ConnectivityIndex connectivity(){
+		if (this.connectivity == null){
+			this.connectivity = new ConnectivityIndex(this);
+			this.addChangeListener(this.connectivity);
+		}
+		return this.connectivity;
+	}
+
+	private DistanceField distanceField(){
+		if (this.distanceField == null){
+			this.distanceField = new DistanceField(this);
+			this.addChangeListener(this.distanceField);
+		}
+		return this.distanceField;
+	}
+
+	private void checkIndex(int index){
+		if (index < 0 || index >= this.width * this.height){
+			throw new IndexOutOfBoundsException("Cell " + index + " is outside of the maze");
+		}
+	}
+
+	private void computeFingerprint(){
+		int size = this.width * this.height;
+		int blocks = (int)(((long)size + 7) >>> FINGERPRINT_BLOCK_SHIFT);
+		int fullBlocks = this.pages == null ? size >>> FINGERPRINT_BLOCK_SHIFT : 0;
+		byte[] cells = this.cells;
+
+		this.fingerprintHigh = 0;
+		this.fingerprintLow = 0;
+
+		// eight cells of the array are read as one long
+		for (int block = 0; block < fullBlocks; block++){
+			int i = block << FINGERPRINT_BLOCK_SHIFT;
+			long bits = (cells[i] & 0xFFL)
+				| (cells[i + 1] & 0xFFL) << 8
+				| (cells[i + 2] & 0xFFL) << 16
+				| (cells[i + 3] & 0xFFL) << 24
+				| (cells[i + 4] & 0xFFL) << 32
+				| (cells[i + 5] & 0xFFL) << 40
+				| (cells[i + 6] & 0xFFL) << 48
+				| (cells[i + 7] & 0xFFL) << 56;
+
+			bits &= FINGERPRINT_TYPE_BITS;
+			this.fingerprintHigh += fingerprintHighTerm(block, bits);
+			this.fingerprintLow += fingerprintLowTerm(block, bits);
+		}
+
+		for (int block = fullBlocks; block < blocks; block++){
+			this.addFingerprintBlock(block, 1);
+		}
+		this.fingerprinted = true;
+	}
+
+	// adds (sign 1) or takes away (sign -1) the hash of a block of cells
+	private void addFingerprintBlock(int block, long sign){
+		int first = block << FINGERPRINT_BLOCK_SHIFT;
+		int last = Math.min(first + 8, this.width * this.height);
+		long bits = 0;
+
+		for (int index = first; index < last; index++){
+			bits |= (long)(this.cell(index) & TYPE_BITS) << ((index - first) << 3);
+		}
+
+		this.fingerprintHigh += sign * fingerprintHighTerm(block, bits);
+		this.fingerprintLow += sign * fingerprintLowTerm(block, bits);
+	}
+
+	private static long fingerprintHighTerm(int block, long bits){
+		return mixHigh(bits + block * 0x9E3779B97F4A7C15L);
+	}
+
+	private static long fingerprintLowTerm(int block, long bits){
+		return mixLow(bits ^ (block * 0xD6E8FEB86659FD93L + 0x632BE59BD9B4E019L));
+	}
+
+	// the finaliser of SplitMix64
+	private static long mixHigh(long z){
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	// the finaliser of MurmurHash3
+	private static long mixLow(long z){
+		z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+		z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return z ^ (z >>> 33);
+	}
+
+	private void computeNeighbourMasks(){
+		this.computeNeighbourMasks(0, this.height);
+	}
+
+	// builds the masks of the cells of the rows from fromRow (inclusive) to
+	// toRow (exclusive), only the type bits of the other rows are read so
+	// different rows can be done at the same time. The inner cells are done 
+	// without branches as walls and corridors are mixed randomly
+	private void computeNeighbourMasks(int fromRow, int toRow){
+		byte[] cells = this.cells;
+		int width = this.width;
+
+		for (int row = fromRow; row < toRow; row++){
+			int start = row * width;
+			int end = start + width - 1;
+
+			if (row == 0 || row == this.height - 1){
+				for (int index = start; index <= end; index++){
+					this.updateNeighbourMask(index);
+				}
+				continue;
+			}
+
+			for (int index = start + 1; index < end; index++){
+				int mask = NAVIGABLE_BIT[cells[index - width] & TYPE_BITS] * NORTH_MASK
+					| NAVIGABLE_BIT[cells[index + width] & TYPE_BITS] * SOUTH_MASK
+					| NAVIGABLE_BIT[cells[index + 1] & TYPE_BITS] * EAST_MASK
+					| NAVIGABLE_BIT[cells[index - 1] & TYPE_BITS] * WEST_MASK;
+				int code = cells[index] & TYPE_BITS;
+
+				cells[index] = (byte)(code | ((mask & -NAVIGABLE_BIT[code]) << NEIGHBOUR_SHIFT));
+			}
+
+			// the border cells need the bounds checks
+			this.updateNeighbourMask(start);
+			this.updateNeighbourMask(end);
+		}
+	}
+
+	private void updateNeighbourMask(int index){
+		int mask = 0;
+
+		// walls keep an empty mask so that nothing can be expanded from them
+		if (this.isNavigableAt(index)){
+			int row = index / this.width;
+			int column = index % this.width;
+
+			if (row > 0 && this.isNavigableAt(index - this.width)){
+				mask |= NORTH_MASK;
+			}
+			if (row < this.height - 1 && this.isNavigableAt(index + this.width)){
+				mask |= SOUTH_MASK;
+			}
+			if (column < this.width - 1 && this.isNavigableAt(index + 1)){
+				mask |= EAST_MASK;
+			}
+			if (column > 0 && this.isNavigableAt(index - 1)){
+				mask |= WEST_MASK;
+			}
+		}
+		this.setCell(index, (byte)((this.cell(index) & TYPE_BITS) | (mask << NEIGHBOUR_SHIFT)));
+	}
+
+	// returns the Tile of the cell, creating it the first time it is needed
+	private Tile materialise(int index){
+		if (this.sharedTiles){
+			return Tile.shared(this.typeAt(index));
+		}
+
+		Tile tile = this.cachedTile(index);
+		if (tile == null){
+			tile = Tile.fromType(this.typeAt(index));
+			tile.setIndex(index);
+			this.cacheTile(index, tile);
+		}
+		return tile;
+	}
+
+	private Tile cachedTile(int index){
+		if (this.materialisedTiles == null){
+			return null;
+		}
+		Tile[] chunk = this.materialisedTiles[index >> TILE_CHUNK_BITS];
+		return chunk == null ? null : chunk[index & TILE_CHUNK_MASK];
+	}
+
+	// keeps the Tile of a cell, or forgets it for null
+	private void cacheTile(int index, Tile tile){
+		if (this.materialisedTiles == null){
+			if (tile == null){
+				return;
+			}
+			this.materialisedTiles = new Tile[(int)(((long)this.width * this.height + TILE_CHUNK_MASK) >> TILE_CHUNK_BITS)][];
+		}
+
+		Tile[] chunk = this.materialisedTiles[index >> TILE_CHUNK_BITS];
+		if (chunk == null){
+			if (tile == null){
+				return;
+			}
+			chunk = new Tile[TILE_CHUNK_MASK + 1];
+			this.materialisedTiles[index >> TILE_CHUNK_BITS] = chunk;
+		}
+		chunk[index & TILE_CHUNK_MASK] = tile;
+	}
+
+	// returns the cell index of a tile of this maze in constant time, the tile
+	// carries its own index and the identity check rejects tiles which were
+	// replaced or belong to another maze
+	private int indexOf(Tile tile){
+		if (tile == null){
+			return -1;
+		}
+
+		// the shared entrance and exit are still unique, the other shared
+		// tiles cannot tell which cell they are
+		if (this.sharedTiles){
+			if (tile == this.entrance){
+				return this.entranceIndex;
+			}
+			if (tile == this.exit){
+				return this.exitIndex;
+			}
+			return -1;
+		}
+
+		int index = tile.getIndex();
+
+		if (index < 0 || index >= this.width * this.height || this.cachedTile(index) != tile){
+			return -1;
+		}
+		return index;
+	}
+
+	/**
+	* NeighbourMaskTask is the inner class which builds the neighbour masks of a
+	* range of rows on a ForkJoinPool.
+	*/
+	private class NeighbourMaskTask extends RecursiveAction{
+		private static final int CELLS_PER_TASK = 1 << 16;
+
+		private int fromRow;
+		private int toRow;
+
+		private NeighbourMaskTask(int fromRow, int toRow){
+			this.fromRow = fromRow;
+			this.toRow = toRow;
+		}
+
+		@Override
+		protected void compute(){
+			if ((long)(this.toRow - this.fromRow) * width <= CELLS_PER_TASK || this.toRow - this.fromRow == 1){
+				computeNeighbourMasks(this.fromRow, this.toRow);
+			}
+			else{
+				int middle = (this.fromRow + this.toRow) >>> 1;
+				invokeAll(new NeighbourMaskTask(this.fromRow, middle), new NeighbourMaskTask(middle, this.toRow));
+			}
+		}
+	}
+
+	/**
+	* TileRows is the inner class which provides the List of rows returned by 
+	* getTiles on top of the packed grid.
+	*/
+	private class TileRows extends AbstractList<List<Tile>> implements Serializable{
+		@Override
+		public List<Tile> get(int row){
+			if (row < 0 || row >= height){
+				throw new IndexOutOfBoundsException("Row " + row + " is outside of the maze");
+			}
+			return new TileRow(row);
+		}
+
+		@Override
+		public int size(){
+			return height;
+		}
+	}
+
+	/**
+	* TileRow is the inner class which provides a single row of the getTiles
+	* view. Setting a Tile writes its type back into the packed grid by 
+	* setTile, so it moves the entrance and the exit the same way, where the
+	* Tile of the entrance or the exit is moved instead of the given one.
+	*/
+	private class TileRow extends AbstractList<Tile> implements Serializable{
+		private int row;
+
+		private TileRow(int row){
+			this.row = row;
+		}
+
+		@Override
+		public Tile get(int column){
+			return materialise(this.index(column));
+		}
+
+		@Override
+		public Tile set(int column, Tile tile){
+			int index = this.index(column);
+			Tile previous = materialise(index);
+			Tile entranceTile = entrance;
+			Tile exitTile = exit;
+
+			// moves the entrance or the exit like any other edit
+			setTile(index, tile.getType());
+
+			if (!sharedTiles){
+				// a shared tile cannot be placed, so a tile of its own takes its place
+				if (tile.isShared()){
+					tile = Tile.fromType(tile.getType());
+				}
+				tile.setIndex(index);
+				cacheTile(index, tile);
+			}
+
+			entrance = this.follow(entranceTile, entranceIndex);
+			exit = this.follow(exitTile, exitIndex);
+			return previous;
+		}
+
+		@Override
+		public int size(){
+			return width;
+		}
+
+		// the entrance and the exit keep their Tile instance when they are moved
+		private Tile follow(Tile tile, int index){
+			if (tile != null && !sharedTiles){
+				tile.setIndex(index);
+				cacheTile(index, tile);
+			}
+			return tile;
+		}
+
+		private int index(int column){
+			if (column < 0 || column >= width){
+				throw new IndexOutOfBoundsException("Column " + column + " is outside of the maze");
+			}
+			return this.row * width + column;
+		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package maze;
+
+/**
+* MazeChangeListener is the interface which is implemented by the classes that
+* keep structures derived from a maze, so that they can repair the part of them
+* which depends on an edited cell instead of building them again.
+* Listeners are not saved with the maze, they have to be added again after it
+* was deserialised.
+*/
+public interface MazeChangeListener {
+	/**
+	* tileChanged is the method which is called after the type of a cell of the
+	* maze was changed, when the neighbour masks have already been repaired.
+	* Moving the entrance or the exit changes two cells, and both changes are
+	* reported after the maze points at the new entrance or exit.
+	*
+	* @param maze the maze which was edited.
+	* @param index of the changed cell in row-major order.
+	* @param previousType the type of the cell before the change.
+	* @param type the new type of the cell.
+	*/
+	void tileChanged(Maze maze, int index, Tile.Type previousType, Tile.Type type);
+}
@@ -0,0 +1,64 @@
+package maze;
+
+import java.io.Serializable;
+
+/**
+* MazeFingerprint is the class which describes the content of a maze by a
+* 128-bit hash of its dimensions and the types of its cells. Two mazes with
+* the same cells have the same fingerprint however they were loaded, so it
+* can be used as the key of caches which outlive a single maze instance.
+*/
+public final class MazeFingerprint implements Serializable{
+	private final long high;
+	private final long low;
+
+	MazeFingerprint(long high, long low){
+		this.high = high;
+		this.low = low;
+	}
+
+	/**
+	* getHigh is the method which returns the upper 64 bits of the fingerprint.
+	* @return the upper half of the hash.
+	*/
+	public long getHigh(){
+		return this.high;
+	}
+
+	/**
+	* getLow is the method which returns the lower 64 bits of the fingerprint.
+	* @return the lower half of the hash.
+	*/
+	public long getLow(){
+		return this.low;
+	}
+
+	/**
+	* equals is the overriden method which compares two fingerprints.
+	* @param other the object to compare with.
+	* @return <code>true</code> if both halves of the hash are the same.
+	*/
+	@Override
+	public boolean equals(Object other){
+		if (!(other instanceof MazeFingerprint)){
+			return false;
+		}
+		MazeFingerprint fingerprint = (MazeFingerprint)other;
+		return this.high == fingerprint.high && this.low == fingerprint.low;
+	}
+
+	@Override
+	public int hashCode(){
+		return (int)(this.low ^ (this.low >>> 32));
+	}
+
+	/**
+	* toString is the overriden method which provides the fingerprint as
+	* 32 hexadecimal digits.
+	* @return String representation of the fingerprint.
+	*/
+	@Override
+	public String toString(){
+		return String.format("%016x%016x", this.high, this.low);
+	}
+}
@@ -0,0 +1,220 @@
+package maze;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+* MazeValidationReport is the class which describes the result of validating a
+* maze text file without loading it. Positions are given as the line and column
+* of the file, both counting from 1, so they point at the offending character.
+*/
+public class MazeValidationReport {
+	private String path;
+	private int width;
+	private int height;
+	private int entranceLine;
+	private int entranceColumn;
+	private int exitLine;
+	private int exitColumn;
+	private List<ValidationError> errors;
+
+	MazeValidationReport(String path){
+		this.path = path;
+		this.errors = new ArrayList<ValidationError>();
+	}
+
+	/**
+	* getPath is the method which returns the path of the validated file.
+	* @return the path of the file.
+	*/
+	public String getPath(){
+		return this.path;
+	}
+
+	/**
+	* isValid is the method which shows if the file holds a valid maze.
+	* @return <code>true</code> if no errors were found.
+	*/
+	public boolean isValid(){
+		return this.errors.isEmpty();
+	}
+
+	/**
+	* getWidth is the method which returns the length of the first line, which
+	* is the width of the maze if it is valid.
+	* @return the number of columns.
+	*/
+	public int getWidth(){
+		return this.width;
+	}
+
+	/**
+	* getHeight is the method which returns the number of lines read, which is
+	* the height of the maze if it is valid. When validation stopped at the first
+	* error, it is the line of that error.
+	* @return the number of rows.
+	*/
+	public int getHeight(){
+		return this.height;
+	}
+
+	/**
+	* getEntranceLine is the method which returns the line of the first entrance.
+	* @return the line, 0 if no entrance was found.
+	*/
+	public int getEntranceLine(){
+		return this.entranceLine;
+	}
+
+	/**
+	* getEntranceColumn is the method which returns the column of the first entrance.
+	* @return the column, 0 if no entrance was found.
+	*/
+	public int getEntranceColumn(){
+		return this.entranceColumn;
+	}
+
+	/**
+	* getExitLine is the method which returns the line of the first exit.
+	* @return the line, 0 if no exit was found.
+	*/
+	public int getExitLine(){
+		return this.exitLine;
+	}
+
+	/**
+	* getExitColumn is the method which returns the column of the first exit.
+	* @return the column, 0 if no exit was found.
+	*/
+	public int getExitColumn(){
+		return this.exitColumn;
+	}
+
+	/**
+	* getErrors is the method which returns the errors in the order of the file.
+	* @return the errors, empty if the maze is valid.
+	*/
+	public List<ValidationError> getErrors(){
+		return Collections.unmodifiableList(this.errors);
+	}
+
+	/**
+	* getFirstError is the method which returns the error that loading the file
+	* with Maze.fromTxt would throw.
+	* @return the first error, null if the maze is valid.
+	*/
+	public ValidationError getFirstError(){
+		return this.errors.isEmpty() ? null : this.errors.get(0);
+	}
+
+	/**
+	* throwIfInvalid is the method which throws the exception that loading the
+	* file with Maze.fromTxt would throw.
+	*
+	* @throws InvalidMazeException or one of its subclasses if the maze is not valid.
+	*/
+	public void throwIfInvalid(){
+		if (!this.errors.isEmpty()){
+			throw this.errors.get(0).toException();
+		}
+	}
+
+	void setDimensions(int width, int height){
+		this.width = width;
+		this.height = height;
+	}
+
+	void setEntrance(int line, int column){
+		this.entranceLine = line;
+		this.entranceColumn = column;
+	}
+
+	void setExit(int line, int column){
+		this.exitLine = line;
+		this.exitColumn = column;
+	}
+
+	void addError(Class<? extends InvalidMazeException> type, int line, int column){
+		this.errors.add(new ValidationError(type, line, column));
+	}
+
+	/**
+	* toString is the overriden method which provides a summary of the report.
+	* @return String representation of the report.
+	*/
+	@Override
+	public String toString(){
+		if (this.isValid()){
+			return this.path + ": valid " + this.width + "x" + this.height + " maze";
+		}
+		return this.path + ": " + this.getFirstError();
+	}
+
+	/**
+	* ValidationError is the inner class which describes a single problem of the file by
+	* the exception it would cause and where it was found.
+	*/
+	public static class ValidationError {
+		private Class<? extends InvalidMazeException> type;
+		private int line;
+		private int column;
+
+		private ValidationError(Class<? extends InvalidMazeException> type, int line, int column){
+			this.type = type;
+			this.line = line;
+			this.column = column;
+		}
+
+		/**
+		* getExceptionType is the method which returns the class of the exception
+		* which the loaders throw for this problem.
+		* @return the exception class.
+		*/
+		public Class<? extends InvalidMazeException> getExceptionType(){
+			return this.type;
+		}
+
+		/**
+		* getLine is the method which returns the line of the problem.
+		* @return the line counting from 1, 0 if it concerns the whole file.
+		*/
+		public int getLine(){
+			return this.line;
+		}
+
+		/**
+		* getColumn is the method which returns the column of the problem.
+		* @return the column counting from 1, 0 if it concerns the whole file.
+		*/
+		public int getColumn(){
+			return this.column;
+		}
+
+		/**
+		* toException is the method which creates the exception the loaders throw.
+		* @return a new exception of the type of this error.
+		*/
+		public InvalidMazeException toException(){
+			try{
+				return this.type.getConstructor().newInstance();
+			}
+			catch (ReflectiveOperationException e){
+				return new InvalidMazeException();
+			}
+		}
+
+		/**
+		* toString is the overriden method which describes the error.
+		* @return the exception name with the position of the error.
+		*/
+		@Override
+		public String toString(){
+			String description = this.type.getSimpleName();
+			if (this.line > 0){
+				description += " at line " + this.line + ", column " + this.column;
+			}
+			return description;
+		}
+	}
+}
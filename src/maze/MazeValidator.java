@@ -0,0 +1,206 @@
+package maze;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+* MazeValidator is the class which checks a maze text file without building the
+* maze. The bytes are streamed through a small buffer and only the position and
+* the state of the current line are kept, so neither cells nor Tiles are stored.
+* The first error reported is the exception Maze.fromTxt throws: a line of the
+* wrong length is reported before the characters in it, as fromTxt checks the
+* length of a line before its characters.
+*/
+class MazeValidator {
+	static final int BUFFER_SIZE = 1 << 16;
+
+	private static final byte INVALID = 0;
+	private static final byte CELL = 1;
+	private static final byte ENTRANCE = 2;
+	private static final byte EXIT = 3;
+	private static final byte[] CLASSES = new byte[256];
+
+	static {
+		CLASSES['.'] = CELL;
+		CLASSES['#'] = CELL;
+		CLASSES['s'] = CELL;
+		CLASSES['m'] = CELL;
+		CLASSES['w'] = CELL;
+		CLASSES['e'] = ENTRANCE;
+		CLASSES['x'] = EXIT;
+	}
+
+	private MazeValidationReport report;
+	private boolean allErrors;
+	private boolean stopped;
+
+	private int width;
+	private int line;
+	private int column;
+	private boolean afterCarriageReturn;
+	private boolean entranceFound;
+	private boolean exitFound;
+
+	// the first error found among the characters of the current line, which
+	// is only reported once the line turned out to have the right length
+	private Class<? extends InvalidMazeException> lineErrorType;
+	private int lineErrorColumn;
+	private boolean lineRagged;
+
+	private MazeValidator(MazeValidationReport report, boolean allErrors){
+		this.report = report;
+		this.allErrors = allErrors;
+		this.width = -1;
+		this.line = 1;
+	}
+
+	/**
+	* validate is the method which validates a maze text file.
+	*
+	* @param path of the file.
+	* @param allErrors <code>true</code> to find all errors, otherwise the
+	* file is only read up to the first one.
+	* @param buffer used to read the file, of any length, so that it can be
+	* reused for many files.
+	* @return the report of the file.
+	*/
+	static MazeValidationReport validate(String path, boolean allErrors, byte[] buffer) throws IOException{
+		MazeValidationReport report = new MazeValidationReport(path);
+		MazeValidator validator = new MazeValidator(report, allErrors);
+
+		try (
+			InputStream stream = new FileInputStream(path)
+		) {
+			int read;
+			while (!validator.stopped && (read = stream.read(buffer)) != -1){
+				validator.scan(buffer, read);
+			}
+		}
+
+		validator.finish();
+		return report;
+	}
+
+	private void scan(byte[] bytes, int length){
+		for (int i = 0; i < length && !this.stopped; i++){
+			byte symbol = bytes[i];
+
+			if (symbol == '\n'){
+				if (this.afterCarriageReturn){
+					this.afterCarriageReturn = false;
+				}
+				else{
+					this.endLine();
+				}
+				continue;
+			}
+
+			if (symbol == '\r'){
+				this.endLine();
+				this.afterCarriageReturn = true;
+				continue;
+			}
+
+			this.afterCarriageReturn = false;
+			this.column++;
+
+			if (this.width != -1 && this.column > this.width && !this.lineRagged){
+				this.lineRagged = true;
+				this.report.addError(RaggedMazeException.class, this.line, this.column);
+				if (!this.allErrors){
+					this.stopped = true;
+					return;
+				}
+			}
+
+			byte symbolClass = CLASSES[symbol & 0xFF];
+
+			if (symbolClass == INVALID){
+				this.characterError(InvalidMazeException.class);
+			}
+			else if (symbolClass == ENTRANCE){
+				if (this.entranceFound){
+					this.characterError(MultipleEntranceException.class);
+				}
+				else{
+					this.entranceFound = true;
+					this.report.setEntrance(this.line, this.column);
+				}
+			}
+			else if (symbolClass == EXIT){
+				if (this.exitFound){
+					this.characterError(MultipleExitException.class);
+				}
+				else{
+					this.exitFound = true;
+					this.report.setExit(this.line, this.column);
+				}
+			}
+		}
+	}
+
+	private void characterError(Class<? extends InvalidMazeException> type){
+		if (this.allErrors){
+			this.report.addError(type, this.line, this.column);
+		}
+		else if (this.lineErrorType == null){
+			this.lineErrorType = type;
+			this.lineErrorColumn = this.column;
+		}
+	}
+
+	private void endLine(){
+		if (this.width == -1){
+			this.width = this.column;
+		}
+		else if (this.column != this.width && !this.lineRagged){
+			this.lineRagged = true;
+			this.report.addError(RaggedMazeException.class, this.line, this.column + 1);
+		}
+
+		if (!this.allErrors && (this.lineRagged || this.lineErrorType != null)){
+			if (!this.lineRagged){
+				this.report.addError(this.lineErrorType, this.line, this.lineErrorColumn);
+			}
+			this.stopped = true;
+		}
+		else{
+			this.line++;
+		}
+
+		this.column = 0;
+		this.lineRagged = false;
+		this.lineErrorType = null;
+	}
+
+	private void finish(){
+		// a last line without a line break
+		if (!this.stopped && this.column > 0){
+			this.endLine();
+		}
+
+		int rows = this.stopped ? this.line : this.line - 1;
+		this.report.setDimensions(Math.max(this.width, 0), rows);
+
+		if (this.stopped){
+			return;
+		}
+
+		if (this.width <= 0){
+			this.report.addError(InvalidMazeException.class, 0, 0);
+			return;
+		}
+
+		if (!this.entranceFound){
+			this.report.addError(NoEntranceException.class, 0, 0);
+			if (!this.allErrors){
+				return;
+			}
+		}
+
+		if (!this.exitFound){
+			this.report.addError(NoExitException.class, 0, 0);
+		}
+	}
+}
@@ -0,0 +1,643 @@
+package maze;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+* PagedGrid is the class which keeps the packed cells of a maze on disk instead
+* of on the heap. The grid is cut into square pages of pageSize cells a side, and
+* only a bounded number of them are held in memory in a least recently used
+* cache. A page is read from the page file when one of its cells is accessed and
+* is written back when it is evicted, if it was changed. The page file starts
+* with a header of HEADER_SIZE bytes:
+* <pre>
+* int   magic number "MZBP"
+* short version of the format
+* short size of a page side
+* int   width
+* int   height
+* int   index of the entrance cell
+* int   index of the exit cell
+* </pre>
+* which is followed by the pages in row-major page order. Every page takes
+* pageSize * pageSize bytes, also at the right and bottom edge of the maze, and
+* holds the cells in the same format as Maze including the neighbour masks.
+* A PagedGrid is not safe for use by multiple threads.
+*/
+public class PagedGrid implements Serializable{
+	static final int MAGIC = 0x4D5A4250;
+	static final short VERSION = 1;
+	static final int HEADER_SIZE = 24;
+	static final int DEFAULT_PAGE_SIZE = 128;
+
+	private static final int TYPE_BITS = 0x0F;
+	private static final int NEIGHBOUR_SHIFT = 4;
+	private static final int TYPE_COUNT = Tile.Type.values().length;
+	private static final int[] NAVIGABLE_BIT = new int[TYPE_BITS + 1];
+
+	private static final int NORTH_MASK = Maze.Direction.NORTH.getMask();
+	private static final int SOUTH_MASK = Maze.Direction.SOUTH.getMask();
+	private static final int EAST_MASK = Maze.Direction.EAST.getMask();
+	private static final int WEST_MASK = Maze.Direction.WEST.getMask();
+
+	static {
+		for (Tile.Type type : Tile.Type.values()){
+			NAVIGABLE_BIT[type.ordinal()] = Tile.isNavigable(type) ? 1 : 0;
+		}
+	}
+
+	private String path;
+	private int width;
+	private int height;
+	private int entranceIndex;
+	private int exitIndex;
+	private int pageSize;
+	private int pageShift;
+	private int pagesAcross;
+	private int capacity;
+
+	private transient FileChannel channel;
+	private transient boolean headerDirty;
+	private transient LinkedHashMap<Integer, Page> pages;
+	private transient int lastKey;
+	private transient Page lastPage;
+
+	private transient long hits;
+	private transient long misses;
+	private transient long evictions;
+
+	private PagedGrid(String path, int width, int height, int pageSize, int capacity){
+		if (capacity < 1){
+			throw new IllegalArgumentException("At least one page has to be cached");
+		}
+
+		this.path = path;
+		this.width = width;
+		this.height = height;
+		this.pageSize = pageSize;
+		this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+		this.pagesAcross = (width + pageSize - 1) >> this.pageShift;
+		this.capacity = capacity;
+		this.entranceIndex = -1;
+		this.exitIndex = -1;
+		this.initCache();
+	}
+
+	/**
+	* create is the method which converts a maze text file into a page file,
+	* reading it one strip of pageSize rows at a time, so the whole maze never
+	* has to be in memory. The text is checked the same way as by Maze.fromTxt.
+	*
+	* @param txtPath the path of the maze text file.
+	* @param pagePath the path of the page file to be created.
+	* @param capacity the number of pages which are cached.
+	* @return the grid, which keeps the page file open.
+	*
+	* @throws RaggedMazeException if the number of different rows/columns differ.
+	* @throws InvalidMazeException if the maze is empty or an invalid character appeared.
+	* @throws MultipleEntranceException if more than one entrance was provided.
+	* @throws MultipleExitException if more than one exit was provided.
+	* @throws NoEntranceException if an entrance Tile was not provided.
+	* @throws NoExitException if an exit Tile was not provided.
+	*/
+	static PagedGrid create(String txtPath, String pagePath, int capacity) throws IOException{
+		try (
+			BufferedReader bufferedReader = new BufferedReader(new FileReader(txtPath))
+		) {
+			String line = bufferedReader.readLine();
+
+			if (line == null){
+				throw new InvalidMazeException();
+			}
+
+			// a maze of empty lines has no cells, like for fromTxt
+			if (line.isEmpty()){
+				while ((line = bufferedReader.readLine()) != null){
+					if (!line.isEmpty()){
+						throw new RaggedMazeException();
+					}
+				}
+				throw new InvalidMazeException();
+			}
+
+			int width = line.length();
+			int pageSize = DEFAULT_PAGE_SIZE;
+			PagedGrid grid = new PagedGrid(pagePath, width, 0, pageSize, capacity);
+			grid.channel = FileChannel.open(Paths.get(pagePath), StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+
+			try{
+				// the masks of a strip can only be built once the first row of
+				// the next strip is known, so the previous strip is kept as well
+				byte[] previous = null;
+				byte[] strip = new byte[pageSize * width];
+				byte[] above = null;
+				int stripRows = 0;
+				int stripIndex = 0;
+				long rows = 0;
+
+				while (line != null){
+					if (line.length() != width){
+						throw new RaggedMazeException();
+					}
+					if ((rows + 1) * width > GridScanner.MAX_CELLS){
+						throw new InvalidMazeException("That maze is too large!");
+					}
+
+					grid.decodeLine(line, strip, stripRows * width, (int)rows * width);
+					stripRows++;
+					rows++;
+
+					if (stripRows == pageSize){
+						if (previous != null){
+							above = grid.writeStrip(stripIndex++, previous, pageSize, above, strip);
+						}
+						previous = strip;
+						strip = new byte[pageSize * width];
+						stripRows = 0;
+					}
+					line = bufferedReader.readLine();
+				}
+
+				if (stripRows > 0){
+					if (previous != null){
+						above = grid.writeStrip(stripIndex++, previous, pageSize, above, strip);
+					}
+					grid.writeStrip(stripIndex, strip, stripRows, above, null);
+				}
+				else{
+					grid.writeStrip(stripIndex, previous, pageSize, above, null);
+				}
+
+				grid.height = (int)rows;
+
+				if (grid.entranceIndex == -1){
+					throw new NoEntranceException();
+				}
+				if (grid.exitIndex == -1){
+					throw new NoExitException();
+				}
+
+				grid.writeHeader();
+				return grid;
+			}
+			catch (RuntimeException | IOException e){
+				grid.channel.close();
+				throw e;
+			}
+		}
+	}
+
+	/**
+	* open is the method which opens a page file written by create.
+	*
+	* @param pagePath the path of the page file.
+	* @param capacity the number of pages which are cached.
+	* @return the grid, which keeps the page file open.
+	*
+	* @throws InvalidMazeException if the file is not a valid page file.
+	*/
+	static PagedGrid open(String pagePath, int capacity) throws IOException{
+		FileChannel channel = FileChannel.open(Paths.get(pagePath), StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		try{
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while (header.hasRemaining()){
+				if (channel.read(header, header.position()) < 0){
+					throw new InvalidMazeException("That is not a maze page file!");
+				}
+			}
+			header.flip();
+
+			if (header.getInt() != MAGIC || header.getShort() != VERSION){
+				throw new InvalidMazeException("That is not a maze page file!");
+			}
+
+			int pageSize = header.getShort();
+			int width = header.getInt();
+			int height = header.getInt();
+
+			if (pageSize <= 0 || Integer.bitCount(pageSize) != 1 || width <= 0 || height <= 0
+				|| (long)width * height > GridScanner.MAX_CELLS){
+
+				throw new InvalidMazeException("That maze page file has invalid dimensions!");
+			}
+
+			PagedGrid grid = new PagedGrid(pagePath, width, height, pageSize, capacity);
+			grid.channel = channel;
+			grid.entranceIndex = header.getInt();
+			grid.exitIndex = header.getInt();
+
+			long pagesDown = (height + pageSize - 1) >> grid.pageShift;
+			if (channel.size() != HEADER_SIZE + pagesDown * grid.pagesAcross * pageSize * pageSize){
+				throw new InvalidMazeException("That maze page file is truncated!");
+			}
+			return grid;
+		}
+		catch (RuntimeException | IOException e){
+			channel.close();
+			throw e;
+		}
+	}
+
+	// checks and decodes one line of the text into the strip
+	private void decodeLine(String line, byte[] strip, int offset, int index){
+		for (int i = 0; i < line.length(); i++){
+			char symbol = line.charAt(i);
+
+			Tile.Type type = Tile.typeOf(symbol);
+
+			if (type == null){
+				throw new InvalidMazeException();
+			}
+
+			if (symbol == 'e'){
+				if (this.entranceIndex != -1){
+					throw new MultipleEntranceException();
+				}
+				this.entranceIndex = index + i;
+			}
+			else if (symbol == 'x'){
+				if (this.exitIndex != -1){
+					throw new MultipleExitException();
+				}
+				this.exitIndex = index + i;
+			}
+			strip[offset + i] = (byte)type.ordinal();
+		}
+	}
+
+	// builds the neighbour masks of a strip of decoded rows, using the last
+	// row of the strip above and the first row of the strip below, then writes
+	// its pages and returns its last row for the next strip
+	private byte[] writeStrip(int stripIndex, byte[] strip, int rows, byte[] above, byte[] below) throws IOException{
+		int width = this.width;
+		byte[] lastRow = new byte[width];
+		System.arraycopy(strip, (rows - 1) * width, lastRow, 0, width);
+
+		for (int row = 0; row < rows; row++){
+			for (int column = 0; column < width; column++){
+				int index = row * width + column;
+				int code = strip[index] & TYPE_BITS;
+				int mask = 0;
+
+				if (row > 0){
+					mask |= NAVIGABLE_BIT[strip[index - width] & TYPE_BITS] * NORTH_MASK;
+				}
+				else if (above != null){
+					mask |= NAVIGABLE_BIT[above[column] & TYPE_BITS] * NORTH_MASK;
+				}
+				if (row < rows - 1){
+					mask |= NAVIGABLE_BIT[strip[index + width] & TYPE_BITS] * SOUTH_MASK;
+				}
+				else if (below != null){
+					mask |= NAVIGABLE_BIT[below[column] & TYPE_BITS] * SOUTH_MASK;
+				}
+				if (column < width - 1){
+					mask |= NAVIGABLE_BIT[strip[index + 1] & TYPE_BITS] * EAST_MASK;
+				}
+				if (column > 0){
+					mask |= NAVIGABLE_BIT[strip[index - 1] & TYPE_BITS] * WEST_MASK;
+				}
+				strip[index] = (byte)(code | ((mask & -NAVIGABLE_BIT[code]) << NEIGHBOUR_SHIFT));
+			}
+		}
+
+		byte[] page = new byte[this.pageSize * this.pageSize];
+		for (int pageColumn = 0; pageColumn < this.pagesAcross; pageColumn++){
+			int firstColumn = pageColumn * this.pageSize;
+			int columns = Math.min(this.pageSize, width - firstColumn);
+
+			for (int row = 0; row < rows; row++){
+				System.arraycopy(strip, row * width + firstColumn, page, row * this.pageSize, columns);
+			}
+			this.writePage(stripIndex * this.pagesAcross + pageColumn, page);
+		}
+		return lastRow;
+	}
+
+	private void writeHeader() throws IOException{
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC);
+		header.putShort(VERSION);
+		header.putShort((short)this.pageSize);
+		header.putInt(this.width);
+		header.putInt(this.height);
+		header.putInt(this.entranceIndex);
+		header.putInt(this.exitIndex);
+		header.flip();
+
+		long position = 0;
+		while (header.hasRemaining()){
+			position += this.channel().write(header, position);
+		}
+	}
+
+	private long pagePosition(int key){
+		return HEADER_SIZE + (long)key * this.pageSize * this.pageSize;
+	}
+
+	private void writePage(int key, byte[] cells) throws IOException{
+		ByteBuffer buffer = ByteBuffer.wrap(cells);
+		long position = this.pagePosition(key);
+
+		while (buffer.hasRemaining()){
+			position += this.channel().write(buffer, position);
+		}
+	}
+
+	private byte[] readPage(int key) throws IOException{
+		byte[] cells = new byte[this.pageSize * this.pageSize];
+		ByteBuffer buffer = ByteBuffer.wrap(cells);
+		long position = this.pagePosition(key);
+
+		while (buffer.hasRemaining()){
+			int read = this.channel().read(buffer, position);
+			if (read < 0){
+				throw new InvalidMazeException("That maze page file is truncated!");
+			}
+			position += read;
+		}
+
+		for (byte cell : cells){
+			if ((cell & TYPE_BITS) >= TYPE_COUNT){
+				throw new InvalidMazeException("That maze page file is corrupted!");
+			}
+		}
+		return cells;
+	}
+
+	private FileChannel channel() throws IOException{
+		if (this.channel == null){
+			this.channel = FileChannel.open(Paths.get(this.path), StandardOpenOption.READ, StandardOpenOption.WRITE);
+		}
+		return this.channel;
+	}
+
+	private void initCache(){
+		this.lastKey = -1;
+		this.pages = new LinkedHashMap<Integer, Page>(16, 0.75f, true){
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest){
+				if (this.size() <= capacity){
+					return false;
+				}
+				evict(eldest.getKey(), eldest.getValue());
+				return true;
+			}
+		};
+	}
+
+	private void evict(int key, Page page){
+		this.evictions++;
+		if (page.dirty){
+			try{
+				this.writePage(key, page.cells);
+			}
+			catch (IOException e){
+				throw new InvalidMazeException("Could not write to the page file!");
+			}
+		}
+		if (key == this.lastKey){
+			this.lastKey = -1;
+			this.lastPage = null;
+		}
+	}
+
+	// returns the page of the cell at that row and column, faulting it in
+	private Page page(int row, int column){
+		int key = (row >> this.pageShift) * this.pagesAcross + (column >> this.pageShift);
+
+		// the last page is already the most recently used one
+		if (key == this.lastKey){
+			this.hits++;
+			return this.lastPage;
+		}
+
+		Page page = this.pages.get(key);
+
+		if (page == null){
+			this.misses++;
+			try{
+				page = new Page(this.readPage(key));
+			}
+			catch (IOException e){
+				throw new InvalidMazeException("Could not read from the page file!");
+			}
+			this.pages.put(key, page);
+		}
+		else{
+			this.hits++;
+		}
+
+		this.lastKey = key;
+		this.lastPage = page;
+		return page;
+	}
+
+	/**
+	* get is the method which returns a cell, reading its page if needed.
+	*
+	* @param index of the cell in row-major order.
+	* @return the packed cell.
+	*/
+	byte get(int index){
+		int row = index / this.width;
+		int column = index - row * this.width;
+		int mask = this.pageSize - 1;
+
+		return this.page(row, column).cells[((row & mask) << this.pageShift) | (column & mask)];
+	}
+
+	/**
+	* set is the method which changes a cell, its page is written back to the
+	* page file when it is evicted or flushed.
+	*
+	* @param index of the cell in row-major order.
+	* @param cell the new packed cell.
+	*/
+	void set(int index, byte cell){
+		int row = index / this.width;
+		int column = index - row * this.width;
+		int mask = this.pageSize - 1;
+		Page page = this.page(row, column);
+
+		page.cells[((row & mask) << this.pageShift) | (column & mask)] = cell;
+		page.dirty = true;
+	}
+
+	/**
+	* readAll is the method which reads every cell of the grid into one array.
+	*
+	* @return the packed cells in row-major order.
+	*/
+	byte[] readAll(){
+		byte[] cells = new byte[this.width * this.height];
+
+		for (int i = 0; i < cells.length; i++){
+			cells[i] = this.get(i);
+		}
+		return cells;
+	}
+
+	/**
+	* flush is the method which writes all changed pages in the cache back
+	* to the page file.
+	*
+	* @throws InvalidMazeException if the page file could not be written.
+	*/
+	public void flush(){
+		try{
+			if (this.headerDirty){
+				this.writeHeader();
+				this.headerDirty = false;
+			}
+			for (Map.Entry<Integer, Page> entry : this.pages.entrySet()){
+				if (entry.getValue().dirty){
+					this.writePage(entry.getKey(), entry.getValue().cells);
+					entry.getValue().dirty = false;
+				}
+			}
+		}
+		catch (IOException e){
+			throw new InvalidMazeException("Could not write to the page file!");
+		}
+	}
+
+	/**
+	* close is the method which flushes the cache and closes the page file, it
+	* is opened again if a cell is accessed afterwards.
+	*
+	* @throws InvalidMazeException if the page file could not be written.
+	*/
+	public void close(){
+		this.flush();
+		this.pages.clear();
+		this.lastKey = -1;
+		this.lastPage = null;
+
+		try{
+			if (this.channel != null){
+				this.channel.close();
+			}
+		}
+		catch (IOException e){
+			throw new InvalidMazeException("Could not close the page file!");
+		}
+		finally{
+			this.channel = null;
+		}
+	}
+
+	/**
+	* getHits is the method which returns how many cell accesses found their
+	* page in the cache.
+	* @return number of cache hits.
+	*/
+	public long getHits(){
+		return this.hits;
+	}
+
+	/**
+	* getMisses is the method which returns how many cell accesses had to read
+	* their page from the page file.
+	* @return number of cache misses.
+	*/
+	public long getMisses(){
+		return this.misses;
+	}
+
+	/**
+	* getEvictions is the method which returns how many pages were dropped from
+	* the cache to make room for another one.
+	* @return number of evicted pages.
+	*/
+	public long getEvictions(){
+		return this.evictions;
+	}
+
+	/**
+	* getCachedPages is the method which returns the number of pages currently
+	* held in memory.
+	* @return number of cached pages.
+	*/
+	public int getCachedPages(){
+		return this.pages.size();
+	}
+
+	/**
+	* getCapacity is the method which returns the largest number of pages held
+	* in memory at the same time.
+	* @return the capacity of the cache.
+	*/
+	public int getCapacity(){
+		return this.capacity;
+	}
+
+	/**
+	* getPageSize is the method which returns the number of cells of a page side.
+	* @return the size of a page side.
+	*/
+	public int getPageSize(){
+		return this.pageSize;
+	}
+
+	int getWidth(){
+		return this.width;
+	}
+
+	int getHeight(){
+		return this.height;
+	}
+
+	int getEntranceIndex(){
+		return this.entranceIndex;
+	}
+
+	int getExitIndex(){
+		return this.exitIndex;
+	}
+
+	// the header is written again by the next flush
+	void setEntranceIndex(int index){
+		this.entranceIndex = index;
+		this.headerDirty = true;
+	}
+
+	void setExitIndex(int index){
+		this.exitIndex = index;
+		this.headerDirty = true;
+	}
+
+	private void writeObject(ObjectOutputStream stream) throws IOException{
+		this.flush();
+		stream.defaultWriteObject();
+	}
+
+	private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException{
+		stream.defaultReadObject();
+		this.initCache();
+	}
+
+	/**
+	* Page is the inner class which holds the cells of a cached page.
+	*/
+	private static class Page{
+		private byte[] cells;
+		private boolean dirty;
+
+		private Page(byte[] cells){
+			this.cells = cells;
+		}
+	}
+}
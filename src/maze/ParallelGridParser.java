@@ -0,0 +1,309 @@
+package maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+* ParallelGridParser is the class which parses a maze text file on a ForkJoinPool.
+* The file is split into parts which start at the beginning of a line. The rows
+* of all parts are counted in parallel first, so that every part knows where its
+* cells start, and then all parts are decoded in parallel into one shared array.
+* The errors of the parts are merged in file order, so the same exception is
+* thrown as if the file was scanned from the start to the end.
+*/
+class ParallelGridParser {
+	// files smaller than this are not worth splitting
+	static final long MIN_PART_SIZE = 1L << 20;
+	private static final long MAX_PART_SIZE = 1L << 30;
+	private static final int PARTS_PER_THREAD = 4;
+	private static final int READ_SIZE = 1 << 16;
+
+	private FileChannel channel;
+	private ForkJoinPool pool;
+	private long fileSize;
+
+	private List<MappedByteBuffer> parts;
+	private int[] rowOffsets;
+	private GridScanner[] scanners;
+	private InvalidMazeException[] errors;
+	private int[] errorIndices;
+
+	private byte[] cells;
+	private int width;
+	private int height;
+	private int entranceIndex;
+	private int exitIndex;
+
+	/**
+	* The constructor which takes the file to be parsed and the pool to run on.
+	*
+	* @param channel opened for reading the maze text file.
+	* @param pool the ForkJoinPool which parses the parts.
+	*/
+	ParallelGridParser(FileChannel channel, ForkJoinPool pool) throws IOException{
+		this.channel = channel;
+		this.pool = pool;
+		this.fileSize = channel.size();
+		this.entranceIndex = -1;
+		this.exitIndex = -1;
+	}
+
+	/**
+	* parse is the method which parses the whole file. When the file cannot be
+	* split into lines (it is small, empty or has a single line) nothing is
+	* parsed and false is returned, so that a sequential scan can be used.
+	*
+	* @return <code>true</code> if the file was parsed.
+	*
+	* @throws RaggedMazeException if the number of different rows/columns differ.
+	* @throws InvalidMazeException if an invalid character appeared or the maze is too large.
+	* @throws MultipleEntranceException if more than one entrance was provided.
+	* @throws MultipleExitException if more than one exit was provided.
+	* @throws NoEntranceException if an entrance Tile was not provided.
+	* @throws NoExitException if an exit Tile was not provided.
+	*/
+	boolean parse() throws IOException{
+		if (this.fileSize < 2 * MIN_PART_SIZE){
+			return false;
+		}
+
+		long firstLineEnd = this.findLineBreak(0);
+
+		// an empty first line or a single line maze is left to the sequential scan
+		// as there are no rows to split or it has to report the error
+		if (firstLineEnd <= 0){
+			return false;
+		}
+		this.width = (int)Math.min(firstLineEnd, Integer.MAX_VALUE);
+
+		if (!this.split()){
+			return false;
+		}
+
+		int count = this.parts.size();
+		this.rowOffsets = new int[count + 1];
+		this.pool.invoke(new PartsTask(0, count, true));
+
+		// the rows of the parts are turned into the index of the first row of every part
+		long rows = 0;
+		for (int i = 0; i < count; i++){
+			long partRows = this.rowOffsets[i];
+			this.rowOffsets[i] = (int)Math.min(rows, Integer.MAX_VALUE);
+			rows += partRows;
+		}
+
+		if (rows * this.width > GridScanner.MAX_CELLS){
+			throw new InvalidMazeException("That maze is too large!");
+		}
+		this.rowOffsets[count] = (int)rows;
+		this.height = (int)rows;
+		this.cells = new byte[this.height * this.width];
+
+		this.scanners = new GridScanner[count];
+		this.errors = new InvalidMazeException[count];
+		this.errorIndices = new int[count];
+		this.pool.invoke(new PartsTask(0, count, false));
+
+		this.merge();
+		return true;
+	}
+
+	// splits the file into parts which end after a line break
+	private boolean split() throws IOException{
+		int threads = Math.max(1, this.pool.getParallelism());
+		long partSize = Math.max(MIN_PART_SIZE, this.fileSize / (threads * PARTS_PER_THREAD));
+		partSize = Math.min(partSize, MAX_PART_SIZE);
+
+		this.parts = new ArrayList<MappedByteBuffer>();
+		long start = 0;
+
+		while (start < this.fileSize){
+			long end = this.fileSize;
+
+			if (start + partSize < this.fileSize){
+				long lineBreak = this.findLineBreak(start + partSize);
+				end = lineBreak == -1 ? this.fileSize : this.skipLineBreak(lineBreak);
+			}
+
+			// a single line which does not fit into one mapping
+			if (end - start > Integer.MAX_VALUE){
+				return false;
+			}
+
+			this.parts.add(this.channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+			start = end;
+		}
+		return true;
+	}
+
+	// returns the position of the first line break at or after the position, -1 if there is none
+	private long findLineBreak(long position) throws IOException{
+		ByteBuffer buffer = ByteBuffer.allocate(READ_SIZE);
+
+		while (position < this.fileSize){
+			buffer.clear();
+			int read = this.channel.read(buffer, position);
+
+			if (read <= 0){
+				break;
+			}
+
+			for (int i = 0; i < read; i++){
+				byte symbol = buffer.get(i);
+				if (symbol == '\n' || symbol == '\r'){
+					return position + i;
+				}
+			}
+			position += read;
+		}
+		return -1;
+	}
+
+	// returns the position after the line break, treating "\r\n" as one
+	private long skipLineBreak(long position) throws IOException{
+		ByteBuffer buffer = ByteBuffer.allocate(2);
+		this.channel.read(buffer, position);
+
+		if (buffer.position() == 2 && buffer.get(0) == '\r' && buffer.get(1) == '\n'){
+			return position + 2;
+		}
+		return position + 1;
+	}
+
+	private void countRows(int part){
+		MappedByteBuffer buffer = this.parts.get(part);
+		int limit = buffer.limit();
+		int rows = 0;
+
+		for (int i = 0; i < limit; i++){
+			byte symbol = buffer.get(i);
+
+			if (symbol == '\r' || (symbol == '\n' && (i == 0 || buffer.get(i - 1) != '\r'))){
+				rows++;
+			}
+		}
+
+		// the last line of the file does not need a line break
+		byte last = buffer.get(limit - 1);
+		if (last != '\n' && last != '\r'){
+			rows++;
+		}
+		this.rowOffsets[part] = rows;
+	}
+
+	private void decode(int part){
+		MappedByteBuffer buffer = this.parts.get(part);
+		GridScanner scanner = new GridScanner(this.cells, this.rowOffsets[part] * this.width, this.width);
+		this.scanners[part] = scanner;
+
+		try{
+			scanner.scan(buffer, 0, buffer.limit());
+			scanner.endInput();
+		}
+		catch (InvalidMazeException e){
+			this.errors[part] = e;
+			this.errorIndices[part] = scanner.getErrorIndex();
+		}
+	}
+
+	// goes through the parts in file order and throws the first error which
+	// a sequential scan would have found, an entrance or exit of a part is an
+	// error if one was already found in an earlier part
+	private void merge(){
+		for (int i = 0; i < this.scanners.length; i++){
+			GridScanner scanner = this.scanners[i];
+			InvalidMazeException error = this.errors[i];
+			int errorIndex = error == null ? Integer.MAX_VALUE : this.errorIndices[i];
+
+			if (this.entranceIndex != -1 && scanner.getEntranceIndex() != -1
+				&& scanner.getEntranceIndex() < errorIndex){
+
+				error = new MultipleEntranceException();
+				errorIndex = scanner.getEntranceIndex();
+			}
+
+			if (this.exitIndex != -1 && scanner.getExitIndex() != -1
+				&& scanner.getExitIndex() < errorIndex){
+
+				error = new MultipleExitException();
+			}
+
+			if (error != null){
+				throw error;
+			}
+
+			if (this.entranceIndex == -1){
+				this.entranceIndex = scanner.getEntranceIndex();
+			}
+			if (this.exitIndex == -1){
+				this.exitIndex = scanner.getExitIndex();
+			}
+		}
+
+		if (this.entranceIndex == -1){
+			throw new NoEntranceException();
+		}
+
+		if (this.exitIndex == -1){
+			throw new NoExitException();
+		}
+	}
+
+	byte[] getCells(){
+		return this.cells;
+	}
+
+	int getWidth(){
+		return this.width;
+	}
+
+	int getHeight(){
+		return this.height;
+	}
+
+	int getEntranceIndex(){
+		return this.entranceIndex;
+	}
+
+	int getExitIndex(){
+		return this.exitIndex;
+	}
+
+	/**
+	* PartsTask is the inner class which runs one of the two phases for a range
+	* of parts, splitting the range until a single part is left.
+	*/
+	private class PartsTask extends RecursiveAction{
+		private int from;
+		private int to;
+		private boolean counting;
+
+		private PartsTask(int from, int to, boolean counting){
+			this.from = from;
+			this.to = to;
+			this.counting = counting;
+		}
+
+		@Override
+		protected void compute(){
+			if (this.to - this.from == 1){
+				if (this.counting){
+					countRows(this.from);
+				}
+				else{
+					decode(this.from);
+				}
+			}
+			else{
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new PartsTask(this.from, middle, this.counting), new PartsTask(middle, this.to, this.counting));
+			}
+		}
+	}
+}
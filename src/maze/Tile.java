@@ -4,56 +4,150 @@ import java.io.Serializable;
 
 /**
 * Tile is a class which is used to describe a single tile in 
-* the maze - it can represent corridor, entrance, exit, or wall of a maze.
+* the maze - it can represent corridor, entrance, exit, or wall of a maze,
+* or a corridor with a weighted terrain such as mud, stairs or water.
 */
 public class Tile implements Serializable {
 	/**
 	* Type is the inner enum which represents a specific type of a maze tile -
-	* it can be one of corridor, entrance, exit, or wall.
+	* it can be one of corridor, entrance, exit, wall, or one of the weighted
+	* terrains, which can be visited like a corridor but cost more to enter.
+	* New types are only ever added at the end, as the ordinals are stored in
+	* the maze files.
 	*/
 	public enum Type{
-		CORRIDOR, 
-		ENTRANCE, 
-		EXIT, 
-		WALL;
+		CORRIDOR(1), 
+		ENTRANCE(1), 
+		EXIT(1), 
+		WALL(0),
+		STAIRS(2),
+		MUD(3),
+		WATER(5);
+
+		private final int cost;
+
+		private Type(int cost){
+			this.cost = cost;
+		}
+
+		/**
+		* getCost is the method which returns the cost of stepping onto a tile
+		* of this type.
+		*
+		* @return a positive cost, 1 for a plain corridor, or 0 for a wall, 
+		* which cannot be entered.
+		*/
+		public int getCost(){
+			return this.cost;
+		}
+
+		/**
+		* getSymbol is the method which returns the character of this type in
+		* the maze text files, without creating a Tile.
+		*
+		* @return character of the type ('.', '#', 'e', 'x', 's', 'm', or 'w')
+		*/
+		public char getSymbol(){
+			return symbol(this);
+		}
 	}
 
 	private Type type;
 
+	// position of the tile in the packed grid of its maze, -1 if it is not placed
+	// and SHARED_INDEX for the shared instances, which are never placed
+	private int index;
+
+	private static final int SHARED_INDEX = -2;
+	private static final Tile[] SHARED = new Tile[Type.values().length];
+
+	static {
+		for (Type type : Type.values()){
+			SHARED[type.ordinal()] = new Tile(type);
+			SHARED[type.ordinal()].index = SHARED_INDEX;
+		}
+	}
+
 	private Tile(Type type){
 		this.type = type;
+		this.index = -1;
 	}
 
 	/**
 	* fromChar is the method which takes a single character and if it of
-	* type '.', 'e', 'x', or '#', the method will assign a particular type 
-	* for this tile. If none of those is provided, the default value is WALL. 
+	* type '.', 'e', 'x', '#', 's', 'm', or 'w', the method will assign a 
+	* particular type for this tile. If none of those is provided, the default value is WALL. 
 	* 
 	* @param c a character required to determine the type of the tile
 	* @return a new Tile instance created using a given character
  	*/
 	protected static Tile fromChar(char c){
-		Type typeForNewTile;
+		Type typeForNewTile = typeOf(c);
+
+		if (typeForNewTile == null){
+			typeForNewTile = Type.WALL;
+		}
+
+		return new Tile(typeForNewTile);
+	}
 
+	/**
+	* typeOf is the method which returns the tile type a character stands for
+	* in the maze text files, without creating a Tile for it.
+	*
+	* @param c a character of a maze text file
+	* @return the Type of the character, <code>null</code> if fromChar does not
+	* know it.
+	*/
+	static Type typeOf(char c){
 		switch(c){
 			case '.':
-				typeForNewTile = Type.CORRIDOR;
-				break;
+				return Type.CORRIDOR;
 			case 'e':
-				typeForNewTile = Type.ENTRANCE;
-				break;
+				return Type.ENTRANCE;
 			case 'x':
-				typeForNewTile = Type.EXIT;
-				break;
+				return Type.EXIT;
 			case '#':
-				typeForNewTile = Type.WALL;
-				break;
+				return Type.WALL;
+			case 's':
+				return Type.STAIRS;
+			case 'm':
+				return Type.MUD;
+			case 'w':
+				return Type.WATER;
 			default:
-				typeForNewTile = Type.WALL;
-				break;
+				return null;
 		}
+	}
 
-		return new Tile(typeForNewTile);
+	/**
+	* fromType is the method which creates a new Tile instance of the given type.
+	*
+	* @param type the type of the new tile
+	* @return a new Tile instance of that type
+	*/
+	static Tile fromType(Type type){
+		return new Tile(type);
+	}
+
+	/**
+	* shared is the method which returns the single Tile instance which is
+	* shared by all cells of the given type in mazes using shared tiles.
+	*
+	* @param type the type of the tile
+	* @return the shared Tile instance of that type
+	*/
+	static Tile shared(Type type){
+		return SHARED[type.ordinal()];
+	}
+
+	/**
+	* isShared is the method which shows if this is one of the shared instances.
+	*
+	* @return <code>true</code> if the tile is shared by many cells.
+	*/
+	boolean isShared(){
+		return index == SHARED_INDEX;
 	}
 
 	/**
@@ -65,22 +159,58 @@ public class Tile implements Serializable {
 		return type;
 	}
 
+	/**
+	* getIndex is the method which returns the position of the tile in the
+	* grid of the maze it belongs to.
+	*
+	* @return index of the cell in row-major order, -1 if the tile is not placed
+	* or is shared
+	*/
+	int getIndex(){
+		return index < 0 ? -1 : index;
+	}
+
+	/**
+	* setIndex is the method used by Maze to record where the tile was placed.
+	*
+	* @param index of the cell in row-major order
+	*/
+	void setIndex(int index){
+		this.index = index;
+	}
+
+	// keeps a deserialised shared tile the same instance as the shared one
+	private Object readResolve(){
+		if (this.isShared()){
+			return shared(this.type);
+		}
+		return this;
+	}
+
 	/**
 	* isNavigable is the method which returns a boolean value
 	* which shows if a tile can be visited
 	*
-	* @return <code>true</code> is it is of type CORRIDOR, ENTRANCE, or 
-	* EXIT, otherwise - <code>false</code>
+	* @return <code>true</code> is it is of type CORRIDOR, ENTRANCE, EXIT, 
+	* or a weighted terrain, otherwise - <code>false</code>
 	*/
 	public boolean isNavigable(){
-		if (type == Type.CORRIDOR || 
-			type == Type.ENTRANCE || 
-			type == Type.EXIT){
+		return isNavigable(type);
+	}
 
-			return true;
+	/**
+	* isNavigable is the method which shows if tiles of the given type can be visited
+	*
+	* @param type the type of a tile
+	* @return <code>true</code> is it is of type CORRIDOR, ENTRANCE, EXIT, 
+	* or a weighted terrain, otherwise - <code>false</code>
+	*/
+	static boolean isNavigable(Type type){
+		if (type == Type.WALL){
+			return false;
 		}
 		else{
-			return false;
+			return true;
 		}
 	}
 
@@ -88,24 +218,41 @@ public class Tile implements Serializable {
 	* toString is the method which return a string representation
 	* of a tile type
 	*
-	* @return String of tile type (".", "#", "e", or "x")
+	* @return String of tile type (".", "#", "e", "x", "s", "m", or "w")
 	*/
 	@Override
 	public String toString(){
+		return String.valueOf(symbol(type));
+	}
+
+	/**
+	* symbol is the method which returns the character used for a tile type
+	* in the maze text files.
+	*
+	* @param type the type of a tile
+	* @return character of tile type ('.', '#', 'e', 'x', 's', 'm', or 'w')
+	*/
+	static char symbol(Type type){
 		if (type == Type.CORRIDOR){
-			return ".";
+			return '.';
 		}
 		else if (type == Type.ENTRANCE){
-			return "e";
+			return 'e';
 		}
 		else if (type == Type.EXIT){
-			return "x";
+			return 'x';
+		}
+		else if (type == Type.STAIRS){
+			return 's';
+		}
+		else if (type == Type.MUD){
+			return 'm';
 		}
-		else if (type == Type.WALL){
-			return "#";
+		else if (type == Type.WATER){
+			return 'w';
 		}
 		else{
-			return "#";
+			return '#';
 		}
 	}
 }
\ No newline at end of file
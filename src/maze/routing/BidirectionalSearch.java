@@ -0,0 +1,327 @@
+package maze.routing;
+
+import maze.Maze;
+import maze.Tile;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+* BidirectionalSearch is the class which finds a shortest route by two 
+* breadth-first searches, one from the entrance and one from the exit, which
+* stop when their frontiers meet. Each search only has to reach about half 
+* of the distance, so in a long winding maze the explored area is about 
+* halved compared with a search from one side.
+* Both searches share one array which keeps, for every cell, the side that
+* reached it and the direction it was entered in. Every step expands a 
+* whole level of the side with the smaller frontier, so the first meeting 
+* found is on a shortest route. An edit of the maze starts the search again.
+* The levels are counted in steps, the cost of weighted terrain only shows in
+* the cost of the Route returned.
+*/
+public class BidirectionalSearch implements RoutingStrategy{
+	// the state of a cell: 0 if unvisited, otherwise 1 + the ordinal of the
+	// direction it was entered in, or SOURCE, with EXIT_SIDE set for cells 
+	// reached from the exit
+	private static final byte UNVISITED = 0;
+	private static final byte SOURCE = 5;
+	private static final byte DIRECTION_BITS = 0x07;
+	private static final byte EXIT_SIDE = 0x08;
+
+	private Maze maze;
+
+	private byte[] states;
+	private IntQueue entranceFrontier;
+	private IntQueue exitFrontier;
+	private int[] offsets;
+
+	// the two cells, one of each side, where the searches met
+	private int entranceMeeting;
+	private int exitMeeting;
+	private long visitedCount;
+	private boolean started;
+	private boolean finished;
+
+	private RouteCells routeCells;
+
+	private MazeFollower follower;
+
+	/**
+	* The constructor which takes the maze to be solved.
+	*
+	* @param maze the maze to be solved.
+	*/
+	public BidirectionalSearch(Maze maze){
+		this.maze = maze;
+		this.states = new byte[maze.getWidth() * maze.getHeight()];
+		this.entranceFrontier = new IntQueue(64);
+		this.exitFrontier = new IntQueue(64);
+
+		this.offsets = maze.getNeighbourOffsets();
+
+		this.routeCells = new RouteCells();
+		this.reset();
+		this.follower = new MazeFollower(maze, (editedMaze, index, previousType, type) -> this.reset());
+	}
+
+	/**
+	* close is the method which stops the search from following the edits of
+	* the maze, so that the maze no longer keeps it alive.
+	*/
+	@Override
+	public void close(){
+		this.follower.close();
+	}
+
+	/**
+	* getMaze is the method which returns the maze being solved.
+	*
+	* @return the Maze instance.
+	*/
+	@Override
+	public Maze getMaze(){
+		return this.maze;
+	}
+
+	/**
+	* getName is the method which returns the name of the strategy.
+	*
+	* @return the name RoutingStrategy.forName creates this search by.
+	*/
+	@Override
+	public String getName(){
+		return BIDIRECTIONAL;
+	}
+
+	/**
+	* step is the method which expands the next level of the side with the
+	* smaller frontier. The first step puts the entrances and the exits in
+	* their frontiers.
+	*
+	* @return <code>true</code> if the frontiers met and the route is the shortest one.
+	*
+	* @throws NoRouteFoundException if one side has no cells left to expand.
+	*/
+	@Override
+	public boolean step(){
+		if (this.finished){
+			return true;
+		}
+
+		if (!this.started){
+			this.started = true;
+			for (int entrance : this.maze.getEntranceIndices()){
+				this.visit(entrance, SOURCE, this.entranceFrontier);
+			}
+			for (int exit : this.maze.getExitIndices()){
+				this.visit(exit, (byte)(SOURCE | EXIT_SIDE), this.exitFrontier);
+			}
+			return false;
+		}
+
+		if (this.entranceFrontier.isEmpty() || this.exitFrontier.isEmpty()){
+			throw new NoRouteFoundException();
+		}
+
+		if (this.entranceFrontier.size() <= this.exitFrontier.size()){
+			this.expandLevel(this.entranceFrontier, (byte)0);
+		}
+		else{
+			this.expandLevel(this.exitFrontier, EXIT_SIDE);
+		}
+		return this.finished;
+	}
+
+	/**
+	* solve is the method which takes the remaining steps of the search.
+	*
+	* @return the Route with the fewest steps from an entrance to an exit,
+	* whose cost is the sum of the costs of its terrain.
+	*
+	* @throws NoRouteFoundException if no exit can be reached.
+	*/
+	@Override
+	public Route solve(){
+		while (!this.step());
+		return new Route(this.maze, this.getRouteIndices());
+	}
+
+	/**
+	* isFinished is the method which shows if the frontiers have met.
+	*
+	* @return <code>true</code> if the search found the shortest route.
+	*/
+	@Override
+	public boolean isFinished(){
+		return this.finished;
+	}
+
+	/**
+	* getRouteIndices is the method which returns the cells of the route from
+	* the entrance to the exit.
+	*
+	* @return a new array of the cell indices, empty until the search is finished.
+	*/
+	@Override
+	public int[] getRouteIndices(){
+		if (!this.finished){
+			return new int[0];
+		}
+
+		int entranceLength = this.walkBackLength(this.entranceMeeting);
+		int exitLength = this.walkBackLength(this.exitMeeting);
+		int[] indices = new int[entranceLength + exitLength];
+
+		// the entrance half is written backwards, the exit half forwards
+		int index = this.entranceMeeting;
+		for (int position = entranceLength - 1; position >= 0; position--){
+			indices[position] = index;
+			index = this.parent(index);
+		}
+		index = this.exitMeeting;
+		for (int position = entranceLength; position < indices.length; position++){
+			indices[position] = index;
+			index = this.parent(index);
+		}
+		return indices;
+	}
+
+	/**
+	* isVisitedFromEntrance is the method which shows if a cell was reached by
+	* the search from the entrance.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell belongs to the entrance side.
+	*/
+	public boolean isVisitedFromEntrance(int index){
+		return index >= 0 && this.states[index] != UNVISITED && (this.states[index] & EXIT_SIDE) == 0;
+	}
+
+	/**
+	* isVisitedFromExit is the method which shows if a cell was reached by the
+	* search from the exit.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell belongs to the exit side.
+	*/
+	public boolean isVisitedFromExit(int index){
+		return index >= 0 && (this.states[index] & EXIT_SIDE) != 0;
+	}
+
+	/**
+	* getVisitedCount is the method which returns the number of cells reached
+	* by both sides, which is the area the search explored.
+	*
+	* @return number of visited cells.
+	*/
+	@Override
+	public long getVisitedCount(){
+		return this.visitedCount;
+	}
+
+	/**
+	* isOnRoute is the method which shows if a cell is on the route, which is
+	* empty until the search is finished.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell is on the route.
+	*/
+	@Override
+	public boolean isOnRoute(int index){
+		return this.routeCells.contains(this, this.finished ? this.exitMeeting : -1, index);
+	}
+
+	/**
+	* getRemovedTiles is the method which returns the Tile instances of the
+	* cells the search has visited which are not on the route.
+	*
+	* @return read-only List of the Tile instances in the order of their indices.
+	*/
+	@Override
+	public List<Tile> getRemovedTiles(){
+		return this.routeCells.removedTiles(this, this.finished ? this.exitMeeting : -1);
+	}
+
+	/**
+	* isVisited is the method which shows if the search has visited a cell, 
+	* from either side.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell was visited.
+	*/
+	@Override
+	public boolean isVisited(int index){
+		return index >= 0 && this.states[index] != UNVISITED;
+	}
+
+	/**
+	* reset is the method which forgets the whole search, so that the maze is
+	* solved again by the next step.
+	*/
+	@Override
+	public void reset(){
+		Arrays.fill(this.states, UNVISITED);
+		this.entranceFrontier.clear();
+		this.exitFrontier.clear();
+		this.entranceMeeting = -1;
+		this.exitMeeting = -1;
+		this.visitedCount = 0;
+		this.started = false;
+		this.finished = false;
+		this.routeCells.clear();
+	}
+
+	// expands every cell which is in the frontier now, stopping at the first
+	// neighbour reached by the other side
+	private void expandLevel(IntQueue frontier, byte side){
+		int level = frontier.size();
+
+		for (int i = 0; i < level; i++){
+			int index = frontier.poll();
+			int mask = this.maze.getNeighbourMask(index);
+
+			for (int d = 0; d < this.offsets.length; d++){
+				if ((mask & (1 << d)) == 0){
+					continue;
+				}
+
+				int next = index + this.offsets[d];
+				byte state = this.states[next];
+
+				if (state == UNVISITED){
+					this.visit(next, (byte)((d + 1) | side), frontier);
+				}
+				else if ((state & EXIT_SIDE) != side){
+					this.entranceMeeting = side == 0 ? index : next;
+					this.exitMeeting = side == 0 ? next : index;
+					this.finished = true;
+					return;
+				}
+			}
+		}
+	}
+
+	private void visit(int index, byte state, IntQueue frontier){
+		this.states[index] = state;
+		this.visitedCount++;
+		frontier.add(index);
+	}
+
+	// the cell a visited cell was reached from, -1 for an entrance or an exit
+	private int parent(int index){
+		int direction = this.states[index] & DIRECTION_BITS;
+
+		if (direction == SOURCE){
+			return -1;
+		}
+		return index - this.offsets[direction - 1];
+	}
+
+	private int walkBackLength(int index){
+		int length = 0;
+		for (; index != -1; index = this.parent(index)){
+			length++;
+		}
+		return length;
+	}
+}
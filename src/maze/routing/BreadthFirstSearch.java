@@ -0,0 +1,246 @@
+package maze.routing;
+
+import maze.Maze;
+import maze.Tile;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+* BreadthFirstSearch is the class which finds a shortest route from an
+* entrance to an exit by a breadth-first search, expanding one cell per step
+* like RouteFinder so that the search can be animated. It visits the cells
+* in the order of MultiSourceSearch, which solves a maze in one call.
+* Every step counts the same here, so over weighted terrain the route has the
+* fewest cells but not always the lowest cost, which DialSearch finds.
+* An edit of the maze starts the search again from the entrance.
+*/
+public class BreadthFirstSearch implements RoutingStrategy{
+	private static final byte UNVISITED = 0;
+	private static final byte SOURCE = 5;
+
+	private Maze maze;
+
+	private byte[] entered;
+	private IntQueue frontier;
+	private int[] offsets;
+
+	private int current;
+	private long visitedCount;
+	private boolean started;
+	private boolean finished;
+
+	private RouteCells routeCells;
+
+	private MazeFollower follower;
+
+	/**
+	* The constructor which takes the maze to be solved.
+	*
+	* @param maze the maze to be solved.
+	*/
+	public BreadthFirstSearch(Maze maze){
+		this.maze = maze;
+		this.entered = new byte[maze.getWidth() * maze.getHeight()];
+		this.frontier = new IntQueue(64);
+
+		this.offsets = maze.getNeighbourOffsets();
+
+		this.routeCells = new RouteCells();
+		this.reset();
+		this.follower = new MazeFollower(maze, (editedMaze, index, previousType, type) -> this.reset());
+	}
+
+	/**
+	* close is the method which stops the search from following the edits of
+	* the maze, so that the maze no longer keeps it alive.
+	*/
+	@Override
+	public void close(){
+		this.follower.close();
+	}
+
+	/**
+	* getName is the method which returns the name of the strategy.
+	*
+	* @return the name RoutingStrategy.forName creates this search by.
+	*/
+	@Override
+	public String getName(){
+		return BREADTH_FIRST;
+	}
+
+	/**
+	* getMaze is the method which returns the maze being solved.
+	*
+	* @return the Maze instance.
+	*/
+	@Override
+	public Maze getMaze(){
+		return this.maze;
+	}
+
+	/**
+	* step is the method which expands the cell which has waited longest in
+	* the queue. The first step puts the entrances in the queue and expands
+	* one of them.
+	*
+	* @return <code>true</code> if an exit was reached and the route is a shortest one.
+	*
+	* @throws NoRouteFoundException if the queue runs empty before an exit was reached.
+	*/
+	@Override
+	public boolean step(){
+		if (this.finished){
+			return true;
+		}
+
+		if (!this.started){
+			this.started = true;
+			for (int entrance : this.maze.getEntranceIndices()){
+				this.entered[entrance] = SOURCE;
+				this.frontier.add(entrance);
+				this.visitedCount++;
+			}
+		}
+
+		if (this.frontier.isEmpty()){
+			throw new NoRouteFoundException();
+		}
+
+		int index = this.frontier.poll();
+		this.current = index;
+
+		if (this.maze.getTileType(index) == Tile.Type.EXIT){
+			this.finished = true;
+			return true;
+		}
+
+		int mask = this.maze.getNeighbourMask(index);
+		for (int d = 0; d < this.offsets.length; d++){
+			if ((mask & (1 << d)) == 0){
+				continue;
+			}
+
+			int next = index + this.offsets[d];
+			if (this.entered[next] == UNVISITED){
+				this.entered[next] = (byte)(d + 1);
+				this.frontier.add(next);
+				this.visitedCount++;
+			}
+		}
+		return false;
+	}
+
+	/**
+	* solve is the method which takes the remaining steps of the search.
+	*
+	* @return a shortest Route from an entrance to an exit, whose cost is the
+	* sum of the costs of its terrain.
+	*
+	* @throws NoRouteFoundException if no exit can be reached.
+	*/
+	@Override
+	public Route solve(){
+		while (!this.step());
+		return new Route(this.maze, this.getRouteIndices());
+	}
+
+	/**
+	* isFinished is the method which shows if an exit has been reached.
+	*
+	* @return <code>true</code> if the search found a shortest route.
+	*/
+	@Override
+	public boolean isFinished(){
+		return this.finished;
+	}
+
+	/**
+	* getRouteIndices is the method which returns the cells of the route to
+	* the last expanded cell.
+	*
+	* @return a new array of the cell indices from the entrance, empty before
+	* the first step.
+	*/
+	@Override
+	public int[] getRouteIndices(){
+		if (this.current == -1){
+			return new int[0];
+		}
+
+		int length = 1;
+		for (int index = this.current; this.entered[index] != SOURCE; length++){
+			index -= this.offsets[this.entered[index] - 1];
+		}
+
+		int[] indices = new int[length];
+		int index = this.current;
+		for (int position = length - 1; position > 0; position--){
+			indices[position] = index;
+			index -= this.offsets[this.entered[index] - 1];
+		}
+		indices[0] = index;
+		return indices;
+	}
+
+	/**
+	* isOnRoute is the method which shows if a cell is on the route to the
+	* last expanded cell.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell is on the route.
+	*/
+	@Override
+	public boolean isOnRoute(int index){
+		return this.routeCells.contains(this, this.current, index);
+	}
+
+	/**
+	* getRemovedTiles is the method which returns the Tile instances of the
+	* cells the search has visited which are not on the route.
+	*
+	* @return read-only List of the Tile instances in the order of their indices.
+	*/
+	@Override
+	public List<Tile> getRemovedTiles(){
+		return this.routeCells.removedTiles(this, this.current);
+	}
+
+	/**
+	* isVisited is the method which shows if the search has reached a cell,
+	* which is the case as soon as it is put in the queue.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell was reached.
+	*/
+	@Override
+	public boolean isVisited(int index){
+		return index >= 0 && this.entered[index] != UNVISITED;
+	}
+
+	/**
+	* getVisitedCount is the method which returns the number of cells reached.
+	*
+	* @return number of cells put in the queue.
+	*/
+	@Override
+	public long getVisitedCount(){
+		return this.visitedCount;
+	}
+
+	/**
+	* reset is the method which forgets the whole search, so that the maze is
+	* solved again from its entrance by the next step.
+	*/
+	@Override
+	public void reset(){
+		Arrays.fill(this.entered, UNVISITED);
+		this.frontier.clear();
+		this.current = -1;
+		this.visitedCount = 0;
+		this.started = false;
+		this.finished = false;
+		this.routeCells.clear();
+	}
+}
@@ -0,0 +1,97 @@
+package maze.routing;
+
+import java.util.Arrays;
+
+import java.io.Serializable;
+
+/**
+* BucketQueue is the class which keeps int elements ordered by a small long
+* priority, the smallest priority first, as the bucket queue of Dial. While
+* an element with priority p is the smallest one, every element added has a
+* priority from p to p + maxStep, so maxStep + 1 buckets used as a ring hold
+* them all and an element is added and removed in constant time, instead of
+* the logarithmic time of IntBinaryHeap. Like there, an element can be added
+* again with a smaller priority and the searches skip the stale copies.
+*/
+class BucketQueue implements Serializable{
+	private int[][] buckets;
+	private int[] sizes;
+	private long smallest;
+	private int size;
+
+	/**
+	* The constructor which takes the largest difference between the priority
+	* of an added element and the smallest priority in the queue.
+	*
+	* @param maxStep the largest cost of a single step of the search.
+	*/
+	BucketQueue(int maxStep){
+		this.buckets = new int[maxStep + 1][16];
+		this.sizes = new int[maxStep + 1];
+	}
+
+	/**
+	* add is the method which puts an element into the bucket of its priority,
+	* which must be no smaller than the smallest priority and at most maxStep
+	* larger.
+	*
+	* @param element to be added.
+	* @param priority of the element.
+	*/
+	void add(int element, long priority){
+		int bucket = (int)(priority % this.buckets.length);
+
+		if (this.sizes[bucket] == this.buckets[bucket].length){
+			this.buckets[bucket] = Arrays.copyOf(this.buckets[bucket], this.sizes[bucket] * 2);
+		}
+		this.buckets[bucket][this.sizes[bucket]++] = element;
+		this.size++;
+	}
+
+	/**
+	* peekPriority is the method which returns the smallest priority.
+	*
+	* @return the priority of the element poll would return.
+	*/
+	long peekPriority(){
+		this.skipEmptyBuckets();
+		return this.smallest;
+	}
+
+	/**
+	* poll is the method which removes an element with the smallest priority,
+	* of equal priorities the one added last.
+	*
+	* @return the removed element.
+	*/
+	int poll(){
+		int bucket = this.skipEmptyBuckets();
+		this.size--;
+		return this.buckets[bucket][--this.sizes[bucket]];
+	}
+
+	// moves the smallest priority on to the first bucket holding an element
+	private int skipEmptyBuckets(){
+		int bucket = (int)(this.smallest % this.buckets.length);
+
+		while (this.sizes[bucket] == 0){
+			this.smallest++;
+			bucket = bucket + 1 == this.buckets.length ? 0 : bucket + 1;
+		}
+		return bucket;
+	}
+
+	boolean isEmpty(){
+		return this.size == 0;
+	}
+
+	int size(){
+		return this.size;
+	}
+
+	void clear(){
+		Arrays.fill(this.sizes, 0);
+		this.smallest = 0;
+		this.size = 0;
+	}
+}
@@ -0,0 +1,617 @@
+package maze.routing;
+
+import maze.Maze;
+import maze.Maze.Direction;
+import maze.Tile;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.BitSet;
+
+/**
+* DepthFirstSearch is the class which solves a maze by a depth-first search,
+* adding a cell to the route or removing the last one from it by one step.
+* It is the default strategy of RouteFinder. An edit of the maze repairs the
+* search instead of starting it again, and a guided search follows the
+* distances to the exit kept by the maze.
+*/
+public class DepthFirstSearch implements RoutingStrategy{
+	private Maze maze;
+	private boolean finished;
+
+	// the route and the removed tiles are kept as cell indices of the maze,
+	// so they do not depend on the identity of Tile instances and work with
+	// mazes which share their tiles. The sets answer membership checks
+	private int[] route;
+	private int routeSize;
+	private int[] removedTiles;
+	private int removedSize;
+	private BitSet onRoute;
+	private BitSet removed;
+
+	// number of unvisited navigable neighbours of every visited cell and the
+	// number of route tiles which still have one, used to detect that the maze
+	// cannot be solved without searching the whole route. The counts are kept
+	// in chunks which are only allocated once a cell in them is visited, so
+	// the memory follows the explored part of the maze and not its size
+	private byte[][] unvisitedNeighbours;
+	private int openRouteTiles;
+
+	// a guided search follows the distances to the exit kept by the maze, so
+	// every step is a lookup and the route is a shortest one
+	private boolean guided;
+
+	private static final int CHUNK_BITS = 16;
+	private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+	private transient int[] neighbours;
+
+	// repairs the search when the maze is edited, it is registered again
+	// after deserialisation as the listeners of a maze are not saved
+	private MazeFollower follower;
+
+	/**
+	* The constructor which takes the maze to be solved.
+	*
+	* @param maze the maze to be solved.
+	*/
+	public DepthFirstSearch(Maze maze){
+		this.maze = maze;
+		route = new int[16];
+		removedTiles = new int[16];
+		onRoute = new BitSet();
+		removed = new BitSet();
+		unvisitedNeighbours = new byte[(int)(((long)maze.getWidth() * maze.getHeight() + CHUNK_MASK) >> CHUNK_BITS)][];
+		this.follower = new MazeFollower(maze, (editedMaze, index, previousType, type) -> this.tileChanged(index, previousType, type));
+	}
+
+	/**
+	* close is the method which stops the search from following the edits of
+	* the maze, so that the maze no longer keeps it alive.
+	*/
+	@Override
+	public void close(){
+		this.follower.close();
+	}
+
+	/**
+	* getName is the method which returns the name of the strategy.
+	*
+	* @return the name RoutingStrategy.forName creates this search by.
+	*/
+	@Override
+	public String getName(){
+		return DEPTH_FIRST;
+	}
+
+	/**
+	* getMaze is the method which returns the maze being solved.
+	*
+	* @return the Maze instance.
+	*/
+	@Override
+	public Maze getMaze(){
+		return this.maze;
+	}
+
+	/**
+	* getRoute is the method which return all the route Tile instances from the 
+	* start to the last one in the List. The List is a read-only view which
+	* follows the route as the maze is solved.
+	* 
+	* @return List of Tile instances which the route consists of.
+	*/
+	@Override
+	public List<Tile> getRoute(){
+		return new TileView(false);
+	}
+
+	/**
+	* getRemovedTiles is the method which return all the removedTiles Tile instances from the 
+	* start to the last one in the List. The List is a read-only view which
+	* follows the removed tiles as the maze is solved.
+	* 
+	* @return List of Tile instances which the removedTiles consists of. 
+	*/
+	@Override
+	public List<Tile> getRemovedTiles(){
+		return new TileView(true);
+	}
+
+	/**
+	* getRouteIndices is the method which returns the cells of the route from
+	* the start to the last one as indices of the maze.
+	*
+	* @return a new array of the cell indices of the route.
+	*/
+	@Override
+	public int[] getRouteIndices(){
+		return Arrays.copyOf(this.route, this.routeSize);
+	}
+
+	/**
+	* getRouteCost is the method which returns the cost of walking the current
+	* route, the sum of the costs of every cell stepped onto after the first,
+	* so weighted terrain on the route counts more than plain corridors.
+	*
+	* @return the cost of the route, 0 if it holds at most one cell.
+	*/
+	@Override
+	public long getRouteCost(){
+		long cost = 0;
+		for (int i = 1; i < this.routeSize; i++){
+			cost += this.maze.getTileCost(this.route[i]);
+		}
+		return cost;
+	}
+
+	/**
+	* isOnRoute is the method which shows if a cell is on the current route.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell is on the route.
+	*/
+	@Override
+	public boolean isOnRoute(int index){
+		return index >= 0 && this.onRoute.get(index);
+	}
+
+	/**
+	* isRemoved is the method which shows if a cell was on the route and was
+	* removed from it as it leads nowhere.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell was removed from the route.
+	*/
+	@Override
+	public boolean isRemoved(int index){
+		return index >= 0 && this.removed.get(index);
+	}
+
+	/**
+	* isFinished is the method which provides information if the maze has been completed.
+	* 
+	* @return boolean value <code>true</code> if the route List of Tile instances starts
+	* at an entrance and ends at an exit.
+	*/
+	@Override
+	public boolean isFinished(){
+		this.finished = this.routeSize > 0
+			&& this.maze.getTileType(this.route[0]) == Tile.Type.ENTRANCE
+			&& this.maze.getTileType(this.route[this.routeSize - 1]) == Tile.Type.EXIT;
+		return this.finished;
+	}
+
+	/**
+	* step is the method which solves a maze step by step, that is adds or removes one Tile instance
+	* from the List of Tile instances per method call.
+	*
+	* @return booelan value <code>true</code> if the maze has been solved, otherwise - <code>false</code>
+	*
+	* @throws NoRouteFoundException if the maze is unsolvable, which is known from the first step
+	*/
+	@Override
+	public boolean step(){
+		if (!isFinished()){
+			if (this.routeSize == 0){
+				// the components tell at once that there is no route and which
+				// entrance to start from, except for mazes kept on disk which 
+				// would need labels for every cell in memory
+				int entranceIndex = this.getMaze().getTileIndex(this.getMaze().getEntrance());
+				if (this.getMaze().getPagedGrid() == null){
+					entranceIndex = this.getMaze().getReachingEntrance();
+					if (entranceIndex == -1){
+						throw new NoRouteFoundException();
+					}
+				}
+				this.push(entranceIndex);
+			}
+			else{
+				// is required to determine if I need to remove a current Tile (if no neighbours)
+				boolean foundTileWithUnvisitedNeighbour = false;
+
+				// get the top element of the route
+				int index = this.route[this.routeSize - 1];
+
+				if (this.guided && this.stepTowardsExit(index)){
+					return this.isFinished();
+				}
+
+				// get navigable neighbours of the top element
+				int count = this.getMaze().getNeighbours(index, this.neighbourBuffer());
+
+				for (int i = 0; i < count && !foundTileWithUnvisitedNeighbour; i++) {
+					if (!this.isVisited(this.neighbours[i])){
+						this.push(this.neighbours[i]);
+						foundTileWithUnvisitedNeighbour = true;
+					}
+				}
+
+				// if none neighbours of a Tile instance were found and none of 
+				// the Tiles of the route list have an unvisited neighbour 
+				// either, then this maze is unsolvable
+				if (!foundTileWithUnvisitedNeighbour){
+					if (this.openRouteTiles == 0){
+						throw new NoRouteFoundException();
+					}
+					else{
+						if (this.removedSize == this.removedTiles.length){
+							this.removedTiles = Arrays.copyOf(this.removedTiles, this.removedSize * 2);
+						}
+						this.removedTiles[this.removedSize++] = index;
+						this.removed.set(index);
+						this.onRoute.clear(index);
+						this.routeSize--;
+					}
+				}
+			}
+		}
+		return this.isFinished();
+	}
+
+	/**
+	* setGuided is the method which lets the search follow the distances to
+	* the exit kept by the maze. The first guided step searches the maze once
+	* from the exit, afterwards every step takes constant time and goes 
+	* straight along a route with the fewest steps, the distances do not weigh
+	* terrain. When the next cell towards the exit 
+	* was already visited, or the maze has more than one exit, the step falls
+	* back to the depth-first search.
+	*
+	* @param guided <code>true</code> to follow the distances to the exit.
+	*/
+	@Override
+	public void setGuided(boolean guided){
+		this.guided = guided;
+	}
+
+	/**
+	* isGuided is the method which shows if the search follows the distances
+	* to the exit.
+	*
+	* @return <code>true</code> if the steps are guided.
+	*/
+	@Override
+	public boolean isGuided(){
+		return this.guided;
+	}
+
+	/**
+	* solve is the method which takes the remaining steps of the search.
+	*
+	* @return the Route from the entrance to the exit, which need not be a 
+	* shortest one unless the search is guided, whose cost is the sum of the
+	* costs of the cells stepped onto.
+	*
+	* @throws NoRouteFoundException if no exit can be reached.
+	*/
+	@Override
+	public Route solve(){
+		while (!this.step());
+		return new Route(this.maze, this.getRouteIndices(), this.getRouteCost());
+	}
+
+	/**
+	* getRemovedIndices is the method which returns the cells which were
+	* removed from the route, in the order they were removed.
+	*
+	* @return a new array of the cell indices.
+	*/
+	public int[] getRemovedIndices(){
+		return Arrays.copyOf(this.removedTiles, this.removedSize);
+	}
+
+	/**
+	* isVisited is the method which shows if a cell is on the route or was 
+	* removed from it.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell was visited.
+	*/
+	@Override
+	public boolean isVisited(int index){
+		return index >= 0 && (this.onRoute.get(index) || this.removed.get(index));
+	}
+
+	/**
+	* getVisitedCount is the method which returns the number of cells on the
+	* route and removed from it.
+	*
+	* @return number of visited cells.
+	*/
+	@Override
+	public long getVisitedCount(){
+		return (long)this.routeSize + this.removedSize;
+	}
+
+	/**
+	* reset is the method which forgets the whole search, so that the maze is
+	* solved again from its entrance by the next step.
+	*/
+	@Override
+	public void reset(){
+		this.finished = false;
+		this.routeSize = 0;
+		this.removedSize = 0;
+		this.onRoute.clear();
+		this.removed.clear();
+		this.openRouteTiles = 0;
+		Arrays.fill(this.unvisitedNeighbours, null);
+	}
+
+	// keeps the search valid after a cell of the maze was edited. Cells of the
+	// route from the edited cell on, and the removed cells which touch a cell
+	// that is no longer visited or was opened, are forgotten, so that the route
+	// never depends on a removed cell. Only the counts of the cells around
+	// them are recomputed, so the work follows the changed part of the search
+	private void tileChanged(int index, Tile.Type previousType, Tile.Type type){
+		if (previousType == Tile.Type.ENTRANCE || previousType == Tile.Type.EXIT
+			|| type == Tile.Type.ENTRANCE || type == Tile.Type.EXIT){
+
+			// the route starts at the entrance and ends at the exit
+			this.reset();
+			return;
+		}
+
+		boolean navigable = this.maze.isNavigable(index);
+		IndexList forgotten = new IndexList();
+
+		if (!navigable && this.onRoute.get(index)){
+			int position = this.routeSize - 1;
+			while (this.route[position] != index){
+				position--;
+			}
+			for (int i = position; i < this.routeSize; i++){
+				forgotten.add(this.route[i]);
+			}
+		}
+		else if (!navigable && this.removed.get(index)){
+			forgotten.add(index);
+		}
+
+		// removed cells next to a forgotten or opened cell may lead somewhere now
+		int[] around = new int[4];
+		int[] queue = new int[Math.max(forgotten.size + 1, 16)];
+		int queued = 0;
+		BitSet restored = new BitSet();
+
+		for (int i = -1; i < forgotten.size; i++){
+			int cell = i == -1 ? index : forgotten.get(i);
+			int count = this.maze.getNeighbours(cell, around);
+			for (int j = 0; j < count; j++){
+				if (this.removed.get(around[j]) && !restored.get(around[j])){
+					restored.set(around[j]);
+					if (queued == queue.length){
+						queue = Arrays.copyOf(queue, queued * 2);
+					}
+					queue[queued++] = around[j];
+				}
+			}
+		}
+		for (int head = 0; head < queued; head++){
+			int cell = queue[head];
+			forgotten.add(cell);
+			int count = this.maze.getNeighbours(cell, around);
+			for (int j = 0; j < count; j++){
+				if (this.removed.get(around[j]) && !restored.get(around[j])){
+					restored.set(around[j]);
+					if (queued == queue.length){
+						queue = Arrays.copyOf(queue, queued * 2);
+					}
+					queue[queued++] = around[j];
+				}
+			}
+		}
+
+		// the cells whose count of unvisited neighbours may change
+		IndexList affected = new IndexList();
+		this.addWithGridNeighbours(affected, index);
+		for (int i = 0; i < forgotten.size; i++){
+			this.addWithGridNeighbours(affected, forgotten.get(i));
+		}
+		affected.sortUnique();
+
+		int before = 0;
+		for (int i = 0; i < affected.size; i++){
+			before += this.openRouteTile(affected.get(i));
+		}
+
+		boolean cut = false;
+		boolean uncovered = false;
+		for (int i = 0; i < forgotten.size; i++){
+			int cell = forgotten.get(i);
+			cut |= this.onRoute.get(cell);
+			uncovered |= this.removed.get(cell);
+			this.onRoute.clear(cell);
+			this.removed.clear(cell);
+		}
+		if (cut){
+			while (this.routeSize > 0 && !this.onRoute.get(this.route[this.routeSize - 1])){
+				this.routeSize--;
+			}
+		}
+		if (uncovered){
+			int kept = 0;
+			for (int i = 0; i < this.removedSize; i++){
+				if (this.removed.get(this.removedTiles[i])){
+					this.removedTiles[kept++] = this.removedTiles[i];
+				}
+			}
+			this.removedSize = kept;
+		}
+
+		int after = 0;
+		for (int i = 0; i < affected.size; i++){
+			int cell = affected.get(i);
+			if (this.isVisited(cell)){
+				this.countUnvisitedNeighbours(cell, around);
+				after += this.openRouteTile(cell);
+			}
+		}
+		this.openRouteTiles += after - before;
+	}
+
+	// adds the cell and the cells next to it, navigable or not
+	private void addWithGridNeighbours(IndexList list, int index){
+		int width = this.maze.getWidth();
+		int row = index / width;
+		int column = index % width;
+
+		list.add(index);
+		if (row > 0){
+			list.add(index - width);
+		}
+		if (row < this.maze.getHeight() - 1){
+			list.add(index + width);
+		}
+		if (column > 0){
+			list.add(index - 1);
+		}
+		if (column < width - 1){
+			list.add(index + 1);
+		}
+	}
+
+	// 1 if the cell is on the route and still has an unvisited neighbour
+	private int openRouteTile(int index){
+		if (!this.onRoute.get(index)){
+			return 0;
+		}
+		return this.unvisitedNeighbours[index >> CHUNK_BITS][index & CHUNK_MASK] > 0 ? 1 : 0;
+	}
+
+	private void countUnvisitedNeighbours(int index, int[] around){
+		int count = this.maze.getNeighbours(index, around);
+		int unvisited = 0;
+
+		for (int i = 0; i < count; i++){
+			if (!this.isVisited(around[i])){
+				unvisited++;
+			}
+		}
+		this.unvisitedNeighbours[index >> CHUNK_BITS][index & CHUNK_MASK] = (byte)unvisited;
+	}
+
+	// moves to the neighbour which is closer to the exit, if that is possible
+	private boolean stepTowardsExit(int index){
+		if (this.maze.hasManyEndpoints() && this.maze.getExitIndices().length > 1){
+			return false;
+		}
+
+		int next = this.maze.getNextStepToExit(index);
+		if (next == -1 || this.isVisited(next)){
+			return false;
+		}
+
+		this.push(next);
+		return true;
+	}
+
+	// adds the cell to the route and updates the counts of unvisited neighbours
+	private void push(int index){
+		int count = this.getMaze().getNeighbours(index, this.neighbourBuffer());
+		int unvisited = 0;
+
+		for (int i = 0; i < count; i++) {
+			int neighbour = this.neighbours[i];
+
+			if (this.isVisited(neighbour)){
+				byte[] chunk = this.unvisitedNeighbours[neighbour >> CHUNK_BITS];
+				chunk[neighbour & CHUNK_MASK]--;
+				if (chunk[neighbour & CHUNK_MASK] == 0 && this.onRoute.get(neighbour)){
+					this.openRouteTiles--;
+				}
+			}
+			else{
+				unvisited++;
+			}
+		}
+
+		if (this.unvisitedNeighbours[index >> CHUNK_BITS] == null){
+			this.unvisitedNeighbours[index >> CHUNK_BITS] = new byte[CHUNK_MASK + 1];
+		}
+		this.unvisitedNeighbours[index >> CHUNK_BITS][index & CHUNK_MASK] = (byte)unvisited;
+		if (unvisited > 0){
+			this.openRouteTiles++;
+		}
+
+		this.onRoute.set(index);
+		if (this.routeSize == this.route.length){
+			this.route = Arrays.copyOf(this.route, this.routeSize * 2);
+		}
+		this.route[this.routeSize++] = index;
+	}
+
+	private int[] neighbourBuffer(){
+		if (this.neighbours == null){
+			this.neighbours = new int[4];
+		}
+		return this.neighbours;
+	}
+
+	/**
+	* IndexList is the inner class which collects the cells touched by an edit.
+	*/
+	private static class IndexList{
+		private int[] indices = new int[16];
+		private int size;
+
+		private void add(int index){
+			if (this.size == this.indices.length){
+				this.indices = Arrays.copyOf(this.indices, this.size * 2);
+			}
+			this.indices[this.size++] = index;
+		}
+
+		private int get(int position){
+			return this.indices[position];
+		}
+
+		private void sortUnique(){
+			Arrays.sort(this.indices, 0, this.size);
+			int kept = 0;
+			for (int i = 0; i < this.size; i++){
+				if (kept == 0 || this.indices[kept - 1] != this.indices[i]){
+					this.indices[kept++] = this.indices[i];
+				}
+			}
+			this.size = kept;
+		}
+	}
+
+	/**
+	* TileView is the inner class which shows the route or the removed tiles
+	* as a List of the Tile instances of their cells.
+	*/
+	private class TileView extends AbstractList<Tile>{
+		private boolean removedTiles;
+
+		private TileView(boolean removedTiles){
+			this.removedTiles = removedTiles;
+		}
+
+		@Override
+		public Tile get(int position){
+			if (position < 0 || position >= this.size()){
+				throw new IndexOutOfBoundsException("Position " + position + " is outside of the list");
+			}
+			int index = this.removedTiles ? DepthFirstSearch.this.removedTiles[position] : route[position];
+			return getMaze().getTileAtLocation(index);
+		}
+
+		@Override
+		public int size(){
+			return this.removedTiles ? removedSize : routeSize;
+		}
+
+		@Override
+		public boolean contains(Object tile){
+			if (!(tile instanceof Tile)){
+				return false;
+			}
+			int index = getMaze().getTileIndex((Tile)tile);
+			return this.removedTiles ? isRemoved(index) : isOnRoute(index);
+		}
+	}
+}
@@ -0,0 +1,307 @@
+package maze.routing;
+
+import maze.Maze;
+import maze.Tile;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+* DialSearch is the class which finds a cheapest route from an entrance to an
+* exit of a maze with weighted terrain by the algorithm of Dijkstra, where
+* stepping onto a cell costs the cost of its type. The costs are small
+* integers, so the cells wait in a BucketQueue, the bucket queue of Dial,
+* which adds and removes a cell in constant time. One cell is expanded per
+* step like RouteFinder so that the search can be animated.
+* An edit of the maze starts the search again from the entrance.
+*/
+public class DialSearch implements RoutingStrategy{
+	private static final byte UNVISITED = 0;
+	private static final byte SOURCE = 5;
+
+	// the largest cost of stepping onto a cell of any type
+	private static final int MAX_COST;
+
+	static {
+		int maxCost = 0;
+		for (Tile.Type type : Tile.Type.values()){
+			maxCost = Math.max(maxCost, type.getCost());
+		}
+		MAX_COST = maxCost;
+	}
+
+	private Maze maze;
+
+	private long[] costs;
+	private byte[] entered;
+	private BitSet expanded;
+	private BucketQueue open;
+	private int[] offsets;
+
+	private int current;
+	private long expandedCount;
+	private boolean started;
+	private boolean finished;
+
+	private RouteCells routeCells;
+
+	private MazeFollower follower;
+
+	/**
+	* The constructor which takes the maze to be solved.
+	*
+	* @param maze the maze to be solved.
+	*/
+	public DialSearch(Maze maze){
+		this.maze = maze;
+
+		int size = maze.getWidth() * maze.getHeight();
+		this.costs = new long[size];
+		this.entered = new byte[size];
+		this.expanded = new BitSet();
+		this.open = new BucketQueue(MAX_COST);
+
+		this.offsets = maze.getNeighbourOffsets();
+
+		this.routeCells = new RouteCells();
+		this.reset();
+		this.follower = new MazeFollower(maze, (editedMaze, index, previousType, type) -> this.reset());
+	}
+
+	/**
+	* close is the method which stops the search from following the edits of
+	* the maze, so that the maze no longer keeps it alive.
+	*/
+	@Override
+	public void close(){
+		this.follower.close();
+	}
+
+	/**
+	* getMaze is the method which returns the maze being solved.
+	*
+	* @return the Maze instance.
+	*/
+	@Override
+	public Maze getMaze(){
+		return this.maze;
+	}
+
+	/**
+	* getName is the method which returns the name of the strategy.
+	*
+	* @return the name RoutingStrategy.forName creates this search by.
+	*/
+	@Override
+	public String getName(){
+		return DIJKSTRA;
+	}
+
+	/**
+	* step is the method which expands the next cell of the search, the one
+	* with the smallest cost from the entrance. The first step puts the
+	* entrances in the queue and expands one of them.
+	*
+	* @return <code>true</code> if an exit was reached and the route is the cheapest one.
+	*
+	* @throws NoRouteFoundException if the queue runs empty before an exit was reached.
+	*/
+	@Override
+	public boolean step(){
+		if (this.finished){
+			return true;
+		}
+
+		if (!this.started){
+			this.started = true;
+			for (int entrance : this.maze.getEntranceIndices()){
+				this.costs[entrance] = 0;
+				this.entered[entrance] = SOURCE;
+				this.open.add(entrance, 0);
+			}
+		}
+
+		while (!this.open.isEmpty()){
+			long cost = this.open.peekPriority();
+			int index = this.open.poll();
+
+			if (cost != this.costs[index]){
+				continue;
+			}
+
+			this.current = index;
+			this.expanded.set(index);
+			this.expandedCount++;
+
+			if (this.maze.getTileType(index) == Tile.Type.EXIT){
+				this.finished = true;
+				return true;
+			}
+
+			int mask = this.maze.getNeighbourMask(index);
+			for (int d = 0; d < this.offsets.length; d++){
+				if ((mask & (1 << d)) == 0){
+					continue;
+				}
+
+				int next = index + this.offsets[d];
+				long nextCost = cost + this.maze.getTileCost(next);
+				if (nextCost < this.costs[next]){
+					this.costs[next] = nextCost;
+					this.entered[next] = (byte)(d + 1);
+					this.open.add(next, nextCost);
+				}
+			}
+			return false;
+		}
+		throw new NoRouteFoundException();
+	}
+
+	/**
+	* solve is the method which takes the remaining steps of the search.
+	*
+	* @return the cheapest Route from an entrance to an exit, whose cost is the
+	* sum of the costs of the cells stepped onto.
+	*
+	* @throws NoRouteFoundException if no exit can be reached.
+	*/
+	@Override
+	public Route solve(){
+		while (!this.step());
+		return new Route(this.maze, this.getRouteIndices(), this.costs[this.current]);
+	}
+
+	/**
+	* isFinished is the method which shows if an exit has been reached.
+	*
+	* @return <code>true</code> if the search found the cheapest route.
+	*/
+	@Override
+	public boolean isFinished(){
+		return this.finished;
+	}
+
+	/**
+	* getCost is the method which returns the cost of the cheapest route found
+	* so far to a cell, which is final once the cell was expanded.
+	*
+	* @param index of the cell in the maze.
+	* @return the cost from the entrance, or -1 if the cell was not reached.
+	*/
+	public long getCost(int index){
+		return this.costs[index] == Long.MAX_VALUE ? -1 : this.costs[index];
+	}
+
+	/**
+	* getRouteIndices is the method which returns the cells of the cheapest
+	* route to the last expanded cell.
+	*
+	* @return a new array of the cell indices from the entrance, empty before
+	* the first step.
+	*/
+	@Override
+	public int[] getRouteIndices(){
+		if (this.current == -1){
+			return new int[0];
+		}
+
+		// the costs are not the number of cells, so the route is walked twice
+		int length = 1;
+		for (int index = this.current; this.entered[index] != SOURCE; length++){
+			index -= this.offsets[this.entered[index] - 1];
+		}
+
+		int[] indices = new int[length];
+		int index = this.current;
+		for (int position = length - 1; position > 0; position--){
+			indices[position] = index;
+			index -= this.offsets[this.entered[index] - 1];
+		}
+		indices[0] = index;
+		return indices;
+	}
+
+	/**
+	* isExpanded is the method which shows if a cell was taken from the queue.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell was expanded.
+	*/
+	public boolean isExpanded(int index){
+		return index >= 0 && this.expanded.get(index);
+	}
+
+	/**
+	* getExpandedCount is the method which returns the number of expansions,
+	* which is the work the search has done.
+	*
+	* @return number of cells taken from the queue.
+	*/
+	public long getExpandedCount(){
+		return this.expandedCount;
+	}
+
+	/**
+	* isOnRoute is the method which shows if a cell is on the cheapest route to
+	* the last expanded cell.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell is on the route.
+	*/
+	@Override
+	public boolean isOnRoute(int index){
+		return this.routeCells.contains(this, this.current, index);
+	}
+
+	/**
+	* getRemovedTiles is the method which returns the Tile instances of the
+	* cells the search has visited which are not on the route.
+	*
+	* @return read-only List of the Tile instances in the order of their indices.
+	*/
+	@Override
+	public List<Tile> getRemovedTiles(){
+		return this.routeCells.removedTiles(this, this.current);
+	}
+
+	/**
+	* isVisited is the method which shows if the search has visited a cell, 
+	* which is the same as expanding it.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell was visited.
+	*/
+	@Override
+	public boolean isVisited(int index){
+		return this.isExpanded(index);
+	}
+
+	/**
+	* getVisitedCount is the method which returns the number of visited cells,
+	* the same as the number of expansions.
+	*
+	* @return number of cells taken from the queue.
+	*/
+	@Override
+	public long getVisitedCount(){
+		return this.expandedCount;
+	}
+
+	/**
+	* reset is the method which forgets the whole search, so that the maze is
+	* solved again from its entrance by the next step.
+	*/
+	@Override
+	public void reset(){
+		Arrays.fill(this.costs, Long.MAX_VALUE);
+		Arrays.fill(this.entered, UNVISITED);
+		this.expanded.clear();
+		this.open.clear();
+		this.current = -1;
+		this.expandedCount = 0;
+		this.started = false;
+		this.finished = false;
+		this.routeCells.clear();
+	}
+}
@@ -0,0 +1,41 @@
+package maze.routing;
+
+import maze.Maze;
+
+import java.io.Serializable;
+
+/**
+* Heuristic is the interface which estimates the number of steps left from
+* a cell to a target, used by AStarSearch to expand the cells closer to the
+* exit first. An estimate must never be larger than the real number of 
+* steps, otherwise the route found may not be the shortest one. As a step 
+* costs at least one, such an estimate is never larger than the real cost
+* over weighted terrain either.
+* Heuristics are saved together with the search, so lambdas assigned to
+* this interface are serialisable.
+*/
+public interface Heuristic extends Serializable {
+	/**
+	* MANHATTAN is the heuristic which counts the steps of a route without any
+	* walls, the exact estimate for a grid with moves in four directions.
+	*/
+	Heuristic MANHATTAN = (maze, index, target) -> 
+		Math.abs(maze.getX(index) - maze.getX(target)) + Math.abs(maze.getY(index) - maze.getY(target));
+
+	/**
+	* ZERO is the heuristic which knows nothing about the target, with it 
+	* AStarSearch expands the cells in the order of a breadth-first search.
+	*/
+	Heuristic ZERO = (maze, index, target) -> 0;
+
+	/**
+	* estimate is the method which returns the estimated number of steps from
+	* a cell to a target.
+	*
+	* @param maze the maze being searched.
+	* @param index of the cell in row-major order.
+	* @param target index of the target cell in row-major order.
+	* @return estimated steps, between 0 and the real number of steps.
+	*/
+	long estimate(Maze maze, int index, int target);
+}
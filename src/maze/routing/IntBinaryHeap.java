@@ -0,0 +1,101 @@
+package maze.routing;
+
+import java.util.Arrays;
+
+import java.io.Serializable;
+
+/**
+* IntBinaryHeap is the class which keeps int elements ordered by a long
+* priority, the smallest priority first, in two parallel arrays so that no
+* element has to be boxed. An element can be added again with a smaller
+* priority instead of being moved, the searches skip the copies which are 
+* polled after the element was settled.
+*/
+class IntBinaryHeap implements Serializable{
+	private int[] elements;
+	private long[] priorities;
+	private int size;
+
+	IntBinaryHeap(int capacity){
+		capacity = Math.max(capacity, 16);
+		this.elements = new int[capacity];
+		this.priorities = new long[capacity];
+	}
+
+	void add(int element, long priority){
+		if (this.size == this.elements.length){
+			this.elements = Arrays.copyOf(this.elements, this.size * 2);
+			this.priorities = Arrays.copyOf(this.priorities, this.size * 2);
+		}
+
+		// moves the parents down until the place of the new element is found
+		int position = this.size++;
+		while (position > 0){
+			int parent = (position - 1) >>> 1;
+			if (this.priorities[parent] <= priority){
+				break;
+			}
+			this.elements[position] = this.elements[parent];
+			this.priorities[position] = this.priorities[parent];
+			position = parent;
+		}
+		this.elements[position] = element;
+		this.priorities[position] = priority;
+	}
+
+	/**
+	* peekPriority is the method which returns the smallest priority.
+	*
+	* @return the priority of the element poll would return.
+	*/
+	long peekPriority(){
+		return this.priorities[0];
+	}
+
+	/**
+	* poll is the method which removes the element with the smallest priority,
+	* of equal priorities the order is not defined.
+	*
+	* @return the removed element.
+	*/
+	int poll(){
+		int first = this.elements[0];
+		int size = --this.size;
+
+		if (size > 0){
+			int element = this.elements[size];
+			long priority = this.priorities[size];
+
+			// moves the smaller children up until the place of the last
+			// element is found
+			int position = 0;
+			int child;
+			while ((child = 2 * position + 1) < size){
+				if (child + 1 < size && this.priorities[child + 1] < this.priorities[child]){
+					child++;
+				}
+				if (priority <= this.priorities[child]){
+					break;
+				}
+				this.elements[position] = this.elements[child];
+				this.priorities[position] = this.priorities[child];
+				position = child;
+			}
+			this.elements[position] = element;
+			this.priorities[position] = priority;
+		}
+		return first;
+	}
+
+	boolean isEmpty(){
+		return this.size == 0;
+	}
+
+	int size(){
+		return this.size;
+	}
+
+	void clear(){
+		this.size = 0;
+	}
+}
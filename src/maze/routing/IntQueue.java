@@ -0,0 +1,57 @@
+package maze.routing;
+
+import java.io.Serializable;
+
+/**
+* IntQueue is the class which keeps the cell indices waiting to be visited
+* by a breadth-first search in a growing ring buffer, so no Integer has to
+* be boxed for each cell.
+*/
+class IntQueue implements Serializable{
+	private int[] elements;
+	private int head;
+	private int size;
+
+	IntQueue(int capacity){
+		this.elements = new int[Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1];
+	}
+
+	void add(int element){
+		if (this.size == this.elements.length){
+			this.grow();
+		}
+		this.elements[(this.head + this.size) & (this.elements.length - 1)] = element;
+		this.size++;
+	}
+
+	int poll(){
+		int element = this.elements[this.head];
+		this.head = (this.head + 1) & (this.elements.length - 1);
+		this.size--;
+		return element;
+	}
+
+	boolean isEmpty(){
+		return this.size == 0;
+	}
+
+	int size(){
+		return this.size;
+	}
+
+	void clear(){
+		this.head = 0;
+		this.size = 0;
+	}
+
+	// doubles the buffer and moves the elements to its start
+	private void grow(){
+		int[] elements = new int[this.elements.length * 2];
+		int firstPart = this.elements.length - this.head;
+
+		System.arraycopy(this.elements, this.head, elements, 0, firstPart);
+		System.arraycopy(this.elements, 0, elements, firstPart, this.head);
+		this.elements = elements;
+		this.head = 0;
+	}
+}
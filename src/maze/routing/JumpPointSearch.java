@@ -0,0 +1,379 @@
+package maze.routing;
+
+import maze.Maze;
+import maze.Tile;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+* JumpPointSearch is the class which finds a shortest route from an entrance
+* to an exit by Jump Point Search on the grid with moves in four directions.
+* Instead of putting every neighbour of a cell in the heap, the search jumps
+* in a straight line until it meets a cell where a shortest route may have
+* to turn: a cell with a forced neighbour, which only becomes reachable past
+* a wall, an exit, or, when moving north or south, a cell from which a jump
+* to the east or west finds such a cell. Of the many equally short routes 
+* through open areas only one is followed, so large rooms cost a few jump 
+* points instead of all their cells.
+* Like AStarSearch it expands one jump point per step, so the search can be
+* animated, and an edit of the maze starts it again from the entrance.
+* Jumping relies on every step costing the same, so weighted terrain is
+* crossed like a corridor and the route found has the fewest steps, which
+* over terrain may cost more than the one of AStarSearch.
+*/
+public class JumpPointSearch implements RoutingStrategy{
+	private static final int COST_BITS = 31;
+	private static final long COST_MASK = (1L << COST_BITS) - 1;
+
+	private static final int NORTH = Maze.Direction.NORTH.ordinal();
+	private static final int SOUTH = Maze.Direction.SOUTH.ordinal();
+	private static final int EAST = Maze.Direction.EAST.ordinal();
+	private static final int WEST = Maze.Direction.WEST.ordinal();
+	private static final int ALL_DIRECTIONS = 0x0F;
+	private static final int NORTH_SOUTH = (1 << NORTH) | (1 << SOUTH);
+	private static final int EAST_WEST = (1 << EAST) | (1 << WEST);
+
+	private Maze maze;
+
+	private int[] costs;
+	private int[] parents;
+	private BitSet expanded;
+	private IntBinaryHeap open;
+	private int[] offsets;
+	private int[] exits;
+
+	private int current;
+	private long expandedCount;
+	private boolean started;
+	private boolean finished;
+
+	private RouteCells routeCells;
+
+	private MazeFollower follower;
+
+	/**
+	* The constructor which takes the maze to be solved.
+	*
+	* @param maze the maze to be solved.
+	*/
+	public JumpPointSearch(Maze maze){
+		this.maze = maze;
+
+		int size = maze.getWidth() * maze.getHeight();
+		this.costs = new int[size];
+		this.parents = new int[size];
+		this.expanded = new BitSet();
+		this.open = new IntBinaryHeap(64);
+
+		this.offsets = maze.getNeighbourOffsets();
+
+		this.routeCells = new RouteCells();
+		this.reset();
+		this.follower = new MazeFollower(maze, (editedMaze, index, previousType, type) -> this.reset());
+	}
+
+	/**
+	* close is the method which stops the search from following the edits of
+	* the maze, so that the maze no longer keeps it alive.
+	*/
+	@Override
+	public void close(){
+		this.follower.close();
+	}
+
+	/**
+	* getMaze is the method which returns the maze being solved.
+	*
+	* @return the Maze instance.
+	*/
+	@Override
+	public Maze getMaze(){
+		return this.maze;
+	}
+
+	/**
+	* getName is the method which returns the name of the strategy.
+	*
+	* @return the name RoutingStrategy.forName creates this search by.
+	*/
+	@Override
+	public String getName(){
+		return JUMP_POINT;
+	}
+
+	/**
+	* step is the method which expands the next jump point of the search. The
+	* first step puts the entrances in the heap and expands one of them.
+	*
+	* @return <code>true</code> if an exit was reached and the route is the shortest one.
+	*
+	* @throws NoRouteFoundException if the heap runs empty before an exit was reached.
+	*/
+	@Override
+	public boolean step(){
+		if (this.finished){
+			return true;
+		}
+
+		if (!this.started){
+			this.started = true;
+			for (int entrance : this.maze.getEntranceIndices()){
+				this.costs[entrance] = 0;
+				this.parents[entrance] = -1;
+				this.open.add(entrance, this.order(entrance, 0));
+			}
+		}
+
+		while (!this.open.isEmpty()){
+			long order = this.open.peekPriority();
+			int index = this.open.poll();
+			int cost = (int)(COST_MASK - (order & COST_MASK));
+
+			if (cost != this.costs[index]){
+				continue;
+			}
+
+			this.current = index;
+			this.expanded.set(index);
+			this.expandedCount++;
+
+			if (this.isExit(index)){
+				this.finished = true;
+				return true;
+			}
+
+			int directions = this.maze.getNeighbourMask(index) & this.successorDirections(index);
+			for (int d = 0; d < this.offsets.length; d++){
+				if ((directions & (1 << d)) == 0){
+					continue;
+				}
+
+				int jumpPoint = this.jump(index, d);
+				if (jumpPoint == -1){
+					continue;
+				}
+
+				int next = cost + Math.abs(jumpPoint - index) / Math.abs(this.offsets[d]);
+				if (next < this.costs[jumpPoint]){
+					this.costs[jumpPoint] = next;
+					this.parents[jumpPoint] = index;
+					this.open.add(jumpPoint, this.order(jumpPoint, next));
+				}
+			}
+			return false;
+		}
+		throw new NoRouteFoundException();
+	}
+
+	/**
+	* solve is the method which takes the remaining steps of the search.
+	*
+	* @return the Route with the fewest steps from an entrance to an exit,
+	* whose cost is the sum of the costs of its terrain.
+	*
+	* @throws NoRouteFoundException if no exit can be reached.
+	*/
+	@Override
+	public Route solve(){
+		while (!this.step());
+		return new Route(this.maze, this.getRouteIndices());
+	}
+
+	/**
+	* isFinished is the method which shows if an exit has been reached.
+	*
+	* @return <code>true</code> if the search found the shortest route.
+	*/
+	@Override
+	public boolean isFinished(){
+		return this.finished;
+	}
+
+	/**
+	* getRouteIndices is the method which returns every cell of the best route
+	* to the last expanded jump point.
+	*
+	* @return a new array of the cell indices from the entrance, empty before
+	* the first step.
+	*/
+	@Override
+	public int[] getRouteIndices(){
+		if (this.current == -1){
+			return new int[0];
+		}
+
+		int[] indices = new int[this.costs[this.current] + 1];
+		int position = indices.length - 1;
+		int index = this.current;
+
+		indices[position] = index;
+		while (this.parents[index] != -1){
+			int parent = this.parents[index];
+			int stride = this.stride(parent, index);
+
+			for (int cell = index - stride; cell != parent; cell -= stride){
+				indices[--position] = cell;
+			}
+			indices[--position] = parent;
+			index = parent;
+		}
+		return indices;
+	}
+
+	/**
+	* isExpanded is the method which shows if a cell was expanded as a jump point.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell was expanded.
+	*/
+	public boolean isExpanded(int index){
+		return index >= 0 && this.expanded.get(index);
+	}
+
+	/**
+	* getExpandedCount is the method which returns the number of expanded
+	* jump points, which is the work the search has done apart from jumping.
+	*
+	* @return number of cells taken from the heap.
+	*/
+	public long getExpandedCount(){
+		return this.expandedCount;
+	}
+
+	/**
+	* isOnRoute is the method which shows if a cell is on the route to the last
+	* expanded jump point.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell is on the route.
+	*/
+	@Override
+	public boolean isOnRoute(int index){
+		return this.routeCells.contains(this, this.current, index);
+	}
+
+	/**
+	* getRemovedTiles is the method which returns the Tile instances of the
+	* cells the search has visited which are not on the route.
+	*
+	* @return read-only List of the Tile instances in the order of their indices.
+	*/
+	@Override
+	public List<Tile> getRemovedTiles(){
+		return this.routeCells.removedTiles(this, this.current);
+	}
+
+	/**
+	* isVisited is the method which shows if the search has visited a cell, 
+	* which is the same as expanding it.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell was visited.
+	*/
+	@Override
+	public boolean isVisited(int index){
+		return this.isExpanded(index);
+	}
+
+	/**
+	* getVisitedCount is the method which returns the number of visited cells,
+	* the same as the number of expansions.
+	*
+	* @return number of cells taken from the queue.
+	*/
+	@Override
+	public long getVisitedCount(){
+		return this.expandedCount;
+	}
+
+	/**
+	* reset is the method which forgets the whole search, so that the maze is
+	* solved again from its entrance by the next step.
+	*/
+	@Override
+	public void reset(){
+		Arrays.fill(this.costs, Integer.MAX_VALUE);
+		this.expanded.clear();
+		this.open.clear();
+		this.exits = this.maze.getExitIndices();
+		this.current = -1;
+		this.expandedCount = 0;
+		this.started = false;
+		this.finished = false;
+		this.routeCells.clear();
+	}
+
+	// the directions worth searching from a jump point: straight on and to
+	// both sides of the direction it was reached in, all of them at the start
+	private int successorDirections(int index){
+		int parent = this.parents[index];
+
+		if (parent == -1){
+			return ALL_DIRECTIONS;
+		}
+		int stride = this.stride(parent, index);
+		if (stride == 1 || stride == -1){
+			return NORTH_SOUTH | (1 << (stride == 1 ? EAST : WEST));
+		}
+		return EAST_WEST | (1 << (stride < 0 ? NORTH : SOUTH));
+	}
+
+	// moves from a cell in a direction until a jump point is found, -1 if a 
+	// wall or the border is met first. Moving north or south, every cell is
+	// also checked by a jump to the east and to the west, which never goes
+	// deeper
+	private int jump(int from, int direction){
+		int bit = 1 << direction;
+		boolean vertical = direction == NORTH || direction == SOUTH;
+		int sides = vertical ? EAST_WEST : NORTH_SOUTH;
+		int previous = from;
+		int previousMask = this.maze.getNeighbourMask(from);
+
+		while ((previousMask & bit) != 0){
+			int cell = previous + this.offsets[direction];
+			int mask = this.maze.getNeighbourMask(cell);
+
+			if (this.isExit(cell)){
+				return cell;
+			}
+
+			// a side which opens here but was closed one step back
+			if ((mask & sides & ~previousMask) != 0){
+				return cell;
+			}
+
+			if (vertical && (this.jump(cell, EAST) != -1 || this.jump(cell, WEST) != -1)){
+				return cell;
+			}
+
+			previous = cell;
+			previousMask = mask;
+		}
+		return -1;
+	}
+
+	// the index difference of one step from a jump point towards the next
+	private int stride(int from, int to){
+		int width = this.maze.getWidth();
+
+		if (from / width == to / width){
+			return to > from ? 1 : -1;
+		}
+		return to > from ? width : -width;
+	}
+
+	private boolean isExit(int index){
+		return this.maze.getTileType(index) == Tile.Type.EXIT;
+	}
+
+	private long order(int index, int cost){
+		long estimate = Long.MAX_VALUE;
+
+		for (int exit : this.exits){
+			estimate = Math.min(estimate, Heuristic.MANHATTAN.estimate(this.maze, index, exit));
+		}
+		return ((cost + estimate) << COST_BITS) | (COST_MASK - cost);
+	}
+}
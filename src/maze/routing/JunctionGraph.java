@@ -0,0 +1,270 @@
+package maze.routing;
+
+import maze.Maze;
+import maze.Maze.Direction;
+import maze.Tile;
+
+import java.util.Arrays;
+
+/**
+* JunctionGraph is the class which contracts the cells of a maze into a 
+* weighted graph. Its nodes are the cells where a route can branch or end:
+* junctions, dead ends, entrances and exits. Every corridor of cells with 
+* exactly two navigable neighbours between two nodes becomes a single edge,
+* weighted by the number of steps along it, so a search visits one edge
+* instead of every cell of the corridor.
+* The graph is kept in primitive arrays: the edges of every node are stored
+* one after another, node n owning the edges from getEdgeStart(n) up to 
+* getEdgeEnd(n). Every corridor is stored once in each direction. An edge 
+* keeps the direction of its first step instead of its cells, the corridor 
+* has no branches so its cells are found again by following it.
+* The graph does not follow later edits of the maze.
+*/
+public final class JunctionGraph{
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	private final Maze maze;
+	private final int[] offsets;
+
+	// cell of every node, in increasing order so a cell is found by a binary search
+	private final int[] nodeCells;
+	private final int nodeCount;
+
+	private final int[] edgeStart;
+	private final int[] edgeTargets;
+	private final int[] edgeLengths;
+	private final byte[] edgeDirections;
+
+	private JunctionGraph(Maze maze, int[] nodeCells, int nodeCount, int[] edgeStart){
+		this.maze = maze;
+		this.nodeCells = nodeCells;
+		this.nodeCount = nodeCount;
+		this.edgeStart = edgeStart;
+
+		int edgeCount = edgeStart[nodeCount];
+		this.edgeTargets = new int[edgeCount];
+		this.edgeLengths = new int[edgeCount];
+		this.edgeDirections = new byte[edgeCount];
+
+		this.offsets = maze.getNeighbourOffsets();
+	}
+
+	/**
+	* build is the method which contracts a maze into its junction graph, in 
+	* one pass to find the nodes and one walk along every corridor.
+	*
+	* @param maze the maze to be contracted.
+	* @return the JunctionGraph of the maze.
+	*/
+	public static JunctionGraph build(Maze maze){
+		int size = maze.getWidth() * maze.getHeight();
+		int[] nodeCells = new int[64];
+		int[] edgeStart = new int[65];
+		int nodeCount = 0;
+
+		for (int cell = 0; cell < size; cell++){
+			if (!isNode(maze, cell)){
+				continue;
+			}
+
+			if (nodeCount + 1 == edgeStart.length){
+				nodeCells = Arrays.copyOf(nodeCells, nodeCount * 2);
+				edgeStart = Arrays.copyOf(edgeStart, nodeCount * 2 + 1);
+			}
+			nodeCells[nodeCount] = cell;
+			edgeStart[nodeCount + 1] = edgeStart[nodeCount] + Integer.bitCount(maze.getNeighbourMask(cell));
+			nodeCount++;
+		}
+
+		JunctionGraph graph = new JunctionGraph(maze, nodeCells, nodeCount, edgeStart);
+		for (int node = 0; node < nodeCount; node++){
+			graph.addEdges(node);
+		}
+		return graph;
+	}
+
+	/**
+	* getMaze is the method which returns the maze of the graph.
+	*
+	* @return the Maze instance.
+	*/
+	public Maze getMaze(){
+		return this.maze;
+	}
+
+	/**
+	* getNodeCount is the method which returns the number of nodes.
+	*
+	* @return number of junctions, dead ends, entrances and exits.
+	*/
+	public int getNodeCount(){
+		return this.nodeCount;
+	}
+
+	/**
+	* getEdgeCount is the method which returns the number of edges, where 
+	* every corridor is counted once in each direction.
+	*
+	* @return number of edges.
+	*/
+	public int getEdgeCount(){
+		return this.edgeStart[this.nodeCount];
+	}
+
+	/**
+	* getNodeCell is the method which returns the cell of a node.
+	*
+	* @param node number of the node.
+	* @return index of the cell in row-major order.
+	*/
+	public int getNodeCell(int node){
+		return this.nodeCells[node];
+	}
+
+	/**
+	* getNode is the method which returns the node of a cell.
+	*
+	* @param cell index of the cell in row-major order.
+	* @return number of the node, -1 if the cell is not a node.
+	*/
+	public int getNode(int cell){
+		int node = Arrays.binarySearch(this.nodeCells, 0, this.nodeCount, cell);
+		return node < 0 ? -1 : node;
+	}
+
+	/**
+	* getEdgeStart is the method which returns the first edge of a node.
+	*
+	* @param node number of the node.
+	* @return number of the first edge leaving the node.
+	*/
+	public int getEdgeStart(int node){
+		return this.edgeStart[node];
+	}
+
+	/**
+	* getEdgeEnd is the method which returns the end of the edges of a node.
+	*
+	* @param node number of the node.
+	* @return number after the last edge leaving the node.
+	*/
+	public int getEdgeEnd(int node){
+		return this.edgeStart[node + 1];
+	}
+
+	/**
+	* getEdgeTarget is the method which returns the node an edge leads to.
+	*
+	* @param edge number of the edge.
+	* @return number of the node at the other end of the corridor.
+	*/
+	public int getEdgeTarget(int edge){
+		return this.edgeTargets[edge];
+	}
+
+	/**
+	* getEdgeLength is the method which returns the weight of an edge.
+	*
+	* @param edge number of the edge.
+	* @return number of steps along the corridor.
+	*/
+	public int getEdgeLength(int edge){
+		return this.edgeLengths[edge];
+	}
+
+	/**
+	* getEdgeCells is the method which returns the cells an edge passes.
+	*
+	* @param edge number of the edge.
+	* @return the cell indices after the node the edge leaves, up to and 
+	* including the cell of its target.
+	*/
+	public int[] getEdgeCells(int edge){
+		int[] cells = new int[this.edgeLengths[edge]];
+		this.copyEdgeCells(edge, this.getSource(edge), cells, 0);
+		return cells;
+	}
+
+	/**
+	* copyEdgeCells is the method which writes the cells an edge passes into
+	* an array, used to expand a route of edges into a route of cells.
+	*
+	* @return the position after the last written cell.
+	*/
+	int copyEdgeCells(int edge, int source, int[] cells, int position){
+		int previous = this.nodeCells[source];
+		int cell = previous + this.offsets[this.edgeDirections[edge]];
+		int end = position + this.edgeLengths[edge];
+
+		cells[position++] = cell;
+		while (position < end){
+			int next = this.follow(cell, previous);
+			previous = cell;
+			cell = next;
+			cells[position++] = cell;
+		}
+		return position;
+	}
+
+	private int getSource(int edge){
+		int node = Arrays.binarySearch(this.edgeStart, 0, this.nodeCount + 1, edge);
+
+		if (node < 0){
+			return -node - 2;
+		}
+		// nodes without edges share their start with the next node
+		while (this.edgeStart[node + 1] == edge){
+			node++;
+		}
+		return node;
+	}
+
+	private void addEdges(int node){
+		int cell = this.nodeCells[node];
+		int mask = this.maze.getNeighbourMask(cell);
+		int edge = this.edgeStart[node];
+
+		for (int d = 0; d < DIRECTIONS.length; d++){
+			if ((mask & (1 << d)) == 0){
+				continue;
+			}
+
+			int previous = cell;
+			int current = cell + this.offsets[d];
+			int length = 1;
+
+			while (!isNode(this.maze, current)){
+				int next = this.follow(current, previous);
+				previous = current;
+				current = next;
+				length++;
+			}
+
+			this.edgeTargets[edge] = this.getNode(current);
+			this.edgeLengths[edge] = length;
+			this.edgeDirections[edge] = (byte)d;
+			edge++;
+		}
+	}
+
+	// returns the neighbour of a corridor cell which is not the one it was entered from
+	private int follow(int cell, int previous){
+		int mask = this.maze.getNeighbourMask(cell);
+
+		for (int d = 0; d < DIRECTIONS.length; d++){
+			if ((mask & (1 << d)) != 0 && cell + this.offsets[d] != previous){
+				return cell + this.offsets[d];
+			}
+		}
+		return previous;
+	}
+
+	private static boolean isNode(Maze maze, int cell){
+		Tile.Type type = maze.getTileType(cell);
+
+		if (type == Tile.Type.WALL){
+			return false;
+		}
+		return type != Tile.Type.CORRIDOR || Integer.bitCount(maze.getNeighbourMask(cell)) != 2;
+	}
+}
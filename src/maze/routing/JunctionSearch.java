@@ -0,0 +1,109 @@
+package maze.routing;
+
+import maze.Maze;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+* JunctionSearch is the class which finds the shortest route through a maze
+* by a Dijkstra search over its JunctionGraph. Only junctions, dead ends and
+* the endpoints are put in the heap, the corridors between them are crossed
+* in a single step, and the edges of the best route are expanded back into
+* its cells at the end. The edges are as long as their steps, so terrain
+* does not change the route, only the cost of the Route returned.
+*/
+public class JunctionSearch{
+	private JunctionSearch(){
+	}
+
+	/**
+	* findShortestRoute is the method which contracts a maze and finds the
+	* shortest route from any of its entrances to any of its exits.
+	*
+	* @param maze the maze to be searched.
+	* @return the shortest Route, which starts at an entrance and ends at an exit.
+	*
+	* @throws NoRouteFoundException if no exit can be reached from any entrance.
+	*/
+	public static Route findShortestRoute(Maze maze){
+		return findShortestRoute(JunctionGraph.build(maze));
+	}
+
+	/**
+	* findShortestRoute is the method which finds the shortest route from any
+	* entrance to any exit of the maze of a junction graph. The graph can be 
+	* kept and searched again as long as the maze is not edited.
+	*
+	* @param graph the contracted maze.
+	* @return the shortest Route, which starts at an entrance and ends at an exit.
+	*
+	* @throws NoRouteFoundException if no exit can be reached from any entrance.
+	*/
+	public static Route findShortestRoute(JunctionGraph graph){
+		Maze maze = graph.getMaze();
+		int nodeCount = graph.getNodeCount();
+
+		long[] distances = new long[nodeCount];
+		int[] parentNodes = new int[nodeCount];
+		int[] parentEdges = new int[nodeCount];
+		Arrays.fill(distances, Long.MAX_VALUE);
+
+		BitSet targets = new BitSet(nodeCount);
+		for (int exit : maze.getExitIndices()){
+			targets.set(graph.getNode(exit));
+		}
+
+		IntBinaryHeap heap = new IntBinaryHeap(64);
+		for (int entrance : maze.getEntranceIndices()){
+			int node = graph.getNode(entrance);
+			distances[node] = 0;
+			parentNodes[node] = -1;
+			heap.add(node, 0);
+		}
+
+		while (!heap.isEmpty()){
+			long distance = heap.peekPriority();
+			int node = heap.poll();
+
+			if (distance != distances[node]){
+				continue;
+			}
+			if (targets.get(node)){
+				return expand(graph, parentNodes, parentEdges, node, distance);
+			}
+
+			for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++){
+				int target = graph.getEdgeTarget(edge);
+				long next = distance + graph.getEdgeLength(edge);
+
+				if (next < distances[target]){
+					distances[target] = next;
+					parentNodes[target] = node;
+					parentEdges[target] = edge;
+					heap.add(target, next);
+				}
+			}
+		}
+		throw new NoRouteFoundException();
+	}
+
+	// walks the parents back from the target and writes the cells of every
+	// edge of the route, from its start
+	private static Route expand(JunctionGraph graph, int[] parentNodes, int[] parentEdges, int target, long length){
+		int[] cells = new int[(int)length + 1];
+		int position = cells.length;
+
+		int node = target;
+		while (parentNodes[node] != -1){
+			int edge = parentEdges[node];
+			int source = parentNodes[node];
+
+			position -= graph.getEdgeLength(edge);
+			graph.copyEdgeCells(edge, source, cells, position);
+			node = source;
+		}
+		cells[0] = graph.getNodeCell(node);
+		return new Route(graph.getMaze(), cells);
+	}
+}
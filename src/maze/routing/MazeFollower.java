@@ -0,0 +1,50 @@
+package maze.routing;
+
+import maze.Maze;
+import maze.MazeChangeListener;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+
+/**
+* MazeFollower is the class which tells a search about the edits of its
+* maze. The maze does not save its listeners, so the follower is saved with
+* the search and adds its listener to the maze again once it was read back.
+* Closing the follower removes the listener, so that the maze no longer
+* keeps the search alive.
+*/
+class MazeFollower implements Serializable{
+	/**
+	* Edit is the listener of a follower, which is saved with it.
+	*/
+	interface Edit extends MazeChangeListener, Serializable{
+	}
+
+	private Maze maze;
+	private Edit edit;
+
+	/**
+	* The constructor which starts telling the listener about the edits of the maze.
+	*
+	* @param maze the maze whose edits are followed.
+	* @param edit the listener told about every edit.
+	*/
+	MazeFollower(Maze maze, Edit edit){
+		this.maze = maze;
+		this.edit = edit;
+		this.maze.addChangeListener(this.edit);
+	}
+
+	private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException{
+		stream.defaultReadObject();
+		this.maze.addChangeListener(this.edit);
+	}
+
+	/**
+	* close is the method which stops telling the listener about the edits.
+	*/
+	void close(){
+		this.maze.removeChangeListener(this.edit);
+	}
+}
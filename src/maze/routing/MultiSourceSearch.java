@@ -0,0 +1,158 @@
+package maze.routing;
+
+import maze.Maze;
+import maze.Maze.Direction;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+* MultiSourceSearch is the class which finds the shortest route between any 
+* of several start cells and any of several end cells. All start cells are
+* put in the queue of a single breadth-first search, so the best pair is
+* found in one pass over the maze instead of one search for every pair.
+* The search stops at the first end cell it discovers, which is the closest
+* one to any of the start cells in steps, the cost of weighted terrain is 
+* only added up for the Route found.
+*/
+public class MultiSourceSearch{
+	// how every visited cell was entered, 1 + the ordinal of the direction
+	// of the step, so that the route can be walked back without keeping the
+	// index of a parent for every cell
+	private static final byte UNVISITED = 0;
+	private static final byte SOURCE = 5;
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	private MultiSourceSearch(){
+	}
+
+	/**
+	* findShortestRoute is the method which finds the shortest route from any
+	* entrance of the maze to any of its exits.
+	*
+	* @param maze the maze to be searched.
+	* @return the shortest Route, which starts at an entrance and ends at an exit.
+	*
+	* @throws NoRouteFoundException if no exit can be reached from any entrance.
+	*/
+	public static Route findShortestRoute(Maze maze){
+		return findShortestRoute(maze, maze.getEntranceIndices(), maze.getExitIndices());
+	}
+
+	/**
+	* findShortestRoute is the method which finds the shortest route from any
+	* of the given start cells to any of the given end cells. When several
+	* routes are equally short, the one found first in the order north, 
+	* south, east, west is returned.
+	*
+	* @param maze the maze to be searched.
+	* @param sources indices of the cells the route may start at.
+	* @param targets indices of the cells the route may end at.
+	* @return the shortest Route, which starts at one of the sources and 
+	* ends at one of the targets.
+	*
+	* @throws IndexOutOfBoundsException if a cell is outside of the maze.
+	* @throws IllegalArgumentException if a cell is not navigable or no 
+	* sources or targets were given.
+	* @throws NoRouteFoundException if no target can be reached from any source.
+	*/
+	public static Route findShortestRoute(Maze maze, int[] sources, int[] targets){
+		if (sources.length == 0 || targets.length == 0){
+			throw new IllegalArgumentException("At least one start and one end cell are needed");
+		}
+
+		int[] sourceComponents = components(maze, sources);
+		int[] targetComponents = components(maze, targets);
+
+		// a target which shares a cell with a source is a route of its own
+		BitSet targetCells = new BitSet();
+		for (int target : targets){
+			targetCells.set(target);
+		}
+		for (int source : sources){
+			if (targetCells.get(source)){
+				return new Route(maze, new int[] {source}, 0);
+			}
+		}
+
+		// the components are labelled already, so an impossible search is
+		// refused without visiting the maze
+		Arrays.sort(sourceComponents);
+		boolean reachable = false;
+		for (int component : targetComponents){
+			if (Arrays.binarySearch(sourceComponents, component) >= 0){
+				reachable = true;
+				break;
+			}
+		}
+		if (!reachable){
+			throw new NoRouteFoundException();
+		}
+
+		int[] offsets = maze.getNeighbourOffsets();
+
+		byte[] entered = new byte[maze.getWidth() * maze.getHeight()];
+		IntQueue queue = new IntQueue(sources.length * 4);
+
+		for (int source : sources){
+			if (entered[source] == UNVISITED){
+				entered[source] = SOURCE;
+				queue.add(source);
+			}
+		}
+
+		while (!queue.isEmpty()){
+			int index = queue.poll();
+			int mask = maze.getNeighbourMask(index);
+
+			for (int d = 0; d < DIRECTIONS.length; d++){
+				if ((mask & (1 << d)) == 0){
+					continue;
+				}
+
+				int next = index + offsets[d];
+				if (entered[next] != UNVISITED){
+					continue;
+				}
+
+				entered[next] = (byte)(d + 1);
+				if (targetCells.get(next)){
+					return walkBack(maze, entered, offsets, next);
+				}
+				queue.add(next);
+			}
+		}
+		throw new NoRouteFoundException();
+	}
+
+	private static int[] components(Maze maze, int[] cells){
+		int[] components = new int[cells.length];
+
+		for (int i = 0; i < cells.length; i++){
+			components[i] = maze.getComponent(cells[i]);
+			if (components[i] == -1){
+				throw new IllegalArgumentException("Cell " + cells[i] + " is not navigable");
+			}
+		}
+		return components;
+	}
+
+	// follows the recorded steps from the target back to its source
+	private static Route walkBack(Maze maze, byte[] entered, int[] offsets, int target){
+		int length = 1;
+		for (int index = target; entered[index] != SOURCE; index -= offsets[entered[index] - 1]){
+			length++;
+		}
+
+		int[] indices = new int[length];
+		int index = target;
+		for (int position = length - 1; position >= 0; position--){
+			indices[position] = index;
+			if (position > 0){
+				index -= offsets[entered[index] - 1];
+			}
+		}
+		return new Route(maze, indices);
+	}
+}
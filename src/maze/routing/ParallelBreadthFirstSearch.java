@@ -0,0 +1,279 @@
+package maze.routing;
+
+import maze.Maze;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+* ParallelBreadthFirstSearch is the class which finds a shortest route from
+* the entrances to the exits by a breadth-first search whose levels are 
+* expanded in parallel on a ForkJoinPool. The frontier of a level is split
+* into chunks, every chunk writes the cells it reaches into a buffer of its
+* own, and the buffers are joined into the frontier of the next level once
+* all chunks are done. A cell is claimed by setting its bit in an atomic 
+* bitmap, so exactly one thread records the direction it was entered in, 
+* and the route is walked back from the exit along these directions.
+* Small levels, and mazes kept on disk whose pages are not shared between
+* threads, are expanded on the calling thread. Like every breadth-first
+* search it finds the fewest steps, not the cheapest route over terrain.
+*/
+public class ParallelBreadthFirstSearch{
+	// cells of a frontier expanded by one task
+	static final int CHUNK = 1 << 12;
+
+	private static final byte UNVISITED = 0;
+	private static final byte SOURCE = 5;
+
+	private final Maze maze;
+	private final ForkJoinPool pool;
+	private final int[] offsets;
+
+	private AtomicLongArray visited;
+	private byte[] entered;
+	private BitSet targets;
+	private AtomicInteger found;
+
+	private int[] frontier;
+	private int frontierSize;
+	private int[][] buffers;
+	private int[] bufferSizes;
+	private long visitedCount;
+	private int levels;
+
+	/**
+	* The constructor which takes the maze to be solved and the pool to run on.
+	*
+	* @param maze the maze to be solved.
+	* @param pool the ForkJoinPool which expands the chunks of every level.
+	*/
+	public ParallelBreadthFirstSearch(Maze maze, ForkJoinPool pool){
+		this.maze = maze;
+		this.pool = pool;
+
+		this.offsets = maze.getNeighbourOffsets();
+	}
+
+	/**
+	* findShortestRoute is the method which solves a maze on the common pool.
+	*
+	* @param maze the maze to be solved.
+	* @return the shortest Route from an entrance to an exit.
+	*
+	* @throws NoRouteFoundException if no exit can be reached.
+	*/
+	public static Route findShortestRoute(Maze maze){
+		return new ParallelBreadthFirstSearch(maze, ForkJoinPool.commonPool()).solve();
+	}
+
+	/**
+	* solve is the method which searches the maze level by level until a
+	* level reaches an exit. Of several exits reached by the same level, any
+	* one may be returned.
+	*
+	* @return the shortest Route from an entrance to an exit.
+	*
+	* @throws NoRouteFoundException if no exit can be reached.
+	*/
+	public Route solve(){
+		int size = this.maze.getWidth() * this.maze.getHeight();
+		this.visited = new AtomicLongArray((size + 63) >>> 6);
+		this.entered = new byte[size];
+		this.found = new AtomicInteger(-1);
+		this.targets = new BitSet();
+		this.buffers = new int[0][];
+		this.bufferSizes = new int[0];
+		this.visitedCount = 0;
+		this.levels = 0;
+
+		for (int exit : this.maze.getExitIndices()){
+			this.targets.set(exit);
+		}
+
+		int[] entrances = this.maze.getEntranceIndices();
+		this.frontier = new int[Math.max(entrances.length, CHUNK)];
+		this.frontierSize = 0;
+		for (int entrance : entrances){
+			if (this.claim(entrance)){
+				this.entered[entrance] = SOURCE;
+				this.frontier[this.frontierSize++] = entrance;
+				if (this.targets.get(entrance)){
+					return new Route(this.maze, new int[] {entrance}, 0);
+				}
+			}
+		}
+		this.visitedCount = this.frontierSize;
+
+		boolean sequential = this.maze.getPagedGrid() != null;
+		while (this.frontierSize > 0){
+			int chunks = (this.frontierSize + CHUNK - 1) / CHUNK;
+			this.prepareBuffers(chunks);
+
+			if (chunks == 1 || sequential){
+				for (int chunk = 0; chunk < chunks; chunk++){
+					this.expandChunk(chunk);
+				}
+			}
+			else{
+				this.pool.invoke(new ChunkTask(0, chunks));
+			}
+			this.levels++;
+			this.joinBuffers(chunks);
+
+			if (this.found.get() != -1){
+				return this.walkBack(this.found.get());
+			}
+		}
+		throw new NoRouteFoundException();
+	}
+
+	/**
+	* getVisitedCount is the method which returns the number of cells reached
+	* by the last search, used to measure its throughput.
+	*
+	* @return number of visited cells.
+	*/
+	public long getVisitedCount(){
+		return this.visitedCount;
+	}
+
+	/**
+	* getLevelCount is the method which returns the number of levels expanded
+	* by the last search, each of which ends with all threads joining.
+	*
+	* @return number of levels.
+	*/
+	public int getLevelCount(){
+		return this.levels;
+	}
+
+	// sets the bit of a cell, true only for the thread which set it first
+	private boolean claim(int index){
+		int word = index >>> 6;
+		long bit = 1L << index;
+
+		while (true){
+			long bits = this.visited.get(word);
+			if ((bits & bit) != 0){
+				return false;
+			}
+			if (this.visited.compareAndSet(word, bits, bits | bit)){
+				return true;
+			}
+		}
+	}
+
+	private void expandChunk(int chunk){
+		// another chunk reached an exit, the level is not needed any more
+		if (this.found.get() != -1){
+			this.bufferSizes[chunk] = 0;
+			return;
+		}
+
+		int from = chunk * CHUNK;
+		int to = Math.min(from + CHUNK, this.frontierSize);
+		int[] buffer = this.buffers[chunk];
+		int count = 0;
+
+		for (int i = from; i < to; i++){
+			int index = this.frontier[i];
+			int mask = this.maze.getNeighbourMask(index);
+
+			for (int d = 0; d < this.offsets.length; d++){
+				if ((mask & (1 << d)) == 0){
+					continue;
+				}
+
+				int next = index + this.offsets[d];
+				if (!this.claim(next)){
+					continue;
+				}
+
+				this.entered[next] = (byte)(d + 1);
+				buffer[count++] = next;
+				if (this.targets.get(next)){
+					this.found.compareAndSet(-1, next);
+				}
+			}
+		}
+		this.bufferSizes[chunk] = count;
+	}
+
+	// every cell of a chunk reaches at most four new cells
+	private void prepareBuffers(int chunks){
+		if (this.buffers.length < chunks){
+			this.buffers = Arrays.copyOf(this.buffers, chunks);
+			this.bufferSizes = new int[chunks];
+		}
+		for (int chunk = 0; chunk < chunks; chunk++){
+			if (this.buffers[chunk] == null){
+				this.buffers[chunk] = new int[CHUNK * 4];
+			}
+		}
+	}
+
+	private void joinBuffers(int chunks){
+		int total = 0;
+		for (int chunk = 0; chunk < chunks; chunk++){
+			total += this.bufferSizes[chunk];
+		}
+
+		if (this.frontier.length < total){
+			this.frontier = new int[Math.max(total, this.frontier.length * 2)];
+		}
+
+		int position = 0;
+		for (int chunk = 0; chunk < chunks; chunk++){
+			System.arraycopy(this.buffers[chunk], 0, this.frontier, position, this.bufferSizes[chunk]);
+			position += this.bufferSizes[chunk];
+		}
+		this.frontierSize = total;
+		this.visitedCount += total;
+	}
+
+	private Route walkBack(int target){
+		int length = 1;
+		for (int index = target; this.entered[index] != SOURCE; index -= this.offsets[this.entered[index] - 1]){
+			length++;
+		}
+
+		int[] indices = new int[length];
+		int index = target;
+		for (int position = length - 1; position >= 0; position--){
+			indices[position] = index;
+			if (position > 0){
+				index -= this.offsets[this.entered[index] - 1];
+			}
+		}
+		return new Route(this.maze, indices);
+	}
+
+	/**
+	* ChunkTask is the inner class which expands a range of chunks of the 
+	* frontier, splitting it in halves until a single chunk is left.
+	*/
+	private class ChunkTask extends RecursiveAction{
+		private int from;
+		private int to;
+
+		private ChunkTask(int from, int to){
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute(){
+			if (this.to - this.from == 1){
+				expandChunk(this.from);
+			}
+			else{
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new ChunkTask(this.from, middle), new ChunkTask(middle, this.to));
+			}
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package maze.routing;
+
+import maze.Maze;
+import maze.Tile;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+* Route is the class which holds a route found by a search, as the indices
+* of its cells from the start to the end together with its cost. A route 
+* does not follow later edits of the maze.
+*/
+public final class Route{
+	private final Maze maze;
+	private final int[] indices;
+	private final long cost;
+
+	/**
+	* The constructor which takes the cells of a route and its cost.
+	*
+	* @param maze the maze the cells belong to.
+	* @param indices the cell indices from the start to the end, which are 
+	* not copied.
+	* @param cost the cost of walking the route.
+	*/
+	Route(Maze maze, int[] indices, long cost){
+		this.maze = maze;
+		this.indices = indices;
+		this.cost = cost;
+	}
+
+	/**
+	* The constructor which takes the cells of a route, whose cost is the sum
+	* of the costs of the cells stepped onto after the first, for the searches
+	* which count steps instead of costs.
+	*
+	* @param maze the maze the cells belong to.
+	* @param indices the cell indices from the start to the end, which are 
+	* not copied.
+	*/
+	Route(Maze maze, int[] indices){
+		this(maze, indices, terrainCost(maze, indices));
+	}
+
+	// the sum of the costs of the cells stepped onto, the start is not paid for
+	private static long terrainCost(Maze maze, int[] indices){
+		long cost = 0;
+		for (int i = 1; i < indices.length; i++){
+			cost += maze.getTileCost(indices[i]);
+		}
+		return cost;
+	}
+
+	/**
+	* getMaze is the method which returns the maze of the route.
+	*
+	* @return the Maze instance.
+	*/
+	public Maze getMaze(){
+		return this.maze;
+	}
+
+	/**
+	* getIndices is the method which returns the cells of the route.
+	*
+	* @return a new array of the cell indices from the start to the end.
+	*/
+	public int[] getIndices(){
+		return this.indices.clone();
+	}
+
+	/**
+	* size is the method which returns the number of cells of the route.
+	*
+	* @return number of cells, including the start and the end.
+	*/
+	public int size(){
+		return this.indices.length;
+	}
+
+	/**
+	* getStart is the method which returns the first cell of the route.
+	*
+	* @return index of the cell the route starts at.
+	*/
+	public int getStart(){
+		return this.indices[0];
+	}
+
+	/**
+	* getEnd is the method which returns the last cell of the route.
+	*
+	* @return index of the cell the route ends at.
+	*/
+	public int getEnd(){
+		return this.indices[this.indices.length - 1];
+	}
+
+	/**
+	* getCost is the method which returns the cost of walking the route, the
+	* sum of the costs of the cells stepped onto after the first, which is the
+	* number of steps when every cell costs the same.
+	*
+	* @return the cost of the route.
+	*/
+	public long getCost(){
+		return this.cost;
+	}
+
+	/**
+	* getTiles is the method which shows the route as a list of Tile instances.
+	*
+	* @return an unmodifiable view of the tiles from the start to the end.
+	*/
+	public List<Tile> getTiles(){
+		return new AbstractList<Tile>(){
+			@Override
+			public Tile get(int position){
+				return maze.getTileAtLocation(indices[position]);
+			}
+
+			@Override
+			public int size(){
+				return indices.length;
+			}
+		};
+	}
+
+	/**
+	* toString is the method which describes the route by its ends and cost.
+	*
+	* @return the route as a String.
+	*/
+	public String toString(){
+		return "Route from " + this.maze.getCoordinate(this.getStart()) + " to " 
+			+ this.maze.getCoordinate(this.getEnd()) + " of " + this.size() 
+			+ " tiles with cost " + this.cost;
+	}
+}
@@ -0,0 +1,106 @@
+package maze.routing;
+
+import maze.Maze;
+import maze.Tile;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import java.io.Serializable;
+
+/**
+* RouteCells is the class which answers if a cell is on the route of a
+* search which keeps its route only as the directions its cells were entered
+* from. The cells of the route are marked once for every end of the route,
+* so asking for every cell of the maze in turn walks the route only once.
+* The visited cells which are not on the route are collected once for every
+* end of the route and number of visited cells in the same way.
+*/
+class RouteCells implements Serializable{
+	private BitSet cells;
+	private int end;
+
+	private transient int[] removed;
+	private transient int removedEnd;
+	private transient long removedVisits;
+
+	RouteCells(){
+		this.cells = new BitSet();
+		this.end = -1;
+	}
+
+	/**
+	* contains is the method which shows if a cell is on the route.
+	*
+	* @param strategy the search whose route is asked for.
+	* @param end the last cell of the current route, -1 if there is none.
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell is on the route.
+	*/
+	boolean contains(RoutingStrategy strategy, int end, int index){
+		if (end != this.end){
+			this.cells.clear();
+			for (int cell : strategy.getRouteIndices()){
+				this.cells.set(cell);
+			}
+			this.end = end;
+		}
+		return index >= 0 && this.cells.get(index);
+	}
+
+	/**
+	* removedTiles is the method which returns the visited cells which are not
+	* on the route, which are searched for only when the search has moved on
+	* since the last call.
+	*
+	* @param strategy the search whose cells are asked for.
+	* @param end the last cell of the current route, -1 if there is none.
+	* @return read-only List of the Tile instances in the order of their indices.
+	*/
+	List<Tile> removedTiles(RoutingStrategy strategy, int end){
+		Maze maze = strategy.getMaze();
+
+		if (this.removed == null || end != this.removedEnd || strategy.getVisitedCount() != this.removedVisits){
+			int size = maze.getWidth() * maze.getHeight();
+			int[] removed = new int[16];
+			int count = 0;
+
+			for (int index = 0; index < size; index++){
+				if (strategy.isVisited(index) && !this.contains(strategy, end, index)){
+					if (count == removed.length){
+						removed = Arrays.copyOf(removed, count * 2);
+					}
+					removed[count++] = index;
+				}
+			}
+			this.removed = Arrays.copyOf(removed, count);
+			this.removedEnd = end;
+			this.removedVisits = strategy.getVisitedCount();
+		}
+
+		int[] removed = this.removed;
+		return new AbstractList<Tile>(){
+			@Override
+			public Tile get(int position){
+				return maze.getTileAtLocation(removed[position]);
+			}
+
+			@Override
+			public int size(){
+				return removed.length;
+			}
+		};
+	}
+
+	/**
+	* clear is the method which forgets the marked route, it has to be called
+	* when the search is reset as the route may end at the same cell again.
+	*/
+	void clear(){
+		this.cells.clear();
+		this.end = -1;
+		this.removed = null;
+	}
+}
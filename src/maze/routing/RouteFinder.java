@@ -1,7 +1,6 @@
 package maze.routing;
 
 import maze.Maze;
-import maze.Maze.Direction;
 import maze.Tile;
 import maze.InvalidMazeException;
 import maze.MultipleEntranceException;
@@ -11,8 +10,6 @@ import maze.NoExitException;
 import maze.RaggedMazeException;
 
 import java.util.List;
-import java.util.ArrayList;
-import java.util.Stack;
 
 import java.io.Serializable;
 import java.io.FileInputStream;  
@@ -24,23 +21,57 @@ import java.io.IOException;
 
 /**
 * RouteFinder is the class which is used to solve a maze by one step, 
-* load or save a serialised object.
+* load or save a serialised object. The search itself is done by a 
+* RoutingStrategy, the depth-first search unless another one is chosen, so
+* every strategy can be animated, shown and saved the same way.
 */
 public class RouteFinder implements Serializable{
 	private Maze maze;
-	private Stack <Tile> route;
 	private boolean finished;
-	private List<Tile> removedTiles;
+	private RoutingStrategy strategy;
 
 	/**
-	* The constructor which takes as its input Maze instance. 
+	* The constructor which takes as its input Maze instance, which is solved
+	* by the depth-first search. 
 	* 
 	* @param maze Maze instance used to assign a maze to the RouteFinder object
 	*/
 	public RouteFinder(Maze maze){
-		this.maze = maze;
-		route = new Stack <Tile>();
-		removedTiles = new ArrayList<Tile>();
+		this(new DepthFirstSearch(maze));
+	}
+
+	/**
+	* The constructor which takes the maze and the name of the strategy which
+	* solves it.
+	*
+	* @param maze the maze to be solved.
+	* @param strategy one of the names of RoutingStrategy.getNames.
+	*
+	* @throws IllegalArgumentException if no strategy has that name.
+	*/
+	public RouteFinder(Maze maze, String strategy){
+		this(RoutingStrategy.forName(strategy, maze));
+	}
+
+	/**
+	* The constructor which takes the strategy which solves the maze, the 
+	* maze is the one of the strategy.
+	*
+	* @param strategy the search to delegate to.
+	*/
+	public RouteFinder(RoutingStrategy strategy){
+		this.maze = strategy.getMaze();
+		this.strategy = strategy;
+	}
+
+	/**
+	* getStrategy is the method which returns the search the RouteFinder
+	* delegates to.
+	*
+	* @return the RoutingStrategy instance.
+	*/
+	public RoutingStrategy getStrategy(){
+		return this.strategy;
 	}
 
 	/**
@@ -55,22 +86,70 @@ public class RouteFinder implements Serializable{
 
 	/**
 	* getRoute is the method which return all the route Tile instances from the 
-	* start to the last one in the List.
+	* start to the last one in the List. With the depth-first search the List
+	* is a read-only view which follows the route as the maze is solved, the
+	* other strategies return the route at the time of the call.
 	* 
 	* @return List of Tile instances which the route consists of.
 	*/
 	public List<Tile> getRoute(){
-		return this.route;
+		return this.strategy.getRoute();
 	}
 
 	/**
 	* getRemovedTiles is the method which return all the removedTiles Tile instances from the 
-	* start to the last one in the List.
+	* start to the last one in the List. With the depth-first search the List
+	* is a read-only view which follows the removed tiles as the maze is solved.
+	* For the other strategies these are the visited cells which are not on the
+	* route, in the order of their indices at the time of the call.
 	* 
 	* @return List of Tile instances which the removedTiles consists of. 
 	*/
 	public List<Tile> getRemovedTiles(){
-		return this.removedTiles;
+		return this.strategy.getRemovedTiles();
+	}
+
+	/**
+	* getRouteIndices is the method which returns the cells of the route from
+	* the start to the last one as indices of the maze.
+	*
+	* @return a new array of the cell indices of the route.
+	*/
+	public int[] getRouteIndices(){
+		return this.strategy.getRouteIndices();
+	}
+
+	/**
+	* getRouteCost is the method which returns the cost of walking the current
+	* route, the sum of the costs of every cell stepped onto after the first,
+	* so weighted terrain on the route counts more than plain corridors.
+	*
+	* @return the cost of the route, 0 if it holds at most one cell.
+	*/
+	public long getRouteCost(){
+		return this.strategy.getRouteCost();
+	}
+
+	/**
+	* isOnRoute is the method which shows if a cell is on the current route.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell is on the route.
+	*/
+	public boolean isOnRoute(int index){
+		return this.strategy.isOnRoute(index);
+	}
+
+	/**
+	* isRemoved is the method which shows if a cell was on the route and was
+	* removed from it as it leads nowhere, or for strategies other than the 
+	* depth-first search, if it was visited and is not on the route.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell was removed from the route.
+	*/
+	public boolean isRemoved(int index){
+		return this.strategy.isRemoved(index);
 	}
 
 	/**
@@ -80,7 +159,7 @@ public class RouteFinder implements Serializable{
 	* both the entrance and exit Tile instances.
 	*/
 	public boolean isFinished(){
-		this.finished = this.getRoute().contains(this.maze.getExit()) && this.getRoute().contains(this.maze.getEntrance());
+		this.finished = this.strategy.isFinished();
 		return this.finished;
 	}
 
@@ -130,70 +209,65 @@ public class RouteFinder implements Serializable{
 	}
 
 	/**
-	* step is the method which solves a maze step by step, that is adds or removes one Tile instance
-	* from the List of Tile instances per method call.
+	* step is the method which solves a maze step by step, that is takes one
+	* step of the strategy per method call, which for the depth-first search
+	* adds or removes one Tile instance from the List of Tile instances.
 	*
 	* @return booelan value <code>true</code> if the maze has been solved, otherwise - <code>false</code>
 	*
 	* @throws NoRouteFoundException if the maze is unsolvable
 	*/
 	public boolean step(){
-		if (!isFinished()){
-			if (this.getRoute().isEmpty()){
-				this.getRoute().add(this.getMaze().getEntrance());
-			}
-			else{
-				// is required to determine if I need to remove a current Tile (if no neighbours)
-				boolean foundTileWithUnvisitedNeighbour = false;
-            	Direction[] directions = {Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST};
-            	
-            	// get the top element of the route
-				Tile element = this.getRoute().get(this.getRoute().size() - 1);
-				foundTileWithUnvisitedNeighbour = false;
-
-	            // get neighbours of the top element
-	            List<Tile> neighbours = new ArrayList<Tile>();
-	            
-	            for (int i = 0; i < directions.length; i++) {
-	            	Tile neighbour = this.getMaze().getAdjacentTile(element, directions[i]);
-	            	if (neighbour != null && neighbour.isNavigable()){
-						neighbours.add(neighbour);
-					}
-	            }
-
-				for (int i = 0; i < neighbours.size() && !foundTileWithUnvisitedNeighbour; i++) {
-					if (!this.getRoute().contains(neighbours.get(i)) && !this.getRemovedTiles().contains(neighbours.get(i))){
-						this.getRoute().add(neighbours.get(i));
-						foundTileWithUnvisitedNeighbour = true;
-	            	}
-				}
-
-				// if none neighbours of a Tile instance were found then
-				// all the Tiles of the route list are tested if any of them
-				// have a neighbour; it it is not a case, then this maze is unsolvable
-				if (!foundTileWithUnvisitedNeighbour){
-					boolean anyNeighbours = false;
-
-					for (int i = 0; i < this.getRoute().size() && !anyNeighbours; i++){
-	            		for (int j = 0; j < directions.length && !anyNeighbours; j++) {
-			            	Tile neighbour = this.getMaze().getAdjacentTile(this.getRoute().get(i), directions[j]);
-			            	if (neighbour != null && neighbour.isNavigable() && !this.getRemovedTiles().contains(neighbour) && !this.getRoute().contains(neighbour)){
-								anyNeighbours = true;
-							}
-			            }
-					}
-
-					if (!anyNeighbours){
-						throw new NoRouteFoundException();
-					}
-					else{
-						this.getRemovedTiles().add(element);
-						this.getRoute().remove(this.getRoute().size() - 1);
-					}
-				}
-			}
-		}
-		return this.isFinished();
+		return this.strategy.step();
+	}
+
+	/**
+	* solve is the method which takes the remaining steps of the strategy.
+	*
+	* @return the Route from an entrance to an exit.
+	*
+	* @throws NoRouteFoundException if the maze is unsolvable.
+	*/
+	public Route solve(){
+		return this.strategy.solve();
+	}
+
+	/**
+	* setGuided is the method which lets the depth-first search follow the 
+	* distances to the exit kept by the maze, see DepthFirstSearch.setGuided.
+	* The other strategies choose their steps themselves and ignore it.
+	*
+	* @param guided <code>true</code> to follow the distances to the exit.
+	*/
+	public void setGuided(boolean guided){
+		this.strategy.setGuided(guided);
+	}
+
+	/**
+	* isGuided is the method which shows if the search follows the distances
+	* to the exit.
+	*
+	* @return <code>true</code> if the steps are guided.
+	*/
+	public boolean isGuided(){
+		return this.strategy.isGuided();
+	}
+
+	/**
+	* reset is the method which forgets the whole search, so that the maze is
+	* solved again from its entrance by the next step.
+	*/
+	public void reset(){
+		this.strategy.reset();
+	}
+
+	/**
+	* close is the method which stops the RouteFinder from following the edits
+	* of the maze, it has to be called once the RouteFinder is no longer used
+	* while the maze still is.
+	*/
+	public void close(){
+		this.strategy.close();
 	}
 
 	/**
@@ -203,32 +277,35 @@ public class RouteFinder implements Serializable{
 	*/
 	@Override
 	public String toString(){
-		String board = new String();
-	 	List<List<Tile>> tiles = this.getMaze().getTiles();
-
-	 	for (int i = 0; i < tiles.size(); i++ ) {
-	 		board += (tiles.size()- 1 - i) + "     ";;
-	 		for (int j = 0; j < tiles.get(0).size() ; j++ ) {
-	 				if (this.getRoute().contains(tiles.get(i).get(j))){
-	 					board += "*  ";
+		StringBuilder board = new StringBuilder();
+		int width = this.getMaze().getWidth();
+		int height = this.getMaze().getHeight();
+
+	 	for (int i = 0; i < height; i++ ) {
+	 		board.append(height - 1 - i).append("     ");
+	 		for (int j = 0; j < width; j++ ) {
+	 				int index = i * width + j;
+
+	 				if (this.isOnRoute(index)){
+	 					board.append("*  ");
 		 			}
-		 			else if (this.getRemovedTiles().contains(tiles.get(i).get(j))){
-	 					board += "-  ";
+		 			else if (this.isRemoved(index)){
+	 					board.append("-  ");
 		 			}
 		 			else{
-	    				board += tiles.get(i).get(j).toString() + "  ";
+	    				board.append(this.maze.getTileType(index).getSymbol()).append("  ");
 		 			}
 	 		}
-	 		board += "\n";
+	 		board.append("\n");
 	 	}
-	 	board += "\n\n      ";
-	 	for (int j = 0; j < tiles.get(0).size() ; j++ ) {
+	 	board.append("\n\n      ");
+	 	for (int j = 0; j < width; j++ ) {
     			String emptySpace = "  ";
     			if (j > 9){
     				emptySpace = " ";
     			}
-    			board += j + emptySpace;
+    			board.append(j).append(emptySpace);
 	 		}
-	 	return board;
+	 	return board.toString();
 	}
-}
\ No newline at end of file
+}
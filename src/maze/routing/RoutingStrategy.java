@@ -0,0 +1,248 @@
+package maze.routing;
+
+import maze.Maze;
+import maze.Tile;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import java.io.Serializable;
+
+/**
+* RoutingStrategy is the interface of the searches which RouteFinder can
+* delegate to. A strategy solves one maze, one step at a time so that the
+* search can be animated or all at once, and shows its current route and
+* the cells it has visited. An edit of the maze repairs or restarts the
+* search. Strategies are saved together with the RouteFinder using them.
+*/
+public interface RoutingStrategy extends Serializable {
+	/**
+	* DEPTH_FIRST is the name of the depth-first search, the default one.
+	*/
+	String DEPTH_FIRST = "depth-first";
+
+	/**
+	* BREADTH_FIRST is the name of the breadth-first search.
+	*/
+	String BREADTH_FIRST = "breadth-first";
+
+	/**
+	* BIDIRECTIONAL is the name of the breadth-first search from both ends.
+	*/
+	String BIDIRECTIONAL = "bidirectional";
+
+	/**
+	* A_STAR is the name of the A* search estimated by the Manhattan distance.
+	*/
+	String A_STAR = "a-star";
+
+	/**
+	* JUMP_POINT is the name of the jump point search.
+	*/
+	String JUMP_POINT = "jump-point";
+
+	/**
+	* DIJKSTRA is the name of the search for the cheapest route over weighted terrain.
+	*/
+	String DIJKSTRA = "dijkstra";
+
+	/**
+	* forName is the method which creates the strategy of the given name.
+	*
+	* @param name one of the names returned by getNames.
+	* @param maze the maze to be solved.
+	* @return a new strategy which has not taken a step yet.
+	*
+	* @throws IllegalArgumentException if no strategy has that name.
+	*/
+	static RoutingStrategy forName(String name, Maze maze){
+		switch(name){
+			case DEPTH_FIRST:
+				return new DepthFirstSearch(maze);
+			case BREADTH_FIRST:
+				return new BreadthFirstSearch(maze);
+			case BIDIRECTIONAL:
+				return new BidirectionalSearch(maze);
+			case A_STAR:
+				return new AStarSearch(maze);
+			case JUMP_POINT:
+				return new JumpPointSearch(maze);
+			case DIJKSTRA:
+				return new DialSearch(maze);
+			default:
+				throw new IllegalArgumentException("There is no routing strategy called " + name + "!");
+		}
+	}
+
+	/**
+	* getNames is the method which returns the names forName knows.
+	*
+	* @return a new array of the names, the default one first.
+	*/
+	static String[] getNames(){
+		return new String[] {DEPTH_FIRST, BREADTH_FIRST, BIDIRECTIONAL, A_STAR, JUMP_POINT, DIJKSTRA};
+	}
+
+	/**
+	* getName is the method which returns the name of the strategy.
+	*
+	* @return the name forName creates this strategy by.
+	*/
+	String getName();
+
+	/**
+	* getMaze is the method which returns the maze being solved.
+	*
+	* @return the Maze instance.
+	*/
+	Maze getMaze();
+
+	/**
+	* step is the method which takes one step of the search.
+	*
+	* @return <code>true</code> if the maze has been solved.
+	*
+	* @throws NoRouteFoundException if the search finds that no exit can be reached.
+	*/
+	boolean step();
+
+	/**
+	* solve is the method which takes the remaining steps of the search.
+	*
+	* @return the Route from an entrance to an exit.
+	*
+	* @throws NoRouteFoundException if no exit can be reached.
+	*/
+	Route solve();
+
+	/**
+	* isFinished is the method which shows if the maze has been solved.
+	*
+	* @return <code>true</code> if the route reaches an exit.
+	*/
+	boolean isFinished();
+
+	/**
+	* getRoute is the method which returns the Tile instances of the current
+	* route of the search, which is the route to the exit once it is finished.
+	*
+	* @return read-only List of the Tile instances from the entrance.
+	*/
+	default List<Tile> getRoute(){
+		Maze maze = this.getMaze();
+		int[] indices = this.getRouteIndices();
+
+		return new AbstractList<Tile>(){
+			@Override
+			public Tile get(int position){
+				return maze.getTileAtLocation(indices[position]);
+			}
+
+			@Override
+			public int size(){
+				return indices.length;
+			}
+		};
+	}
+
+	/**
+	* getRouteIndices is the method which returns the cells of the current
+	* route of the search.
+	*
+	* @return a new array of the cell indices from the entrance.
+	*/
+	int[] getRouteIndices();
+
+	/**
+	* isOnRoute is the method which shows if a cell is on the current route.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell is on the route.
+	*/
+	boolean isOnRoute(int index);
+
+	/**
+	* getRemovedTiles is the method which returns the Tile instances of the
+	* cells the search has visited and which are not on the current route.
+	*
+	* @return read-only List of the Tile instances.
+	*/
+	List<Tile> getRemovedTiles();
+
+	/**
+	* getRouteCost is the method which returns the cost of walking the current
+	* route, the sum of the costs of every cell stepped onto after the first.
+	*
+	* @return the cost of the route, 0 if it holds at most one cell.
+	*/
+	default long getRouteCost(){
+		Maze maze = this.getMaze();
+		int[] route = this.getRouteIndices();
+		long cost = 0;
+		for (int i = 1; i < route.length; i++){
+			cost += maze.getTileCost(route[i]);
+		}
+		return cost;
+	}
+
+	/**
+	* isRemoved is the method which shows if a cell was visited and is not on
+	* the current route.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell was left behind by the search.
+	*/
+	default boolean isRemoved(int index){
+		return this.isVisited(index) && !this.isOnRoute(index);
+	}
+
+	/**
+	* setGuided is the method which lets the search follow the distances to
+	* the exit kept by the maze, if it can. Most strategies choose their steps
+	* themselves and ignore it.
+	*
+	* @param guided <code>true</code> to follow the distances to the exit.
+	*/
+	default void setGuided(boolean guided){
+	}
+
+	/**
+	* isGuided is the method which shows if the search follows the distances
+	* to the exit.
+	*
+	* @return <code>true</code> if the steps are guided.
+	*/
+	default boolean isGuided(){
+		return false;
+	}
+
+	/**
+	* isVisited is the method which shows if the search has visited a cell.
+	*
+	* @param index of the cell in the maze.
+	* @return <code>true</code> if the cell was visited.
+	*/
+	boolean isVisited(int index);
+
+	/**
+	* getVisitedCount is the method which returns the number of cells the
+	* search has visited, which is the work it has done.
+	*
+	* @return number of visited cells.
+	*/
+	long getVisitedCount();
+
+	/**
+	* reset is the method which forgets the whole search, so that the maze is
+	* solved again from its entrance by the next step.
+	*/
+	void reset();
+
+	/**
+	* close is the method which stops the strategy from following the edits
+	* of its maze. The maze keeps every strategy it tells about its edits, so
+	* a strategy which is no longer used has to be closed. Its route can still
+	* be read, but it is no longer repaired or restarted after an edit.
+	*/
+	void close();
+}
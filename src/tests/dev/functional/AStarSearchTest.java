@@ -0,0 +1,148 @@
+package tests.dev.functional;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.Tile;
+import maze.routing.AStarSearch;
+import maze.routing.Heuristic;
+import maze.routing.MultiSourceSearch;
+import maze.routing.NoRouteFoundException;
+import maze.routing.Route;
+import maze.routing.RouteFinder;
+
+public class AStarSearchTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Maze setupMaze(String name) {
+        return Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), name).toString());
+    }
+
+    public Maze openRoom(int size) {
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                if (row == 0 && column == 0) text.append('e');
+                else if (row == size - 1 && column == size - 1) text.append('x');
+                else text.append('.');
+            }
+            text.append('\n');
+        }
+        return Maze.fromBytes(text.toString().getBytes());
+    }
+
+    public void assertRouteIsConnected(Maze maze, int[] indices) {
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue(maze.isNavigable(indices[i]));
+            assertEquals(1, Math.abs(maze.getX(indices[i]) - maze.getX(indices[i - 1]))
+                + Math.abs(maze.getY(indices[i]) - maze.getY(indices[i - 1])));
+        }
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureStepsFollowTheRouteFinderContract() {
+        Maze maze = setupMaze("maze1.txt");
+        AStarSearch search = new AStarSearch(maze);
+        assertFalse(search.isFinished());
+        assertEquals(0, search.getRoute().size());
+        while (!search.step());
+        assertTrue(search.isFinished());
+        assertTrue(search.step());
+        List<Tile> route = search.getRoute();
+        assertEquals(12, route.size());
+        assertSame(maze.getEntrance(), route.get(0));
+        assertSame(maze.getExit(), route.get(11));
+    }
+
+    @Test
+    public void ensureRoutesAreTheShortest() {
+        Random random = new Random(20);
+        for (int round = 0; round < 40; round++) {
+            StringBuilder text = new StringBuilder();
+            for (int row = 0; row < 15; row++) {
+                for (int column = 0; column < 20; column++) {
+                    if (row == 0 && column == 0) text.append('e');
+                    else if (row == 14 && column == 19) text.append('x');
+                    else text.append(random.nextInt(10) < 3 ? '#' : '.');
+                }
+                text.append('\n');
+            }
+            Maze maze = Maze.fromBytes(text.toString().getBytes());
+            if (!maze.isExitReachable()) {
+                assertThrows(NoRouteFoundException.class, () -> {
+                    new AStarSearch(maze).solve();
+                });
+                continue;
+            }
+            Route route = new AStarSearch(maze).solve();
+            assertEquals(MultiSourceSearch.findShortestRoute(maze).getCost(), route.getCost());
+            assertRouteIsConnected(maze, route.getIndices());
+        }
+    }
+
+    @Test
+    public void ensureOpenGroundIsCrossedWithoutDetours() {
+        Maze maze = openRoom(40);
+        AStarSearch search = new AStarSearch(maze);
+        Route route = search.solve();
+        assertEquals(78, route.getCost());
+        assertEquals(route.size(), search.getExpandedCount());
+
+        AStarSearch blind = new AStarSearch(maze, Heuristic.ZERO);
+        assertEquals(78, blind.solve().getCost());
+        assertTrue(blind.getExpandedCount() > 10 * search.getExpandedCount());
+    }
+
+    @Test
+    public void ensureFewerCellsAreExpandedThanRouteFinderVisits() {
+        Maze maze = setupMaze("maze2.txt");
+        RouteFinder finder = new RouteFinder(maze);
+        int steps = 1;
+        while (!finder.step()) steps++;
+        AStarSearch search = new AStarSearch(maze);
+        search.solve();
+        assertTrue(search.getExpandedCount() <= steps);
+    }
+
+    @Test
+    public void ensureUserHeuristicIsUsed() {
+        Maze maze = openRoom(10);
+        int[] calls = new int[1];
+        Heuristic counting = (m, index, target) -> {
+            calls[0]++;
+            return Heuristic.MANHATTAN.estimate(m, index, target);
+        };
+        AStarSearch search = new AStarSearch(maze, counting);
+        assertSame(counting, search.getHeuristic());
+        assertEquals(18, search.solve().getCost());
+        assertTrue(calls[0] > 0);
+    }
+
+    @Test
+    public void ensureEditsRestartTheSearch() {
+        Maze maze = setupMaze("maze2.txt");
+        AStarSearch search = new AStarSearch(maze);
+        search.step();
+        search.step();
+        assertTrue(search.getExpandedCount() > 0);
+        maze.toggleWall(maze.new Coordinate(3, 2));
+        assertEquals(0, search.getExpandedCount());
+        assertFalse(search.isExpanded(maze.getTileIndex(maze.getEntrance())));
+        if (maze.isExitReachable()) {
+            assertEquals(MultiSourceSearch.findShortestRoute(maze).getCost(), search.solve().getCost());
+        }
+    }
+
+}
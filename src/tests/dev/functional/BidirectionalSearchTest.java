@@ -0,0 +1,126 @@
+package tests.dev.functional;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.Tile;
+import maze.routing.BidirectionalSearch;
+import maze.routing.MultiSourceSearch;
+import maze.routing.NoRouteFoundException;
+import maze.routing.Route;
+
+public class BidirectionalSearchTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Maze setupMaze(String name) {
+        return Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), name).toString());
+    }
+
+    public void assertRouteIsConnected(Maze maze, int[] indices) {
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue(maze.isNavigable(indices[i]));
+            assertEquals(1, Math.abs(maze.getX(indices[i]) - maze.getX(indices[i - 1]))
+                + Math.abs(maze.getY(indices[i]) - maze.getY(indices[i - 1])));
+        }
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureFrontiersMeetOnTheShortestRoute() {
+        Maze maze = setupMaze("maze2.txt");
+        BidirectionalSearch search = new BidirectionalSearch(maze);
+        assertEquals(0, search.getRoute().size());
+        while (!search.step());
+        List<Tile> route = search.getRoute();
+        assertEquals(MultiSourceSearch.findShortestRoute(maze).size(), route.size());
+        assertSame(maze.getEntrance(), route.get(0));
+        assertSame(maze.getExit(), route.get(route.size() - 1));
+        assertRouteIsConnected(maze, search.getRouteIndices());
+    }
+
+    @Test
+    public void ensureBothSidesAreVisited() {
+        Maze maze = setupMaze("maze1.txt");
+        BidirectionalSearch search = new BidirectionalSearch(maze);
+        search.step();
+        int entrance = maze.getTileIndex(maze.getEntrance());
+        int exit = maze.getTileIndex(maze.getExit());
+        assertTrue(search.isVisitedFromEntrance(entrance));
+        assertFalse(search.isVisitedFromExit(entrance));
+        assertTrue(search.isVisitedFromExit(exit));
+        assertFalse(search.isVisitedFromEntrance(exit));
+        assertFalse(search.isVisitedFromEntrance(1));
+        assertFalse(search.isVisitedFromExit(1));
+    }
+
+    @Test
+    public void ensureRoutesAreTheShortest() {
+        Random random = new Random(22);
+        for (int round = 0; round < 200; round++) {
+            int width = 2 + random.nextInt(20);
+            int height = 1 + random.nextInt(20);
+            int walls = random.nextInt(5);
+            StringBuilder text = new StringBuilder();
+            for (int index = 0; index < width * height; index++) {
+                if (index == 0) text.append('e');
+                else if (index == width * height - 1) text.append('x');
+                else text.append(random.nextInt(10) < walls ? '#' : '.');
+                if (index % width == width - 1) text.append('\n');
+            }
+            Maze maze = Maze.fromBytes(text.toString().getBytes());
+            if (!maze.isExitReachable()) {
+                assertThrows(NoRouteFoundException.class, () -> {
+                    new BidirectionalSearch(maze).solve();
+                });
+                continue;
+            }
+            Route route = new BidirectionalSearch(maze).solve();
+            assertEquals(MultiSourceSearch.findShortestRoute(maze).getCost(), route.getCost());
+            assertEquals(0, route.getStart());
+            assertEquals(width * height - 1, route.getEnd());
+            assertRouteIsConnected(maze, route.getIndices());
+        }
+    }
+
+    @Test
+    public void ensureLessIsExploredThanFromOneSide() {
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < 41; row++) {
+            for (int column = 0; column < 41; column++) {
+                if (row == 20 && column == 0) text.append('e');
+                else if (row == 20 && column == 40) text.append('x');
+                else text.append('.');
+            }
+            text.append('\n');
+        }
+        Maze maze = Maze.fromBytes(text.toString().getBytes());
+        BidirectionalSearch search = new BidirectionalSearch(maze);
+        assertEquals(40, search.solve().getCost());
+        assertTrue(search.getVisitedCount() < 41 * 41 * 3 / 4);
+    }
+
+    @Test
+    public void ensureEditsRestartTheSearch() {
+        Maze maze = setupMaze("maze2.txt");
+        BidirectionalSearch search = new BidirectionalSearch(maze);
+        search.solve();
+        maze.toggleWall(maze.new Coordinate(3, 2));
+        assertFalse(search.isFinished());
+        assertEquals(0, search.getVisitedCount());
+        if (maze.isExitReachable()) {
+            assertEquals(MultiSourceSearch.findShortestRoute(maze).getCost(), search.solve().getCost());
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+package tests.dev.functional;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.Maze.Direction;
+import maze.Tile;
+import maze.routing.NoRouteFoundException;
+import maze.routing.RouteFinder;
+
+public class ConnectivityTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Maze setupMaze(String name) {
+        return Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), name).toString());
+    }
+
+    public Maze mazeFromText(String text) {
+        return Maze.fromBytes(text.getBytes());
+    }
+
+    // labels the cells by a search of their own, the label is the smallest
+    // index of the component like the one of the maze
+    public int[] components(Maze maze) {
+        int size = maze.getWidth() * maze.getHeight();
+        int[] labels = new int[size];
+        Arrays.fill(labels, -2);
+        for (int start = 0; start < size; start++) {
+            if (labels[start] != -2) continue;
+            if (!maze.isNavigable(start)) {
+                labels[start] = -1;
+                continue;
+            }
+            ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+            queue.add(start);
+            labels[start] = start;
+            while (!queue.isEmpty()) {
+                int index = queue.poll();
+                for (Direction direction : Direction.values()) {
+                    int next = maze.getNeighbour(index, direction);
+                    if (next != -1 && labels[next] == -2) {
+                        labels[next] = start;
+                        queue.add(next);
+                    }
+                }
+            }
+        }
+        return labels;
+    }
+
+    public void assertComponentsAreCorrect(Maze maze) {
+        int[] expected = components(maze);
+        int count = 0;
+        for (int index = 0; index < expected.length; index++) {
+            assertEquals(expected[index], maze.getComponent(index));
+            if (expected[index] == index) count++;
+        }
+        assertEquals(count, maze.getComponentCount());
+        int entrance = maze.getTileIndex(maze.getEntrance());
+        int exit = maze.getTileIndex(maze.getExit());
+        assertEquals(expected[entrance] == expected[exit], maze.isExitReachable());
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureSolvableMazesHaveReachableExit() {
+        assertTrue(setupMaze("maze1.txt").isExitReachable());
+        assertTrue(setupMaze("maze2.txt").isExitReachable());
+        assertComponentsAreCorrect(setupMaze("maze1.txt"));
+        assertComponentsAreCorrect(setupMaze("maze2.txt"));
+    }
+
+    @Test
+    public void ensureWallsAreNotConnected() {
+        Maze maze = setupMaze("maze1.txt");
+        assertEquals(-1, maze.getComponent(1));
+        assertFalse(maze.areConnected(0, 1));
+        assertFalse(maze.areConnected(1, 1));
+        assertTrue(maze.areConnected(0, 0));
+        assertTrue(maze.areConnected(maze.new Coordinate(0, 5), maze.new Coordinate(5, 1)));
+        assertFalse(maze.areConnected(maze.new Coordinate(0, 5), maze.new Coordinate(6, 1)));
+        assertThrows(IndexOutOfBoundsException.class, () -> {
+            maze.areConnected(0, 36);
+        });
+    }
+
+    @Test
+    public void ensureSeparatedExitIsNotReachable() {
+        Maze maze = mazeFromText("e.#..\n..#.x\n..#..\n");
+        assertFalse(maze.isExitReachable());
+        assertEquals(2, maze.getComponentCount());
+        assertComponentsAreCorrect(maze);
+    }
+
+    @Test
+    public void ensureRouteFinderFailsOnItsFirstStep() {
+        RouteFinder route = new RouteFinder(mazeFromText("e.#..\n..#.x\n..#..\n"));
+        assertThrows(NoRouteFoundException.class, () -> {
+            route.step();
+        });
+        assertEquals(0, route.getRoute().size());
+    }
+
+    @Test
+    public void ensureComponentsFollowEdits() {
+        Maze maze = mazeFromText("e.#..\n..#.x\n..#..\n");
+        maze.toggleWall(maze.new Coordinate(2, 1));
+        assertTrue(maze.isExitReachable());
+        assertEquals(1, maze.getComponentCount());
+        maze.toggleWall(maze.new Coordinate(2, 1));
+        assertFalse(maze.isExitReachable());
+        assertEquals(2, maze.getComponentCount());
+        maze.setTile(maze.new Coordinate(1, 1), Tile.Type.EXIT);
+        assertTrue(maze.isExitReachable());
+    }
+
+    @Test
+    public void ensureComponentsMatchASearchAfterRandomEdits() {
+        Random random = new Random(15);
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < 20; row++) {
+            for (int column = 0; column < 30; column++) {
+                if (row == 0 && column == 0) text.append('e');
+                else if (row == 19 && column == 29) text.append('x');
+                else text.append(random.nextInt(5) < 2 ? '#' : '.');
+            }
+            text.append('\n');
+        }
+        Maze maze = mazeFromText(text.toString());
+        assertComponentsAreCorrect(maze);
+        for (int edit = 0; edit < 300; edit++) {
+            int index = random.nextInt(maze.getWidth() * maze.getHeight());
+            Tile.Type type = maze.getTileAtLocation(index).getType();
+            if (type == Tile.Type.WALL || type == Tile.Type.CORRIDOR) {
+                maze.setTile(index, type == Tile.Type.WALL ? Tile.Type.CORRIDOR : Tile.Type.WALL);
+            }
+            if (edit % 10 == 0) assertComponentsAreCorrect(maze);
+        }
+        assertComponentsAreCorrect(maze);
+    }
+
+}
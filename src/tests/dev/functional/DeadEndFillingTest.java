@@ -0,0 +1,91 @@
+package tests.dev.functional;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.Tile;
+import maze.routing.MultiSourceSearch;
+import maze.routing.RouteFinder;
+
+public class DeadEndFillingTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Maze setupMaze(String name) {
+        return Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), name).toString());
+    }
+
+    public Maze mazeFromText(String text) {
+        return Maze.fromBytes(text.getBytes());
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureDeadEndsAreFilled() {
+        Maze maze = mazeFromText(
+            "e..#.\n" +
+            "#.##.\n" +
+            "#...x\n" +
+            "#.###\n");
+        Maze pruned = maze.withoutDeadEnds();
+        assertEquals(mazeFromText(
+            "e.###\n" +
+            "#.###\n" +
+            "#...x\n" +
+            "#####\n"), pruned);
+        assertEquals(Tile.Type.CORRIDOR, maze.getTileType(maze.getIndex(4, 3)));
+    }
+
+    @Test
+    public void ensureLoopsAreKept() {
+        Maze maze = mazeFromText(
+            "e..##\n" +
+            ".#.##\n" +
+            "...#x\n" +
+            "##...\n");
+        Maze pruned = maze.withoutDeadEnds();
+        assertEquals(maze, pruned);
+    }
+
+    @Test
+    public void ensureRouteFinderNeverBacktracksOnAPrunedTree() {
+        Maze pruned = setupMaze("maze1.txt").withoutDeadEnds();
+        RouteFinder route = new RouteFinder(pruned);
+        while (!route.step());
+        assertEquals(0, route.getRemovedTiles().size());
+        assertEquals(12, route.getRoute().size());
+    }
+
+    @Test
+    public void ensureShortestRouteIsUnchanged() {
+        Maze maze = setupMaze("maze2.txt");
+        Maze pruned = maze.withoutDeadEnds();
+        assertEquals(MultiSourceSearch.findShortestRoute(maze).getCost(),
+            MultiSourceSearch.findShortestRoute(pruned).getCost());
+        for (int index = 0; index < maze.getWidth() * maze.getHeight(); index++) {
+            if (pruned.isNavigable(index)) {
+                assertTrue(maze.isNavigable(index));
+                assertTrue(Integer.bitCount(pruned.getNeighbourMask(index)) >= 2
+                    || pruned.getTileType(index) != Tile.Type.CORRIDOR);
+            }
+        }
+    }
+
+    @Test
+    public void ensureEveryEndpointIsKept() {
+        Maze maze = Maze.fromBytes("e.#e\n..#.\nx...\n".getBytes(), true);
+        Maze pruned = maze.withoutDeadEnds();
+        assertTrue(pruned.hasManyEndpoints());
+        assertArrayEquals(maze.getEntranceIndices(), pruned.getEntranceIndices());
+        assertArrayEquals(maze.getExitIndices(), pruned.getExitIndices());
+    }
+
+}
@@ -0,0 +1,165 @@
+package tests.dev.functional;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.Maze.Direction;
+import maze.Tile;
+import maze.routing.MultiSourceSearch;
+import maze.routing.NoRouteFoundException;
+import maze.routing.RouteFinder;
+
+public class DistanceFieldTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Maze setupMaze(String name) {
+        return Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), name).toString());
+    }
+
+    // distances to the nearest exit found by a search of their own
+    public int[] distances(Maze maze) {
+        int[] distances = new int[maze.getWidth() * maze.getHeight()];
+        Arrays.fill(distances, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+        for (int exit : maze.getExitIndices()) {
+            distances[exit] = 0;
+            queue.add(exit);
+        }
+        while (!queue.isEmpty()) {
+            int index = queue.poll();
+            for (Direction direction : Direction.values()) {
+                int next = maze.getNeighbour(index, direction);
+                if (next != -1 && distances[next] == -1) {
+                    distances[next] = distances[index] + 1;
+                    queue.add(next);
+                }
+            }
+        }
+        return distances;
+    }
+
+    public void assertFieldIsCorrect(Maze maze) {
+        int[] expected = distances(maze);
+        for (int index = 0; index < expected.length; index++) {
+            assertEquals(expected[index], maze.getExitDistance(index));
+            int next = maze.getNextStepToExit(index);
+            if (expected[index] <= 0) {
+                assertEquals(-1, next);
+            } else {
+                assertEquals(expected[index] - 1, expected[next]);
+                assertEquals(1, Math.abs(maze.getX(index) - maze.getX(next))
+                    + Math.abs(maze.getY(index) - maze.getY(next)));
+            }
+        }
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureDistancesMatchASearch() {
+        assertFieldIsCorrect(setupMaze("maze1.txt"));
+        assertFieldIsCorrect(setupMaze("maze2.txt"));
+        Maze maze = setupMaze("maze1.txt");
+        assertEquals(11, maze.getExitDistance(maze.getTileIndex(maze.getEntrance())));
+        assertEquals(-1, maze.getExitDistance(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> {
+            maze.getExitDistance(36);
+        });
+    }
+
+    @Test
+    public void ensureNextStepsLeadToTheExit() {
+        Maze maze = setupMaze("maze2.txt");
+        int index = maze.getTileIndex(maze.getEntrance());
+        int steps = 0;
+        while (maze.getNextStepToExit(index) != -1) {
+            index = maze.getNextStepToExit(index);
+            steps++;
+        }
+        assertEquals(maze.getTileIndex(maze.getExit()), index);
+        assertEquals(MultiSourceSearch.findShortestRoute(maze).getCost(), steps);
+    }
+
+    @Test
+    public void ensureDistancesFollowEdits() {
+        Random random = new Random(19);
+        Maze maze = setupMaze("maze2.txt");
+        assertFieldIsCorrect(maze);
+        for (int edit = 0; edit < 60; edit++) {
+            int index = random.nextInt(maze.getWidth() * maze.getHeight());
+            Tile.Type type = maze.getTileType(index);
+            if (type == Tile.Type.WALL || type == Tile.Type.CORRIDOR) {
+                maze.setTile(index, type == Tile.Type.WALL ? Tile.Type.CORRIDOR : Tile.Type.WALL);
+            }
+            if (edit % 20 == 0) maze.setTile(maze.getIndex(1, 1), Tile.Type.EXIT);
+            assertFieldIsCorrect(maze);
+        }
+    }
+
+    @Test
+    public void ensureOpenedCellsShortenTheDistances() {
+        Maze maze = Maze.fromBytes(
+            ("e....\n" +
+             "####.\n" +
+             "x....\n").getBytes(), true);
+        assertEquals(10, maze.getExitDistance(0));
+        maze.setTile(5, Tile.Type.CORRIDOR);
+        assertEquals(2, maze.getExitDistance(0));
+        assertEquals(6, maze.getExitDistance(4));
+        maze.setTile(3, Tile.Type.EXIT);
+        assertEquals(1, maze.getExitDistance(4));
+        assertFieldIsCorrect(maze);
+        maze.setTile(5, Tile.Type.WALL);
+        assertEquals(3, maze.getExitDistance(0));
+        assertFieldIsCorrect(maze);
+    }
+
+    @Test
+    public void ensureNearestOfManyExitsIsUsed() {
+        Maze maze = Maze.fromBytes("x....e..x.\n".getBytes(), true);
+        assertEquals(3, maze.getExitDistance(5));
+        assertEquals(6, maze.getNextStepToExit(5));
+        assertEquals(1, maze.getExitDistance(9));
+        assertFieldIsCorrect(maze);
+    }
+
+    @Test
+    public void ensureGuidedRouteFinderTakesAShortestRoute() {
+        Maze maze = setupMaze("maze2.txt");
+        RouteFinder route = new RouteFinder(maze);
+        route.setGuided(true);
+        assertTrue(route.isGuided());
+        while (!route.step());
+        assertEquals(0, route.getRemovedTiles().size());
+        assertEquals(MultiSourceSearch.findShortestRoute(maze).size(), route.getRoute().size());
+    }
+
+    @Test
+    public void ensureGuidedRouteFinderFallsBackAfterAnEdit() {
+        Maze maze = Maze.fromBytes("e...\n.##.\n...x\n".getBytes());
+        RouteFinder route = new RouteFinder(maze);
+        route.setGuided(true);
+        route.step();
+        route.step();
+        route.step();
+        assertArrayEquals(new int[] {0, 4, 8}, route.getRouteIndices());
+
+        // the cells of the route now lead away from the exit
+        maze.setTile(9, Tile.Type.WALL);
+        while (!route.step());
+        assertArrayEquals(new int[] {0, 1, 2, 3, 7, 11}, route.getRouteIndices());
+        assertEquals(2, route.getRemovedTiles().size());
+    }
+
+}
@@ -0,0 +1,119 @@
+package tests.dev.functional;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.Tile;
+import maze.routing.AStarSearch;
+import maze.routing.JumpPointSearch;
+import maze.routing.MultiSourceSearch;
+import maze.routing.NoRouteFoundException;
+import maze.routing.Route;
+
+public class JumpPointSearchTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Maze setupMaze(String name) {
+        return Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), name).toString());
+    }
+
+    public Maze randomMaze(Random random, int width, int height, int walls) {
+        StringBuilder text = new StringBuilder();
+        int entrance = random.nextInt(width * height);
+        int exit = entrance;
+        while (exit == entrance) exit = random.nextInt(width * height);
+        for (int index = 0; index < width * height; index++) {
+            if (index == entrance) text.append('e');
+            else if (index == exit) text.append('x');
+            else text.append(random.nextInt(10) < walls ? '#' : '.');
+            if (index % width == width - 1) text.append('\n');
+        }
+        return Maze.fromBytes(text.toString().getBytes());
+    }
+
+    public void assertRouteIsConnected(Maze maze, int[] indices) {
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue(maze.isNavigable(indices[i]));
+            assertEquals(1, Math.abs(maze.getX(indices[i]) - maze.getX(indices[i - 1]))
+                + Math.abs(maze.getY(indices[i]) - maze.getY(indices[i - 1])));
+        }
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureRouteHasEveryCell() {
+        Maze maze = setupMaze("maze1.txt");
+        JumpPointSearch search = new JumpPointSearch(maze);
+        while (!search.step());
+        assertTrue(search.isFinished());
+        List<Tile> route = search.getRoute();
+        assertEquals(12, route.size());
+        assertSame(maze.getEntrance(), route.get(0));
+        assertSame(maze.getExit(), route.get(11));
+        assertRouteIsConnected(maze, search.getRouteIndices());
+    }
+
+    @Test
+    public void ensureRoutesAreTheShortest() {
+        Random random = new Random(21);
+        for (int round = 0; round < 300; round++) {
+            Maze maze = randomMaze(random, 2 + random.nextInt(20), 1 + random.nextInt(20), random.nextInt(5));
+            if (!maze.isExitReachable()) {
+                assertThrows(NoRouteFoundException.class, () -> {
+                    new JumpPointSearch(maze).solve();
+                });
+                continue;
+            }
+            Route route = new JumpPointSearch(maze).solve();
+            assertEquals(MultiSourceSearch.findShortestRoute(maze).getCost(), route.getCost());
+            assertEquals(route.getCost() + 1, route.size());
+            assertEquals(Tile.Type.ENTRANCE, maze.getTileType(route.getStart()));
+            assertEquals(Tile.Type.EXIT, maze.getTileType(route.getEnd()));
+            assertRouteIsConnected(maze, route.getIndices());
+        }
+    }
+
+    @Test
+    public void ensureOpenRoomsNeedFewJumpPoints() {
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < 60; row++) {
+            for (int column = 0; column < 60; column++) {
+                if (row == 0 && column == 0) text.append('e');
+                else if (row == 59 && column == 59) text.append('x');
+                else if (row == 30 && column > 5) text.append('#');
+                else text.append('.');
+            }
+            text.append('\n');
+        }
+        Maze maze = Maze.fromBytes(text.toString().getBytes());
+        JumpPointSearch search = new JumpPointSearch(maze);
+        AStarSearch astar = new AStarSearch(maze);
+        assertEquals(astar.solve().getCost(), search.solve().getCost());
+        assertTrue(search.getExpandedCount() * 10 < astar.getExpandedCount());
+    }
+
+    @Test
+    public void ensureEditsRestartTheSearch() {
+        Maze maze = setupMaze("maze2.txt");
+        JumpPointSearch search = new JumpPointSearch(maze);
+        search.step();
+        maze.toggleWall(maze.new Coordinate(3, 2));
+        assertEquals(0, search.getExpandedCount());
+        assertEquals(0, search.getRouteIndices().length);
+        if (maze.isExitReachable()) {
+            assertEquals(MultiSourceSearch.findShortestRoute(maze).getCost(), search.solve().getCost());
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+package tests.dev.functional;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.routing.JunctionGraph;
+import maze.routing.JunctionSearch;
+import maze.routing.MultiSourceSearch;
+import maze.routing.NoRouteFoundException;
+import maze.routing.Route;
+
+public class JunctionGraphTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Maze setupMaze(String name) {
+        return Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), name).toString());
+    }
+
+    public Maze randomMaze(Random random, int width, int height) {
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                if (row == 0 && column == 0) text.append('e');
+                else if (row == height - 1 && column == width - 1) text.append('x');
+                else text.append(random.nextInt(10) < 4 ? '#' : '.');
+            }
+            text.append('\n');
+        }
+        return Maze.fromBytes(text.toString().getBytes());
+    }
+
+    public void assertRouteIsConnected(Maze maze, Route route) {
+        int[] indices = route.getIndices();
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue(maze.isNavigable(indices[i]));
+            assertEquals(1, Math.abs(maze.getX(indices[i]) - maze.getX(indices[i - 1]))
+                + Math.abs(maze.getY(indices[i]) - maze.getY(indices[i - 1])));
+        }
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureCorridorBecomesOneEdge() {
+        Maze maze = Maze.fromBytes("e.....x\n".getBytes());
+        JunctionGraph graph = JunctionGraph.build(maze);
+        assertEquals(2, graph.getNodeCount());
+        assertEquals(2, graph.getEdgeCount());
+        assertEquals(0, graph.getNodeCell(0));
+        assertEquals(6, graph.getNodeCell(1));
+        assertEquals(-1, graph.getNode(3));
+        assertEquals(1, graph.getEdgeTarget(graph.getEdgeStart(0)));
+        assertEquals(6, graph.getEdgeLength(graph.getEdgeStart(0)));
+        assertArrayEquals(new int[] {5, 4, 3, 2, 1, 0}, graph.getEdgeCells(graph.getEdgeStart(1)));
+    }
+
+    @Test
+    public void ensureEdgesFollowTheirCorridors() {
+        JunctionGraph graph = JunctionGraph.build(setupMaze("maze2.txt"));
+        Maze maze = graph.getMaze();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++) {
+                int[] cells = graph.getEdgeCells(edge);
+                assertEquals(graph.getEdgeLength(edge), cells.length);
+                assertEquals(graph.getNodeCell(graph.getEdgeTarget(edge)), cells[cells.length - 1]);
+                int previous = graph.getNodeCell(node);
+                for (int i = 0; i < cells.length; i++) {
+                    assertEquals(1, Math.abs(maze.getX(cells[i]) - maze.getX(previous))
+                        + Math.abs(maze.getY(cells[i]) - maze.getY(previous)));
+                    if (i < cells.length - 1) assertEquals(-1, graph.getNode(cells[i]));
+                    previous = cells[i];
+                }
+            }
+        }
+    }
+
+    @Test
+    public void ensureGraphIsSmallerThanTheMaze() {
+        Maze maze = setupMaze("maze2.txt");
+        JunctionGraph graph = JunctionGraph.build(maze);
+        int navigable = 0;
+        for (int index = 0; index < maze.getWidth() * maze.getHeight(); index++) {
+            if (maze.isNavigable(index)) navigable++;
+        }
+        assertTrue(graph.getNodeCount() < navigable);
+    }
+
+    @Test
+    public void ensureRouteIsTheShortest() {
+        Maze maze = setupMaze("maze1.txt");
+        Route route = JunctionSearch.findShortestRoute(maze);
+        assertEquals(maze.getTileIndex(maze.getEntrance()), route.getStart());
+        assertEquals(maze.getTileIndex(maze.getExit()), route.getEnd());
+        assertEquals(MultiSourceSearch.findShortestRoute(maze).getCost(), route.getCost());
+        assertEquals(route.getCost() + 1, route.size());
+        assertRouteIsConnected(maze, route);
+    }
+
+    @Test
+    public void ensureRouteMatchesABreadthFirstSearchOnRandomMazes() {
+        Random random = new Random(17);
+        for (int round = 0; round < 40; round++) {
+            Maze maze = randomMaze(random, 20, 15);
+            Route expected;
+            try {
+                expected = MultiSourceSearch.findShortestRoute(maze);
+            } catch (NoRouteFoundException e) {
+                assertThrows(NoRouteFoundException.class, () -> {
+                    JunctionSearch.findShortestRoute(maze);
+                });
+                continue;
+            }
+            Route route = JunctionSearch.findShortestRoute(maze);
+            assertEquals(expected.getCost(), route.getCost());
+            assertEquals(expected.getStart(), route.getStart());
+            assertEquals(expected.getEnd(), route.getEnd());
+            assertRouteIsConnected(maze, route);
+        }
+    }
+
+    @Test
+    public void ensureUnreachableExitIsReported() {
+        assertThrows(NoRouteFoundException.class, () -> {
+            JunctionSearch.findShortestRoute(Maze.fromBytes("e.#..\n..#.x\n".getBytes()));
+        });
+    }
+
+}
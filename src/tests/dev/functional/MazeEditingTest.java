@@ -0,0 +1,328 @@
+package tests.dev.functional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.Maze.Direction;
+import maze.MazeChangeListener;
+import maze.NoEntranceException;
+import maze.NoExitException;
+import maze.Tile;
+import maze.routing.NoRouteFoundException;
+import maze.routing.RouteFinder;
+
+public class MazeEditingTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public String mazePath(String... names) {
+        return Paths.get(TEST_MAZES_DIR.toString(), names).toString();
+    }
+
+    public String tempFile(String suffix) {
+        try {
+            Path file = Files.createTempFile("maze", suffix);
+            file.toFile().deleteOnExit();
+            return file.toString();
+        } catch (IOException e) {
+            fail(e.getClass().getName() + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    // builds an open maze of the given size with the entrance and the exit in
+    // opposite corners and a few walls
+    public Maze openMaze(int width, int height, Random random) {
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                if (row == 0 && column == 0) text.append('e');
+                else if (row == height - 1 && column == width - 1) text.append('x');
+                else text.append(random.nextInt(4) == 0 ? '#' : '.');
+            }
+            text.append('\n');
+        }
+        return Maze.fromBytes(text.toString().getBytes());
+    }
+
+    // tells if the exit can be reached from the entrance, by a search of its own
+    public boolean isSolvable(Maze maze) {
+        int start = maze.getTileIndex(maze.getEntrance());
+        int goal = maze.getTileIndex(maze.getExit());
+        boolean[] seen = new boolean[maze.getWidth() * maze.getHeight()];
+        ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+        queue.add(start);
+        seen[start] = true;
+        while (!queue.isEmpty()) {
+            int index = queue.poll();
+            if (index == goal) return true;
+            for (Direction direction : Direction.values()) {
+                int next = maze.getNeighbour(index, direction);
+                if (next != -1 && !seen[next]) {
+                    seen[next] = true;
+                    queue.add(next);
+                }
+            }
+        }
+        return false;
+    }
+
+    // steps until the maze is solved, false if it turned out to be unsolvable
+    public boolean solve(RouteFinder route) {
+        try {
+            while (!route.step());
+            return true;
+        } catch (NoRouteFoundException e) {
+            return false;
+        }
+    }
+
+    public void assertRouteIsAPath(Maze maze, RouteFinder route) {
+        int[] indices = route.getRouteIndices();
+        assertEquals(maze.getTileIndex(maze.getEntrance()), indices[0]);
+        assertEquals(maze.getTileIndex(maze.getExit()), indices[indices.length - 1]);
+        for (int i = 1; i < indices.length; i++) {
+            boolean adjacent = false;
+            for (Direction direction : Direction.values()) {
+                adjacent |= maze.getNeighbour(indices[i - 1], direction) == indices[i];
+            }
+            assertTrue(adjacent);
+        }
+    }
+
+    // ~~~~~~~~~~ Functionality tests : Maze ~~~~~~~~~~
+
+    @Test
+    public void ensureSetTileChangesTheCell() {
+        Maze maze = Maze.fromTxt(mazePath("maze1.txt"));
+        Maze.Coordinate c = maze.new Coordinate(0, 4);
+        Tile before = maze.getTileAtLocation(c);
+        assertSame(Tile.Type.CORRIDOR, maze.setTile(c, Tile.Type.WALL));
+        Tile after = maze.getTileAtLocation(c);
+        assertSame(Tile.Type.WALL, after.getType());
+        assertNotSame(before, after);
+        assertNull(maze.getTileLocation(before));
+        assertEquals("(0, 4)", maze.getTileLocation(after).toString());
+    }
+
+    @Test
+    public void ensureSetTileRepairsNeighbourMasks() {
+        Maze maze = Maze.fromTxt(mazePath("maze1.txt"));
+        int entrance = maze.getTileIndex(maze.getEntrance());
+        int below = entrance + maze.getWidth();
+        assertNotEquals(-1, maze.getNeighbour(entrance, Direction.SOUTH));
+        maze.setTile(below, Tile.Type.WALL);
+        assertEquals(-1, maze.getNeighbour(entrance, Direction.SOUTH));
+        assertEquals(0, maze.getNeighbourMask(below));
+        maze.setTile(below, Tile.Type.CORRIDOR);
+        assertEquals(below, maze.getNeighbour(entrance, Direction.SOUTH));
+        assertEquals(entrance, maze.getNeighbour(below, Direction.NORTH));
+    }
+
+    @Test
+    public void ensureNeighbourOffsetsLeadToEveryNeighbour() {
+        Maze maze = Maze.fromTxt(mazePath("maze1.txt"));
+        int[] offsets = maze.getNeighbourOffsets();
+        assertEquals(Direction.values().length, offsets.length);
+        for (int index = 0; index < maze.getWidth() * maze.getHeight(); index++) {
+            for (Direction direction : Direction.values()) {
+                int next = maze.getNeighbour(index, direction);
+                if (next != -1) {
+                    assertEquals(next, index + offsets[direction.ordinal()]);
+                }
+            }
+        }
+        offsets[0] = 0;
+        assertNotEquals(0, maze.getNeighbourOffsets()[0]);
+    }
+
+    @Test
+    public void ensureToggleWallSwitchesWallsAndCorridors() {
+        Maze maze = Maze.fromTxt(mazePath("maze1.txt"));
+        String text = maze.toString();
+        Maze.Coordinate c = maze.new Coordinate(1, 5);
+        assertSame(Tile.Type.CORRIDOR, maze.toggleWall(c));
+        assertNotEquals(text, maze.toString());
+        assertSame(Tile.Type.WALL, maze.toggleWall(c));
+        assertEquals(text, maze.toString());
+    }
+
+    @Test
+    public void ensureEntranceAndExitCanOnlyBeMoved() {
+        Maze maze = Maze.fromTxt(mazePath("maze1.txt"));
+        assertThrows(NoEntranceException.class, () -> {
+            maze.toggleWall(maze.getTileLocation(maze.getEntrance()));
+        });
+        assertThrows(NoExitException.class, () -> {
+            maze.setTile(maze.getTileLocation(maze.getExit()), Tile.Type.CORRIDOR);
+        });
+        assertThrows(IndexOutOfBoundsException.class, () -> {
+            maze.setTile(maze.new Coordinate(6, 0), Tile.Type.WALL);
+        });
+
+        maze.setTile(maze.new Coordinate(0, 4), Tile.Type.ENTRANCE);
+        assertEquals("(0, 4)", maze.getTileLocation(maze.getEntrance()).toString());
+        assertSame(Tile.Type.CORRIDOR, maze.getTileAtLocation(maze.new Coordinate(0, 5)).getType());
+
+        maze.setTile(maze.new Coordinate(4, 1), Tile.Type.EXIT);
+        assertEquals("(4, 1)", maze.getTileLocation(maze.getExit()).toString());
+        assertSame(Tile.Type.CORRIDOR, maze.getTileAtLocation(maze.new Coordinate(5, 1)).getType());
+    }
+
+    @Test
+    public void ensureListenersAreToldAboutEdits() {
+        Maze maze = Maze.fromTxt(mazePath("maze1.txt"));
+        List<String> events = new ArrayList<String>();
+        MazeChangeListener listener = (edited, index, previousType, type) -> {
+            assertSame(maze, edited);
+            events.add(index + " " + previousType + " " + type);
+        };
+        maze.addChangeListener(listener);
+
+        maze.toggleWall(maze.new Coordinate(1, 5));
+        maze.setTile(maze.new Coordinate(1, 5), Tile.Type.CORRIDOR);
+        maze.setTile(maze.new Coordinate(0, 4), Tile.Type.ENTRANCE);
+        maze.getTiles().get(2).set(2, maze.getTiles().get(0).get(0));
+        maze.removeChangeListener(listener);
+        maze.toggleWall(maze.new Coordinate(1, 5));
+
+        assertEquals(4, events.size());
+        assertEquals("1 WALL CORRIDOR", events.get(0));
+        assertEquals("0 ENTRANCE CORRIDOR", events.get(1));
+        assertEquals("6 CORRIDOR ENTRANCE", events.get(2));
+        assertEquals("14 WALL CORRIDOR", events.get(3));
+    }
+
+    @Test
+    public void ensureTilesViewMovesTheExit() {
+        Maze maze = Maze.fromBytes("e...x\n".getBytes());
+        Tile exit = maze.getExit();
+        maze.getTiles().get(0).set(2, Maze.fromBytes("ex\n".getBytes()).getExit());
+
+        assertEquals(2, maze.getTileIndex(maze.getExit()));
+        assertSame(Tile.Type.CORRIDOR, maze.getTileAtLocation(4).getType());
+        assertSame(exit, maze.getExit());
+        assertEquals("(2, 0)", maze.getTileLocation(maze.getExit()).toString());
+    }
+
+    @Test
+    public void ensureListenerCanRemoveItselfWhileItIsTold() {
+        Maze maze = Maze.fromTxt(mazePath("maze1.txt"));
+        List<String> events = new ArrayList<String>();
+        MazeChangeListener[] first = new MazeChangeListener[1];
+        first[0] = (edited, index, previousType, type) -> {
+            events.add("first " + index);
+            edited.removeChangeListener(first[0]);
+        };
+        maze.addChangeListener(first[0]);
+        maze.addChangeListener((edited, index, previousType, type) -> events.add("second " + index));
+
+        maze.toggleWall(maze.new Coordinate(1, 5));
+        maze.toggleWall(maze.new Coordinate(1, 5));
+
+        assertEquals(3, events.size());
+        assertEquals("first 1", events.get(0));
+        assertEquals("second 1", events.get(1));
+        assertEquals("second 1", events.get(2));
+    }
+
+    @Test
+    public void ensurePagedMazeKeepsMovedEntrance() {
+        String pageFile = tempFile(".mzp");
+        Maze maze = Maze.fromTxtPaged(mazePath("maze1.txt"), pageFile, 2);
+        maze.setTile(maze.new Coordinate(0, 4), Tile.Type.ENTRANCE);
+        maze.toggleWall(maze.new Coordinate(1, 5));
+        maze.getPagedGrid().close();
+
+        Maze loaded = Maze.fromPageFile(pageFile, 2);
+        assertEquals(maze.toString(), loaded.toString());
+        assertEquals("(0, 4)", loaded.getTileLocation(loaded.getEntrance()).toString());
+    }
+
+    // ~~~~~~~~~~ Functionality tests : RouteFinder ~~~~~~~~~~
+
+    @Test
+    public void ensureCutRouteIsFoundAgain() {
+        Maze maze = Maze.fromTxt(mazePath("maze1.txt"));
+        RouteFinder route = new RouteFinder(maze);
+        assertTrue(solve(route));
+        int[] indices = route.getRouteIndices();
+        int middle = indices[indices.length / 2];
+
+        maze.setTile(middle, Tile.Type.WALL);
+        assertFalse(route.isFinished());
+        assertFalse(route.isOnRoute(middle));
+        assertEquals(indices.length / 2, route.getRouteIndices().length);
+
+        maze.setTile(middle, Tile.Type.CORRIDOR);
+        assertTrue(solve(route));
+        assertRouteIsAPath(maze, route);
+    }
+
+    @Test
+    public void ensureMovingTheEntranceRestartsTheSearch() {
+        Maze maze = Maze.fromTxt(mazePath("maze1.txt"));
+        RouteFinder route = new RouteFinder(maze);
+        for (int i = 0; i < 5; i++) route.step();
+        maze.setTile(maze.new Coordinate(0, 4), Tile.Type.ENTRANCE);
+        assertEquals(0, route.getRoute().size());
+        assertEquals(0, route.getRemovedTiles().size());
+        assertTrue(solve(route));
+        assertRouteIsAPath(maze, route);
+    }
+
+    @Test
+    public void ensureRepairedSearchMatchesSolvability() {
+        Random random = new Random(12);
+        for (int round = 0; round < 60; round++) {
+            Maze maze = openMaze(12, 9, random);
+            RouteFinder route = new RouteFinder(maze);
+            for (int edit = 0; edit < 40; edit++) {
+                int steps = random.nextInt(20);
+                try {
+                    for (int i = 0; i < steps && !route.step(); i++);
+                } catch (NoRouteFoundException e) {
+                    assertFalse(isSolvable(maze));
+                }
+                int x = random.nextInt(maze.getWidth());
+                int y = random.nextInt(maze.getHeight());
+                Tile.Type type = maze.getTileAtLocation(maze.new Coordinate(x, y)).getType();
+                if (type == Tile.Type.WALL || type == Tile.Type.CORRIDOR) {
+                    maze.toggleWall(maze.new Coordinate(x, y));
+                }
+            }
+            boolean solvable = isSolvable(maze);
+            assertEquals(solvable, solve(route));
+            if (solvable) assertRouteIsAPath(maze, route);
+        }
+    }
+
+    @Test
+    public void ensureLoadedRouteFinderFollowsEdits() {
+        Maze maze = Maze.fromTxt(mazePath("maze1.txt"));
+        RouteFinder route = new RouteFinder(maze);
+        assertTrue(solve(route));
+        String path = tempFile(".route");
+        route.save(path);
+
+        RouteFinder loaded = RouteFinder.load(path);
+        int[] indices = loaded.getRouteIndices();
+        loaded.getMaze().setTile(indices[indices.length - 2], Tile.Type.WALL);
+        assertFalse(loaded.isFinished());
+        assertTrue(route.isFinished());
+    }
+
+}
@@ -0,0 +1,130 @@
+package tests.dev.functional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.MazeFingerprint;
+import maze.Tile;
+
+public class MazeFingerprintTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public String mazePath(String... names) {
+        return Paths.get(TEST_MAZES_DIR.toString(), names).toString();
+    }
+
+    public String tempFile(String suffix) {
+        try {
+            Path file = Files.createTempFile("maze", suffix);
+            file.toFile().deleteOnExit();
+            return file.toString();
+        } catch (IOException e) {
+            fail(e.getClass().getName() + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    // writes the maze to a binary file and loads it again, so that the
+    // fingerprint of the copy is computed from scratch
+    public Maze reload(Maze maze) {
+        String path = tempFile(".mzb");
+        maze.saveMzb(path);
+        return Maze.fromMzb(path);
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureSameMazeHasSameFingerprint() {
+        Maze maze = Maze.fromTxt(mazePath("maze2.txt"));
+        MazeFingerprint fingerprint = maze.getFingerprint();
+        assertEquals(fingerprint, Maze.fromTxt(mazePath("maze2.txt")).getFingerprint());
+        assertEquals(fingerprint, maze.getFingerprint());
+        assertEquals(32, fingerprint.toString().length());
+        assertNotEquals(fingerprint, Maze.fromTxt(mazePath("maze1.txt")).getFingerprint());
+    }
+
+    @Test
+    public void ensureFingerprintDoesNotDependOnTheLoader() {
+        String txt = mazePath("maze2.txt");
+        MazeFingerprint fingerprint = Maze.fromTxt(txt).getFingerprint();
+
+        String mzc = tempFile(".mzc");
+        Maze.fromTxt(txt).saveMzc(mzc);
+
+        assertEquals(fingerprint, Maze.fromMappedTxt(txt).getFingerprint());
+        assertEquals(fingerprint, Maze.fromTxtParallel(txt).getFingerprint());
+        assertEquals(fingerprint, reload(Maze.fromTxt(txt)).getFingerprint());
+        assertEquals(fingerprint, Maze.fromMzc(mzc).getFingerprint());
+        assertEquals(fingerprint, Maze.fromTxtPaged(txt, tempFile(".mzp"), 2).getFingerprint());
+    }
+
+    @Test
+    public void ensureFingerprintDependsOnTheSize() {
+        Maze wide = Maze.fromBytes("e.....x\n".getBytes());
+        Maze tall = Maze.fromBytes("e\n.\n.\n.\n.\n.\nx\n".getBytes());
+        Maze shorter = Maze.fromBytes("e....x\n".getBytes());
+        assertNotEquals(wide.getFingerprint(), tall.getFingerprint());
+        assertNotEquals(wide.getFingerprint(), shorter.getFingerprint());
+        assertNotEquals(wide, tall);
+    }
+
+    @Test
+    public void ensureFingerprintFollowsEdits() {
+        Maze maze = Maze.fromTxt(mazePath("maze2.txt"));
+        MazeFingerprint fingerprint = maze.getFingerprint();
+
+        maze.toggleWall(maze.new Coordinate(3, 2));
+        maze.setTile(maze.new Coordinate(1, 1), Tile.Type.EXIT);
+        MazeFingerprint edited = maze.getFingerprint();
+        assertNotEquals(fingerprint, edited);
+        assertEquals(edited, reload(maze).getFingerprint());
+
+        maze.getTiles().get(0).set(2, maze.getTiles().get(0).get(3));
+        assertEquals(maze.getFingerprint(), reload(maze).getFingerprint());
+    }
+
+    @Test
+    public void ensureMazesWithSameCellsAreEqual() {
+        Maze maze = Maze.fromTxt(mazePath("maze1.txt"));
+        Maze copy = Maze.fromMappedTxt(mazePath("maze1.txt"));
+        copy.setSharedTiles(true);
+        assertEquals(maze, copy);
+        assertEquals(maze.hashCode(), copy.hashCode());
+        assertNotEquals(maze, Maze.fromTxt(mazePath("maze2.txt")));
+        assertNotEquals(maze, "maze1");
+
+        copy.toggleWall(copy.new Coordinate(1, 5));
+        assertNotEquals(maze, copy);
+        copy.toggleWall(copy.new Coordinate(1, 5));
+        assertEquals(maze, copy);
+    }
+
+    @Test
+    public void ensureFingerprintCanKeyACache() {
+        Map<MazeFingerprint, String> solutions = new HashMap<MazeFingerprint, String>();
+        solutions.put(Maze.fromTxt(mazePath("maze1.txt")).getFingerprint(), "first");
+        solutions.put(Maze.fromTxt(mazePath("maze2.txt")).getFingerprint(), "second");
+        assertEquals("first", solutions.get(Maze.fromMappedTxt(mazePath("maze1.txt")).getFingerprint()));
+        assertEquals("second", solutions.get(Maze.fromMappedTxt(mazePath("maze2.txt")).getFingerprint()));
+
+        Maze edited = Maze.fromTxt(mazePath("maze1.txt"));
+        MazeFingerprint key = edited.getFingerprint();
+        edited.toggleWall(edited.new Coordinate(1, 5));
+        assertEquals("first", solutions.get(key));
+        assertNull(solutions.get(edited.getFingerprint()));
+    }
+
+}
@@ -0,0 +1,413 @@
+package tests.dev.functional;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.InvalidMazeException;
+import maze.NoExitException;
+import maze.PagedGrid;
+import maze.RaggedMazeException;
+import maze.Tile;
+import maze.routing.NoRouteFoundException;
+import maze.routing.RouteFinder;
+
+public class MazeFormatTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public String mazePath(String... names) {
+        return Paths.get(TEST_MAZES_DIR.toString(), names).toString();
+    }
+
+    public String tempFile(String suffix) {
+        try {
+            Path file = Files.createTempFile("maze", suffix);
+            file.toFile().deleteOnExit();
+            return file.toString();
+        } catch (IOException e) {
+            fail(e.getClass().getName() + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    public String writeTempMaze(String content) {
+        String path = tempFile(".txt");
+        try {
+            Files.write(Paths.get(path), content.getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            fail(e.getClass().getName() + ": " + e.getMessage());
+        }
+        return path;
+    }
+
+    // overwrites a single byte of the file
+    public void corrupt(String path, long position, int value) {
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.seek(position);
+            file.write(value);
+        } catch (IOException e) {
+            fail(e.getClass().getName() + ": " + e.getMessage());
+        }
+    }
+
+    public void assertMazesAreEqual(Maze m1, Maze m2) {
+        List<List<Tile>> t1 = m1.getTiles();
+        List<List<Tile>> t2 = m2.getTiles();
+        assertEquals(t1.size(), t2.size());
+        for (int i = 0; i < t1.size(); i++) {
+            assertEquals(t1.get(i).size(), t2.get(i).size());
+            for (int j = 0; j < t1.get(i).size(); j++) {
+                assertSame(t1.get(i).get(j).getType(), t2.get(i).get(j).getType());
+            }
+        }
+        assertEquals(m1.toString(), m2.toString());
+    }
+
+    // ~~~~~~~~~~ Functionality tests : mzb ~~~~~~~~~~
+
+    @Test
+    public void ensureSavedMzbLoadsTheSameMaze() {
+        for (String name : new String[] {"maze1.txt", "maze2.txt"}) {
+            Maze maze = Maze.fromTxt(mazePath(name));
+            String path = tempFile(".mzb");
+            maze.saveMzb(path);
+            Maze loaded = Maze.fromMzb(path);
+            assertMazesAreEqual(maze, loaded);
+            assertEquals(maze.getTileLocation(maze.getEntrance()).toString(), loaded.getTileLocation(loaded.getEntrance()).toString());
+            assertEquals(maze.getTileLocation(maze.getExit()).toString(), loaded.getTileLocation(loaded.getExit()).toString());
+        }
+    }
+
+    @Test
+    public void ensureMzbIsSmallerThanTxt() throws IOException {
+        String path = tempFile(".mzb");
+        Maze.convertTxtToMzb(mazePath("maze2.txt"), path);
+        assertTrue(Files.size(Paths.get(path)) < Files.size(Paths.get(mazePath("maze2.txt"))));
+    }
+
+    @Test
+    public void ensureConvertedMzbCanBeSolved() {
+        String path = tempFile(".mzb");
+        Maze.convertTxtToMzb(mazePath("maze1.txt"), path);
+        RouteFinder routeFinder = new RouteFinder(Maze.fromMzb(path));
+        while (!routeFinder.step());
+        assertEquals(12, routeFinder.getRoute().size());
+    }
+
+    @Test
+    public void ensureMzbWithPartlyFilledLastByteLoads() {
+        // 7 cells do not fill the last packed byte
+        String txt = writeTempMaze("e.#.#.x\n");
+        String path = tempFile(".mzb");
+        Maze.convertTxtToMzb(txt, path);
+        assertMazesAreEqual(Maze.fromTxt(txt), Maze.fromMzb(path));
+    }
+
+    @Test
+    public void ensureFromMzbReturnsNullForMissingFile() {
+        assertNull(Maze.fromMzb(mazePath("thisisnotamaze.mzb")));
+    }
+
+    @Test
+    public void ensureConvertingMissingFileThrowsInvalidMazeException() {
+        String path = tempFile(".mzb");
+        assertThrows(InvalidMazeException.class, () -> {
+            Maze.convertTxtToMzb(mazePath("thisisnotamaze.txt"), path);
+        });
+    }
+
+    @Test
+    public void ensureFromMzbWithTextFileThrowsInvalidMazeException() {
+        assertThrows(InvalidMazeException.class, () -> {
+            Maze.fromMzb(mazePath("maze1.txt"));
+        });
+    }
+
+    @Test
+    public void ensureFromMzbWithCorruptedCellsThrowsInvalidMazeException() {
+        String path = tempFile(".mzb");
+        Maze.convertTxtToMzb(mazePath("maze2.txt"), path);
+        corrupt(path, 40, 0);
+        InvalidMazeException e = assertThrows(InvalidMazeException.class, () -> {
+            Maze.fromMzb(path);
+        });
+        assertSame(InvalidMazeException.class, e.getClass());
+    }
+
+    @Test
+    public void ensureFromMzbWithUnknownVersionThrowsInvalidMazeException() {
+        String path = tempFile(".mzb");
+        Maze.convertTxtToMzb(mazePath("maze1.txt"), path);
+        corrupt(path, 5, 99);
+        assertThrows(InvalidMazeException.class, () -> {
+            Maze.fromMzb(path);
+        });
+    }
+
+    @Test
+    public void ensureFromMzbWithTruncatedFileThrowsInvalidMazeException() throws IOException {
+        String path = tempFile(".mzb");
+        Maze.convertTxtToMzb(mazePath("maze2.txt"), path);
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.setLength(file.length() - 1);
+        }
+        assertThrows(InvalidMazeException.class, () -> {
+            Maze.fromMzb(path);
+        });
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.setLength(10);
+        }
+        assertThrows(InvalidMazeException.class, () -> {
+            Maze.fromMzb(path);
+        });
+    }
+
+    // ~~~~~~~~~~ Functionality tests : mzc ~~~~~~~~~~
+
+    // builds a maze bigger than one block with a distinct pattern in every row
+    public Maze largeMaze() {
+        int width = 150;
+        int height = 130;
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                if (i == 0 && j == 0) text.append('e');
+                else if (i == height - 1 && j == width - 1) text.append('x');
+                else text.append((i * 7 + j * j) % 5 == 0 ? '#' : '.');
+            }
+            text.append('\n');
+        }
+        return Maze.fromTxt(writeTempMaze(text.toString()));
+    }
+
+    @Test
+    public void ensureSavedMzcLoadsTheSameMaze() {
+        for (Maze maze : new Maze[] {Maze.fromTxt(mazePath("maze1.txt")), Maze.fromTxt(mazePath("maze2.txt")), largeMaze()}) {
+            String path = tempFile(".mzc");
+            maze.saveMzc(path);
+            Maze loaded = Maze.fromMzc(path);
+            assertMazesAreEqual(maze, loaded);
+            assertEquals(maze.getTileLocation(maze.getEntrance()).toString(), loaded.getTileLocation(loaded.getEntrance()).toString());
+            assertEquals(maze.getTileLocation(maze.getExit()).toString(), loaded.getTileLocation(loaded.getExit()).toString());
+        }
+    }
+
+    @Test
+    public void ensureMzcCompressesRepetitiveMaze() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            char[] row = new char[200];
+            Arrays.fill(row, i % 2 == 0 ? '.' : '#');
+            if (i == 0) row[0] = 'e';
+            if (i == 199) row[0] = 'x';
+            text.append(row).append('\n');
+        }
+        String path = tempFile(".mzc");
+        Maze.fromTxt(writeTempMaze(text.toString())).saveMzc(path);
+        assertTrue(Files.size(Paths.get(path)) < 200 * 200 / 10);
+    }
+
+    @Test
+    public void ensureFromMzcRegionMatchesTheMaze() {
+        Maze maze = largeMaze();
+        String path = tempFile(".mzc");
+        maze.saveMzc(path);
+        int[][] regions = {{0, 0, 150, 130}, {60, 60, 10, 10}, {63, 63, 2, 2}, {149, 0, 1, 130}, {0, 129, 150, 1}, {5, 7, 0, 0}};
+        for (int[] r : regions) {
+            List<List<Tile>> region = Maze.fromMzcRegion(path, r[0], r[1], r[2], r[3]);
+            assertEquals(r[3], region.size());
+            for (int row = 0; row < r[3]; row++) {
+                assertEquals(r[2], region.get(row).size());
+                for (int column = 0; column < r[2]; column++) {
+                    Tile tile = maze.getTileAtLocation(maze.new Coordinate(r[0] + column, r[1] + r[3] - 1 - row));
+                    assertSame(tile.getType(), region.get(row).get(column).getType());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void ensureFromMzcRegionOutsideTheMazeThrowsIndexOutOfBoundsException() {
+        String path = tempFile(".mzc");
+        Maze.fromTxt(mazePath("maze1.txt")).saveMzc(path);
+        assertThrows(IndexOutOfBoundsException.class, () -> {
+            Maze.fromMzcRegion(path, 5, 5, 10, 10);
+        });
+        assertThrows(IndexOutOfBoundsException.class, () -> {
+            Maze.fromMzcRegion(path, -1, 0, 1, 1);
+        });
+    }
+
+    @Test
+    public void ensureFromMzcReturnsNullForMissingFile() {
+        assertNull(Maze.fromMzc(mazePath("thisisnotamaze.mzc")));
+        assertNull(Maze.fromMzcRegion(mazePath("thisisnotamaze.mzc"), 0, 0, 1, 1));
+    }
+
+    @Test
+    public void ensureFromMzcWithBinaryMazeFileThrowsInvalidMazeException() {
+        String path = tempFile(".mzb");
+        Maze.convertTxtToMzb(mazePath("maze1.txt"), path);
+        assertThrows(InvalidMazeException.class, () -> {
+            Maze.fromMzc(path);
+        });
+    }
+
+    @Test
+    public void ensureFromMzcWithCorruptedBlockThrowsInvalidMazeException() throws IOException {
+        String path = tempFile(".mzc");
+        largeMaze().saveMzc(path);
+        long size = Files.size(Paths.get(path));
+        corrupt(path, size - 3, 0x55);
+        InvalidMazeException e = assertThrows(InvalidMazeException.class, () -> {
+            Maze.fromMzc(path);
+        });
+        assertSame(InvalidMazeException.class, e.getClass());
+        // the first block is still intact
+        assertEquals(10, Maze.fromMzcRegion(path, 0, 120, 10, 10).size());
+    }
+
+    @Test
+    public void ensureFromMzcWithTruncatedFileThrowsInvalidMazeException() throws IOException {
+        String path = tempFile(".mzc");
+        largeMaze().saveMzc(path);
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.setLength(file.length() - 1);
+        }
+        assertThrows(InvalidMazeException.class, () -> {
+            Maze.fromMzc(path);
+        });
+    }
+
+    // ~~~~~~~~~~ Functionality tests : paged ~~~~~~~~~~
+
+    // builds a maze text of 600x520 cells, which takes 5x5 pages, with a
+    // corridor snaking from the entrance at the top to the exit at the bottom
+    public String snakeMaze() {
+        int width = 600;
+        int height = 520;
+        StringBuilder text = new StringBuilder();
+        char[] row = new char[width];
+        for (int i = 0; i < height; i++) {
+            Arrays.fill(row, i % 2 == 0 ? '.' : '#');
+            if (i % 4 == 1) row[width - 1] = '.';
+            if (i % 4 == 3) row[0] = '.';
+            if (i == 0) row[0] = 'e';
+            if (i == height - 1) row[width - 1] = 'x';
+            text.append(row).append('\n');
+        }
+        return writeTempMaze(text.toString());
+    }
+
+    @Test
+    public void ensurePagedMazeMatchesTheMaze() {
+        for (String path : new String[] {mazePath("maze1.txt"), mazePath("maze2.txt"), snakeMaze()}) {
+            Maze maze = Maze.fromTxt(path);
+            Maze paged = Maze.fromTxtPaged(path, tempFile(".mzp"), 2);
+            assertMazesAreEqual(maze, paged);
+            assertEquals(maze.getTileLocation(maze.getEntrance()).toString(), paged.getTileLocation(paged.getEntrance()).toString());
+            assertEquals(maze.getTileLocation(maze.getExit()).toString(), paged.getTileLocation(paged.getExit()).toString());
+            for (int i = 0; i < maze.getWidth() * maze.getHeight(); i++) {
+                assertEquals(maze.getNeighbourMask(i), paged.getNeighbourMask(i));
+            }
+            assertTrue(paged.getPagedGrid().getCachedPages() <= 2);
+        }
+        assertNull(Maze.fromTxt(mazePath("maze1.txt")).getPagedGrid());
+    }
+
+    @Test
+    public void ensurePagedMazeCanBeSolvedWithFewPages() {
+        String path = snakeMaze();
+        RouteFinder expected = new RouteFinder(Maze.fromTxt(path));
+        while (!expected.step());
+
+        Maze paged = Maze.fromTxtPaged(path, tempFile(".mzp"), 2);
+        RouteFinder routeFinder = new RouteFinder(paged);
+        while (!routeFinder.step());
+
+        assertEquals(expected.getRoute().size(), routeFinder.getRoute().size());
+        PagedGrid pages = paged.getPagedGrid();
+        assertTrue(pages.getMisses() >= 25);
+        assertTrue(pages.getEvictions() >= 23);
+        assertTrue(pages.getHits() > pages.getMisses());
+        assertEquals(2, pages.getCapacity());
+        assertTrue(pages.getCachedPages() <= 2);
+    }
+
+    @Test
+    public void ensurePagedMazeWritesChangedPagesBack() {
+        String pageFile = tempFile(".mzp");
+        Maze paged = Maze.fromTxtPaged(snakeMaze(), pageFile, 1);
+        // walls off the corridor below the entrance row on the far side of the maze
+        Tile wall = Maze.fromTxt(mazePath("maze1.txt")).getTiles().get(0).get(1);
+        paged.getTiles().get(1).set(599, wall);
+        paged.getTiles().get(400).get(5);
+        paged.getPagedGrid().close();
+
+        Maze reopened = Maze.fromPageFile(pageFile, 4);
+        assertSame(Tile.Type.WALL, reopened.getTiles().get(1).get(599).getType());
+        assertEquals(paged.toString(), reopened.toString());
+        RouteFinder routeFinder = new RouteFinder(reopened);
+        assertThrows(NoRouteFoundException.class, () -> {
+            while (!routeFinder.step());
+        });
+    }
+
+    @Test
+    public void ensurePagedMazeAlwaysSharesItsTiles() {
+        Maze paged = Maze.fromTxtPaged(snakeMaze(), tempFile(".mzp"), 2);
+        assertTrue(paged.isSharedTiles());
+        paged.setSharedTiles(false);
+        assertTrue(paged.isSharedTiles());
+        assertSame(paged.getTiles().get(0).get(1), paged.getTiles().get(300).get(1));
+        assertEquals("(0, 519)", paged.getTileLocation(paged.getEntrance()).toString());
+    }
+
+    @Test
+    public void ensurePagedRouteFinderCanBeSavedAndLoaded() {
+        Maze paged = Maze.fromTxtPaged(mazePath("maze2.txt"), tempFile(".mzp"), 1);
+        RouteFinder routeFinder = new RouteFinder(paged);
+        for (int i = 0; i < 5; i++) routeFinder.step();
+        String path = tempFile(".obj");
+        routeFinder.save(path);
+        RouteFinder loaded = RouteFinder.load(path);
+        assertEquals(routeFinder.toString(), loaded.toString());
+        while (!loaded.step());
+        assertTrue(loaded.isFinished());
+    }
+
+    @Test
+    public void ensurePagedMazeChecksTheText() {
+        assertNull(Maze.fromTxtPaged(mazePath("thisisnotamaze.txt"), tempFile(".mzp"), 1));
+        assertThrows(InvalidMazeException.class, () -> {
+            Maze.fromTxtPaged(mazePath("invalid", "invalidChar.txt"), tempFile(".mzp"), 1);
+        });
+        assertThrows(RaggedMazeException.class, () -> {
+            Maze.fromTxtPaged(mazePath("invalid", "ragged.txt"), tempFile(".mzp"), 1);
+        });
+        assertThrows(NoExitException.class, () -> {
+            Maze.fromTxtPaged(mazePath("invalid", "noExit.txt"), tempFile(".mzp"), 1);
+        });
+    }
+
+    @Test
+    public void ensureFromPageFileWithTextFileThrowsInvalidMazeException() {
+        assertThrows(InvalidMazeException.class, () -> {
+            Maze.fromPageFile(mazePath("maze1.txt"), 1);
+        });
+    }
+
+}
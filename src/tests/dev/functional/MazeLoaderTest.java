@@ -0,0 +1,347 @@
+package tests.dev.functional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.InvalidMazeException;
+import maze.MultipleEntranceException;
+import maze.MultipleExitException;
+import maze.NoEntranceException;
+import maze.NoExitException;
+import maze.RaggedMazeException;
+import maze.Tile;
+
+public class MazeLoaderTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public String mazePath(String... names) {
+        return Paths.get(TEST_MAZES_DIR.toString(), names).toString();
+    }
+
+    public String writeTempMaze(String content) {
+        try {
+            Path file = Files.createTempFile("maze", ".txt");
+            file.toFile().deleteOnExit();
+            Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+            return file.toString();
+        } catch (IOException e) {
+            fail(e.getClass().getName() + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    // builds a maze text of about 3MB, which is split into several parts by
+    // the parallel parser, with the entrance at the top and the exit at the bottom
+    public String largeMaze(String lineBreak, int raggedRow, char extraSymbol) {
+        int width = 1000;
+        int height = 3000;
+        StringBuilder text = new StringBuilder();
+        char[] row = new char[width];
+        for (int i = 0; i < height; i++) {
+            Arrays.fill(row, i % 2 == 0 ? '.' : '#');
+            if (i % 2 == 1) row[i % width] = '.';
+            if (i == 0) row[0] = 'e';
+            if (i == height - 1) row[width - 1] = 'x';
+            if (i == height - 2 && extraSymbol != 0) row[3] = extraSymbol;
+            text.append(row, 0, i == raggedRow ? width - 1 : width).append(lineBreak);
+        }
+        return writeTempMaze(text.toString());
+    }
+
+    public void assertMazesAreEqual(Maze m1, Maze m2) {
+        List<List<Tile>> t1 = m1.getTiles();
+        List<List<Tile>> t2 = m2.getTiles();
+        assertEquals(t1.size(), t2.size());
+        for (int i = 0; i < t1.size(); i++) {
+            assertEquals(t1.get(i).size(), t2.get(i).size());
+            for (int j = 0; j < t1.get(i).size(); j++) {
+                assertSame(t1.get(i).get(j).getType(), t2.get(i).get(j).getType());
+            }
+        }
+        assertEquals(m1.toString(), m2.toString());
+    }
+
+    // ~~~~~~~~~~ Functionality tests : fromMappedTxt ~~~~~~~~~~
+
+    @Test
+    public void ensureFromMappedTxtMatchesFromTxt() {
+        assertMazesAreEqual(Maze.fromTxt(mazePath("maze1.txt")), Maze.fromMappedTxt(mazePath("maze1.txt")));
+        assertMazesAreEqual(Maze.fromTxt(mazePath("maze2.txt")), Maze.fromMappedTxt(mazePath("maze2.txt")));
+    }
+
+    @Test
+    public void ensureFromMappedTxtFindsEntranceAndExit() {
+        Maze maze = Maze.fromMappedTxt(mazePath("maze1.txt"));
+        assertSame(maze.getEntrance().getType(), Tile.Type.ENTRANCE);
+        assertSame(maze.getExit().getType(), Tile.Type.EXIT);
+        assertEquals("(0, 5)", maze.getTileLocation(maze.getEntrance()).toString());
+        assertEquals("(5, 1)", maze.getTileLocation(maze.getExit()).toString());
+    }
+
+    @Test
+    public void ensureFromMappedTxtAcceptsWindowsLineEndings() {
+        String path = writeTempMaze("e.#\r\n..x\r\n");
+        Maze maze = Maze.fromMappedTxt(path);
+        assertEquals(3, maze.getWidth());
+        assertEquals(2, maze.getHeight());
+    }
+
+    @Test
+    public void ensureFromMappedTxtReturnsNullForMissingFile() {
+        assertNull(Maze.fromMappedTxt(mazePath("thisisnotamaze.txt")));
+    }
+
+    @Test
+    public void ensureFromMappedTxtWithInvalidCharThrowsInvalidMazeException() {
+        InvalidMazeException e = assertThrows(InvalidMazeException.class, () -> {
+            Maze.fromMappedTxt(mazePath("invalid", "invalidChar.txt"));
+        });
+        assertSame(InvalidMazeException.class, e.getClass());
+    }
+
+    @Test
+    public void ensureFromMappedTxtWithRaggedMazeThrowsRaggedMazeException() {
+        assertThrows(RaggedMazeException.class, () -> {
+            Maze.fromMappedTxt(mazePath("invalid", "ragged.txt"));
+        });
+    }
+
+    @Test
+    public void ensureFromMappedTxtWithNoEntranceThrowsNoEntranceException() {
+        assertThrows(NoEntranceException.class, () -> {
+            Maze.fromMappedTxt(mazePath("invalid", "noEntrance.txt"));
+        });
+    }
+
+    @Test
+    public void ensureFromMappedTxtWithNoExitThrowsNoExitException() {
+        assertThrows(NoExitException.class, () -> {
+            Maze.fromMappedTxt(mazePath("invalid", "noExit.txt"));
+        });
+    }
+
+    @Test
+    public void ensureFromMappedTxtWithTwoEntrancesThrowsMultipleEntranceException() {
+        String path = writeTempMaze("e.e\n..x\n");
+        assertThrows(MultipleEntranceException.class, () -> {
+            Maze.fromMappedTxt(path);
+        });
+    }
+
+    @Test
+    public void ensureFromMappedTxtWithEmptyFileThrowsInvalidMazeException() {
+        String path = writeTempMaze("");
+        assertThrows(InvalidMazeException.class, () -> {
+            Maze.fromMappedTxt(path);
+        });
+    }
+
+    // ~~~~~~~~~~ Functionality tests : fromTxtParallel ~~~~~~~~~~
+
+    @Test
+    public void ensureFromTxtParallelMatchesFromTxtForSmallMaze() {
+        assertMazesAreEqual(Maze.fromTxt(mazePath("maze2.txt")), Maze.fromTxtParallel(mazePath("maze2.txt")));
+    }
+
+    @Test
+    public void ensureFromTxtParallelMatchesFromMappedTxt() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        String path = largeMaze("\n", -1, (char)0);
+        assertMazesAreEqual(Maze.fromMappedTxt(path), Maze.fromTxtParallel(path, pool));
+        path = largeMaze("\r\n", -1, (char)0);
+        assertMazesAreEqual(Maze.fromMappedTxt(path), Maze.fromTxtParallel(path, pool));
+        pool.shutdown();
+    }
+
+    @Test
+    public void ensureFromTxtParallelDetectsEntrancesInDifferentParts() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        String path = largeMaze("\n", -1, 'e');
+        assertThrows(MultipleEntranceException.class, () -> {
+            Maze.fromTxtParallel(path, pool);
+        });
+        String other = largeMaze("\n", -1, 'x');
+        assertThrows(MultipleExitException.class, () -> {
+            Maze.fromTxtParallel(other, pool);
+        });
+        pool.shutdown();
+    }
+
+    @Test
+    public void ensureFromTxtParallelDetectsRaggedRows() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (int row : new int[] {1, 1500, 2999}) {
+            String path = largeMaze("\n", row, (char)0);
+            assertThrows(RaggedMazeException.class, () -> {
+                Maze.fromTxtParallel(path, pool);
+            });
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void ensureFromTxtParallelFindsRaggedRowsBeforeTheirCharacters() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (char symbol : new char[] {'e', '?'}) {
+            String path = largeMaze("\n", 2998, symbol);
+            assertThrows(RaggedMazeException.class, () -> {
+                Maze.fromTxt(path);
+            });
+            assertThrows(RaggedMazeException.class, () -> {
+                Maze.fromTxtParallel(path, pool);
+            });
+        }
+        pool.shutdown();
+    }
+
+    // ~~~~~~~~~~ Functionality tests : in-memory sources ~~~~~~~~~~
+
+    public byte[] mazeBytes(String name) {
+        try {
+            return Files.readAllBytes(Paths.get(mazePath(name)));
+        } catch (IOException e) {
+            fail(e.getClass().getName() + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    @Test
+    public void ensureFromBytesMatchesFromTxt() {
+        for (String name : new String[] {"maze1.txt", "maze2.txt"}) {
+            assertMazesAreEqual(Maze.fromTxt(mazePath(name)), Maze.fromBytes(mazeBytes(name)));
+        }
+    }
+
+    @Test
+    public void ensureFromBytesReadsOnlyTheGivenPart() {
+        byte[] maze = mazeBytes("maze1.txt");
+        byte[] padded = new byte[maze.length + 7];
+        Arrays.fill(padded, (byte)'~');
+        System.arraycopy(maze, 0, padded, 3, maze.length);
+        assertMazesAreEqual(Maze.fromTxt(mazePath("maze1.txt")), Maze.fromBytes(padded, 3, maze.length));
+        assertThrows(IndexOutOfBoundsException.class, () -> {
+            Maze.fromBytes(padded, 5, maze.length + 3);
+        });
+    }
+
+    @Test
+    public void ensureFromBufferMatchesFromTxtForHeapAndDirectBuffers() {
+        byte[] maze = mazeBytes("maze2.txt");
+        Maze expected = Maze.fromTxt(mazePath("maze2.txt"));
+
+        ByteBuffer heap = ByteBuffer.allocate(maze.length + 4);
+        heap.put(new byte[] {'~', '~'}).put(maze).put(new byte[] {'~', '~'});
+        heap.position(2).limit(2 + maze.length);
+        assertMazesAreEqual(expected, Maze.fromBuffer(heap.slice()));
+        assertMazesAreEqual(expected, Maze.fromBuffer(heap));
+        assertEquals(2, heap.position());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(maze.length);
+        direct.put(maze).flip();
+        assertMazesAreEqual(expected, Maze.fromBuffer(direct));
+        assertEquals(0, direct.position());
+    }
+
+    @Test
+    public void ensureFromStreamMatchesFromTxt() {
+        for (String name : new String[] {"maze1.txt", "maze2.txt"}) {
+            InputStream stream = new ByteArrayInputStream(mazeBytes(name));
+            assertMazesAreEqual(Maze.fromTxt(mazePath(name)), Maze.fromStream(stream));
+        }
+    }
+
+    @Test
+    public void ensureFromStreamReadsLargeMaze() throws IOException {
+        String path = largeMaze("\r\n", -1, (char)0);
+        try (InputStream stream = Files.newInputStream(Paths.get(path))) {
+            assertMazesAreEqual(Maze.fromMappedTxt(path), Maze.fromStream(stream));
+        }
+    }
+
+    @Test
+    public void ensureFromStreamReturnsNullIfStreamFails() {
+        InputStream stream = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException();
+            }
+        };
+        assertNull(Maze.fromStream(stream));
+    }
+
+    @Test
+    public void ensureFromReaderMatchesFromTxt() {
+        for (String name : new String[] {"maze1.txt", "maze2.txt"}) {
+            String text = new String(mazeBytes(name), StandardCharsets.US_ASCII);
+            assertMazesAreEqual(Maze.fromTxt(mazePath(name)), Maze.fromReader(new StringReader(text)));
+        }
+    }
+
+    @Test
+    public void ensureInMemorySourcesThrowLikeFromTxt() {
+        assertThrows(InvalidMazeException.class, () -> {
+            Maze.fromBytes(new byte[0]);
+        });
+        assertThrows(RaggedMazeException.class, () -> {
+            Maze.fromBytes("e.#\n..\n..x\n".getBytes(StandardCharsets.US_ASCII));
+        });
+        assertThrows(MultipleEntranceException.class, () -> {
+            Maze.fromBuffer(ByteBuffer.wrap("e.e\n..x\n".getBytes(StandardCharsets.US_ASCII)));
+        });
+        assertThrows(NoExitException.class, () -> {
+            Maze.fromStream(new ByteArrayInputStream("e.#\n...\n".getBytes(StandardCharsets.US_ASCII)));
+        });
+        assertThrows(NoEntranceException.class, () -> {
+            Maze.fromReader(new StringReader(".x\n..\n"));
+        });
+        // the length of a row is checked before its characters, like fromTxt does
+        for (String text : new String[] {".x.##\n#ee#\n", "..\n..?\n", "e.x\n.?..\n"}) {
+            String path = writeTempMaze(text);
+            byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+            assertThrows(RaggedMazeException.class, () -> {
+                Maze.fromTxt(path);
+            });
+            assertThrows(RaggedMazeException.class, () -> {
+                Maze.fromMappedTxt(path);
+            });
+            assertThrows(RaggedMazeException.class, () -> {
+                Maze.fromTxtParallel(path);
+            });
+            assertThrows(RaggedMazeException.class, () -> {
+                Maze.fromBytes(bytes);
+            });
+            assertThrows(RaggedMazeException.class, () -> {
+                Maze.fromBuffer(ByteBuffer.wrap(bytes));
+            });
+            assertThrows(RaggedMazeException.class, () -> {
+                Maze.fromStream(new ByteArrayInputStream(bytes));
+            });
+            assertThrows(RaggedMazeException.class, () -> {
+                Maze.fromReader(new StringReader(text));
+            });
+        }
+        // a character which would become a line break if it was cut to a byte
+        assertThrows(InvalidMazeException.class, () -> {
+            Maze.fromReader(new StringReader("e.\u010a.x\n"));
+        });
+    }
+
+}
@@ -0,0 +1,168 @@
+package tests.dev.functional;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.MazeValidationReport;
+import maze.InvalidMazeException;
+import maze.MultipleEntranceException;
+import maze.MultipleExitException;
+import maze.NoEntranceException;
+import maze.NoExitException;
+import maze.RaggedMazeException;
+
+public class MazeValidationTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public String mazePath(String... names) {
+        return Paths.get(TEST_MAZES_DIR.toString(), names).toString();
+    }
+
+    public String writeTempMaze(String content) {
+        try {
+            Path file = Files.createTempFile("maze", ".txt");
+            file.toFile().deleteOnExit();
+            Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+            return file.toString();
+        } catch (IOException e) {
+            fail(e.getClass().getName() + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    public void assertError(MazeValidationReport.ValidationError error, Class<?> type, int line, int column) {
+        assertSame(type, error.getExceptionType());
+        assertEquals(line, error.getLine());
+        assertEquals(column, error.getColumn());
+    }
+
+    // asserts that the first error is the exception fromTxt throws
+    public void assertMatchesFromTxt(String path) {
+        MazeValidationReport report = Maze.validate(path);
+        try {
+            Maze.fromTxt(path);
+            assertTrue(report.isValid());
+        } catch (InvalidMazeException e) {
+            assertFalse(report.isValid());
+            assertSame(e.getClass(), report.getFirstError().getExceptionType());
+        }
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureValidMazeIsReported() {
+        MazeValidationReport report = Maze.validate(mazePath("maze1.txt"));
+        assertTrue(report.isValid());
+        assertNull(report.getFirstError());
+        assertEquals(6, report.getWidth());
+        assertEquals(6, report.getHeight());
+        assertEquals(1, report.getEntranceLine());
+        assertEquals(1, report.getEntranceColumn());
+        assertEquals(5, report.getExitLine());
+        assertEquals(6, report.getExitColumn());
+        report.throwIfInvalid();
+    }
+
+    @Test
+    public void ensureFirstErrorMatchesFromTxt() {
+        for (String name : new String[] {"invalidChar.txt", "ragged.txt", "noEntrance.txt", "noExit.txt"}) {
+            assertMatchesFromTxt(mazePath("invalid", name));
+        }
+        assertMatchesFromTxt(mazePath("maze2.txt"));
+        assertMatchesFromTxt(writeTempMaze("e.e\n..x\n"));
+        assertMatchesFromTxt(writeTempMaze("e.x\n..x\n"));
+        assertMatchesFromTxt(writeTempMaze(""));
+        assertMatchesFromTxt(writeTempMaze("\n\n"));
+        assertMatchesFromTxt(writeTempMaze("\n.\n"));
+        assertMatchesFromTxt(writeTempMaze("e.x\r\n...\r\n"));
+        assertMatchesFromTxt(writeTempMaze("e.x\n~.\n"));
+        assertMatchesFromTxt(writeTempMaze("e.x\n.~.\n.\n"));
+    }
+
+    @Test
+    public void ensureErrorsHaveTheirPositions() {
+        MazeValidationReport report = Maze.validate(writeTempMaze("e.#\n.~.\n..x\n"));
+        assertError(report.getFirstError(), InvalidMazeException.class, 2, 2);
+        assertEquals(2, report.getHeight());
+
+        report = Maze.validate(writeTempMaze("e.#\n..\n..x\n"));
+        assertError(report.getFirstError(), RaggedMazeException.class, 2, 3);
+
+        report = Maze.validate(writeTempMaze("e.#\n....\n..x\n"));
+        assertError(report.getFirstError(), RaggedMazeException.class, 2, 4);
+
+        report = Maze.validate(writeTempMaze("e.#\n..e\n..x\n"));
+        assertError(report.getFirstError(), MultipleEntranceException.class, 2, 3);
+
+        report = Maze.validate(writeTempMaze("e.x\r\n..x\r\n"));
+        assertError(report.getFirstError(), MultipleExitException.class, 2, 3);
+
+        report = Maze.validate(writeTempMaze("..#\n..x\n"));
+        assertError(report.getFirstError(), NoEntranceException.class, 0, 0);
+    }
+
+    @Test
+    public void ensureRaggedLineIsReportedBeforeItsCharacters() {
+        MazeValidationReport report = Maze.validate(writeTempMaze("e.x\n~.\n"));
+        assertError(report.getFirstError(), RaggedMazeException.class, 2, 3);
+        assertEquals(1, report.getErrors().size());
+    }
+
+    @Test
+    public void ensureAllErrorsAreReported() {
+        MazeValidationReport report = Maze.validate(writeTempMaze("..#\n~..~\n..\n.e.\n"), true);
+        List<MazeValidationReport.ValidationError> errors = report.getErrors();
+        assertEquals(5, errors.size());
+        assertError(errors.get(0), InvalidMazeException.class, 2, 1);
+        assertError(errors.get(1), RaggedMazeException.class, 2, 4);
+        assertError(errors.get(2), InvalidMazeException.class, 2, 4);
+        assertError(errors.get(3), RaggedMazeException.class, 3, 3);
+        assertError(errors.get(4), NoExitException.class, 0, 0);
+        assertEquals(4, report.getHeight());
+        assertEquals(4, report.getEntranceLine());
+        assertEquals(2, report.getEntranceColumn());
+    }
+
+    @Test
+    public void ensureThrowIfInvalidThrowsTheFirstError() {
+        MazeValidationReport report = Maze.validate(mazePath("invalid", "noExit.txt"));
+        assertThrows(NoExitException.class, () -> {
+            report.throwIfInvalid();
+        });
+    }
+
+    @Test
+    public void ensureValidateReturnsNullForMissingFile() {
+        assertNull(Maze.validate(mazePath("thisisnotamaze.txt")));
+    }
+
+    @Test
+    public void ensureDirectoryIsValidated() {
+        List<MazeValidationReport> reports = Maze.validateDirectory(TEST_MAZES_DIR.toString(), false);
+        assertEquals(2, reports.size());
+        assertTrue(reports.get(0).getPath().endsWith("maze1.txt"));
+        assertTrue(reports.get(0).isValid());
+        assertTrue(reports.get(1).isValid());
+
+        reports = Maze.validateDirectory(mazePath("invalid"), false);
+        assertTrue(reports.size() >= 4);
+        for (MazeValidationReport report : reports) {
+            assertMatchesFromTxt(report.getPath());
+        }
+        assertNull(Maze.validateDirectory(mazePath("thisisnotadirectory"), false));
+    }
+
+}
@@ -0,0 +1,245 @@
+package tests.dev.functional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.InvalidMazeException;
+import maze.Maze;
+import maze.Maze.Direction;
+import maze.MultipleEntranceException;
+import maze.MultipleExitException;
+import maze.NoEntranceException;
+import maze.NoExitException;
+import maze.Tile;
+import maze.routing.MultiSourceSearch;
+import maze.routing.NoRouteFoundException;
+import maze.routing.Route;
+import maze.routing.RouteFinder;
+
+public class MultipleEndpointsTest {
+
+    private static final String DOCKS =
+        "e.#.e\n" +
+        "..#..\n" +
+        "....x\n" +
+        "x#...\n";
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Maze manyEndpoints(String text) {
+        return Maze.fromBytes(text.getBytes(), true);
+    }
+
+    // length in steps of the shortest route between two cells, -1 if there is none
+    public int distance(Maze maze, int from, int to) {
+        int[] distances = new int[maze.getWidth() * maze.getHeight()];
+        Arrays.fill(distances, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+        distances[from] = 0;
+        queue.add(from);
+        while (!queue.isEmpty()) {
+            int index = queue.poll();
+            for (Direction direction : Direction.values()) {
+                int next = maze.getNeighbour(index, direction);
+                if (next != -1 && distances[next] == -1) {
+                    distances[next] = distances[index] + 1;
+                    queue.add(next);
+                }
+            }
+        }
+        return distances[to];
+    }
+
+    public int bestDistance(Maze maze) {
+        int best = -1;
+        for (int entrance : maze.getEntranceIndices()) {
+            for (int exit : maze.getExitIndices()) {
+                int d = distance(maze, entrance, exit);
+                if (d != -1 && (best == -1 || d < best)) best = d;
+            }
+        }
+        return best;
+    }
+
+    public void assertRouteIsConnected(Maze maze, Route route) {
+        int[] indices = route.getIndices();
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue(maze.areConnected(indices[i - 1], indices[i]));
+            assertEquals(1, Math.abs(maze.getX(indices[i]) - maze.getX(indices[i - 1]))
+                + Math.abs(maze.getY(indices[i]) - maze.getY(indices[i - 1])));
+        }
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureSingleEndpointsStayTheDefault() {
+        assertThrows(MultipleEntranceException.class, () -> {
+            Maze.fromBytes(DOCKS.getBytes());
+        });
+        assertThrows(MultipleEntranceException.class, () -> {
+            Maze.fromBytes(DOCKS.getBytes(), false);
+        });
+        assertFalse(Maze.fromBytes("e.x\n".getBytes()).hasManyEndpoints());
+    }
+
+    @Test
+    public void ensureEveryEndpointIsLoaded() {
+        Maze maze = manyEndpoints(DOCKS);
+        assertTrue(maze.hasManyEndpoints());
+        assertArrayEquals(new int[] {0, 4}, maze.getEntranceIndices());
+        assertArrayEquals(new int[] {14, 15}, maze.getExitIndices());
+        assertSame(maze.getEntrance(), maze.getTileAtLocation(0));
+        assertSame(maze.getExit(), maze.getTileAtLocation(14));
+    }
+
+    @Test
+    public void ensureMissingEndpointsAreStillRejected() {
+        assertThrows(NoEntranceException.class, () -> {
+            manyEndpoints("..x\n.x.\n");
+        });
+        assertThrows(NoExitException.class, () -> {
+            manyEndpoints("e.e\n...\n");
+        });
+    }
+
+    @Test
+    public void ensureBestPairIsFound() {
+        Maze maze = manyEndpoints(DOCKS);
+        Route route = MultiSourceSearch.findShortestRoute(maze);
+        assertEquals(4, route.getStart());
+        assertEquals(14, route.getEnd());
+        assertEquals(2, route.getCost());
+        assertEquals(3, route.size());
+        assertRouteIsConnected(maze, route);
+        List<Tile> tiles = route.getTiles();
+        assertEquals(Tile.Type.ENTRANCE, tiles.get(0).getType());
+        assertEquals(Tile.Type.EXIT, tiles.get(2).getType());
+    }
+
+    @Test
+    public void ensureRouteMatchesEveryPairOnRandomMazes() {
+        Random random = new Random(16);
+        for (int round = 0; round < 30; round++) {
+            StringBuilder text = new StringBuilder();
+            for (int row = 0; row < 12; row++) {
+                for (int column = 0; column < 15; column++) {
+                    int roll = random.nextInt(40);
+                    if ((row == 0 && column == 0) || roll == 0) text.append('e');
+                    else if ((row == 11 && column == 14) || roll == 1) text.append('x');
+                    else text.append(roll < 14 ? '#' : '.');
+                }
+                text.append('\n');
+            }
+            Maze maze = manyEndpoints(text.toString());
+            int best = bestDistance(maze);
+            if (best == -1) {
+                assertThrows(NoRouteFoundException.class, () -> {
+                    MultiSourceSearch.findShortestRoute(maze);
+                });
+            } else {
+                Route route = MultiSourceSearch.findShortestRoute(maze);
+                assertEquals(best, route.getCost());
+                assertEquals(best + 1, route.size());
+                assertEquals(Tile.Type.ENTRANCE, maze.getTileAtLocation(route.getStart()).getType());
+                assertEquals(Tile.Type.EXIT, maze.getTileAtLocation(route.getEnd()).getType());
+                assertRouteIsConnected(maze, route);
+            }
+        }
+    }
+
+    @Test
+    public void ensureGivenCellsCanBeSearched() {
+        Maze maze = manyEndpoints(DOCKS);
+        Route route = MultiSourceSearch.findShortestRoute(maze, new int[] {0}, new int[] {15, 3});
+        assertEquals(0, route.getStart());
+        assertEquals(15, route.getEnd());
+        assertEquals(3, route.getCost());
+        assertEquals(0, MultiSourceSearch.findShortestRoute(maze, new int[] {5}, new int[] {5}).getCost());
+        assertThrows(IllegalArgumentException.class, () -> {
+            MultiSourceSearch.findShortestRoute(maze, new int[] {2}, new int[] {14});
+        });
+        assertThrows(IndexOutOfBoundsException.class, () -> {
+            MultiSourceSearch.findShortestRoute(maze, new int[] {0}, new int[] {20});
+        });
+    }
+
+    @Test
+    public void ensureEditsAddAndRemoveEndpoints() {
+        Maze maze = manyEndpoints(DOCKS);
+        maze.setTile(maze.new Coordinate(3, 0), Tile.Type.EXIT);
+        assertArrayEquals(new int[] {14, 15, 18}, maze.getExitIndices());
+        maze.setTile(14, Tile.Type.CORRIDOR);
+        assertArrayEquals(new int[] {15, 18}, maze.getExitIndices());
+        assertSame(maze.getExit(), maze.getTileAtLocation(15));
+        maze.setTile(0, Tile.Type.WALL);
+        assertArrayEquals(new int[] {4}, maze.getEntranceIndices());
+        assertThrows(NoEntranceException.class, () -> {
+            maze.setTile(4, Tile.Type.CORRIDOR);
+        });
+        assertEquals(4, MultiSourceSearch.findShortestRoute(maze).getCost());
+    }
+
+    @Test
+    public void ensureAnyPairOfEndpointsMakesTheExitReachable() {
+        Maze maze = manyEndpoints(
+            "e#...\n" +
+            "##.#.\n" +
+            "e..#x\n");
+        assertTrue(maze.isExitReachable());
+        assertEquals(10, maze.getReachingEntrance());
+        assertTrue(manyEndpoints("x#e.x\n").isExitReachable());
+        assertFalse(manyEndpoints("e#x\n").isExitReachable());
+
+        RouteFinder routeFinder = new RouteFinder(maze);
+        while (!routeFinder.step());
+        assertEquals(9, routeFinder.getRoute().size());
+        assertArrayEquals(new int[] {10, 11, 12, 7, 2, 3, 4, 9, 14}, routeFinder.getRouteIndices());
+    }
+
+    @Test
+    public void ensureSingleModeNeedsSingleEndpoints() {
+        Maze maze = manyEndpoints(DOCKS);
+        assertThrows(MultipleEntranceException.class, () -> {
+            maze.setManyEndpoints(false);
+        });
+        maze.setTile(0, Tile.Type.CORRIDOR);
+        assertThrows(MultipleExitException.class, () -> {
+            maze.setManyEndpoints(false);
+        });
+        maze.setTile(15, Tile.Type.CORRIDOR);
+        maze.setManyEndpoints(false);
+        assertFalse(maze.hasManyEndpoints());
+        assertArrayEquals(new int[] {4}, maze.getEntranceIndices());
+
+        Maze single = Maze.fromBytes("e.x\n".getBytes());
+        single.setManyEndpoints(true);
+        single.setTile(1, Tile.Type.EXIT);
+        assertArrayEquals(new int[] {1, 2}, single.getExitIndices());
+    }
+
+    @Test
+    public void ensureOnlyTextCanKeepManyEndpoints() throws IOException {
+        Path file = Files.createTempFile("maze", ".mzb");
+        file.toFile().deleteOnExit();
+        assertThrows(InvalidMazeException.class, () -> {
+            manyEndpoints(DOCKS).saveMzb(file.toString());
+        });
+
+        Path text = Files.createTempFile("maze", ".txt");
+        text.toFile().deleteOnExit();
+        Files.write(text, DOCKS.getBytes());
+        Maze maze = Maze.fromTxt(text.toString(), true);
+        assertArrayEquals(new int[] {0, 4}, maze.getEntranceIndices());
+        assertEquals(manyEndpoints(DOCKS), maze);
+    }
+
+}
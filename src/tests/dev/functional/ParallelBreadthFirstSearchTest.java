@@ -0,0 +1,95 @@
+package tests.dev.functional;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.routing.MultiSourceSearch;
+import maze.routing.NoRouteFoundException;
+import maze.routing.ParallelBreadthFirstSearch;
+import maze.routing.Route;
+
+public class ParallelBreadthFirstSearchTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Maze setupMaze(String name) {
+        return Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), name).toString());
+    }
+
+    public Maze randomMaze(Random random, int width, int height, int walls) {
+        StringBuilder text = new StringBuilder();
+        for (int index = 0; index < width * height; index++) {
+            if (index == 0) text.append('e');
+            else if (index == width * height - 1) text.append('x');
+            else text.append(random.nextInt(10) < walls ? '#' : '.');
+            if (index % width == width - 1) text.append('\n');
+        }
+        return Maze.fromBytes(text.toString().getBytes());
+    }
+
+    public void assertRouteIsConnected(Maze maze, int[] indices) {
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue(maze.isNavigable(indices[i]));
+            assertEquals(1, Math.abs(maze.getX(indices[i]) - maze.getX(indices[i - 1]))
+                + Math.abs(maze.getY(indices[i]) - maze.getY(indices[i - 1])));
+        }
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureSmallMazesAreSolved() {
+        Maze maze = setupMaze("maze1.txt");
+        Route route = ParallelBreadthFirstSearch.findShortestRoute(maze);
+        assertEquals(12, route.size());
+        assertEquals(maze.getTileIndex(maze.getEntrance()), route.getStart());
+        assertEquals(maze.getTileIndex(maze.getExit()), route.getEnd());
+        assertRouteIsConnected(maze, route.getIndices());
+    }
+
+    @Test
+    public void ensureWideFrontiersAreSplitAcrossThreads() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Random random = new Random(23);
+        try {
+            for (int round = 0; round < 6; round++) {
+                Maze maze = randomMaze(random, 300, 200, round % 3);
+                if (!maze.isExitReachable()) continue;
+                ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(maze, pool);
+                Route route = search.solve();
+                assertEquals(MultiSourceSearch.findShortestRoute(maze).getCost(), route.getCost());
+                assertEquals(route.getCost(), search.getLevelCount());
+                assertTrue(search.getVisitedCount() > route.size());
+                assertRouteIsConnected(maze, route.getIndices());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void ensureUnreachableExitIsReported() {
+        Maze maze = Maze.fromBytes("e.#..\n..#.x\n..#..\n".getBytes());
+        assertThrows(NoRouteFoundException.class, () -> {
+            ParallelBreadthFirstSearch.findShortestRoute(maze);
+        });
+    }
+
+    @Test
+    public void ensureNearestOfManyExitsIsFound() {
+        Maze maze = Maze.fromBytes("x....e..x.\n".getBytes(), true);
+        Route route = ParallelBreadthFirstSearch.findShortestRoute(maze);
+        assertEquals(3, route.getCost());
+        assertEquals(8, route.getEnd());
+    }
+
+}
@@ -0,0 +1,95 @@
+package tests.dev.functional;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.Maze.Direction;
+import maze.Tile;
+
+public class PrimitiveCoordinateTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Maze setupMaze(String name) {
+        return Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), name).toString());
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureIndicesMatchCoordinates() {
+        Maze maze = setupMaze("maze2.txt");
+        for (int x = 0; x < maze.getWidth(); x++) {
+            for (int y = 0; y < maze.getHeight(); y++) {
+                Maze.Coordinate c = maze.new Coordinate(x, y);
+                int index = maze.getIndex(x, y);
+                assertEquals(index, maze.getIndex(c));
+                assertEquals(x, maze.getX(index));
+                assertEquals(y, maze.getY(index));
+                assertEquals(c.toString(), maze.getCoordinate(index).toString());
+                assertSame(maze.getTileAtLocation(c), maze.getTileAtLocation(x, y));
+                assertSame(maze.getTileAtLocation(c), maze.getTileAtLocation(index));
+            }
+        }
+    }
+
+    @Test
+    public void ensureEntranceIsAtTheTopLeftIndex() {
+        Maze maze = setupMaze("maze1.txt");
+        assertEquals(0, maze.getIndex(0, 5));
+        assertSame(maze.getEntrance(), maze.getTileAtLocation(0, 5));
+        assertSame(maze.getExit(), maze.getTileAtLocation(5, 1));
+    }
+
+    @Test
+    public void ensureOutsideCoordinatesHaveNoIndex() {
+        Maze maze = setupMaze("maze1.txt");
+        assertEquals(-1, maze.getIndex(-1, 0));
+        assertEquals(-1, maze.getIndex(0, -1));
+        assertEquals(-1, maze.getIndex(6, 0));
+        assertEquals(-1, maze.getIndex(0, 6));
+        assertNull(maze.getTileAtLocation(6, 6));
+    }
+
+    @Test
+    public void ensurePackedCoordinatesRoundTrip() {
+        Maze maze = setupMaze("maze2.txt");
+        for (int index = 0; index < maze.getWidth() * maze.getHeight(); index++) {
+            long packed = maze.getPackedCoordinate(index);
+            assertEquals(maze.getX(index), Maze.unpackX(packed));
+            assertEquals(maze.getY(index), Maze.unpackY(packed));
+            assertEquals(index, maze.getIndexOfPacked(packed));
+        }
+        long negative = Maze.packCoordinate(-3, -7);
+        assertEquals(-3, Maze.unpackX(negative));
+        assertEquals(-7, Maze.unpackY(negative));
+        assertEquals(-1, maze.getIndexOfPacked(negative));
+    }
+
+    @Test
+    public void ensureAdjacentIndicesMatchAdjacentTiles() {
+        Maze maze = setupMaze("maze2.txt");
+        for (int index = 0; index < maze.getWidth() * maze.getHeight(); index++) {
+            Tile tile = maze.getTileAtLocation(index);
+            for (Direction direction : Direction.values()) {
+                int adjacent = maze.getAdjacentTile(index, direction);
+                Tile expected = maze.getAdjacentTile(tile, direction);
+                if (expected == null) {
+                    assertEquals(-1, adjacent);
+                } else {
+                    assertSame(expected, maze.getTileAtLocation(adjacent));
+                    assertEquals(maze.getX(index) + direction.getDx(), maze.getX(adjacent));
+                    assertEquals(maze.getY(index) + direction.getDy(), maze.getY(adjacent));
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,231 @@
+package tests.dev.functional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.Tile;
+import maze.routing.BreadthFirstSearch;
+import maze.routing.DepthFirstSearch;
+import maze.routing.JunctionSearch;
+import maze.routing.MultiSourceSearch;
+import maze.routing.NoRouteFoundException;
+import maze.routing.ParallelBreadthFirstSearch;
+import maze.routing.Route;
+import maze.routing.RouteFinder;
+import maze.routing.RoutingStrategy;
+
+public class RoutingStrategyTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Maze setupMaze(String name) {
+        return Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), name).toString());
+    }
+
+    public Maze mazeFromText(String text) {
+        return Maze.fromBytes(text.getBytes());
+    }
+
+    public void assertRouteIsWalkable(Maze maze, int[] route) {
+        assertEquals(Tile.Type.ENTRANCE, maze.getTileType(route[0]));
+        assertEquals(Tile.Type.EXIT, maze.getTileType(route[route.length - 1]));
+        for (int i = 1; i < route.length; i++) {
+            int distance = Math.abs(maze.getX(route[i]) - maze.getX(route[i - 1]))
+                + Math.abs(maze.getY(route[i]) - maze.getY(route[i - 1]));
+            assertEquals(1, distance);
+            assertTrue(maze.isNavigable(route[i]));
+        }
+    }
+
+    public long terrainCost(Maze maze, int[] route) {
+        long cost = 0;
+        for (int i = 1; i < route.length; i++) {
+            cost += maze.getTileCost(route[i]);
+        }
+        return cost;
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureEveryNameCreatesItsStrategy() {
+        Maze maze = setupMaze("maze1.txt");
+        String[] names = RoutingStrategy.getNames();
+        assertEquals(RoutingStrategy.DEPTH_FIRST, names[0]);
+        for (String name : names) {
+            RoutingStrategy strategy = RoutingStrategy.forName(name, maze);
+            assertEquals(name, strategy.getName());
+            assertSame(maze, strategy.getMaze());
+            assertFalse(strategy.isFinished());
+            assertEquals(0, strategy.getVisitedCount());
+        }
+        assertTrue(RoutingStrategy.forName(RoutingStrategy.BREADTH_FIRST, maze) instanceof BreadthFirstSearch);
+    }
+
+    @Test
+    public void ensureUnknownNameThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            RoutingStrategy.forName("random-walk", setupMaze("maze1.txt"));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new RouteFinder(setupMaze("maze1.txt"), "random-walk");
+        });
+    }
+
+    @Test
+    public void ensureRouteFinderDefaultsToDepthFirst() {
+        RouteFinder route = new RouteFinder(setupMaze("maze1.txt"));
+        assertTrue(route.getStrategy() instanceof DepthFirstSearch);
+        route.setGuided(true);
+        assertTrue(route.isGuided());
+    }
+
+    @Test
+    public void ensureEveryStrategySolvesTheMazes() {
+        for (String file : new String[] {"maze1.txt", "maze2.txt"}) {
+            Maze maze = setupMaze(file);
+            long shortest = MultiSourceSearch.findShortestRoute(maze).getCost();
+            for (String name : RoutingStrategy.getNames()) {
+                RoutingStrategy strategy = RoutingStrategy.forName(name, maze);
+                Route route = strategy.solve();
+                assertTrue(strategy.isFinished());
+                assertArrayEquals(route.getIndices(), strategy.getRouteIndices());
+                assertRouteIsWalkable(maze, route.getIndices());
+                assertEquals(route.size(), strategy.getRoute().size());
+                assertTrue(strategy.getVisitedCount() > 0);
+                if (!name.equals(RoutingStrategy.DEPTH_FIRST)) {
+                    assertEquals(shortest, route.size() - 1);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void ensureEveryRouteCostsItsTerrain() {
+        Maze maze = mazeFromText(
+            "#emmmx#\n" +
+            "#.###.#\n" +
+            "#.....#\n");
+        for (String name : RoutingStrategy.getNames()) {
+            Route route = RoutingStrategy.forName(name, maze).solve();
+            assertRouteIsWalkable(maze, route.getIndices());
+            assertEquals(terrainCost(maze, route.getIndices()), route.getCost());
+            if (name.equals(RoutingStrategy.DIJKSTRA) || name.equals(RoutingStrategy.A_STAR)) {
+                assertEquals(8, route.getCost());
+            }
+        }
+        assertEquals(10, MultiSourceSearch.findShortestRoute(maze).getCost());
+        assertEquals(10, JunctionSearch.findShortestRoute(maze).getCost());
+        assertEquals(10, ParallelBreadthFirstSearch.findShortestRoute(maze).getCost());
+    }
+
+    @Test
+    public void ensureRouteViewsMatchTheRoute() {
+        Maze maze = setupMaze("maze2.txt");
+        int size = maze.getWidth() * maze.getHeight();
+        for (String name : RoutingStrategy.getNames()) {
+            RouteFinder route = new RouteFinder(maze, name);
+            for (int step = 0; step < 10; step++) {
+                route.step();
+            }
+            int[] indices = route.getRouteIndices();
+            int onRoute = 0;
+            int removed = 0;
+            for (int index = 0; index < size; index++) {
+                if (route.isOnRoute(index)) {
+                    onRoute++;
+                    assertFalse(route.isRemoved(index));
+                }
+                if (route.isRemoved(index)) {
+                    removed++;
+                    assertTrue(route.getStrategy().isVisited(index));
+                }
+            }
+            assertEquals(indices.length, onRoute);
+            assertEquals(removed, route.getRemovedTiles().size());
+            assertEquals(route.getRouteCost(), route.getStrategy().getRouteCost());
+            for (int index : indices) {
+                assertTrue(route.isOnRoute(index));
+            }
+        }
+    }
+
+    @Test
+    public void ensureBreadthFirstRouteFinderFindsTheShortestRoute() {
+        RouteFinder route = new RouteFinder(setupMaze("maze2.txt"), RoutingStrategy.BREADTH_FIRST);
+        while (!route.step());
+        assertTrue(route.isFinished());
+        assertEquals(19, route.getRoute().size());
+        assertEquals(18, route.getRouteCost());
+        assertFalse(route.isGuided());
+        assertTrue(route.getRemovedTiles().size() > 0);
+        assertTrue(route.toString().contains("*"));
+    }
+
+    @Test
+    public void ensureStrategyRestartsAfterAnEdit() {
+        Maze maze = mazeFromText(
+            "e..\n" +
+            ".#.\n" +
+            "..x\n");
+        RouteFinder route = new RouteFinder(maze, RoutingStrategy.A_STAR);
+        route.solve();
+        assertTrue(route.isFinished());
+        maze.setTile(1, Tile.Type.WALL);
+        assertFalse(route.isFinished());
+        assertArrayEquals(new int[] {0, 3, 6, 7, 8}, route.solve().getIndices());
+    }
+
+    @Test
+    public void ensureClosedStrategyIgnoresEdits() {
+        for (String name : RoutingStrategy.getNames()) {
+            Maze maze = setupMaze("maze2.txt");
+            RouteFinder route = new RouteFinder(maze, name);
+            int[] indices = route.solve().getIndices();
+            route.close();
+            maze.setTile(indices[1], Tile.Type.WALL);
+            assertTrue(route.isFinished());
+            assertArrayEquals(indices, route.getRouteIndices());
+        }
+    }
+
+    @Test
+    public void ensureUnsolvableMazeThrowsForEveryStrategy() {
+        for (String name : RoutingStrategy.getNames()) {
+            RoutingStrategy strategy = RoutingStrategy.forName(name, mazeFromText("e.#..\n..#.x\n..#..\n"));
+            assertThrows(NoRouteFoundException.class, () -> {
+                strategy.solve();
+            });
+        }
+    }
+
+    @Test
+    public void ensureSavedStrategyContinues() throws IOException {
+        Path file = Files.createTempFile("strategy", ".route");
+        try {
+            RouteFinder route = new RouteFinder(setupMaze("maze2.txt"), RoutingStrategy.JUMP_POINT);
+            route.step();
+            route.step();
+            route.save(file.toString());
+            RouteFinder loaded = RouteFinder.load(file.toString());
+            assertEquals(RoutingStrategy.JUMP_POINT, loaded.getStrategy().getName());
+            assertArrayEquals(route.getRouteIndices(), loaded.getRouteIndices());
+            assertArrayEquals(route.solve().getIndices(), loaded.solve().getIndices());
+            loaded.getMaze().setTile(loaded.getRouteIndices()[1], Tile.Type.WALL);
+            assertFalse(loaded.isFinished());
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+}
@@ -0,0 +1,186 @@
+package tests.dev.functional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.Tile;
+import maze.routing.RouteFinder;
+
+public class SharedTilesTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public String mazePath(String... names) {
+        return Paths.get(TEST_MAZES_DIR.toString(), names).toString();
+    }
+
+    public Maze setupSharedMaze(String name) {
+        Maze maze = Maze.fromTxt(mazePath(name));
+        maze.setSharedTiles(true);
+        return maze;
+    }
+
+    public String tempFile(String suffix) {
+        try {
+            Path file = Files.createTempFile("route", suffix);
+            file.toFile().deleteOnExit();
+            return file.toString();
+        } catch (IOException e) {
+            fail(e.getClass().getName() + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureTilesOfATypeAreShared() {
+        Maze maze = setupSharedMaze("maze1.txt");
+        assertTrue(maze.isSharedTiles());
+        Tile first = null;
+        for (List<Tile> row : maze.getTiles()) {
+            for (Tile tile : row) {
+                if (tile.getType() == Tile.Type.WALL) {
+                    if (first == null) first = tile;
+                    assertSame(first, tile);
+                }
+            }
+        }
+        assertNotNull(first);
+    }
+
+    @Test
+    public void ensureSharedMazeKeepsItsCells() {
+        Maze maze = Maze.fromTxt(mazePath("maze2.txt"));
+        String text = maze.toString();
+        maze.setSharedTiles(true);
+        assertEquals(text, maze.toString());
+        maze.setSharedTiles(false);
+        assertEquals(text, maze.toString());
+        assertFalse(maze.isSharedTiles());
+    }
+
+    @Test
+    public void ensureSharedEntranceAndExitCanBeLocated() {
+        Maze maze = setupSharedMaze("maze1.txt");
+        assertSame(Tile.Type.ENTRANCE, maze.getEntrance().getType());
+        assertSame(Tile.Type.EXIT, maze.getExit().getType());
+        assertEquals("(0, 5)", maze.getTileLocation(maze.getEntrance()).toString());
+        assertEquals("(5, 1)", maze.getTileLocation(maze.getExit()).toString());
+    }
+
+    @Test
+    public void ensureSharedCorridorHasNoLocation() {
+        Maze maze = setupSharedMaze("maze1.txt");
+        Tile corridor = maze.getTileAtLocation(maze.new Coordinate(0, 4));
+        assertSame(Tile.Type.CORRIDOR, corridor.getType());
+        assertNull(maze.getTileLocation(corridor));
+        assertEquals(-1, maze.getTileIndex(corridor));
+    }
+
+    @Test
+    public void ensureUnsharingCreatesATilePerCell() {
+        Maze maze = setupSharedMaze("maze1.txt");
+        maze.setSharedTiles(false);
+        Tile corridor = maze.getTileAtLocation(maze.new Coordinate(0, 4));
+        assertEquals("(0, 4)", maze.getTileLocation(corridor).toString());
+        assertNotSame(corridor, maze.getTileAtLocation(maze.new Coordinate(1, 4)));
+        assertEquals("(0, 5)", maze.getTileLocation(maze.getEntrance()).toString());
+    }
+
+    @Test
+    public void ensureSharedTileCanBePlacedInOtherMaze() {
+        Maze shared = setupSharedMaze("maze1.txt");
+        Maze maze = Maze.fromTxt(mazePath("maze1.txt"));
+        Tile wall = shared.getTiles().get(0).get(1);
+        maze.getTiles().get(0).set(1, shared.getTiles().get(0).get(2));
+        Tile placed = maze.getTiles().get(0).get(1);
+        assertSame(Tile.Type.WALL, placed.getType());
+        assertNotSame(wall, placed);
+        assertEquals("(1, 5)", maze.getTileLocation(placed).toString());
+    }
+
+    @Test
+    public void ensureSharedMazeIsSolvedLikeTheMaze() {
+        for (String name : new String[] {"maze1.txt", "maze2.txt"}) {
+            RouteFinder expected = new RouteFinder(Maze.fromTxt(mazePath(name)));
+            RouteFinder route = new RouteFinder(setupSharedMaze(name));
+            boolean finished = false;
+            while (!finished) {
+                finished = expected.step();
+                assertSame(finished, route.step());
+                assertEquals(expected.toString(), route.toString());
+                assertArrayEquals(expected.getRouteIndices(), route.getRouteIndices());
+            }
+            assertSame(Tile.Type.ENTRANCE, route.getRoute().get(0).getType());
+            assertSame(Tile.Type.EXIT, route.getRoute().get(route.getRoute().size() - 1).getType());
+        }
+    }
+
+    @Test
+    public void ensureRouteIsTrackedByIndex() {
+        Maze maze = setupSharedMaze("maze2.txt");
+        RouteFinder route = new RouteFinder(maze);
+        while (!route.step());
+        int[] indices = route.getRouteIndices();
+        assertEquals(route.getRoute().size(), indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            assertTrue(route.isOnRoute(indices[i]));
+            assertFalse(route.isRemoved(indices[i]));
+            assertSame(maze.getTileAtLocation(indices[i]), route.getRoute().get(i));
+        }
+        for (int i = 0; i < route.getRemovedTiles().size(); i++) {
+            assertSame(Tile.Type.CORRIDOR, route.getRemovedTiles().get(i).getType());
+        }
+        assertFalse(route.isOnRoute(-1));
+        assertTrue(route.getRoute().contains(maze.getEntrance()));
+    }
+
+    @Test
+    public void ensureSharedRouteCanBeSavedAndLoaded() {
+        RouteFinder route = new RouteFinder(setupSharedMaze("maze2.txt"));
+        for (int i = 0; i < 10; i++) route.step();
+        String path = tempFile(".route");
+        route.save(path);
+        RouteFinder loaded = RouteFinder.load(path);
+        assertTrue(loaded.getMaze().isSharedTiles());
+        assertEquals(route.toString(), loaded.toString());
+        assertSame(loaded.getMaze().getTiles().get(0).get(0), loaded.getMaze().getTiles().get(0).get(1));
+        while (!loaded.step());
+        assertTrue(loaded.isFinished());
+    }
+
+    @Test
+    public void ensureOwnTilesKeepTheirIdentityAcrossTheGrid() {
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < 100; row++) {
+            for (int column = 0; column < 100; column++) {
+                text.append(row == 0 && column == 0 ? 'e' : row == 99 && column == 99 ? 'x' : '.');
+            }
+            text.append('\n');
+        }
+        Maze maze = Maze.fromBytes(text.toString().getBytes());
+        assertFalse(maze.isSharedTiles());
+        Tile near = maze.getTileAtLocation(1);
+        Tile far = maze.getTileAtLocation(9000);
+        assertSame(near, maze.getTiles().get(0).get(1));
+        assertSame(far, maze.getTileAtLocation(9000));
+        assertNotSame(near, far);
+        assertEquals(9000, maze.getTileIndex(far));
+        maze.setTile(9000, Tile.Type.WALL);
+        assertEquals(-1, maze.getTileIndex(far));
+        assertEquals(Tile.Type.WALL, maze.getTileAtLocation(9000).getType());
+        assertSame(near, maze.getTileAtLocation(1));
+    }
+
+}
@@ -0,0 +1,228 @@
+package tests.dev.functional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.InvalidMazeException;
+import maze.Maze;
+import maze.Maze.Direction;
+import maze.Tile;
+import maze.routing.DialSearch;
+import maze.routing.NoRouteFoundException;
+import maze.routing.Route;
+import maze.routing.RouteFinder;
+
+public class WeightedTerrainTest {
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Maze mazeFromText(String text) {
+        return Maze.fromBytes(text.getBytes());
+    }
+
+    public String randomTerrain(Random random, int width, int height) {
+        String symbols = "..##smw";
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                if (row == 0 && column == 0) text.append('e');
+                else if (row == height - 1 && column == width - 1) text.append('x');
+                else text.append(symbols.charAt(random.nextInt(symbols.length())));
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    // the cost of the cheapest route by a plain Dijkstra over boxed pairs
+    public long cheapestCost(Maze maze) {
+        long[] costs = new long[maze.getWidth() * maze.getHeight()];
+        Arrays.fill(costs, Long.MAX_VALUE);
+        PriorityQueue<long[]> queue = new PriorityQueue<long[]>((a, b) -> Long.compare(a[0], b[0]));
+        int entrance = maze.getTileIndex(maze.getEntrance());
+        costs[entrance] = 0;
+        queue.add(new long[] {0, entrance});
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int index = (int)entry[1];
+            if (entry[0] != costs[index]) continue;
+            if (maze.getTileType(index) == Tile.Type.EXIT) return entry[0];
+            for (Direction direction : Direction.values()) {
+                int next = maze.getNeighbour(index, direction);
+                if (next != -1 && entry[0] + maze.getTileCost(next) < costs[next]) {
+                    costs[next] = entry[0] + maze.getTileCost(next);
+                    queue.add(new long[] {costs[next], next});
+                }
+            }
+        }
+        return -1;
+    }
+
+    public void assertRouteIsConnected(Maze maze, Route route) {
+        int[] indices = route.getIndices();
+        long cost = 0;
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue(maze.areConnected(indices[i - 1], indices[i]));
+            cost += maze.getTileCost(indices[i]);
+        }
+        assertEquals(cost, route.getCost());
+        assertEquals(Tile.Type.EXIT, maze.getTileType(route.getEnd()));
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureTerrainSymbolsAreRead() {
+        Maze maze = mazeFromText("esmw\n...x\n");
+        assertEquals(Tile.Type.STAIRS, maze.getTileType(1));
+        assertEquals(Tile.Type.MUD, maze.getTileType(2));
+        assertEquals(Tile.Type.WATER, maze.getTileType(3));
+        assertTrue(maze.isNavigable(3));
+        assertEquals("s", maze.getTileAtLocation(1).toString());
+        assertTrue(maze.toString().contains("e  s  m  w"));
+    }
+
+    @Test
+    public void ensureTerrainCostsMoreThanCorridors() {
+        assertEquals(1, Tile.Type.CORRIDOR.getCost());
+        assertEquals(1, Tile.Type.ENTRANCE.getCost());
+        assertEquals(1, Tile.Type.EXIT.getCost());
+        assertEquals(0, Tile.Type.WALL.getCost());
+        assertEquals(2, Tile.Type.STAIRS.getCost());
+        assertEquals(3, Tile.Type.MUD.getCost());
+        assertEquals(5, Tile.Type.WATER.getCost());
+        assertEquals(5, mazeFromText("ew\n.x\n").getTileCost(1));
+    }
+
+    @Test
+    public void ensureUnknownSymbolsStayInvalid() {
+        assertThrows(InvalidMazeException.class, () -> {
+            mazeFromText("e.q\n..x\n");
+        });
+    }
+
+    @Test
+    public void ensureDialSearchGoesAroundWater() {
+        Maze maze = mazeFromText(
+            "ew.\n" +
+            ".w.\n" +
+            "..x\n");
+        Route route = new DialSearch(maze).solve();
+        assertArrayEquals(new int[] {0, 3, 6, 7, 8}, route.getIndices());
+        assertEquals(4, route.getCost());
+    }
+
+    @Test
+    public void ensureDialSearchPrefersCheaperLongerRoute() {
+        Maze maze = mazeFromText(
+            "emmx\n" +
+            "....\n");
+        DialSearch search = new DialSearch(maze);
+        Route route = search.solve();
+        assertArrayEquals(new int[] {0, 4, 5, 6, 7, 3}, route.getIndices());
+        assertEquals(5, route.getCost());
+        assertTrue(search.isFinished());
+        assertEquals(3, search.getCost(1));
+    }
+
+    @Test
+    public void ensureDialSearchMatchesAComparisonHeap() {
+        Random random = new Random(24);
+        for (int round = 0; round < 200; round++) {
+            Maze maze = mazeFromText(randomTerrain(random, 3 + random.nextInt(20), 3 + random.nextInt(20)));
+            long expected = cheapestCost(maze);
+            DialSearch search = new DialSearch(maze);
+            if (expected == -1) {
+                assertThrows(NoRouteFoundException.class, () -> {
+                    search.solve();
+                });
+            }
+            else {
+                Route route = search.solve();
+                assertEquals(expected, route.getCost());
+                assertRouteIsConnected(maze, route);
+            }
+        }
+    }
+
+    @Test
+    public void ensureDialSearchRestartsAfterAnEdit() {
+        Maze maze = mazeFromText(
+            "e..\n" +
+            ".#.\n" +
+            "..x\n");
+        DialSearch search = new DialSearch(maze);
+        assertEquals(4, search.solve().getCost());
+        maze.setTile(1, Tile.Type.WATER);
+        maze.setTile(3, Tile.Type.MUD);
+        assertFalse(search.isFinished());
+        assertEquals(6, search.solve().getCost());
+    }
+
+    @Test
+    public void ensureRouteFinderCountsTerrainCosts() {
+        Maze maze = mazeFromText("esx\n");
+        RouteFinder route = new RouteFinder(maze);
+        while (!route.step());
+        assertEquals(3, route.getRoute().size());
+        assertEquals(Tile.Type.STAIRS, route.getRoute().get(1).getType());
+        assertEquals(3, route.getRouteCost());
+    }
+
+    @Test
+    public void ensureDeadEndTerrainIsFilled() {
+        Maze maze = mazeFromText(
+            "e.x\n" +
+            "#w#\n");
+        assertEquals(mazeFromText("e.x\n###\n"), maze.withoutDeadEnds());
+    }
+
+    @Test
+    public void ensureTerrainSurvivesTheBinaryFormats() throws IOException {
+        Maze maze = mazeFromText(randomTerrain(new Random(7), 13, 9));
+        for (String suffix : new String[] {".mzb", ".mzc"}) {
+            Path file = Files.createTempFile("maze", suffix);
+            try {
+                if (suffix.equals(".mzb")) {
+                    maze.saveMzb(file.toString());
+                    assertEquals(maze, Maze.fromMzb(file.toString()));
+                }
+                else {
+                    maze.saveMzc(file.toString());
+                    assertEquals(maze, Maze.fromMzc(file.toString()));
+                }
+            }
+            finally {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void ensurePlainMazesKeepTheFirstBinaryVersion() throws IOException {
+        Path plain = Files.createTempFile("maze", ".mzb");
+        Path weighted = Files.createTempFile("maze", ".mzb");
+        try {
+            mazeFromText("e..\n.#.\n..x\n").saveMzb(plain.toString());
+            mazeFromText("e..\n.m.\n..x\n").saveMzb(weighted.toString());
+            byte[] plainBytes = Files.readAllBytes(plain);
+            byte[] weightedBytes = Files.readAllBytes(weighted);
+            assertEquals(1, plainBytes[5]);
+            assertEquals(2, plainBytes[7]);
+            assertEquals(2, weightedBytes[5]);
+            assertEquals(4, weightedBytes[7]);
+        }
+        finally {
+            Files.delete(plain);
+            Files.delete(weighted);
+        }
+    }
+
+}